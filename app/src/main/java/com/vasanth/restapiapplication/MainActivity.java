@@ -8,7 +8,7 @@ import android.widget.Button;
 import android.widget.Toast;
 
 import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
-import com.vasanth.restapiapplication.httprestapi.volley.VolleyHttpRestApiImpl;
+import com.vasanth.restapiapplication.httprestapi.RequestScope;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -26,6 +26,14 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     private static final String TAG = "MainActivity";
     private static final String HOST_URL = "http://jsonplaceholder.typicode.com";
 
+    // Decoder used to parse the response into JSONObject on the network thread.
+    private static final HttpClientApi.ResponseDecoder<JSONObject> JSON_OBJECT_DECODER = new HttpClientApi.ResponseDecoder<JSONObject>() {
+        @Override
+        public JSONObject decode(byte[] data, String charset) throws Exception {
+            return new JSONObject(new String(data, charset));
+        }
+    };
+
     private Button mButtonTestGetRequest;
     private Button mButtonTestPostRequest;
     private Button mButtonTestPutRequest;
@@ -49,7 +57,8 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         mButtonTestPutRequest.setOnClickListener(this);
         mButtonTestDeleteRequest.setOnClickListener(this);
 
-        mHttpRestApi = ((RestApiApplication) getApplication()).getHttpClientApi();
+        // Requests are cancelled & listeners released once the activity is destroyed.
+        mHttpRestApi = RequestScope.forActivity(this, ((RestApiApplication) getApplication()).getHttpClientApi());
     }
 
     /**
@@ -74,11 +83,11 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     private void testGetRequest() {
         String url = HOST_URL + "/posts/1";
         showProgressDialog();
-        mHttpRestApi.getRequest(TAG, null, url, false, new HttpClientApi.HttpResponseListener() {
+        mHttpRestApi.getRequest(TAG, null, url, false, JSON_OBJECT_DECODER, new HttpClientApi.TypedResponseListener<JSONObject>() {
             @Override
-            public void onSuccessResponse(String response) {
+            public void onSuccessResponse(JSONObject response) {
                 hideProgressDialog();
-                Toast.makeText(MainActivity.this, "Success : " + response, Toast.LENGTH_SHORT).show();
+                Toast.makeText(MainActivity.this, "Success : " + response.optString("title"), Toast.LENGTH_SHORT).show();
             }
 
             @Override
@@ -3,6 +3,8 @@ package com.vasanth.restapiapplication;
 import android.app.Application;
 
 import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.okhttp.OkHttpRestApiImpl;
 import com.vasanth.restapiapplication.httprestapi.volley.VolleyHttpRestApiImpl;
 
 /**
@@ -15,6 +17,9 @@ import com.vasanth.restapiapplication.httprestapi.volley.VolleyHttpRestApiImpl;
  */
 public class RestApiApplication extends Application {
 
+    // Whether to use OkHttp (shared connection pool, HTTP/2) instead of Volley as the HTTP client.
+    private static final boolean USE_OK_HTTP = false;
+
     private HttpClientApi mHttpRestApi;
 
     @Override
@@ -28,7 +33,16 @@ public class RestApiApplication extends Application {
      * Used to initialize HTTP Client.
      */
     private void initializeHttpClient() {
-        mHttpRestApi = VolleyHttpRestApiImpl.getInstance(this);
+        // Network calls are IO bound, so allow more concurrent calls on devices with more cores.
+        int threadPoolSize = Math.max(HttpClientConfig.DEFAULT_THREAD_POOL_SIZE, Runtime.getRuntime().availableProcessors() * 2);
+        HttpClientConfig config = new HttpClientConfig.Builder()
+                .setThreadPoolSize(threadPoolSize)
+                .build();
+        if (USE_OK_HTTP) {
+            mHttpRestApi = OkHttpRestApiImpl.getInstance(this, config);
+        } else {
+            mHttpRestApi = VolleyHttpRestApiImpl.getInstance(this, config);
+        }
     }
 
     /**
@@ -0,0 +1,42 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.List;
+
+/**
+ * Batch Codec.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Interface used to pack the items of a {@link BatchRequest} into the body of a single request to the server side
+ * batch endpoint, and to unpack the endpoint response into per item results.
+ * 1.b. Implement this interface to match the batch format of the server, {@link JsonBatchCodec} provides a generic
+ * json format.
+ *
+ * @author Vasanth
+ */
+public interface BatchCodec {
+
+    /**
+     * Used to get the content type of the batch endpoint request body.
+     *
+     * @return Content type.
+     */
+    String getContentType();
+
+    /**
+     * Used to pack the items into the batch endpoint request body.
+     *
+     * @param items Items of the batch.
+     * @return Request body.
+     * @throws Exception If the items can't be encoded, {@link HttpClientApi#batchRequest} throws IllegalArgumentException.
+     */
+    String encode(List<BatchRequest.Item> items) throws Exception;
+
+    /**
+     * Used to unpack the batch endpoint response into per item results, gets called on the network thread.
+     *
+     * @param response Batch endpoint response body.
+     * @param result   Result to be filled, items not set by the codec remain failed with "ERROR_CODE_PARSE_ERROR".
+     * @throws Exception If the response can't be decoded, all the items fail with "ERROR_CODE_PARSE_ERROR".
+     */
+    void decode(String response, BatchResult result) throws Exception;
+}
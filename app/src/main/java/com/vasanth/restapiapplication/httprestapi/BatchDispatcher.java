@@ -0,0 +1,240 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch Dispatcher.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Used by {@link HttpClientApi} implementations to run a {@link BatchRequest} using their own request methods.
+ * 1.b. Without batch endpoint, every item is sent as its own request under the batch identifier (so they run in
+ * parallel, share the per identifier concurrency limit & get cancelled together) and the results are aggregated into
+ * one {@link BatchResult}.
+ * 1.c. With batch endpoint, items are packed into a single "HTTP POST REQUEST" & the response is unpacked on the network
+ * thread.
+ *
+ * @author Vasanth
+ */
+public class BatchDispatcher {
+
+    /**
+     * Private Constructor.
+     */
+    private BatchDispatcher() {
+    }
+
+    /**
+     * Used to run the batch.
+     *
+     * @param httpClientApi Http client used to send the requests.
+     * @param identifier    Unique string to identify the batch, used as identifier of all the requests.
+     * @param batchRequest  Batch request.
+     * @param listener      Listener used to get callback once all the items complete.
+     */
+    public static void dispatch(final HttpClientApi httpClientApi, final String identifier, final BatchRequest batchRequest,
+                                final HttpClientApi.BatchResponseListener listener) {
+        List<String> itemIds = new ArrayList<String>();
+        for (BatchRequest.Item item : batchRequest.getItems()) {
+            itemIds.add(item.getItemId());
+        }
+
+        if (batchRequest.hasBatchEndpoint()) {
+            dispatchToBatchEndpoint(httpClientApi, identifier, batchRequest, itemIds, listener);
+        } else {
+            dispatchItems(httpClientApi, identifier, batchRequest, itemIds, listener);
+        }
+    }
+
+    /**
+     * Used to send every item as its own request.
+     *
+     * @param httpClientApi Http client used to send the requests.
+     * @param identifier    Unique string to identify the batch.
+     * @param batchRequest  Batch request.
+     * @param itemIds       Item ids of the batch.
+     * @param listener      Listener used to get callback once all the items complete.
+     */
+    private static void dispatchItems(final HttpClientApi httpClientApi, final String identifier, final BatchRequest batchRequest,
+                                      final List<String> itemIds, final HttpClientApi.BatchResponseListener listener) {
+        Aggregator aggregator = new Aggregator(new BatchResult(itemIds), itemIds.size(), listener);
+        for (BatchRequest.Item item : batchRequest.getItems()) {
+            ItemListener itemListener = new ItemListener(item.getItemId(), aggregator);
+            switch (item.getMethod()) {
+                case GET:
+                    httpClientApi.getRequest(identifier, item.getHeaders(), item.getUrl(), item.getOptions(), itemListener);
+                    break;
+                case POST:
+                    httpClientApi.postRequest(identifier, item.getHeaders(), item.getUrl(), item.getBody(), item.getBodyContentType(),
+                            item.getOptions(), itemListener);
+                    break;
+                case PUT:
+                    httpClientApi.putRequest(identifier, item.getHeaders(), item.getUrl(), item.getBody(), item.getBodyContentType(),
+                            item.getOptions(), itemListener);
+                    break;
+                case DELETE:
+                    httpClientApi.deleteRequest(identifier, item.getHeaders(), item.getUrl(), item.getOptions(), itemListener);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Used to send all the items in a single request to the batch endpoint.
+     *
+     * @param httpClientApi Http client used to send the request.
+     * @param identifier    Unique string to identify the batch.
+     * @param batchRequest  Batch request.
+     * @param itemIds       Item ids of the batch.
+     * @param listener      Listener used to get callback once the batch completes.
+     */
+    private static void dispatchToBatchEndpoint(final HttpClientApi httpClientApi, final String identifier, final BatchRequest batchRequest,
+                                                final List<String> itemIds, final HttpClientApi.BatchResponseListener listener) {
+        final BatchCodec codec = batchRequest.getBatchCodec();
+        String body;
+        try {
+            body = codec.encode(batchRequest.getItems());
+        } catch (Exception exp) {
+            throw new IllegalArgumentException("batch items can't be encoded", exp);
+        }
+
+        HttpClientApi.ResponseDecoder<BatchResult> decoder = new HttpClientApi.ResponseDecoder<BatchResult>() {
+            @Override
+            public BatchResult decode(final byte[] data, final String charset) throws Exception {
+                String response;
+                try {
+                    response = new String(data, charset);
+                } catch (UnsupportedEncodingException exp) {
+                    response = new String(data);
+                }
+                BatchResult result = new BatchResult(itemIds);
+                codec.decode(response, result);
+                return result;
+            }
+        };
+
+        HttpClientApi.TypedResponseListener<BatchResult> batchListener = new HttpClientApi.TypedResponseListener<BatchResult>() {
+            @Override
+            public void onSuccessResponse(final BatchResult result) {
+                // Mutating items don't go through "putRequest" & "deleteRequest", so invalidate their cache here.
+                for (BatchRequest.Item item : batchRequest.getItems()) {
+                    if ((item.getMethod() == HttpMethod.PUT || item.getMethod() == HttpMethod.DELETE)
+                            && result.isSuccessful(item.getItemId())) {
+                        httpClientApi.invalidateCache(item.getUrl());
+                    }
+                }
+                if (listener != null) {
+                    listener.onBatchComplete(result);
+                }
+            }
+
+            @Override
+            public void onErrorResponse(final int errorCode) {
+                BatchResult result = new BatchResult(itemIds);
+                result.setErrorForAll(errorCode);
+                if (listener != null) {
+                    listener.onBatchComplete(result);
+                }
+            }
+        };
+        httpClientApi.postRequest(identifier, batchRequest.getBatchEndpointHeaders(), batchRequest.getBatchEndpointUrl(), body,
+                codec.getContentType(), batchRequest.getBatchEndpointOptions(), decoder, batchListener);
+    }
+
+    /**
+     * Aggregator.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Collects the item results & delivers the batch result once every item completes.
+     */
+    private static class Aggregator {
+
+        private final BatchResult mResult;
+        private final HttpClientApi.BatchResponseListener mListener;
+        private int mPendingItems;
+
+        /**
+         * Constructor.
+         *
+         * @param result       Result to be filled.
+         * @param pendingItems Number of items in the batch.
+         * @param listener     Listener used to get callback once all the items complete.
+         */
+        Aggregator(final BatchResult result, final int pendingItems, final HttpClientApi.BatchResponseListener listener) {
+            this.mResult = result;
+            this.mPendingItems = pendingItems;
+            this.mListener = listener;
+        }
+
+        /**
+         * Gets called once an item completes.
+         */
+        void onItemComplete() {
+            synchronized (this) {
+                mPendingItems--;
+                if (mPendingItems != 0) {
+                    return;
+                }
+            }
+            if (mListener != null) {
+                mListener.onBatchComplete(mResult);
+            }
+        }
+    }
+
+    /**
+     * Item Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Listener of a single item request, records its result in the aggregator.
+     * 1.b. Records only the first callback, stale while revalidate items deliver the cached response & then the
+     * revalidated one, counting both would complete the batch before the other items.
+     */
+    private static class ItemListener implements HttpClientApi.HttpResponseListener {
+
+        private final String mItemId;
+        private final Aggregator mAggregator;
+        private boolean mCompleted;
+
+        /**
+         * Constructor.
+         *
+         * @param itemId     Item id.
+         * @param aggregator Aggregator of the batch.
+         */
+        ItemListener(final String itemId, final Aggregator aggregator) {
+            this.mItemId = itemId;
+            this.mAggregator = aggregator;
+        }
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            if (complete()) {
+                mAggregator.mResult.setResponse(mItemId, response);
+                mAggregator.onItemComplete();
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            if (complete()) {
+                mAggregator.mResult.setError(mItemId, errorCode);
+                mAggregator.onItemComplete();
+            }
+        }
+
+        /**
+         * Used to mark the item as completed.
+         *
+         * @return True if this is the first callback of the item.
+         */
+        private synchronized boolean complete() {
+            if (mCompleted) {
+                return false;
+            }
+            mCompleted = true;
+            return true;
+        }
+    }
+}
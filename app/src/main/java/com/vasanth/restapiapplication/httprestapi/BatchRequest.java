@@ -0,0 +1,286 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Holds a group of requests submitted together using {@link HttpClientApi#batchRequest}, each request is
+ * identified within the batch by its item id.
+ * 1.b. By default every item is sent as its own request & all of them run in parallel. When a batch endpoint is set,
+ * all the items are packed into a single "HTTP POST REQUEST" to that endpoint using the {@link BatchCodec}.
+ * 1.c. Use {@link Builder} to create the batch.
+ *
+ * @author Vasanth
+ */
+public class BatchRequest {
+
+    private final List<Item> mItems;
+    private final String mBatchEndpointUrl;
+    private final Map<String, String> mBatchEndpointHeaders;
+    private final BatchCodec mBatchCodec;
+    private final RequestOptions mBatchEndpointOptions;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private BatchRequest(final Builder builder) {
+        this.mItems = Collections.unmodifiableList(new ArrayList<Item>(builder.mItems));
+        this.mBatchEndpointUrl = builder.mBatchEndpointUrl;
+        this.mBatchEndpointHeaders = builder.mBatchEndpointHeaders;
+        this.mBatchCodec = builder.mBatchCodec;
+        this.mBatchEndpointOptions = builder.mBatchEndpointOptions;
+    }
+
+    /**
+     * Used to get the items in the order they were added.
+     *
+     * @return Items.
+     */
+    public List<Item> getItems() {
+        return mItems;
+    }
+
+    /**
+     * Used to check whether the items are sent in a single request to the batch endpoint.
+     *
+     * @return True if batch endpoint is set.
+     */
+    public boolean hasBatchEndpoint() {
+        return mBatchEndpointUrl != null;
+    }
+
+    /**
+     * Used to get the url of the server side batch endpoint.
+     *
+     * @return Url OR null if items are sent as individual requests.
+     */
+    public String getBatchEndpointUrl() {
+        return mBatchEndpointUrl;
+    }
+
+    /**
+     * Used to get the headers of the request made to the batch endpoint.
+     *
+     * @return Headers OR null.
+     */
+    public Map<String, String> getBatchEndpointHeaders() {
+        return mBatchEndpointHeaders;
+    }
+
+    /**
+     * Used to get the codec used to pack the items into the batch endpoint request & unpack its response.
+     *
+     * @return Codec OR null if items are sent as individual requests.
+     */
+    public BatchCodec getBatchCodec() {
+        return mBatchCodec;
+    }
+
+    /**
+     * Used to get the options of the request made to the batch endpoint.
+     *
+     * @return Options.
+     */
+    public RequestOptions getBatchEndpointOptions() {
+        return mBatchEndpointOptions;
+    }
+
+    /**
+     * Item.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds a single request of the batch.
+     */
+    public static class Item {
+
+        private final String mItemId;
+        private final HttpMethod mMethod;
+        private final Map<String, String> mHeaders;
+        private final String mUrl;
+        private final String mBody;
+        private final String mBodyContentType;
+        private final RequestOptions mOptions;
+
+        /**
+         * Constructor.
+         *
+         * @param itemId          Unique string to identify the request within the batch.
+         * @param method          HTTP Request Method.
+         * @param headers         Request headers.
+         * @param url             Request Url.
+         * @param body            Request Body, used only by "POST" & "PUT".
+         * @param bodyContentType Request Body Content Type.
+         * @param options         Request options.
+         */
+        Item(final String itemId, final HttpMethod method, final Map<String, String> headers, final String url, final String body,
+             final String bodyContentType, final RequestOptions options) {
+            this.mItemId = itemId;
+            this.mMethod = method;
+            this.mHeaders = headers;
+            this.mUrl = url;
+            this.mBody = body;
+            this.mBodyContentType = bodyContentType;
+            this.mOptions = options;
+        }
+
+        /**
+         * Used to get the id of the item within the batch.
+         *
+         * @return Item id.
+         */
+        public String getItemId() {
+            return mItemId;
+        }
+
+        /**
+         * Used to get the HTTP method.
+         *
+         * @return HTTP method.
+         */
+        public HttpMethod getMethod() {
+            return mMethod;
+        }
+
+        /**
+         * Used to get the request headers.
+         *
+         * @return Headers OR null.
+         */
+        public Map<String, String> getHeaders() {
+            return mHeaders;
+        }
+
+        /**
+         * Used to get the request url.
+         *
+         * @return Url.
+         */
+        public String getUrl() {
+            return mUrl;
+        }
+
+        /**
+         * Used to get the request body.
+         *
+         * @return Body OR null.
+         */
+        public String getBody() {
+            return mBody;
+        }
+
+        /**
+         * Used to get the request body content type.
+         *
+         * @return Content type OR null.
+         */
+        public String getBodyContentType() {
+            return mBodyContentType;
+        }
+
+        /**
+         * Used to get the request options.
+         *
+         * @return Options.
+         */
+        public RequestOptions getOptions() {
+            return mOptions;
+        }
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to build {@link BatchRequest}.
+     */
+    public static class Builder {
+
+        private final List<Item> mItems = new ArrayList<Item>();
+        private final Set<String> mItemIds = new HashSet<String>();
+        private String mBatchEndpointUrl;
+        private Map<String, String> mBatchEndpointHeaders;
+        private BatchCodec mBatchCodec;
+        private RequestOptions mBatchEndpointOptions = RequestOptions.DEFAULT;
+
+        /**
+         * Used to add "HTTP GET REQUEST" to the batch.
+         *
+         * @param itemId  Unique string to identify the request within the batch.
+         * @param headers Request headers.
+         * @param url     Request Url.
+         * @param options Request options (caching, retry policy, priority etc).
+         * @return Builder.
+         */
+        public Builder addGetRequest(final String itemId, final Map<String, String> headers, final String url, final RequestOptions options) {
+            return addRequest(itemId, HttpMethod.GET, headers, url, null, null, options);
+        }
+
+        /**
+         * Used to add a request to the batch.
+         *
+         * @param itemId          Unique string to identify the request within the batch.
+         * @param method          HTTP Request Method.
+         * @param headers         Request headers.
+         * @param url             Request Url.
+         * @param body            Request Body, used only by "POST" & "PUT".
+         * @param bodyContentType Request Body Content Type.
+         * @param options         Request options (caching, retry policy, priority etc).
+         * @return Builder.
+         */
+        public Builder addRequest(final String itemId, final HttpMethod method, final Map<String, String> headers, final String url,
+                                  final String body, final String bodyContentType, final RequestOptions options) {
+            if (itemId == null || method == null || url == null) {
+                throw new IllegalArgumentException("itemId, method & url must not be null");
+            }
+            if (!mItemIds.add(itemId)) {
+                throw new IllegalArgumentException("itemId must be unique within the batch: " + itemId);
+            }
+            mItems.add(new Item(itemId, method, headers, url, body, bodyContentType,
+                    (options != null) ? options : RequestOptions.DEFAULT));
+            return this;
+        }
+
+        /**
+         * Used to send all the items in a single "HTTP POST REQUEST" to the server side batch endpoint.
+         *
+         * @param url     Batch endpoint url.
+         * @param headers Headers of the batch endpoint request.
+         * @param codec   Codec used to pack the items into the request & unpack the response, use {@link JsonBatchCodec}
+         *                if the server doesn't need a specific format.
+         * @param options Options of the batch endpoint request, null for the default options.
+         * @return Builder.
+         */
+        public Builder setBatchEndpoint(final String url, final Map<String, String> headers, final BatchCodec codec,
+                                        final RequestOptions options) {
+            if (url == null || codec == null) {
+                throw new IllegalArgumentException("url & codec must not be null");
+            }
+            this.mBatchEndpointUrl = url;
+            this.mBatchEndpointHeaders = headers;
+            this.mBatchCodec = codec;
+            this.mBatchEndpointOptions = (options != null) ? options : RequestOptions.DEFAULT;
+            return this;
+        }
+
+        /**
+         * Used to build the batch.
+         *
+         * @return Batch request.
+         */
+        public BatchRequest build() {
+            if (mItems.isEmpty()) {
+                throw new IllegalStateException("batch must have at least one item");
+            }
+            return new BatchRequest(this);
+        }
+    }
+}
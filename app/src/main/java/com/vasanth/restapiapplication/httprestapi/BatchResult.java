@@ -0,0 +1,159 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch Result.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Holds the result of every item of a {@link BatchRequest}, either the response OR the error code.
+ * 1.b. Items fail independently, use {@link #hasFailures()} to handle partial failures.
+ *
+ * @author Vasanth
+ */
+public class BatchResult {
+
+    private final Map<String, ItemResult> mResults = new LinkedHashMap<String, ItemResult>();
+
+    /**
+     * Constructor.
+     *
+     * @param itemIds Item ids of the batch, every item starts as failed with "ERROR_CODE_PARSE_ERROR" until its result is
+     *                set.
+     */
+    public BatchResult(final List<String> itemIds) {
+        for (String itemId : itemIds) {
+            mResults.put(itemId, new ItemResult(null, HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR));
+        }
+    }
+
+    /**
+     * Used to set the response of a succeeded item.
+     *
+     * @param itemId   Item id.
+     * @param response Response.
+     */
+    public synchronized void setResponse(final String itemId, final String response) {
+        if (mResults.containsKey(itemId)) {
+            mResults.put(itemId, new ItemResult(response, 0));
+        }
+    }
+
+    /**
+     * Used to set the error code of a failed item.
+     *
+     * @param itemId    Item id.
+     * @param errorCode Error code.
+     */
+    public synchronized void setError(final String itemId, final int errorCode) {
+        if (mResults.containsKey(itemId)) {
+            mResults.put(itemId, new ItemResult(null, errorCode));
+        }
+    }
+
+    /**
+     * Used to set the same error code to all the items.
+     *
+     * @param errorCode Error code.
+     */
+    public synchronized void setErrorForAll(final int errorCode) {
+        for (Map.Entry<String, ItemResult> result : mResults.entrySet()) {
+            result.setValue(new ItemResult(null, errorCode));
+        }
+    }
+
+    /**
+     * Used to get the item ids in the order they were added to the batch.
+     *
+     * @return Item ids.
+     */
+    public synchronized List<String> getItemIds() {
+        return Collections.unmodifiableList(new ArrayList<String>(mResults.keySet()));
+    }
+
+    /**
+     * Used to check whether the item succeeded.
+     *
+     * @param itemId Item id.
+     * @return True if succeeded.
+     */
+    public synchronized boolean isSuccessful(final String itemId) {
+        ItemResult result = mResults.get(itemId);
+        return result != null && result.mSuccessful;
+    }
+
+    /**
+     * Used to get the response of the item.
+     *
+     * @param itemId Item id.
+     * @return Response OR null if the item failed.
+     */
+    public synchronized String getResponse(final String itemId) {
+        ItemResult result = mResults.get(itemId);
+        return (result != null) ? result.mResponse : null;
+    }
+
+    /**
+     * Used to get the error code of the item.
+     *
+     * @param itemId Item id.
+     * @return One of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes", zero if the item succeeded.
+     */
+    public synchronized int getErrorCode(final String itemId) {
+        ItemResult result = mResults.get(itemId);
+        return (result != null) ? result.mErrorCode : HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR;
+    }
+
+    /**
+     * Used to get the number of failed items.
+     *
+     * @return Failed item count.
+     */
+    public synchronized int getFailureCount() {
+        int failureCount = 0;
+        for (ItemResult result : mResults.values()) {
+            if (!result.mSuccessful) {
+                failureCount++;
+            }
+        }
+        return failureCount;
+    }
+
+    /**
+     * Used to check whether at least one item failed.
+     *
+     * @return True if any item failed.
+     */
+    public boolean hasFailures() {
+        return getFailureCount() > 0;
+    }
+
+    /**
+     * Item Result.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the response OR error code of a single item.
+     */
+    private static class ItemResult {
+
+        private final boolean mSuccessful;
+        private final String mResponse;
+        private final int mErrorCode;
+
+        /**
+         * Constructor.
+         *
+         * @param response  Response, null if failed.
+         * @param errorCode Error code, zero if succeeded.
+         */
+        ItemResult(final String response, final int errorCode) {
+            this.mSuccessful = (errorCode == 0);
+            this.mResponse = response;
+            this.mErrorCode = errorCode;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Circuit Breaker.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Used by {@link HttpClientApi} implementations to fail the network calls of a failing backend fast with
+ * "ERROR_CODE_CIRCUIT_OPEN" instead of waiting for the socket timeout.
+ * 1.b. Closed - calls are allowed & their results are recorded in a window of the latest calls, circuit opens once the
+ * failure rate of the window reaches the threshold of the {@link CircuitBreakerPolicy}.
+ * 1.c. Open - calls are rejected until the open duration passes, then the circuit becomes half open.
+ * 1.d. Half Open - only the trial calls of the policy are allowed, circuit closes if all of them succeed & opens again
+ * on the first failure.
+ * 1.e. Every allowed call must be completed using {@link #onResult(int)} OR {@link #onIgnored()}.
+ * 1.f. Breakers are obtained per host OR per url prefix using {@link Registry}.
+ *
+ * @author Vasanth
+ */
+public class CircuitBreaker {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    /**
+     * State.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. States of the circuit.
+     */
+    public enum State {
+        // Calls are allowed.
+        CLOSED,
+        // Calls are rejected.
+        OPEN,
+        // Only trial calls are allowed.
+        HALF_OPEN
+    }
+
+    private final CircuitBreakerPolicy mPolicy;
+    // Results of the latest calls in the closed state, true for failure.
+    private final boolean[] mWindow;
+    private int mWindowCount;
+    private int mWindowIndex;
+    private int mFailureCount;
+    private State mState = State.CLOSED;
+    private long mOpenedAtMs;
+    private int mTrialCallsStarted;
+    private int mTrialCallsSucceeded;
+
+    /**
+     * Constructor.
+     *
+     * @param policy Policy.
+     */
+    CircuitBreaker(final CircuitBreakerPolicy policy) {
+        this.mPolicy = policy;
+        this.mWindow = new boolean[policy.getWindowSize()];
+    }
+
+    /**
+     * Used to check whether a call can be made now, open circuit becomes half open once the open duration passes.
+     *
+     * @return True if the call is allowed, caller must then report its result.
+     */
+    public synchronized boolean tryAcquire() {
+        if (mState == State.OPEN) {
+            if (nowMs() - mOpenedAtMs < mPolicy.getOpenDurationMs()) {
+                return false;
+            }
+            mState = State.HALF_OPEN;
+            mTrialCallsStarted = 0;
+            mTrialCallsSucceeded = 0;
+        }
+        if (mState == State.HALF_OPEN) {
+            if (mTrialCallsStarted >= mPolicy.getHalfOpenTrialCalls()) {
+                return false;
+            }
+            mTrialCallsStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Used to report the result of the allowed call.
+     *
+     * @param resultCode HTTP status code OR one of "HttpResponseListener.ERROR_CODE_*", see
+     *                   {@link CircuitBreakerPolicy#isFailure(int)}.
+     */
+    public synchronized void onResult(final int resultCode) {
+        boolean failure = CircuitBreakerPolicy.isFailure(resultCode);
+        switch (mState) {
+            case HALF_OPEN:
+                if (failure) {
+                    open();
+                } else if (++mTrialCallsSucceeded >= mPolicy.getHalfOpenTrialCalls()) {
+                    close();
+                }
+                break;
+            case CLOSED:
+                record(failure);
+                if (mWindowCount >= mPolicy.getMinimumCalls()
+                        && mFailureCount >= mPolicy.getFailureRateThreshold() * mWindowCount) {
+                    open();
+                }
+                break;
+            case OPEN:
+            default:
+                // Call started before the circuit opened.
+                break;
+        }
+    }
+
+    /**
+     * Used to report the allowed call which completed without a result (like canceled), frees its trial slot.
+     */
+    public synchronized void onIgnored() {
+        if (mState == State.HALF_OPEN && mTrialCallsStarted > mTrialCallsSucceeded) {
+            mTrialCallsStarted--;
+        }
+    }
+
+    /**
+     * Used to get the current state.
+     *
+     * @return State.
+     */
+    public synchronized State getState() {
+        if (mState == State.OPEN && nowMs() - mOpenedAtMs >= mPolicy.getOpenDurationMs()) {
+            return State.HALF_OPEN;
+        }
+        return mState;
+    }
+
+    /**
+     * Used to add the result to the window, replacing the oldest result once the window is full.
+     *
+     * @param failure True for failure.
+     */
+    private void record(final boolean failure) {
+        if (mWindowCount == mWindow.length) {
+            if (mWindow[mWindowIndex]) {
+                mFailureCount--;
+            }
+        } else {
+            mWindowCount++;
+        }
+        mWindow[mWindowIndex] = failure;
+        if (failure) {
+            mFailureCount++;
+        }
+        mWindowIndex = (mWindowIndex + 1) % mWindow.length;
+    }
+
+    /**
+     * Used to open the circuit.
+     */
+    private void open() {
+        mState = State.OPEN;
+        mOpenedAtMs = nowMs();
+    }
+
+    /**
+     * Used to close the circuit with an empty window.
+     */
+    private void close() {
+        mState = State.CLOSED;
+        mWindowCount = 0;
+        mWindowIndex = 0;
+        mFailureCount = 0;
+    }
+
+    /**
+     * Used to get the monotonic current time.
+     *
+     * @return Time in milliseconds.
+     */
+    private static long nowMs() {
+        return System.nanoTime() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Registry.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the circuit breakers of an {@link HttpClientApi} implementation, created lazily from the policies of
+     * the {@link HttpClientConfig}.
+     * 1.b. Url uses the breaker of its longest matching url prefix, else the breaker of its host (if there is a host
+     * policy), else no breaker.
+     */
+    public static class Registry {
+
+        private final CircuitBreakerPolicy mHostPolicy;
+        // Url prefix policies, longest prefix first.
+        private final List<Map.Entry<String, CircuitBreakerPolicy>> mPrefixPolicies;
+        private final Map<String, CircuitBreaker> mBreakers = new HashMap<String, CircuitBreaker>();
+
+        /**
+         * Constructor.
+         *
+         * @param hostPolicy     Policy of the breaker created for every host, null for no host breakers.
+         * @param prefixPolicies Policies of the url prefixes.
+         */
+        public Registry(final CircuitBreakerPolicy hostPolicy, final Map<String, CircuitBreakerPolicy> prefixPolicies) {
+            this.mHostPolicy = hostPolicy;
+            this.mPrefixPolicies = new ArrayList<Map.Entry<String, CircuitBreakerPolicy>>(
+                    new LinkedHashMap<String, CircuitBreakerPolicy>(prefixPolicies).entrySet());
+            Collections.sort(mPrefixPolicies, new Comparator<Map.Entry<String, CircuitBreakerPolicy>>() {
+                @Override
+                public int compare(final Map.Entry<String, CircuitBreakerPolicy> left, final Map.Entry<String, CircuitBreakerPolicy> right) {
+                    return right.getKey().length() - left.getKey().length();
+                }
+            });
+        }
+
+        /**
+         * Used to create the registry from the policies of the config.
+         *
+         * @param config Config.
+         * @return Registry OR null if the config has no circuit breaker policy.
+         */
+        public static Registry fromConfig(final HttpClientConfig config) {
+            if (config.getCircuitBreakerPolicy() == null && config.getCircuitBreakerPrefixPolicies().isEmpty()) {
+                return null;
+            }
+            return new Registry(config.getCircuitBreakerPolicy(), config.getCircuitBreakerPrefixPolicies());
+        }
+
+        /**
+         * Used to get the breaker of the given url.
+         *
+         * @param url Url.
+         * @return Breaker OR null if no policy applies to the url.
+         */
+        public synchronized CircuitBreaker get(final String url) {
+            for (Map.Entry<String, CircuitBreakerPolicy> prefixPolicy : mPrefixPolicies) {
+                if (url.startsWith(prefixPolicy.getKey())) {
+                    return getOrCreate(prefixPolicy.getKey(), prefixPolicy.getValue());
+                }
+            }
+            return (mHostPolicy != null) ? getOrCreate(HostLimiter.getHostKey(url), mHostPolicy) : null;
+        }
+
+        /**
+         * Used to get the breaker with the given key, creating it if needed.
+         *
+         * @param key    Url prefix OR host key.
+         * @param policy Policy of the breaker.
+         * @return Breaker.
+         */
+        private CircuitBreaker getOrCreate(final String key, final CircuitBreakerPolicy policy) {
+            CircuitBreaker breaker = mBreakers.get(key);
+            if (breaker == null) {
+                breaker = new CircuitBreaker(policy);
+                mBreakers.put(key, breaker);
+            }
+            return breaker;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Circuit Breaker Policy.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Holds the thresholds of a {@link CircuitBreaker}, set per host OR per url prefix using
+ * {@link HttpClientConfig.Builder#setCircuitBreakerPolicy(CircuitBreakerPolicy)} &
+ * {@link HttpClientConfig.Builder#addCircuitBreakerPolicy(String, CircuitBreakerPolicy)}.
+ * 1.b. Network errors, timeouts & "5XX" responses count as failures, other responses count as successes.
+ * 1.c. Use {@link Builder} to create the policy, values not set on the builder use the defaults.
+ *
+ * @author Vasanth
+ */
+public class CircuitBreakerPolicy {
+
+    // Default failure rate at which the circuit opens.
+    public static final float DEFAULT_FAILURE_RATE_THRESHOLD = 0.5f;
+
+    // Default number of latest calls the failure rate is calculated from.
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    // Default minimum number of calls in the window before the failure rate is checked.
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+    // Default time the circuit stays open before trial requests are allowed (30 seconds).
+    public static final long DEFAULT_OPEN_DURATION_MS = 30 * 1000;
+
+    // Default number of trial requests allowed while half open.
+    public static final int DEFAULT_HALF_OPEN_TRIAL_CALLS = 1;
+
+    private final float mFailureRateThreshold;
+    private final int mWindowSize;
+    private final int mMinimumCalls;
+    private final long mOpenDurationMs;
+    private final int mHalfOpenTrialCalls;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private CircuitBreakerPolicy(final Builder builder) {
+        this.mFailureRateThreshold = builder.mFailureRateThreshold;
+        this.mWindowSize = builder.mWindowSize;
+        this.mMinimumCalls = builder.mMinimumCalls;
+        this.mOpenDurationMs = builder.mOpenDurationMs;
+        this.mHalfOpenTrialCalls = builder.mHalfOpenTrialCalls;
+    }
+
+    /**
+     * Used to get the failure rate at which the circuit opens.
+     *
+     * @return Failure rate, between zero & one.
+     */
+    public float getFailureRateThreshold() {
+        return mFailureRateThreshold;
+    }
+
+    /**
+     * Used to get the number of latest calls the failure rate is calculated from.
+     *
+     * @return Window size.
+     */
+    public int getWindowSize() {
+        return mWindowSize;
+    }
+
+    /**
+     * Used to get the minimum number of calls in the window before the failure rate is checked.
+     *
+     * @return Minimum calls.
+     */
+    public int getMinimumCalls() {
+        return mMinimumCalls;
+    }
+
+    /**
+     * Used to get the time the circuit stays open before trial requests are allowed.
+     *
+     * @return Open duration in milliseconds.
+     */
+    public long getOpenDurationMs() {
+        return mOpenDurationMs;
+    }
+
+    /**
+     * Used to get the number of trial requests allowed while half open, all of them must succeed to close the circuit.
+     *
+     * @return Trial calls.
+     */
+    public int getHalfOpenTrialCalls() {
+        return mHalfOpenTrialCalls;
+    }
+
+    /**
+     * Used to check whether the result of the call counts as a failure.
+     *
+     * @param resultCode HTTP status code OR one of "HttpResponseListener.ERROR_CODE_*".
+     * @return True if failure.
+     */
+    public static boolean isFailure(final int resultCode) {
+        return resultCode == HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR
+                || resultCode == HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR
+                || (resultCode >= 500 && resultCode < 600);
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to build {@link CircuitBreakerPolicy}.
+     */
+    public static class Builder {
+
+        private float mFailureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        private int mWindowSize = DEFAULT_WINDOW_SIZE;
+        private int mMinimumCalls = DEFAULT_MINIMUM_CALLS;
+        private long mOpenDurationMs = DEFAULT_OPEN_DURATION_MS;
+        private int mHalfOpenTrialCalls = DEFAULT_HALF_OPEN_TRIAL_CALLS;
+
+        /**
+         * Used to set the failure rate at which the circuit opens.
+         *
+         * @param failureRateThreshold Failure rate, greater than zero & not more than one.
+         * @return Builder.
+         */
+        public Builder setFailureRateThreshold(final float failureRateThreshold) {
+            if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+                throw new IllegalArgumentException("failureRateThreshold must be greater than zero & not more than one");
+            }
+            this.mFailureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Used to set the window the failure rate is calculated from.
+         *
+         * @param windowSize   Number of latest calls in the window, must be greater than zero.
+         * @param minimumCalls Minimum number of calls in the window before the failure rate is checked, between one &
+         *                     window size.
+         * @return Builder.
+         */
+        public Builder setWindow(final int windowSize, final int minimumCalls) {
+            if (windowSize <= 0) {
+                throw new IllegalArgumentException("windowSize must be greater than zero");
+            }
+            if (minimumCalls <= 0 || minimumCalls > windowSize) {
+                throw new IllegalArgumentException("minimumCalls must be between one & windowSize");
+            }
+            this.mWindowSize = windowSize;
+            this.mMinimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Used to set the time the circuit stays open before trial requests are allowed.
+         *
+         * @param openDurationMs Open duration in milliseconds, must be greater than zero.
+         * @return Builder.
+         */
+        public Builder setOpenDurationMs(final long openDurationMs) {
+            if (openDurationMs <= 0) {
+                throw new IllegalArgumentException("openDurationMs must be greater than zero");
+            }
+            this.mOpenDurationMs = openDurationMs;
+            return this;
+        }
+
+        /**
+         * Used to set the number of trial requests allowed while half open.
+         *
+         * @param halfOpenTrialCalls Trial calls, must be greater than zero.
+         * @return Builder.
+         */
+        public Builder setHalfOpenTrialCalls(final int halfOpenTrialCalls) {
+            if (halfOpenTrialCalls <= 0) {
+                throw new IllegalArgumentException("halfOpenTrialCalls must be greater than zero");
+            }
+            this.mHalfOpenTrialCalls = halfOpenTrialCalls;
+            return this;
+        }
+
+        /**
+         * Used to build the policy.
+         *
+         * @return Policy.
+         */
+        public CircuitBreakerPolicy build() {
+            return new CircuitBreakerPolicy(this);
+        }
+    }
+}
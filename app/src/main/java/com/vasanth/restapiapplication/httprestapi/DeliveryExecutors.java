@@ -0,0 +1,99 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Delivery Executors.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Provides the common executors on which {@link HttpClientApi} callbacks can be delivered, set globally using
+ * {@link HttpClientConfig.Builder#setDeliveryExecutor} OR per request using {@link RequestOptions.Builder#setDeliveryExecutor}.
+ * 1.b. Any other executor (like a thread pool doing heavy post-processing) can be used as well.
+ *
+ * @author Vasanth
+ */
+public class DeliveryExecutors {
+
+    // Runs the callback on the thread completing the request.
+    private static final Executor IMMEDIATE_EXECUTOR = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private static Executor mMainThreadExecutor;
+
+    /**
+     * Private Constructor.
+     */
+    private DeliveryExecutors() {
+    }
+
+    /**
+     * Used to get executor delivering on main thread, used by default.
+     *
+     * @return Executor.
+     */
+    public static synchronized Executor mainThread() {
+        if (mMainThreadExecutor == null) {
+            mMainThreadExecutor = new HandlerExecutor(new Handler(Looper.getMainLooper()));
+        }
+        return mMainThreadExecutor;
+    }
+
+    /**
+     * Used to get executor delivering directly on the network (OR cache) thread completing the request, without any
+     * thread hop.
+     * <p>
+     * Callbacks block the network thread, so they must not do long running work.
+     *
+     * @return Executor.
+     */
+    public static Executor immediate() {
+        return IMMEDIATE_EXECUTOR;
+    }
+
+    /**
+     * Used to get executor delivering on the calling thread, which must have a looper (like main thread OR a
+     * HandlerThread).
+     *
+     * @return Executor.
+     * @throws IllegalStateException If the calling thread has no looper.
+     */
+    public static Executor callingThread() {
+        Looper looper = Looper.myLooper();
+        if (looper == null) {
+            throw new IllegalStateException("Calling thread has no looper");
+        }
+        return new HandlerExecutor(new Handler(looper));
+    }
+
+    /**
+     * Handler Executor.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Executor posting the tasks to the handler.
+     */
+    private static class HandlerExecutor implements Executor {
+
+        private final Handler mHandler;
+
+        /**
+         * Constructor.
+         *
+         * @param handler Handler.
+         */
+        HandlerExecutor(final Handler handler) {
+            this.mHandler = handler;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            mHandler.post(command);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Future Http Client.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Facade over {@link HttpClientApi} returning {@link HttpFuture} instead of taking listeners, so dependent calls
+ * can be chained & parallel calls can be combined without nested callbacks.
+ * 1.b. Cancelling a returned future cancels only that call - the future is cancelled right away & the request gets
+ * cancelled using {@link HttpClientApi#cancelRequest(String)} once no other pending future of this client uses the same
+ * identifier, else its response is dropped. Requests made with that identifier directly through the
+ * {@link HttpClientApi} are cancelled along with it, use unique identifiers to keep them apart.
+ *
+ * @author Vasanth
+ */
+public class FutureHttpClient {
+
+    private final HttpClientApi mHttpClientApi;
+    // Number of pending futures per identifier.
+    private final Map<String, Integer> mPendingCounts = new HashMap<String, Integer>();
+
+    /**
+     * Constructor.
+     *
+     * @param httpClientApi Http client used to make the requests.
+     */
+    public FutureHttpClient(final HttpClientApi httpClientApi) {
+        this.mHttpClientApi = httpClientApi;
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST".
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @return Future of the response.
+     */
+    public HttpFuture<String> get(final String identifier, final Map<String, String> headers, final String url, final RequestOptions options) {
+        HttpFuture<String> future = newFuture(identifier);
+        mHttpClientApi.getRequest(identifier, headers, url, options, new StringFutureListener(future));
+        return future;
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & decode the response.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @return Future of the decoded response.
+     */
+    public <T> HttpFuture<T> get(final String identifier, final Map<String, String> headers, final String url, final RequestOptions options,
+                                 final HttpClientApi.ResponseDecoder<T> decoder) {
+        HttpFuture<T> future = newFuture(identifier);
+        mHttpClientApi.getRequest(identifier, headers, url, options, decoder, new FutureListener<T>(future));
+        return future;
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST".
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @return Future of the response.
+     */
+    public HttpFuture<String> post(final String identifier, final Map<String, String> headers, final String url, final String body,
+                                   final String bodyContentType, final RequestOptions options) {
+        HttpFuture<String> future = newFuture(identifier);
+        mHttpClientApi.postRequest(identifier, headers, url, body, bodyContentType, options, new StringFutureListener(future));
+        return future;
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" & decode the response.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @return Future of the decoded response.
+     */
+    public <T> HttpFuture<T> post(final String identifier, final Map<String, String> headers, final String url, final String body,
+                                  final String bodyContentType, final RequestOptions options, final HttpClientApi.ResponseDecoder<T> decoder) {
+        HttpFuture<T> future = newFuture(identifier);
+        mHttpClientApi.postRequest(identifier, headers, url, body, bodyContentType, options, decoder, new FutureListener<T>(future));
+        return future;
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @return Future of the response.
+     */
+    public HttpFuture<String> post(final String identifier, final Map<String, String> headers, final String url, final HttpRequestBody body,
+                                   final RequestOptions options) {
+        HttpFuture<String> future = newFuture(identifier);
+        mHttpClientApi.postRequest(identifier, headers, url, body, options, new StringFutureListener(future));
+        return future;
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST".
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @return Future of the response.
+     */
+    public HttpFuture<String> put(final String identifier, final Map<String, String> headers, final String url, final String body,
+                                  final String bodyContentType, final RequestOptions options) {
+        HttpFuture<String> future = newFuture(identifier);
+        mHttpClientApi.putRequest(identifier, headers, url, body, bodyContentType, options, new StringFutureListener(future));
+        return future;
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with a binary, file OR multipart body.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @return Future of the response.
+     */
+    public HttpFuture<String> put(final String identifier, final Map<String, String> headers, final String url, final HttpRequestBody body,
+                                  final RequestOptions options) {
+        HttpFuture<String> future = newFuture(identifier);
+        mHttpClientApi.putRequest(identifier, headers, url, body, options, new StringFutureListener(future));
+        return future;
+    }
+
+    /**
+     * Used to make "HTTP DELETE REQUEST".
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @return Future of the response.
+     */
+    public HttpFuture<String> delete(final String identifier, final Map<String, String> headers, final String url, final RequestOptions options) {
+        HttpFuture<String> future = newFuture(identifier);
+        mHttpClientApi.deleteRequest(identifier, headers, url, options, new StringFutureListener(future));
+        return future;
+    }
+
+    /**
+     * Used to make a group of requests together.
+     *
+     * @param identifier   Unique string to identify the batch.
+     * @param batchRequest Requests of the batch.
+     * @return Future of the batch result, completes successfully even if some items failed.
+     */
+    public HttpFuture<BatchResult> batch(final String identifier, final BatchRequest batchRequest) {
+        final HttpFuture<BatchResult> future = newFuture(identifier);
+        mHttpClientApi.batchRequest(identifier, batchRequest, new HttpClientApi.BatchResponseListener() {
+            @Override
+            public void onBatchComplete(final BatchResult result) {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Used to create future which cancels the requests with the given identifier on cancel, unless other pending
+     * futures use it.
+     *
+     * @param identifier Unique string to identify the request.
+     * @return Future.
+     */
+    private <T> HttpFuture<T> newFuture(final String identifier) {
+        synchronized (mPendingCounts) {
+            Integer count = mPendingCounts.get(identifier);
+            mPendingCounts.put(identifier, (count != null) ? count + 1 : 1);
+        }
+        HttpFuture<T> future = new HttpFuture<T>(new Runnable() {
+            @Override
+            public void run() {
+                if (release(identifier)) {
+                    mHttpClientApi.cancelRequest(identifier);
+                }
+            }
+        });
+        future.addListener(new HttpClientApi.TypedResponseListener<T>() {
+            @Override
+            public void onSuccessResponse(final T response) {
+                release(identifier);
+            }
+
+            @Override
+            public void onErrorResponse(final int errorCode) {
+                release(identifier);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Used to release the identifier of the future which got completed OR cancelled.
+     *
+     * @param identifier Unique string to identify the request.
+     * @return True if no other pending future uses the identifier.
+     */
+    private boolean release(final String identifier) {
+        synchronized (mPendingCounts) {
+            Integer count = mPendingCounts.get(identifier);
+            if (count == null || count <= 1) {
+                mPendingCounts.remove(identifier);
+                return true;
+            }
+            mPendingCounts.put(identifier, count - 1);
+            return false;
+        }
+    }
+
+    /**
+     * Future Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Listener completing the future with the result of the request.
+     *
+     * @param <T> Type of the response.
+     */
+    private static class FutureListener<T> implements HttpClientApi.TypedResponseListener<T> {
+
+        private final HttpFuture<T> mFuture;
+
+        /**
+         * Constructor.
+         *
+         * @param future Future to be completed.
+         */
+        FutureListener(final HttpFuture<T> future) {
+            this.mFuture = future;
+        }
+
+        @Override
+        public void onSuccessResponse(final T response) {
+            mFuture.complete(response);
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            mFuture.fail(errorCode);
+        }
+    }
+
+    /**
+     * String Future Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. {@link FutureListener} for the methods taking {@link HttpClientApi.HttpResponseListener}.
+     */
+    private static class StringFutureListener extends FutureListener<String> implements HttpClientApi.HttpResponseListener {
+
+        /**
+         * Constructor.
+         *
+         * @param future Future to be completed.
+         */
+        StringFutureListener(final HttpFuture<String> future) {
+            super(future);
+        }
+    }
+}
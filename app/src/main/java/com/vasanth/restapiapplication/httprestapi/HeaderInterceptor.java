@@ -0,0 +1,43 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Header Interceptor.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HttpRequestInterceptor} adding the same headers (like "User-Agent" OR "Accept-Language") to every
+ * request, so callers don't build them per call.
+ * 1.b. Headers given by the caller for the request are kept.
+ *
+ * @author Vasanth
+ */
+public class HeaderInterceptor implements HttpRequestInterceptor {
+
+    private final Map<String, String> mHeaders;
+
+    /**
+     * Constructor.
+     *
+     * @param headers Headers added to every request.
+     */
+    public HeaderInterceptor(final Map<String, String> headers) {
+        this.mHeaders = Collections.unmodifiableMap(new LinkedHashMap<String, String>(headers));
+    }
+
+    /**
+     * Adds the headers not given by the caller.
+     *
+     * @param request Request.
+     */
+    @Override
+    public void intercept(final InterceptedRequest request) {
+        for (Map.Entry<String, String> header : mHeaders.entrySet()) {
+            if (request.getHeader(header.getKey()) == null) {
+                request.setHeader(header.getKey(), header.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Host Limit Policy.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Holds the limits applied separately to every host (token bucket rate limit & adaptive concurrency limit), set
+ * using {@link HttpClientConfig.Builder#setHostLimitPolicy(HostLimitPolicy)}.
+ * 1.b. Concurrency limit is adjusted using AIMD - it grows by one request per round of successful requests answered
+ * within the target latency & is multiplied by the backoff ratio on "429", "503", timeouts OR slower responses.
+ * 1.c. Use {@link Builder} to create the policy, values not set on the builder use the defaults.
+ *
+ * @author Vasanth
+ */
+public class HostLimitPolicy {
+
+    // Rate limit which turns off the token bucket.
+    public static final double RATE_LIMIT_DISABLED = 0;
+
+    // Default concurrency limit a host starts with.
+    public static final int DEFAULT_INITIAL_CONCURRENCY = 4;
+
+    // Default lowest concurrency limit.
+    public static final int DEFAULT_MIN_CONCURRENCY = 1;
+
+    // Default highest concurrency limit.
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    // Default latency above which the concurrency limit is reduced.
+    public static final long DEFAULT_TARGET_LATENCY_MS = 2000;
+
+    // Default ratio applied to the concurrency limit when the host is overloaded.
+    public static final float DEFAULT_BACKOFF_RATIO = 0.75f;
+
+    private final double mPermitsPerSecond;
+    private final int mBurst;
+    private final int mInitialConcurrency;
+    private final int mMinConcurrency;
+    private final int mMaxConcurrency;
+    private final long mTargetLatencyMs;
+    private final float mBackoffRatio;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private HostLimitPolicy(final Builder builder) {
+        this.mPermitsPerSecond = builder.mPermitsPerSecond;
+        this.mBurst = builder.mBurst;
+        this.mInitialConcurrency = builder.mInitialConcurrency;
+        this.mMinConcurrency = builder.mMinConcurrency;
+        this.mMaxConcurrency = builder.mMaxConcurrency;
+        this.mTargetLatencyMs = builder.mTargetLatencyMs;
+        this.mBackoffRatio = builder.mBackoffRatio;
+    }
+
+    /**
+     * Used to get the number of requests a host can start per second.
+     *
+     * @return Permits per second OR {@link #RATE_LIMIT_DISABLED}.
+     */
+    public double getPermitsPerSecond() {
+        return mPermitsPerSecond;
+    }
+
+    /**
+     * Used to get the number of requests a host can start at once after being idle (token bucket size).
+     *
+     * @return Burst.
+     */
+    public int getBurst() {
+        return mBurst;
+    }
+
+    /**
+     * Used to get the concurrency limit a host starts with.
+     *
+     * @return Initial concurrency limit.
+     */
+    public int getInitialConcurrency() {
+        return mInitialConcurrency;
+    }
+
+    /**
+     * Used to get the lowest concurrency limit.
+     *
+     * @return Minimum concurrency limit.
+     */
+    public int getMinConcurrency() {
+        return mMinConcurrency;
+    }
+
+    /**
+     * Used to get the highest concurrency limit.
+     *
+     * @return Maximum concurrency limit.
+     */
+    public int getMaxConcurrency() {
+        return mMaxConcurrency;
+    }
+
+    /**
+     * Used to get the latency above which the concurrency limit is reduced, also the minimum time between two reductions.
+     *
+     * @return Target latency in milliseconds.
+     */
+    public long getTargetLatencyMs() {
+        return mTargetLatencyMs;
+    }
+
+    /**
+     * Used to get the ratio applied to the concurrency limit when the host is overloaded.
+     *
+     * @return Backoff ratio.
+     */
+    public float getBackoffRatio() {
+        return mBackoffRatio;
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to build {@link HostLimitPolicy}.
+     */
+    public static class Builder {
+
+        private double mPermitsPerSecond = RATE_LIMIT_DISABLED;
+        private int mBurst = 1;
+        private int mInitialConcurrency = DEFAULT_INITIAL_CONCURRENCY;
+        private int mMinConcurrency = DEFAULT_MIN_CONCURRENCY;
+        private int mMaxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private long mTargetLatencyMs = DEFAULT_TARGET_LATENCY_MS;
+        private float mBackoffRatio = DEFAULT_BACKOFF_RATIO;
+
+        /**
+         * Used to set the token bucket rate limit.
+         *
+         * @param permitsPerSecond Requests a host can start per second, {@link #RATE_LIMIT_DISABLED} removes the limit.
+         * @param burst            Requests a host can start at once after being idle, must be greater than zero.
+         * @return Builder.
+         */
+        public Builder setRateLimit(final double permitsPerSecond, final int burst) {
+            if (permitsPerSecond < 0) {
+                throw new IllegalArgumentException("permitsPerSecond must not be negative");
+            }
+            if (burst <= 0) {
+                throw new IllegalArgumentException("burst must be greater than zero");
+            }
+            this.mPermitsPerSecond = permitsPerSecond;
+            this.mBurst = burst;
+            return this;
+        }
+
+        /**
+         * Used to set the range of the adaptive concurrency limit.
+         *
+         * @param initialConcurrency Limit a host starts with, between min & max.
+         * @param minConcurrency     Lowest limit, must be greater than zero.
+         * @param maxConcurrency     Highest limit.
+         * @return Builder.
+         */
+        public Builder setConcurrency(final int initialConcurrency, final int minConcurrency, final int maxConcurrency) {
+            if (minConcurrency <= 0) {
+                throw new IllegalArgumentException("minConcurrency must be greater than zero");
+            }
+            if (initialConcurrency < minConcurrency || initialConcurrency > maxConcurrency) {
+                throw new IllegalArgumentException("initialConcurrency must be between minConcurrency & maxConcurrency");
+            }
+            this.mInitialConcurrency = initialConcurrency;
+            this.mMinConcurrency = minConcurrency;
+            this.mMaxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Used to set the latency above which the concurrency limit is reduced.
+         *
+         * @param targetLatencyMs Target latency in milliseconds, must be greater than zero.
+         * @return Builder.
+         */
+        public Builder setTargetLatencyMs(final long targetLatencyMs) {
+            if (targetLatencyMs <= 0) {
+                throw new IllegalArgumentException("targetLatencyMs must be greater than zero");
+            }
+            this.mTargetLatencyMs = targetLatencyMs;
+            return this;
+        }
+
+        /**
+         * Used to set the ratio applied to the concurrency limit when the host is overloaded.
+         *
+         * @param backoffRatio Ratio, greater than zero & less than one.
+         * @return Builder.
+         */
+        public Builder setBackoffRatio(final float backoffRatio) {
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("backoffRatio must be between zero & one");
+            }
+            this.mBackoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Used to build the policy.
+         *
+         * @return Policy.
+         */
+        public HostLimitPolicy build() {
+            return new HostLimitPolicy(this);
+        }
+    }
+}
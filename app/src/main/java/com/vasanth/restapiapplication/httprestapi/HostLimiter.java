@@ -0,0 +1,374 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Host Limiter.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Used by {@link HttpClientApi} implementations to apply the {@link HostLimitPolicy} to every host separately,
+ * requests are added before they are sent & dispatched once their host has a free slot & a token.
+ * 1.b. Waiting requests are ordered by priority (then by arrival), a request waiting only for a token is dispatched
+ * once the token bucket refills.
+ * 1.c. Implementation reports every finished attempt using {@link #onFinished(Object, int, long)}, which frees the slot
+ * & adjusts the concurrency limit of the host.
+ * 1.d. Canceled requests are dispatched right away without taking a slot OR token, so the implementation finishes them
+ * the usual way.
+ *
+ * @param <T> Type of the request.
+ * @author Vasanth
+ */
+public class HostLimiter<T> {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final HostLimitPolicy mPolicy;
+    private final Comparator<T> mPriorityComparator;
+    private final Callback<T> mCallback;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Host> mHosts = new HashMap<String, Host>();
+    // Host of the dispatched requests, requests don't override "equals".
+    private final Map<T, Host> mRunning = new IdentityHashMap<T, Host>();
+    private long mArrivalCounter;
+
+    /**
+     * Callback.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to send the admitted requests & check their state.
+     *
+     * @param <T> Type of the request.
+     */
+    public interface Callback<T> {
+
+        /**
+         * Used to send the request, gets called on the thread which added OR finished a request, OR on main thread once
+         * the token bucket refills.
+         *
+         * @param request Request.
+         */
+        void dispatch(T request);
+
+        /**
+         * Used to check whether the request is canceled.
+         *
+         * @param request Request.
+         * @return True if canceled.
+         */
+        boolean isCanceled(T request);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param policy             Limits applied to every host.
+     * @param priorityComparator Comparator ordering the requests by priority, higher priority first.
+     * @param callback           Callback used to send the admitted requests.
+     */
+    public HostLimiter(final HostLimitPolicy policy, final Comparator<T> priorityComparator, final Callback<T> callback) {
+        this.mPolicy = policy;
+        this.mPriorityComparator = priorityComparator;
+        this.mCallback = callback;
+    }
+
+    /**
+     * Used to add the request, it's dispatched right away if its host has a free slot & a token.
+     *
+     * @param url     Request Url, used to find the host.
+     * @param request Request.
+     */
+    public void add(final String url, final T request) {
+        Host host;
+        synchronized (this) {
+            String key = getHostKey(url);
+            host = mHosts.get(key);
+            if (host == null) {
+                host = new Host(mPolicy, nowMs());
+                mHosts.put(key, host);
+            }
+            host.mPending.add(new Pending<T>(request, mArrivalCounter++));
+        }
+        drain(host);
+    }
+
+    /**
+     * Used to report the finished attempt of a dispatched request, frees its slot & adjusts the concurrency limit.
+     * <p>
+     * Requests which were not dispatched by the limiter (like canceled ones) are ignored.
+     *
+     * @param request    Request.
+     * @param resultCode HTTP status code OR one of "HttpResponseListener.ERROR_CODE_*".
+     * @param latencyMs  Time taken by the network call in milliseconds OR -1 if no network call was made (like cache hit).
+     */
+    public void onFinished(final T request, final int resultCode, final long latencyMs) {
+        Host host;
+        synchronized (this) {
+            host = mRunning.remove(request);
+            if (host == null) {
+                return;
+            }
+            host.onFinished(mPolicy, resultCode, latencyMs, nowMs());
+        }
+        drain(host);
+    }
+
+    /**
+     * Used to get the waiting requests, so the implementation can cancel them.
+     *
+     * @return Copy of the waiting requests.
+     */
+    public synchronized List<T> getPendingRequests() {
+        List<T> requests = new ArrayList<T>();
+        for (Host host : mHosts.values()) {
+            for (Pending<T> pending : host.mPending) {
+                requests.add(pending.mRequest);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Used to dispatch the canceled waiting requests right away, should be called after canceling requests.
+     */
+    public void dispatchCanceled() {
+        List<T> canceled = new ArrayList<T>();
+        synchronized (this) {
+            for (Host host : mHosts.values()) {
+                Iterator<Pending<T>> iterator = host.mPending.iterator();
+                while (iterator.hasNext()) {
+                    T request = iterator.next().mRequest;
+                    if (mCallback.isCanceled(request)) {
+                        canceled.add(request);
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        for (T request : canceled) {
+            mCallback.dispatch(request);
+        }
+    }
+
+    /**
+     * Used to get the current concurrency limit of the host of the given url.
+     *
+     * @param url Url.
+     * @return Concurrency limit.
+     */
+    public synchronized int getConcurrencyLimit(final String url) {
+        Host host = mHosts.get(getHostKey(url));
+        return (host != null) ? host.getLimit() : mPolicy.getInitialConcurrency();
+    }
+
+    /**
+     * Used to dispatch the waiting requests of the host while it has free slots & tokens.
+     *
+     * @param host Host.
+     */
+    private void drain(final Host host) {
+        while (true) {
+            T next;
+            synchronized (this) {
+                Pending<T> head = host.mPending.peek();
+                if (head == null) {
+                    return;
+                }
+                if (mCallback.isCanceled(head.mRequest)) {
+                    host.mPending.poll();
+                    next = head.mRequest;
+                } else {
+                    if (host.mRunningCount >= host.getLimit()) {
+                        return;
+                    }
+                    long waitMs = host.takeToken(mPolicy, nowMs());
+                    if (waitMs > 0) {
+                        scheduleDrain(host, waitMs);
+                        return;
+                    }
+                    host.mPending.poll();
+                    host.mRunningCount++;
+                    mRunning.put(head.mRequest, host);
+                    next = head.mRequest;
+                }
+            }
+            mCallback.dispatch(next);
+        }
+    }
+
+    /**
+     * Used to drain the host once the token bucket refills, at most one drain is scheduled per host.
+     * <p>
+     * Must be called holding the lock.
+     *
+     * @param host   Host.
+     * @param waitMs Time until the next token in milliseconds.
+     */
+    private void scheduleDrain(final Host host, final long waitMs) {
+        if (host.mDrainScheduled) {
+            return;
+        }
+        host.mDrainScheduled = true;
+        mHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (HostLimiter.this) {
+                    host.mDrainScheduled = false;
+                }
+                drain(host);
+            }
+        }, waitMs);
+    }
+
+    /**
+     * Used to get the key of the host, scheme & host (with port) of the url.
+     *
+     * @param url Url.
+     * @return Key.
+     */
+    static String getHostKey(final String url) {
+        int start = url.indexOf("://");
+        start = (start >= 0) ? start + 3 : 0;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(0, end).toLowerCase();
+    }
+
+    /**
+     * Used to get the monotonic current time.
+     *
+     * @return Time in milliseconds.
+     */
+    private static long nowMs() {
+        return System.nanoTime() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Host.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the token bucket, concurrency limit, running count & waiting requests of a host.
+     */
+    private class Host {
+
+        private final PriorityQueue<Pending<T>> mPending = new PriorityQueue<Pending<T>>(11, new Comparator<Pending<T>>() {
+            @Override
+            public int compare(final Pending<T> left, final Pending<T> right) {
+                int priorityCompare = mPriorityComparator.compare(left.mRequest, right.mRequest);
+                if (priorityCompare != 0) {
+                    return priorityCompare;
+                }
+                return (left.mArrival < right.mArrival) ? -1 : ((left.mArrival == right.mArrival) ? 0 : 1);
+            }
+        });
+        private int mRunningCount;
+        private double mLimit;
+        private double mTokens;
+        private long mRefillTimeMs;
+        private long mLastDecreaseMs;
+        private boolean mDrainScheduled;
+
+        /**
+         * Constructor.
+         *
+         * @param policy Policy.
+         * @param nowMs  Current time.
+         */
+        Host(final HostLimitPolicy policy, final long nowMs) {
+            this.mLimit = policy.getInitialConcurrency();
+            this.mTokens = policy.getBurst();
+            this.mRefillTimeMs = nowMs;
+            this.mLastDecreaseMs = nowMs - policy.getTargetLatencyMs();
+        }
+
+        /**
+         * Used to get the concurrency limit.
+         *
+         * @return Limit.
+         */
+        int getLimit() {
+            return (int) mLimit;
+        }
+
+        /**
+         * Used to take a token from the bucket.
+         *
+         * @param policy Policy.
+         * @param nowMs  Current time.
+         * @return Zero if the token was taken, else time until the next token in milliseconds.
+         */
+        long takeToken(final HostLimitPolicy policy, final long nowMs) {
+            double permitsPerSecond = policy.getPermitsPerSecond();
+            if (permitsPerSecond <= HostLimitPolicy.RATE_LIMIT_DISABLED) {
+                return 0;
+            }
+            mTokens = Math.min(policy.getBurst(), mTokens + (nowMs - mRefillTimeMs) * permitsPerSecond / 1000);
+            mRefillTimeMs = nowMs;
+            if (mTokens >= 1) {
+                mTokens--;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - mTokens) * 1000 / permitsPerSecond));
+        }
+
+        /**
+         * Used to free the slot & adjust the concurrency limit using the result of the attempt.
+         *
+         * @param policy     Policy.
+         * @param resultCode HTTP status code OR error code.
+         * @param latencyMs  Network time OR -1.
+         * @param nowMs      Current time.
+         */
+        void onFinished(final HostLimitPolicy policy, final int resultCode, final long latencyMs, final long nowMs) {
+            boolean saturated = mRunningCount >= getLimit();
+            mRunningCount--;
+            if (resultCode == 429 || resultCode == 503 || resultCode == HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR
+                    || latencyMs > policy.getTargetLatencyMs()) {
+                // Responses of requests sent before the last decrease are from the same round, decreased only once.
+                if (nowMs - mLastDecreaseMs >= policy.getTargetLatencyMs()) {
+                    mLimit = Math.max(policy.getMinConcurrency(), mLimit * policy.getBackoffRatio());
+                    mLastDecreaseMs = nowMs;
+                }
+            } else if (latencyMs >= 0 && resultCode < 400 && saturated) {
+                // Grows by one once every request of the current limit succeeds.
+                mLimit = Math.min(policy.getMaxConcurrency(), mLimit + 1 / mLimit);
+            }
+        }
+    }
+
+    /**
+     * Pending.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Request waiting for its host along with its arrival order, used to keep requests of same priority in order.
+     *
+     * @param <T> Type of the request.
+     */
+    private static class Pending<T> {
+
+        private final T mRequest;
+        private final long mArrival;
+
+        /**
+         * Constructor.
+         *
+         * @param request Request.
+         * @param arrival Arrival order.
+         */
+        Pending(final T request, final long arrival) {
+            this.mRequest = request;
+            this.mArrival = arrival;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Http Authenticator.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HttpRequestInterceptor} which also gets called when the server answers "401 Unauthorized", so it can
+ * refresh the credentials & have the request replayed once with the headers intercepted again.
+ * 1.b. See {@link TokenAuthenticator} for bearer tokens refreshed only once for all the concurrent requests.
+ *
+ * @author Vasanth
+ */
+public interface HttpAuthenticator extends HttpRequestInterceptor {
+
+    /**
+     * Gets called on the network thread once the request is answered with "401 Unauthorized", may block while the
+     * credentials are refreshed.
+     *
+     * @param request Request as sent.
+     * @return True to replay the request, false to deliver the "401" response.
+     */
+    boolean authenticate(InterceptedRequest request);
+}
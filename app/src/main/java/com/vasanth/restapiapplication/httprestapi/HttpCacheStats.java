@@ -0,0 +1,99 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Http Cache Stats.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Immutable snapshot of the in-memory response cache counters.
+ *
+ * @author Vasanth
+ */
+public class HttpCacheStats {
+
+    private final long mHitCount;
+    private final long mMissCount;
+    private final long mEvictionCount;
+    private final long mSizeBytes;
+    private final long mMaxSizeBytes;
+    private final int mEntryCount;
+
+    /**
+     * Constructor.
+     *
+     * @param hitCount      Number of lookups served from memory.
+     * @param missCount     Number of lookups not found in memory.
+     * @param evictionCount Number of entries evicted to stay within the size limit.
+     * @param sizeBytes     Current size of the cached entries in bytes.
+     * @param maxSizeBytes  Maximum size of the cached entries in bytes.
+     * @param entryCount    Number of cached entries.
+     */
+    public HttpCacheStats(final long hitCount, final long missCount, final long evictionCount, final long sizeBytes,
+                          final long maxSizeBytes, final int entryCount) {
+        this.mHitCount = hitCount;
+        this.mMissCount = missCount;
+        this.mEvictionCount = evictionCount;
+        this.mSizeBytes = sizeBytes;
+        this.mMaxSizeBytes = maxSizeBytes;
+        this.mEntryCount = entryCount;
+    }
+
+    /**
+     * Used to get number of lookups served from memory.
+     *
+     * @return Hit count.
+     */
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * Used to get number of lookups not found in memory.
+     *
+     * @return Miss count.
+     */
+    public long getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Used to get number of entries evicted to stay within the size limit.
+     *
+     * @return Eviction count.
+     */
+    public long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * Used to get current size of the cached entries in bytes.
+     *
+     * @return Size in bytes.
+     */
+    public long getSizeBytes() {
+        return mSizeBytes;
+    }
+
+    /**
+     * Used to get maximum size of the cached entries in bytes.
+     *
+     * @return Maximum size in bytes.
+     */
+    public long getMaxSizeBytes() {
+        return mMaxSizeBytes;
+    }
+
+    /**
+     * Used to get number of cached entries.
+     *
+     * @return Entry count.
+     */
+    public int getEntryCount() {
+        return mEntryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{hits=" + mHitCount + ", misses=" + mMissCount + ", evictions=" + mEvictionCount
+                + ", size=" + mSizeBytes + "/" + mMaxSizeBytes + ", entries=" + mEntryCount + "}";
+    }
+}
@@ -1,5 +1,8 @@
 package com.vasanth.restapiapplication.httprestapi;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 /**
@@ -19,7 +22,7 @@ public interface HttpClientApi {
     // The Default Socket timeout in milliseconds
     int DEFAULT_REQUEST_SOCKET_TIMEOUT_MS = 25 * 100;
 
-    // The Default number of retries
+    // The Default number of retries, use "RequestOptions" with "HttpRetryPolicy" to retry requests.
     int DEFAULT_REQUEST_MAX_RETRIES = 0;
 
     // The Default backoff multiplier - A multiplier which is used to determine exponential time set to socket for every retry attempt.
@@ -32,13 +35,38 @@ public interface HttpClientApi {
     // Use this bodyContType If - THe body of the HTTP message sent to the server is a json.
     String BODY_CONTENT_TYPE_JSON = "application/json; charset=utf-8";
 
+    /**
+     * Typed Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface use to send callback with the decoded response once request completes.
+     *
+     * @param <T> Type of the decoded response.
+     */
+    interface TypedResponseListener<T> {
+
+        /**
+         * Gets called on request success.
+         *
+         * @param response Decoded response.
+         */
+        void onSuccessResponse(T response);
+
+        /**
+         * Gets called on request failure.
+         *
+         * @param errorCode Will get one of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes"
+         */
+        void onErrorResponse(int errorCode);
+    }
+
     /**
      * HTTP Response Listener.
      * <p>
      * 1. Responsibility.
      * 1.a. Interface use to send callback once request completes.
      */
-    interface HttpResponseListener {
+    interface HttpResponseListener extends TypedResponseListener<String> {
 
         // Error code indicates network error (like NoConnectivity & other networkErrors).
         int ERROR_CODE_NETWORK_ERROR = 1001;
@@ -49,11 +77,18 @@ public interface HttpClientApi {
         // Error code indicated some random unknown error (like BadUrl etc)
         int ERROR_CODE_UNKNOWN_ERROR = 1003;
 
+        // Error code indicates response received but "ResponseDecoder" failed to decode it.
+        int ERROR_CODE_PARSE_ERROR = 1004;
+
+        // Error code indicates request failed fast without network call, since circuit breaker of its host is open.
+        int ERROR_CODE_CIRCUIT_OPEN = 1005;
+
         /**
          * Gets called on request success.
          *
          * @param response Response.
          */
+        @Override
         void onSuccessResponse(String response);
 
         /**
@@ -62,9 +97,159 @@ public interface HttpClientApi {
          * @param errorCode Will get one of "ERROR_CODE_NETWORK_ERROR" OR "ERROR_CODE_TIME_OUT_ERROR" OR
          *                  "Common Http Error Codes"
          */
+        @Override
         void onErrorResponse(int errorCode);
     }
 
+    /**
+     * HTTP Full Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface use to send callback with the whole {@link HttpResponse} (status code, headers, body, cache &
+     * timing) instead of only the body, like to read pagination links OR error bodies.
+     * 1.b. Stale while revalidate requests may deliver a cached response & then the revalidated one.
+     */
+    interface HttpFullResponseListener {
+
+        /**
+         * Gets called on request success ("2XX" response).
+         *
+         * @param response Response.
+         */
+        void onSuccessResponse(HttpResponse response);
+
+        /**
+         * Gets called on request failure.
+         *
+         * @param errorCode Will get one of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes"
+         * @param response  Error response received from the server (like "4XX" body) OR null if there was no response.
+         */
+        void onErrorResponse(int errorCode, HttpResponse response);
+    }
+
+    /**
+     * Request Finished Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Optional interface of the response listeners, used to know when no more callbacks follow. Cache enabled
+     * request whose cached response needs refresh delivers the cached response first & then the refreshed one, OR
+     * nothing more if the server answers "304 Not Modified" OR the refresh fails.
+     */
+    interface RequestFinishedListener {
+
+        /**
+         * Gets called once the request is finished, after its last callback (may be called on the network thread if the
+         * refresh isn't delivered). Not called for cancelled requests.
+         */
+        void onRequestFinished();
+    }
+
+    /**
+     * Response Decoder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface used to convert the raw response body into a model object.
+     * 1.b. Gets called on the network thread, so the listener only receives the finished model.
+     *
+     * @param <T> Type of the decoded response.
+     */
+    interface ResponseDecoder<T> {
+
+        /**
+         * Used to decode the response body.
+         *
+         * @param data    Response body bytes.
+         * @param charset Charset of the response body, parsed from "Content-Type" header.
+         * @return Decoded response.
+         * @throws Exception If the body can't be decoded, request will fail with "ERROR_CODE_PARSE_ERROR".
+         */
+        T decode(byte[] data, String charset) throws Exception;
+    }
+
+    /**
+     * HTTP Stream Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface use to consume the response body incrementally as a stream, instead of getting it as one String.
+     * 1.b. "onResponseStream" gets called on a background thread, other callbacks gets called on the delivery thread (main
+     * thread by default, see {@link HttpClientConfig#getDeliveryExecutor()}).
+     */
+    interface HttpStreamResponseListener {
+
+        /**
+         * Gets called on a background thread once response headers are received, consume the body from the stream.
+         * <p>
+         * Stream gets closed once this method returns, so do not hold the reference.
+         *
+         * @param inputStream   Response body stream.
+         * @param contentLength Response body length in bytes OR -1 if unknown.
+         * @throws IOException If reading the stream fails, request will be completed with "ERROR_CODE_NETWORK_ERROR".
+         */
+        void onResponseStream(InputStream inputStream, long contentLength) throws IOException;
+
+        /**
+         * Gets called on the delivery thread once the response stream is consumed completely.
+         */
+        void onStreamComplete();
+
+        /**
+         * Gets called on request failure.
+         *
+         * @param errorCode Will get one of "ERROR_CODE_NETWORK_ERROR" OR "ERROR_CODE_TIME_OUT_ERROR" OR
+         *                  "Common Http Error Codes"
+         */
+        void onErrorResponse(int errorCode);
+    }
+
+    /**
+     * HTTP Download Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface use to send callback while response body is written to a file.
+     * 1.b. All callbacks gets called on the delivery thread (main thread by default).
+     */
+    interface HttpDownloadListener {
+
+        /**
+         * Gets called periodically while the response body is written to the file.
+         *
+         * @param bytesDownloaded Number of bytes written so far.
+         * @param contentLength   Response body length in bytes OR -1 if unknown.
+         */
+        void onDownloadProgress(long bytesDownloaded, long contentLength);
+
+        /**
+         * Gets called once the response body is written completely.
+         *
+         * @param file Downloaded file.
+         */
+        void onDownloadComplete(File file);
+
+        /**
+         * Gets called on request failure.
+         *
+         * @param errorCode Will get one of "ERROR_CODE_NETWORK_ERROR" OR "ERROR_CODE_TIME_OUT_ERROR" OR
+         *                  "Common Http Error Codes"
+         */
+        void onErrorResponse(int errorCode);
+    }
+
+    /**
+     * Batch Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface use to send one aggregated callback once all the requests of a {@link BatchRequest} complete.
+     */
+    interface BatchResponseListener {
+
+        /**
+         * Gets called on the delivery thread once every item of the batch either succeeded or failed.
+         *
+         * @param result Per item responses & error codes, use {@link BatchResult#hasFailures()} to handle partial failures.
+         */
+        void onBatchComplete(BatchResult result);
+    }
+
     /**
      * Used to make "HTTP GET REQUEST" & get response using callback.
      *
@@ -76,6 +261,17 @@ public interface HttpClientApi {
      */
     void getRequest(final String identifier, final Map<String, String> headers, final String url, final boolean shouldCache, final HttpResponseListener listener);
 
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    void getRequest(final String identifier, final Map<String, String> headers, final String url, final RequestOptions options, final HttpResponseListener listener);
+
     /**
      * Used to make "HTTP POST REQUEST" & get response using callback.
      *
@@ -90,6 +286,76 @@ public interface HttpClientApi {
     void postRequest(final String identifier, final Map<String, String> headers, final String url, final String body, final String bodyContentType,
                      final boolean shouldCache, final HttpResponseListener listener);
 
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    void postRequest(final String identifier, final Map<String, String> headers, final String url, final String body, final String bodyContentType,
+                     final RequestOptions options, final HttpResponseListener listener);
+
+    /**
+     * Used to make "HTTP GET REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param decoder     Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    <T> void getRequest(final String identifier, final Map<String, String> headers, final String url, final boolean shouldCache,
+                        final ResponseDecoder<T> decoder, final TypedResponseListener<T> listener);
+
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    <T> void getRequest(final String identifier, final Map<String, String> headers, final String url, final RequestOptions options,
+                        final ResponseDecoder<T> decoder, final TypedResponseListener<T> listener);
+
+    /**
+     * Used to make "HTTP POST REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    <T> void postRequest(final String identifier, final Map<String, String> headers, final String url, final String body, final String bodyContentType,
+                         final boolean shouldCache, final ResponseDecoder<T> decoder, final TypedResponseListener<T> listener);
+
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    <T> void postRequest(final String identifier, final Map<String, String> headers, final String url, final String body, final String bodyContentType,
+                         final RequestOptions options, final ResponseDecoder<T> decoder, final TypedResponseListener<T> listener);
+
     /**
      * Used to make "HTTP PUT REQUEST" & get response using callback.
      *
@@ -104,6 +370,60 @@ public interface HttpClientApi {
     void putRequest(final String identifier, final Map<String, String> headers, final String url, final String body, final String bodyContentType,
                     final boolean shouldCache, final HttpResponseListener listener);
 
+    /**
+     * Used to make "HTTP PUT REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    void putRequest(final String identifier, final Map<String, String> headers, final String url, final String body, final String bodyContentType,
+                    final RequestOptions options, final HttpResponseListener listener);
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    void postRequest(final String identifier, final Map<String, String> headers, final String url, final HttpRequestBody body,
+                     final RequestOptions options, final HttpResponseListener listener);
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    <T> void postRequest(final String identifier, final Map<String, String> headers, final String url, final HttpRequestBody body,
+                         final RequestOptions options, final ResponseDecoder<T> decoder, final TypedResponseListener<T> listener);
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    void putRequest(final String identifier, final Map<String, String> headers, final String url, final HttpRequestBody body,
+                    final RequestOptions options, final HttpResponseListener listener);
+
     /**
      * Used to make "HTTP DELETE REQUEST" & get response using callback.
      *
@@ -115,6 +435,138 @@ public interface HttpClientApi {
      */
     void deleteRequest(final String identifier, final Map<String, String> headers, final String url, final boolean shouldCache, final HttpResponseListener listener);
 
+    /**
+     * Used to make "HTTP DELETE REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    void deleteRequest(final String identifier, final Map<String, String> headers, final String url, final RequestOptions options, final HttpResponseListener listener);
+
+    /**
+     * Used to make the request & get the whole response (status code, headers, body, cache & timing) using callback.
+     * <p>
+     * Successful "HTTP PUT REQUEST" & "HTTP DELETE REQUEST" invalidate their own url, like the other methods.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, used only by "POST" & "PUT", may be null.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    void request(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url, final HttpRequestBody body,
+                 final RequestOptions options, final HttpFullResponseListener listener);
+
+    /**
+     * Used to make "HTTP GET REQUEST" & consume the response body as a stream, without loading it completely into memory.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param listener   Listener used to consume the response stream & get callback on request completes.
+     */
+    void streamRequest(final String identifier, final Map<String, String> headers, final String url, final HttpStreamResponseListener listener);
+
+    /**
+     * Used to make "HTTP GET REQUEST" & write the response body directly to the given file.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param destinationFile File to which response body has to be written, replaced if already exists.
+     * @param listener        Listener used to get callback on download progress & completion.
+     */
+    void downloadRequest(final String identifier, final Map<String, String> headers, final String url, final File destinationFile,
+                         final HttpDownloadListener listener);
+
+    /**
+     * Used to make the request on the calling thread & get the response directly, for code already running on a
+     * background thread (like sync jobs).
+     * <p>
+     * Uses the same caching, retry policy & error codes as the asynchronous methods, retries sleep on the calling thread.
+     * Request doesn't go through the request queue, so priority & concurrency limits don't apply & it can't be cancelled
+     * using {@link #cancelRequest(String)}.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body, used only by "POST" & "PUT".
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @return Response.
+     * @throws HttpClientException   If the request fails, carries the error code.
+     * @throws IllegalStateException If called on main thread.
+     */
+    String execute(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url, final String body,
+                   final String bodyContentType, final RequestOptions options) throws HttpClientException;
+
+    /**
+     * Used to make the request on the calling thread & get the decoded response directly.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body, used only by "POST" & "PUT".
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on the calling thread.
+     * @return Decoded response.
+     * @throws HttpClientException   If the request fails, carries the error code.
+     * @throws IllegalStateException If called on main thread.
+     * @see #execute(String, HttpMethod, Map, String, String, String, RequestOptions)
+     */
+    <T> T execute(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url, final String body,
+                  final String bodyContentType, final RequestOptions options, final ResponseDecoder<T> decoder) throws HttpClientException;
+
+    /**
+     * Used to make a group of requests together & get one aggregated callback once all of them complete.
+     * <p>
+     * Items run in parallel as individual requests using the given identifier, OR as a single request when the batch has
+     * a server side batch endpoint. Use {@link #cancelRequest(String)} with the identifier to cancel the whole batch.
+     *
+     * @param identifier   Unique string to identify the batch.
+     * @param batchRequest Requests of the batch.
+     * @param listener     Listener used to get callback once all the requests complete.
+     */
+    void batchRequest(final String identifier, final BatchRequest batchRequest, final BatchResponseListener listener);
+
+    /**
+     * Used to remove cached responses of all the urls starting with the given prefix, matched on a path segment boundary
+     * (see {@link UrlPrefix}), including the ones cached by an earlier launch of the app.
+     * <p>
+     * Successful "HTTP PUT REQUEST" & "HTTP DELETE REQUEST" invalidate their own url automatically.
+     *
+     * @param urlPrefix Url prefix.
+     */
+    void invalidateCache(final String urlPrefix);
+
+    /**
+     * Used to limit the number of requests with the given identifier running at the same time.
+     * <p>
+     * Requests over the limit wait in a lane ordered by priority & get sent as running ones complete, so bulk traffic
+     * sharing an identifier can't occupy all the network threads.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    void setMaxConcurrentRequests(final String identifier, final int maxConcurrentRequests);
+
+    /**
+     * Used to set the listener which receives timings, sizes & outcome of every completed request.
+     * <p>
+     * Use {@link MetricsAggregator} to get per endpoint percentiles. Stream & download requests aren't reported.
+     *
+     * @param metricsListener Metrics listener, null to stop reporting.
+     */
+    void setMetricsListener(final HttpMetricsListener metricsListener);
+
     /**
      * Used to cancel the request.
      *
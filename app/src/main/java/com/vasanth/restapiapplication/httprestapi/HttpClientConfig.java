@@ -0,0 +1,422 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Http Client Config.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Holds the configuration used by {@link HttpClientApi} implementation to size its threads, cache & connection pool.
+ * 1.b. Use {@link Builder} to create the config, values not set on the builder use the defaults.
+ *
+ * @author Vasanth
+ */
+public class HttpClientConfig {
+
+    // The Default number of threads used to perform network requests.
+    public static final int DEFAULT_THREAD_POOL_SIZE = 4;
+
+    // The Default disk cache size in bytes.
+    public static final int DEFAULT_CACHE_SIZE_BYTES = 5 * 1024 * 1024;
+
+    // The Default in-memory cache size in bytes, used in front of the disk cache.
+    public static final int DEFAULT_MEMORY_CACHE_SIZE_BYTES = 1024 * 1024;
+
+    // The Default disk cache directory name, created inside application cache directory.
+    public static final String DEFAULT_CACHE_DIRECTORY_NAME = "volley";
+
+    // The Default maximum number of idle connections kept in the connection pool.
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+    // The Default time an idle connection is kept in the connection pool (5 minutes).
+    public static final long DEFAULT_KEEP_ALIVE_DURATION_MS = 5 * 60 * 1000;
+
+    private final int mThreadPoolSize;
+    private final File mCacheDirectory;
+    private final int mCacheSizeBytes;
+    private final int mMemoryCacheSizeBytes;
+    private final CacheStorage mCacheStorage;
+    private final ExecutorService mExecutorService;
+    private final int mMaxIdleConnections;
+    private final long mKeepAliveDurationMs;
+    private final Executor mDeliveryExecutor;
+    private final HostLimitPolicy mHostLimitPolicy;
+    private final CircuitBreakerPolicy mCircuitBreakerPolicy;
+    private final Map<String, CircuitBreakerPolicy> mCircuitBreakerPrefixPolicies;
+    private final List<HttpRequestInterceptor> mInterceptors;
+
+    /**
+     * Cache Storage.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. On disk format of the response cache, used by the volley implementation (OkHttp uses its own journaled cache).
+     * 1.b. Each format owns the cache directory, files of the other format are removed when the cache is loaded.
+     */
+    public enum CacheStorage {
+        // One file per entry, headers of all the entries are read when the cache starts.
+        FILE_PER_ENTRY,
+        // Entries appended to a few segment files, index is loaded lazily by scanning only the keys.
+        SEGMENTED_LOG
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private HttpClientConfig(final Builder builder) {
+        this.mThreadPoolSize = builder.mThreadPoolSize;
+        this.mCacheDirectory = builder.mCacheDirectory;
+        this.mCacheSizeBytes = builder.mCacheSizeBytes;
+        this.mMemoryCacheSizeBytes = builder.mMemoryCacheSizeBytes;
+        this.mCacheStorage = builder.mCacheStorage;
+        this.mExecutorService = builder.mExecutorService;
+        this.mMaxIdleConnections = builder.mMaxIdleConnections;
+        this.mKeepAliveDurationMs = builder.mKeepAliveDurationMs;
+        this.mDeliveryExecutor = builder.mDeliveryExecutor;
+        this.mHostLimitPolicy = builder.mHostLimitPolicy;
+        this.mCircuitBreakerPolicy = builder.mCircuitBreakerPolicy;
+        this.mCircuitBreakerPrefixPolicies = Collections.unmodifiableMap(
+                new LinkedHashMap<String, CircuitBreakerPolicy>(builder.mCircuitBreakerPrefixPolicies));
+        this.mInterceptors = Collections.unmodifiableList(new ArrayList<HttpRequestInterceptor>(builder.mInterceptors));
+    }
+
+    /**
+     * Used to get the default config.
+     *
+     * @return Default config.
+     */
+    public static HttpClientConfig getDefault() {
+        return new Builder().build();
+    }
+
+    /**
+     * Used to get number of threads used to perform network requests.
+     *
+     * @return Thread pool size.
+     */
+    public int getThreadPoolSize() {
+        return mThreadPoolSize;
+    }
+
+    /**
+     * Used to get disk cache directory.
+     *
+     * @return Cache directory OR null to use "DEFAULT_CACHE_DIRECTORY_NAME" inside application cache directory.
+     */
+    public File getCacheDirectory() {
+        return mCacheDirectory;
+    }
+
+    /**
+     * Used to get maximum disk cache size.
+     *
+     * @return Cache size in bytes.
+     */
+    public int getCacheSizeBytes() {
+        return mCacheSizeBytes;
+    }
+
+    /**
+     * Used to get maximum in-memory cache size.
+     *
+     * @return Memory cache size in bytes, zero if memory cache is disabled.
+     */
+    public int getMemoryCacheSizeBytes() {
+        return mMemoryCacheSizeBytes;
+    }
+
+    /**
+     * Used to get the on disk format of the response cache.
+     *
+     * @return Cache storage.
+     */
+    public CacheStorage getCacheStorage() {
+        return mCacheStorage;
+    }
+
+    /**
+     * Used to get shared executor used for work done outside the request queue (like streaming & downloads).
+     *
+     * @return Executor service OR null to let the implementation create its own.
+     */
+    public ExecutorService getExecutorService() {
+        return mExecutorService;
+    }
+
+    /**
+     * Used to get maximum number of idle connections kept in the connection pool.
+     * <p>
+     * Used by implementations owning their connection pool (like OkHttp), HttpURLConnection manages its own pool.
+     *
+     * @return Maximum idle connections.
+     */
+    public int getMaxIdleConnections() {
+        return mMaxIdleConnections;
+    }
+
+    /**
+     * Used to get time an idle connection is kept in the connection pool.
+     *
+     * @return Keep alive duration in milliseconds.
+     */
+    public long getKeepAliveDurationMs() {
+        return mKeepAliveDurationMs;
+    }
+
+    /**
+     * Used to get the executor on which callbacks are delivered, unless the request sets its own.
+     *
+     * @return Executor OR null to deliver on main thread.
+     */
+    public Executor getDeliveryExecutor() {
+        return mDeliveryExecutor;
+    }
+
+    /**
+     * Used to get the rate & concurrency limits applied to every host.
+     *
+     * @return Policy OR null if hosts are not limited.
+     */
+    public HostLimitPolicy getHostLimitPolicy() {
+        return mHostLimitPolicy;
+    }
+
+    /**
+     * Used to get the circuit breaker policy applied to every host.
+     *
+     * @return Policy OR null if hosts have no circuit breaker.
+     */
+    public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return mCircuitBreakerPolicy;
+    }
+
+    /**
+     * Used to get the circuit breaker policies of the url prefixes.
+     *
+     * @return Policies by url prefix.
+     */
+    public Map<String, CircuitBreakerPolicy> getCircuitBreakerPrefixPolicies() {
+        return mCircuitBreakerPrefixPolicies;
+    }
+
+    /**
+     * Used to get the request interceptors.
+     *
+     * @return Interceptors in the order they run.
+     */
+    public List<HttpRequestInterceptor> getInterceptors() {
+        return mInterceptors;
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to build {@link HttpClientConfig}.
+     */
+    public static class Builder {
+
+        private int mThreadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+        private File mCacheDirectory;
+        private int mCacheSizeBytes = DEFAULT_CACHE_SIZE_BYTES;
+        private int mMemoryCacheSizeBytes = DEFAULT_MEMORY_CACHE_SIZE_BYTES;
+        private CacheStorage mCacheStorage = CacheStorage.FILE_PER_ENTRY;
+        private ExecutorService mExecutorService;
+        private int mMaxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        private long mKeepAliveDurationMs = DEFAULT_KEEP_ALIVE_DURATION_MS;
+        private Executor mDeliveryExecutor;
+        private HostLimitPolicy mHostLimitPolicy;
+        private CircuitBreakerPolicy mCircuitBreakerPolicy;
+        private final Map<String, CircuitBreakerPolicy> mCircuitBreakerPrefixPolicies = new LinkedHashMap<String, CircuitBreakerPolicy>();
+        private final List<HttpRequestInterceptor> mInterceptors = new ArrayList<HttpRequestInterceptor>();
+
+        /**
+         * Used to set number of threads used to perform network requests.
+         *
+         * @param threadPoolSize Thread pool size, must be greater than zero.
+         * @return Builder.
+         */
+        public Builder setThreadPoolSize(final int threadPoolSize) {
+            if (threadPoolSize <= 0) {
+                throw new IllegalArgumentException("threadPoolSize must be greater than zero");
+            }
+            this.mThreadPoolSize = threadPoolSize;
+            return this;
+        }
+
+        /**
+         * Used to set disk cache directory.
+         *
+         * @param cacheDirectory Cache directory.
+         * @return Builder.
+         */
+        public Builder setCacheDirectory(final File cacheDirectory) {
+            this.mCacheDirectory = cacheDirectory;
+            return this;
+        }
+
+        /**
+         * Used to set maximum disk cache size.
+         *
+         * @param cacheSizeBytes Cache size in bytes, must be greater than zero.
+         * @return Builder.
+         */
+        public Builder setCacheSizeBytes(final int cacheSizeBytes) {
+            if (cacheSizeBytes <= 0) {
+                throw new IllegalArgumentException("cacheSizeBytes must be greater than zero");
+            }
+            this.mCacheSizeBytes = cacheSizeBytes;
+            return this;
+        }
+
+        /**
+         * Used to set maximum in-memory cache size, hot responses are served from memory without reading the disk cache.
+         *
+         * @param memoryCacheSizeBytes Memory cache size in bytes, zero disables the memory cache.
+         * @return Builder.
+         */
+        public Builder setMemoryCacheSizeBytes(final int memoryCacheSizeBytes) {
+            if (memoryCacheSizeBytes < 0) {
+                throw new IllegalArgumentException("memoryCacheSizeBytes must not be negative");
+            }
+            this.mMemoryCacheSizeBytes = memoryCacheSizeBytes;
+            return this;
+        }
+
+        /**
+         * Used to set the on disk format of the response cache, {@link CacheStorage#SEGMENTED_LOG} starts faster & uses
+         * fewer files when thousands of responses are cached.
+         *
+         * @param cacheStorage Cache storage.
+         * @return Builder.
+         */
+        public Builder setCacheStorage(final CacheStorage cacheStorage) {
+            this.mCacheStorage = cacheStorage;
+            return this;
+        }
+
+        /**
+         * Used to set shared executor used for work done outside the request queue (like streaming & downloads).
+         * <p>
+         * Executor is owned by the caller & never shut down by the http client.
+         *
+         * @param executorService Executor service.
+         * @return Builder.
+         */
+        public Builder setExecutorService(final ExecutorService executorService) {
+            this.mExecutorService = executorService;
+            return this;
+        }
+
+        /**
+         * Used to set maximum number of idle connections kept in the connection pool.
+         *
+         * @param maxIdleConnections Maximum idle connections, must not be negative.
+         * @return Builder.
+         */
+        public Builder setMaxIdleConnections(final int maxIdleConnections) {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("maxIdleConnections must not be negative");
+            }
+            this.mMaxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Used to set time an idle connection is kept in the connection pool.
+         *
+         * @param keepAliveDurationMs Keep alive duration in milliseconds, must be greater than zero.
+         * @return Builder.
+         */
+        public Builder setKeepAliveDurationMs(final long keepAliveDurationMs) {
+            if (keepAliveDurationMs <= 0) {
+                throw new IllegalArgumentException("keepAliveDurationMs must be greater than zero");
+            }
+            this.mKeepAliveDurationMs = keepAliveDurationMs;
+            return this;
+        }
+
+        /**
+         * Used to set the executor on which callbacks are delivered, see {@link DeliveryExecutors}.
+         * <p>
+         * Applies to all the requests which don't set their own executor in {@link RequestOptions}, including stream &
+         * download callbacks.
+         *
+         * @param deliveryExecutor Executor, null to deliver on main thread.
+         * @return Builder.
+         */
+        public Builder setDeliveryExecutor(final Executor deliveryExecutor) {
+            this.mDeliveryExecutor = deliveryExecutor;
+            return this;
+        }
+
+        /**
+         * Used to set the rate & concurrency limits applied separately to every host, see {@link HostLimitPolicy}.
+         * <p>
+         * Applies to the requests going through the request queue, requests made using "execute", streams & downloads
+         * are not limited.
+         *
+         * @param hostLimitPolicy Policy, null to not limit the hosts.
+         * @return Builder.
+         */
+        public Builder setHostLimitPolicy(final HostLimitPolicy hostLimitPolicy) {
+            this.mHostLimitPolicy = hostLimitPolicy;
+            return this;
+        }
+
+        /**
+         * Used to set the circuit breaker created separately for every host, see {@link CircuitBreaker}.
+         * <p>
+         * Breaker guards the network calls, cached responses are still served while the circuit is open.
+         *
+         * @param circuitBreakerPolicy Policy, null for no host circuit breakers.
+         * @return Builder.
+         */
+        public Builder setCircuitBreakerPolicy(final CircuitBreakerPolicy circuitBreakerPolicy) {
+            this.mCircuitBreakerPolicy = circuitBreakerPolicy;
+            return this;
+        }
+
+        /**
+         * Used to add the circuit breaker shared by all the urls starting with the given prefix (like
+         * "https://api.example.com/search"), used instead of the host circuit breaker. Longest matching prefix wins.
+         *
+         * @param urlPrefix            Url prefix.
+         * @param circuitBreakerPolicy Policy.
+         * @return Builder.
+         */
+        public Builder addCircuitBreakerPolicy(final String urlPrefix, final CircuitBreakerPolicy circuitBreakerPolicy) {
+            this.mCircuitBreakerPrefixPolicies.put(urlPrefix, circuitBreakerPolicy);
+            return this;
+        }
+
+        /**
+         * Used to add the interceptor run before every attempt of every request, after the ones added earlier. An
+         * {@link HttpAuthenticator} also gets asked to replay the requests answered with "401 Unauthorized".
+         *
+         * @param interceptor Interceptor.
+         * @return Builder.
+         */
+        public Builder addInterceptor(final HttpRequestInterceptor interceptor) {
+            this.mInterceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Used to build the config.
+         *
+         * @return Config.
+         */
+        public HttpClientConfig build() {
+            return new HttpClientConfig(this);
+        }
+    }
+}
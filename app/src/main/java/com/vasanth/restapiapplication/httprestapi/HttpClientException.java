@@ -0,0 +1,47 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Http Client Exception.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Thrown by the synchronous {@link HttpClientApi} methods on request failure, carries the same error code the
+ * asynchronous methods pass to "onErrorResponse".
+ *
+ * @author Vasanth
+ */
+public class HttpClientException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int mErrorCode;
+
+    /**
+     * Constructor.
+     *
+     * @param errorCode One of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes".
+     */
+    public HttpClientException(final int errorCode) {
+        super("Request failed with error code " + errorCode);
+        this.mErrorCode = errorCode;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param errorCode One of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes".
+     * @param cause     Cause of the failure.
+     */
+    public HttpClientException(final int errorCode, final Throwable cause) {
+        super("Request failed with error code " + errorCode, cause);
+        this.mErrorCode = errorCode;
+    }
+
+    /**
+     * Used to get the error code.
+     *
+     * @return One of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes".
+     */
+    public int getErrorCode() {
+        return mErrorCode;
+    }
+}
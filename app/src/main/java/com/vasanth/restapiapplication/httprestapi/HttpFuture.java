@@ -0,0 +1,575 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Http Future.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Result of an asynchronous request which completes with either the response OR an error code, created by
+ * {@link FutureHttpClient}.
+ * 1.b. Futures can be chained ({@link #then}, {@link #map}), combined ({@link #zip}, {@link #all}) & bounded by a
+ * {@link #timeout}, without blocking any thread.
+ * 1.c. Cancelling a future cancels the work it depends on, down to {@link HttpClientApi#cancelRequest(String)} of the
+ * requests still in flight, & the futures derived from it ({@link #map}, {@link #then}, {@link #timeout}, {@link #zip},
+ * {@link #all}), so a derived future never stays pending once its source is cancelled. Cancelled futures never call
+ * their listeners, use {@link #isCancelled()} to tell a cancelled future apart.
+ * 1.d. Listeners gets called on the thread completing the future, which is the delivery thread of the request (main
+ * thread by default) OR main thread (OR the given scheduler) for timeouts.
+ *
+ * @param <T> Type of the response.
+ * @author Vasanth
+ */
+public class HttpFuture<T> {
+
+    // States of the future.
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_SUCCEEDED = 1;
+    private static final int STATE_FAILED = 2;
+    private static final int STATE_CANCELLED = 3;
+
+    private static Handler mMainHandler;
+
+    private final Runnable mCancelAction;
+    private int mState = STATE_PENDING;
+    private T mResponse;
+    private int mErrorCode;
+    private List<HttpClientApi.TypedResponseListener<T>> mListeners = new ArrayList<HttpClientApi.TypedResponseListener<T>>();
+    // Futures derived from this future, cancelled along with it.
+    private List<HttpFuture<?>> mDependents = new ArrayList<HttpFuture<?>>();
+
+    /**
+     * Transform.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface used to convert the response of a future, see {@link #map(Transform)}.
+     *
+     * @param <T> Type of the response.
+     * @param <R> Type of the converted response.
+     */
+    public interface Transform<T, R> {
+
+        /**
+         * Used to convert the response.
+         *
+         * @param response Response.
+         * @return Converted response.
+         * @throws Exception If the response can't be converted, future fails with "ERROR_CODE_PARSE_ERROR".
+         */
+        R apply(T response) throws Exception;
+    }
+
+    /**
+     * Continuation.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface used to start the dependent request once a future succeeds, see {@link #then(Continuation)}.
+     *
+     * @param <T> Type of the response.
+     * @param <R> Type of the dependent response.
+     */
+    public interface Continuation<T, R> {
+
+        /**
+         * Used to start the dependent request.
+         *
+         * @param response Response of the previous future.
+         * @return Future of the dependent request.
+         */
+        HttpFuture<R> then(T response);
+    }
+
+    /**
+     * Combiner.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Interface used to combine the responses of two futures, see {@link #zip(HttpFuture, HttpFuture, Combiner)}.
+     *
+     * @param <A> Type of the first response.
+     * @param <B> Type of the second response.
+     * @param <R> Type of the combined response.
+     */
+    public interface Combiner<A, B, R> {
+
+        /**
+         * Used to combine the responses.
+         *
+         * @param first  First response.
+         * @param second Second response.
+         * @return Combined response.
+         */
+        R combine(A first, B second);
+    }
+
+    /**
+     * Constructor.
+     */
+    public HttpFuture() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param cancelAction Runs once if the future gets cancelled while pending, used to cancel the underlying work.
+     */
+    public HttpFuture(final Runnable cancelAction) {
+        this.mCancelAction = cancelAction;
+    }
+
+    /**
+     * Used to get an already succeeded future.
+     *
+     * @param response Response.
+     * @return Future.
+     */
+    public static <T> HttpFuture<T> succeeded(final T response) {
+        HttpFuture<T> future = new HttpFuture<T>();
+        future.complete(response);
+        return future;
+    }
+
+    /**
+     * Used to get an already failed future.
+     *
+     * @param errorCode Error code.
+     * @return Future.
+     */
+    public static <T> HttpFuture<T> failed(final int errorCode) {
+        HttpFuture<T> future = new HttpFuture<T>();
+        future.fail(errorCode);
+        return future;
+    }
+
+    /**
+     * Used to complete the future with the response.
+     *
+     * @param response Response.
+     * @return True if completed, false if the future was already done.
+     */
+    public boolean complete(final T response) {
+        List<HttpClientApi.TypedResponseListener<T>> listeners;
+        synchronized (this) {
+            if (mState != STATE_PENDING) {
+                return false;
+            }
+            mState = STATE_SUCCEEDED;
+            mResponse = response;
+            listeners = mListeners;
+            mListeners = null;
+            mDependents = null;
+        }
+        for (HttpClientApi.TypedResponseListener<T> listener : listeners) {
+            listener.onSuccessResponse(response);
+        }
+        return true;
+    }
+
+    /**
+     * Used to complete the future with the error code.
+     *
+     * @param errorCode Error code.
+     * @return True if completed, false if the future was already done.
+     */
+    public boolean fail(final int errorCode) {
+        List<HttpClientApi.TypedResponseListener<T>> listeners;
+        synchronized (this) {
+            if (mState != STATE_PENDING) {
+                return false;
+            }
+            mState = STATE_FAILED;
+            mErrorCode = errorCode;
+            listeners = mListeners;
+            mListeners = null;
+            mDependents = null;
+        }
+        for (HttpClientApi.TypedResponseListener<T> listener : listeners) {
+            listener.onErrorResponse(errorCode);
+        }
+        return true;
+    }
+
+    /**
+     * Used to cancel the future, the work it depends on & the futures derived from it, listeners will not be called.
+     *
+     * @return True if cancelled, false if the future was already done.
+     */
+    public boolean cancel() {
+        List<HttpFuture<?>> dependents;
+        synchronized (this) {
+            if (mState != STATE_PENDING) {
+                return false;
+            }
+            mState = STATE_CANCELLED;
+            mListeners = null;
+            dependents = mDependents;
+            mDependents = null;
+        }
+        if (mCancelAction != null) {
+            mCancelAction.run();
+        }
+        for (HttpFuture<?> dependent : dependents) {
+            dependent.cancel();
+        }
+        return true;
+    }
+
+    /**
+     * Used to add listener which gets called once the future completes, called immediately if already completed.
+     *
+     * @param listener Listener.
+     * @return This future.
+     */
+    public HttpFuture<T> addListener(final HttpClientApi.TypedResponseListener<T> listener) {
+        int state;
+        synchronized (this) {
+            state = mState;
+            if (state == STATE_PENDING) {
+                mListeners.add(listener);
+                return this;
+            }
+        }
+        if (state == STATE_SUCCEEDED) {
+            listener.onSuccessResponse(mResponse);
+        } else if (state == STATE_FAILED) {
+            listener.onErrorResponse(mErrorCode);
+        }
+        return this;
+    }
+
+    /**
+     * Used to add future derived from this future, which gets cancelled once this future is cancelled, cancelled
+     * immediately if already cancelled.
+     *
+     * @param dependent Derived future.
+     */
+    private void addDependent(final HttpFuture<?> dependent) {
+        synchronized (this) {
+            if (mState == STATE_PENDING) {
+                mDependents.add(dependent);
+                return;
+            }
+            if (mState != STATE_CANCELLED) {
+                return;
+            }
+        }
+        dependent.cancel();
+    }
+
+    /**
+     * Used to check whether the future is completed OR cancelled.
+     *
+     * @return True if done.
+     */
+    public synchronized boolean isDone() {
+        return mState != STATE_PENDING;
+    }
+
+    /**
+     * Used to check whether the future is cancelled.
+     *
+     * @return True if cancelled.
+     */
+    public synchronized boolean isCancelled() {
+        return mState == STATE_CANCELLED;
+    }
+
+    /**
+     * Used to convert the response once the future succeeds, errors are passed through.
+     * <p>
+     * Transform runs on the thread completing this future, keep it cheap OR use a "ResponseDecoder" instead.
+     *
+     * @param transform Transform.
+     * @return Future of the converted response, cancelling it cancels this future & the other way round.
+     */
+    public <R> HttpFuture<R> map(final Transform<T, R> transform) {
+        final HttpFuture<R> mapped = new HttpFuture<R>(new Runnable() {
+            @Override
+            public void run() {
+                cancel();
+            }
+        });
+        addDependent(mapped);
+        addListener(new HttpClientApi.TypedResponseListener<T>() {
+            @Override
+            public void onSuccessResponse(final T response) {
+                R converted;
+                try {
+                    converted = transform.apply(response);
+                } catch (Exception exp) {
+                    mapped.fail(HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR);
+                    return;
+                }
+                mapped.complete(converted);
+            }
+
+            @Override
+            public void onErrorResponse(final int errorCode) {
+                mapped.fail(errorCode);
+            }
+        });
+        return mapped;
+    }
+
+    /**
+     * Used to start the dependent request once the future succeeds, errors are passed through.
+     *
+     * @param continuation Continuation starting the dependent request.
+     * @return Future of the dependent request, cancelling it cancels this future OR the dependent request & the other
+     * way round.
+     */
+    public <R> HttpFuture<R> then(final Continuation<T, R> continuation) {
+        final Object lock = new Object();
+        final List<HttpFuture<R>> dependent = new ArrayList<HttpFuture<R>>(1);
+        final HttpFuture<R> chained = new HttpFuture<R>(new Runnable() {
+            @Override
+            public void run() {
+                cancel();
+                synchronized (lock) {
+                    for (HttpFuture<R> future : dependent) {
+                        future.cancel();
+                    }
+                }
+            }
+        });
+        addDependent(chained);
+        addListener(new HttpClientApi.TypedResponseListener<T>() {
+            @Override
+            public void onSuccessResponse(final T response) {
+                HttpFuture<R> next = continuation.then(response);
+                synchronized (lock) {
+                    dependent.add(next);
+                }
+                if (chained.isCancelled()) {
+                    next.cancel();
+                    return;
+                }
+                next.addDependent(chained);
+                next.addListener(forwardTo(chained));
+            }
+
+            @Override
+            public void onErrorResponse(final int errorCode) {
+                chained.fail(errorCode);
+            }
+        });
+        return chained;
+    }
+
+    /**
+     * Used to fail the future with "ERROR_CODE_TIME_OUT_ERROR" & cancel it, if it doesn't complete in time. Timeout is
+     * scheduled on the main thread.
+     *
+     * @param timeoutMs Timeout in milliseconds.
+     * @return Future completing with the response of this future OR the timeout error, cancelling it cancels this
+     * future & the other way round.
+     */
+    public HttpFuture<T> timeout(final long timeoutMs) {
+        final HttpFuture<T> bounded = newBoundedFuture();
+        final Runnable timeoutTask = newTimeoutTask(bounded);
+        getMainHandler().postDelayed(timeoutTask, timeoutMs);
+        addListener(forwardTo(bounded, new Runnable() {
+            @Override
+            public void run() {
+                getMainHandler().removeCallbacks(timeoutTask);
+            }
+        }));
+        return bounded;
+    }
+
+    /**
+     * Used to fail the future with "ERROR_CODE_TIME_OUT_ERROR" & cancel it, if it doesn't complete in time. Timeout is
+     * scheduled on the given scheduler, like for futures consumed off the main thread.
+     *
+     * @param timeoutMs Timeout in milliseconds.
+     * @param scheduler Scheduler running the timeout, listeners of the timed out future get called on its thread.
+     * @return Future completing with the response of this future OR the timeout error, cancelling it cancels this
+     * future & the other way round.
+     */
+    public HttpFuture<T> timeout(final long timeoutMs, final ScheduledExecutorService scheduler) {
+        HttpFuture<T> bounded = newBoundedFuture();
+        final ScheduledFuture<?> timeoutTask = scheduler.schedule(newTimeoutTask(bounded), timeoutMs, TimeUnit.MILLISECONDS);
+        addListener(forwardTo(bounded, new Runnable() {
+            @Override
+            public void run() {
+                timeoutTask.cancel(false);
+            }
+        }));
+        return bounded;
+    }
+
+    /**
+     * Used to create future bounding this future by a timeout, cancelled along with this future.
+     *
+     * @return Future which cancels this future on cancel.
+     */
+    private HttpFuture<T> newBoundedFuture() {
+        HttpFuture<T> bounded = new HttpFuture<T>(new Runnable() {
+            @Override
+            public void run() {
+                cancel();
+            }
+        });
+        addDependent(bounded);
+        return bounded;
+    }
+
+    /**
+     * Used to create task failing the bounded future with "ERROR_CODE_TIME_OUT_ERROR" & cancelling this future.
+     *
+     * @param bounded Future bounding this future.
+     * @return Task.
+     */
+    private Runnable newTimeoutTask(final HttpFuture<T> bounded) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                if (bounded.fail(HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR)) {
+                    cancel();
+                }
+            }
+        };
+    }
+
+    /**
+     * Used to combine the responses of two futures running in parallel.
+     * <p>
+     * Fails with the error of the first future failing & cancels the other one, along with the other futures derived
+     * from it. Cancelling one of the futures cancels the combined future.
+     *
+     * @param first    First future.
+     * @param second   Second future.
+     * @param combiner Combiner used once both the futures succeed.
+     * @return Future of the combined response, cancelling it cancels both the futures.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> HttpFuture<R> zip(final HttpFuture<A> first, final HttpFuture<B> second, final Combiner<A, B, R> combiner) {
+        List<HttpFuture<Object>> futures = Arrays.asList((HttpFuture<Object>) first, (HttpFuture<Object>) second);
+        return all(futures).map(new Transform<List<Object>, R>() {
+            @Override
+            public R apply(final List<Object> responses) throws Exception {
+                return combiner.combine((A) responses.get(0), (B) responses.get(1));
+            }
+        });
+    }
+
+    /**
+     * Used to wait for all the futures running in parallel.
+     * <p>
+     * Fails with the error of the first future failing & cancels the remaining ones, along with the other futures
+     * derived from them. Cancelling one of the futures cancels the combined future.
+     *
+     * @param futures Futures.
+     * @return Future of the responses in the order of the given futures, cancelling it cancels all the futures.
+     */
+    public static <T> HttpFuture<List<T>> all(final List<HttpFuture<T>> futures) {
+        final List<HttpFuture<T>> sources = new ArrayList<HttpFuture<T>>(futures);
+        final HttpFuture<List<T>> combined = new HttpFuture<List<T>>(new Runnable() {
+            @Override
+            public void run() {
+                cancelAll(sources);
+            }
+        });
+        if (sources.isEmpty()) {
+            combined.complete(Collections.<T>emptyList());
+            return combined;
+        }
+
+        final List<T> responses = new ArrayList<T>(Collections.<T>nCopies(sources.size(), null));
+        final int[] pending = {sources.size()};
+        for (int index = 0; index < sources.size(); index++) {
+            final int position = index;
+            sources.get(index).addDependent(combined);
+            sources.get(index).addListener(new HttpClientApi.TypedResponseListener<T>() {
+                @Override
+                public void onSuccessResponse(final T response) {
+                    synchronized (responses) {
+                        responses.set(position, response);
+                        pending[0]--;
+                        if (pending[0] != 0) {
+                            return;
+                        }
+                    }
+                    combined.complete(Collections.unmodifiableList(responses));
+                }
+
+                @Override
+                public void onErrorResponse(final int errorCode) {
+                    if (combined.fail(errorCode)) {
+                        cancelAll(sources);
+                    }
+                }
+            });
+        }
+        return combined;
+    }
+
+    /**
+     * Used to cancel all the futures.
+     *
+     * @param futures Futures.
+     */
+    private static <T> void cancelAll(final List<HttpFuture<T>> futures) {
+        for (HttpFuture<T> future : futures) {
+            future.cancel();
+        }
+    }
+
+    /**
+     * Used to get listener which completes the given future with the same result.
+     *
+     * @param future Future to be completed.
+     * @return Listener.
+     */
+    private static <R> HttpClientApi.TypedResponseListener<R> forwardTo(final HttpFuture<R> future) {
+        return forwardTo(future, null);
+    }
+
+    /**
+     * Used to get listener which completes the given future with the same result.
+     *
+     * @param future Future to be completed.
+     * @param onDone Runs before the future gets completed, may be null.
+     * @return Listener.
+     */
+    private static <R> HttpClientApi.TypedResponseListener<R> forwardTo(final HttpFuture<R> future, final Runnable onDone) {
+        return new HttpClientApi.TypedResponseListener<R>() {
+            @Override
+            public void onSuccessResponse(final R response) {
+                if (onDone != null) {
+                    onDone.run();
+                }
+                future.complete(response);
+            }
+
+            @Override
+            public void onErrorResponse(final int errorCode) {
+                if (onDone != null) {
+                    onDone.run();
+                }
+                future.fail(errorCode);
+            }
+        };
+    }
+
+    /**
+     * Used to get the main thread handler used to schedule timeouts.
+     *
+     * @return Handler.
+     */
+    private static synchronized Handler getMainHandler() {
+        if (mMainHandler == null) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mMainHandler;
+    }
+}
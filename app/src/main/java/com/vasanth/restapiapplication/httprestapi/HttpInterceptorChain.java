@@ -0,0 +1,79 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Http Interceptor Chain.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Used by {@link HttpClientApi} implementations to run the interceptors of the {@link HttpClientConfig} before
+ * every attempt & to ask the {@link HttpAuthenticator}s whether a "401 Unauthorized" request has to be replayed.
+ * 1.b. A request is replayed at most once per attempt, so a server rejecting the refreshed credentials too doesn't
+ * cause a loop.
+ *
+ * @author Vasanth
+ */
+public class HttpInterceptorChain {
+
+    // Status code for which the authenticators are asked to replay the request.
+    public static final int STATUS_CODE_UNAUTHORIZED = 401;
+
+    private final List<HttpRequestInterceptor> mInterceptors;
+
+    /**
+     * Constructor.
+     *
+     * @param interceptors Interceptors in the order they run.
+     */
+    public HttpInterceptorChain(final List<HttpRequestInterceptor> interceptors) {
+        this.mInterceptors = Collections.unmodifiableList(new ArrayList<HttpRequestInterceptor>(interceptors));
+    }
+
+    /**
+     * Used to create the chain from the interceptors of the config.
+     *
+     * @param config Config.
+     * @return Chain OR null if the config has no interceptor.
+     */
+    public static HttpInterceptorChain fromConfig(final HttpClientConfig config) {
+        return config.getInterceptors().isEmpty() ? null : new HttpInterceptorChain(config.getInterceptors());
+    }
+
+    /**
+     * Used to run the interceptors for an attempt of the request.
+     *
+     * @param identifier Unique string used to identify the request.
+     * @param method     HTTP Request Method.
+     * @param url        Request Url.
+     * @param headers    Request headers given by the caller, may be null.
+     * @param body       Request Body, may be null.
+     * @return Request with the headers to be sent.
+     */
+    public InterceptedRequest intercept(final String identifier, final HttpMethod method, final String url, final Map<String, String> headers,
+                                        final HttpRequestBody body) {
+        InterceptedRequest request = new InterceptedRequest(identifier, method, url, headers, body);
+        for (HttpRequestInterceptor interceptor : mInterceptors) {
+            interceptor.intercept(request);
+        }
+        return request;
+    }
+
+    /**
+     * Used to ask the authenticators whether the request answered with "401 Unauthorized" has to be replayed, stops at
+     * the first one which says so.
+     *
+     * @param request Request as sent.
+     * @return True to replay the request with the headers intercepted again.
+     */
+    public boolean authenticate(final InterceptedRequest request) {
+        for (HttpRequestInterceptor interceptor : mInterceptors) {
+            if (interceptor instanceof HttpAuthenticator && ((HttpAuthenticator) interceptor).authenticate(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Http Method.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. HTTP methods supported by {@link HttpClientApi}.
+ *
+ * @author Vasanth
+ */
+public enum HttpMethod {
+
+    GET(true),
+    POST(false),
+    PUT(true),
+    DELETE(true);
+
+    private final boolean mIdempotent;
+
+    /**
+     * Constructor.
+     *
+     * @param idempotent Whether making the same request more than once has the same effect as making it once.
+     */
+    HttpMethod(final boolean idempotent) {
+        this.mIdempotent = idempotent;
+    }
+
+    /**
+     * Used to check whether the method is idempotent, only idempotent requests are safe to be retried.
+     *
+     * @return True if idempotent.
+     */
+    public boolean isIdempotent() {
+        return mIdempotent;
+    }
+}
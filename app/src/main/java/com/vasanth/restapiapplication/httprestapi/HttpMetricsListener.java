@@ -0,0 +1,20 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Http Metrics Listener.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Interface use to receive {@link RequestMetrics} of every completed request.
+ * 1.b. Gets called on the thread delivering the response, so implementation must be quick.
+ *
+ * @author Vasanth
+ */
+public interface HttpMetricsListener {
+
+    /**
+     * Gets called once a request completes (success OR failure), not called for cancelled requests.
+     *
+     * @param metrics Request metrics.
+     */
+    void onRequestMetrics(RequestMetrics metrics);
+}
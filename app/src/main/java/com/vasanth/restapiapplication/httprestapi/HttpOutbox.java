@@ -0,0 +1,1000 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.Process;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Http Outbox.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Durable queue of mutating requests ("POST", "PUT" & "DELETE") which must reach the server even if the device is
+ * offline when they are made, built using {@link Builder} over any {@link HttpClientApi}.
+ * 1.b. Each request is persisted to its own file in the outbox directory (method, url, headers & body) & replayed in
+ * the order it was enqueued, also after the application is restarted.
+ * 1.c. Replay starts on enqueue, on {@link #flush()} & whenever connectivity returns (after {@link #start()}), requests
+ * are sent one by one OR in batches of {@link Builder#setBatchEndpoint(String, Map, BatchCodec, int)} when the server
+ * has a batch endpoint.
+ * 1.d. Transient failures (see {@link HttpRetryPolicy#shouldRetry(HttpMethod, int, int)}) keep the request at the head
+ * of the queue & replay is retried after the "Retry-After" delay of the response OR the backoff of the retry policy,
+ * other failures (& transient ones beyond the max retries of the policy) remove the request.
+ * 1.e. Outcome of each request is reported to the {@link OutboxListener} on the delivery executor.
+ * 1.f. Files are read & written only on the single outbox thread, so the queue needs no locking.
+ * 1.g. Every replayed request carries its entry id in the idempotency key header, so the server can detect a replay of
+ * a request it already applied (like "POST" whose response was lost).
+ * 1.h. Outbox thread waits for each replay at most the request timeout plus {@link #DEFAULT_REPLAY_WAIT_MARGIN_MS}, a replay
+ * taking longer is cancelled & retried as timed out.
+ *
+ * @author Vasanth
+ */
+public class HttpOutbox {
+
+    // Default name of the outbox directory, created inside "Context.getFilesDir()".
+    public static final String DEFAULT_DIRECTORY_NAME = "http_outbox";
+
+    // Default header carrying the entry id of the replayed request.
+    public static final String DEFAULT_IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // Default number of replays after a transient failure, failures while offline aren't counted since nothing is sent.
+    public static final int DEFAULT_MAX_RETRIES = 10;
+
+    // Default maximum backoff between replays.
+    public static final int DEFAULT_MAX_BACKOFF_MS = 5 * 60 * 1000;
+
+    // Default retry policy, retries transient failures of all the methods ("POST" is made safe by the idempotency key)
+    // with backoff, request is removed as failed after the max retries.
+    public static final HttpRetryPolicy DEFAULT_RETRY_POLICY = new HttpRetryPolicy.Builder()
+            .setMaxRetries(DEFAULT_MAX_RETRIES)
+            .setBackoff(HttpRetryPolicy.DEFAULT_INITIAL_BACKOFF_MS, HttpRetryPolicy.DEFAULT_BACKOFF_MULTIPLIER, DEFAULT_MAX_BACKOFF_MS)
+            .setRetryNonIdempotent(true)
+            .build();
+
+    // Default time the outbox thread waits for a replay beyond the request timeout (queued behind other requests, slow upload).
+    public static final long DEFAULT_REPLAY_WAIT_MARGIN_MS = 60 * 1000;
+
+    // Header carrying the delay requested by the server before the next attempt.
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    // Extension of the request files, name is the zero padded sequence number so files sort in enqueue order.
+    private static final String FILE_EXTENSION = ".req";
+
+    // Extension of the file being written, renamed once complete so partially written requests are never replayed.
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    // Version of the request file format.
+    private static final int FILE_VERSION = 1;
+
+    // Prefix of the identifier used to make the replayed requests.
+    private static final String REQUEST_IDENTIFIER_PREFIX = "HttpOutbox-";
+
+    private final Context mContext;
+    private final HttpClientApi mHttpClientApi;
+    private final File mDirectory;
+    private final String mBatchEndpointUrl;
+    private final Map<String, String> mBatchEndpointHeaders;
+    private final BatchCodec mBatchCodec;
+    private final int mMaxBatchSize;
+    private final HttpRetryPolicy mRetryPolicy;
+    private final String mIdempotencyKeyHeader;
+    private final long mReplayWaitMarginMs;
+    private final RequestOptions mRequestOptions;
+    private final Executor mDeliveryExecutor;
+    private final ScheduledExecutorService mExecutor;
+    private final Connectivity mConnectivity;
+    private final BroadcastReceiver mConnectivityReceiver;
+
+    private volatile OutboxListener mListener;
+    private volatile int mPendingCount;
+    private boolean mStarted;
+
+    // Below fields are accessed only on the outbox thread.
+    private List<Entry> mEntries;
+    private long mNextSequence;
+    private int mAttemptCount;
+    private long mNextAttemptTimeMs;
+    private ScheduledFuture<?> mScheduledFlush;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private HttpOutbox(final Builder builder) {
+        this.mContext = builder.mContext.getApplicationContext();
+        this.mHttpClientApi = builder.mHttpClientApi;
+        this.mDirectory = (builder.mDirectory != null) ? builder.mDirectory : new File(mContext.getFilesDir(), DEFAULT_DIRECTORY_NAME);
+        this.mBatchEndpointUrl = builder.mBatchEndpointUrl;
+        this.mBatchEndpointHeaders = builder.mBatchEndpointHeaders;
+        this.mBatchCodec = builder.mBatchCodec;
+        this.mMaxBatchSize = builder.mMaxBatchSize;
+        this.mRetryPolicy = builder.mRetryPolicy;
+        this.mIdempotencyKeyHeader = builder.mIdempotencyKeyHeader;
+        this.mReplayWaitMarginMs = builder.mReplayWaitMarginMs;
+        this.mDeliveryExecutor = (builder.mDeliveryExecutor != null) ? builder.mDeliveryExecutor : DeliveryExecutors.mainThread();
+        // Outbox retries by itself, so each replay is a single attempt, delivered on the network thread since the outbox
+        // thread is waiting for it.
+        this.mRequestOptions = new RequestOptions.Builder()
+                .setCachePolicy(RequestOptions.CachePolicy.NETWORK_ONLY)
+                .setRetryPolicy(new HttpRetryPolicy.Builder().setTimeoutMs(mRetryPolicy.getTimeoutMs()).setMaxRetries(0).build())
+                .setDeliveryExecutor(DeliveryExecutors.immediate())
+                .build();
+        this.mExecutor = Executors.newSingleThreadScheduledExecutor(new OutboxThreadFactory());
+        this.mConnectivity = (builder.mConnectivity != null) ? builder.mConnectivity : new Connectivity() {
+            @Override
+            public boolean isConnected() {
+                ConnectivityManager connectivityManager = (ConnectivityManager) mContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+                NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+                return networkInfo != null && networkInfo.isConnected();
+            }
+        };
+        this.mConnectivityReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(final Context context, final Intent intent) {
+                if (isConnected()) {
+                    flush();
+                }
+            }
+        };
+        submitFlush(false);
+    }
+
+    /**
+     * Used to set the listener which gets the outcome of the replayed requests, replaces the previous listener.
+     *
+     * @param listener Listener OR null to stop getting outcomes (requests are still replayed).
+     */
+    public void setListener(final OutboxListener listener) {
+        this.mListener = listener;
+    }
+
+    /**
+     * Used to add the request to the outbox, request is persisted on the outbox thread & replayed after all the
+     * requests enqueued before it.
+     *
+     * @param method          HTTP Request Method, can't be "GET".
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body, used only by "POST" & "PUT".
+     * @param bodyContentType Request Body Content Type.
+     * @return Unique identifier of the outbox entry, passed to the {@link OutboxListener}.
+     * @throws IllegalArgumentException If method is "GET".
+     */
+    public String enqueue(final HttpMethod method, final Map<String, String> headers, final String url, final String body,
+                          final String bodyContentType) {
+        if (method == HttpMethod.GET) {
+            throw new IllegalArgumentException("Only mutating requests can be added to the outbox");
+        }
+        final Entry entry = new Entry(UUID.randomUUID().toString(), method, url,
+                (headers != null) ? new LinkedHashMap<String, String>(headers) : new LinkedHashMap<String, String>(), body, bodyContentType);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                add(entry);
+                flushInternal(false);
+            }
+        });
+        return entry.mId;
+    }
+
+    /**
+     * Used to replay the pending requests now, ignoring the backoff of the last transient failure.
+     */
+    public void flush() {
+        submitFlush(true);
+    }
+
+    /**
+     * Used to start replaying the pending requests whenever connectivity returns.
+     */
+    public synchronized void start() {
+        if (mStarted) {
+            return;
+        }
+        mStarted = true;
+        mContext.registerReceiver(mConnectivityReceiver, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+        flush();
+    }
+
+    /**
+     * Used to stop listening to connectivity changes, requests are still replayed on enqueue & {@link #flush()}.
+     */
+    public synchronized void stop() {
+        if (!mStarted) {
+            return;
+        }
+        mStarted = false;
+        mContext.unregisterReceiver(mConnectivityReceiver);
+    }
+
+    /**
+     * Used to get the number of requests waiting to be delivered.
+     *
+     * @return Pending request count, 0 until the outbox directory is loaded.
+     */
+    public int getPendingCount() {
+        return mPendingCount;
+    }
+
+    /**
+     * Used to submit flush to the outbox thread.
+     *
+     * @param force True to ignore the backoff of the last transient failure.
+     */
+    private void submitFlush(final boolean force) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                flushInternal(force);
+            }
+        });
+    }
+
+    /**
+     * Used to replay the pending requests in order until the outbox is empty OR a request fails with transient error.
+     * <p>
+     * Runs on outbox thread.
+     *
+     * @param force True to ignore the backoff of the last transient failure.
+     */
+    private void flushInternal(final boolean force) {
+        loadIfNeeded();
+        if (mEntries.isEmpty()) {
+            return;
+        }
+        if (!force && System.currentTimeMillis() < mNextAttemptTimeMs) {
+            return;
+        }
+        if (!isConnected()) {
+            // Connectivity receiver flushes once network is back.
+            return;
+        }
+        cancelScheduledFlush();
+
+        boolean proceed = true;
+        while (proceed && !mEntries.isEmpty()) {
+            if (mBatchEndpointUrl != null) {
+                proceed = replayBatch(new ArrayList<Entry>(mEntries.subList(0, Math.min(mMaxBatchSize, mEntries.size()))));
+            } else {
+                proceed = replay(mEntries.get(0));
+            }
+        }
+    }
+
+    /**
+     * Used to replay the single request.
+     * <p>
+     * Runs on outbox thread.
+     *
+     * @param entry Entry.
+     * @return True if replay can continue with the next request.
+     */
+    private boolean replay(final Entry entry) {
+        String identifier = REQUEST_IDENTIFIER_PREFIX + entry.mId;
+        HttpRequestBody body = (entry.mBody != null) ? HttpRequestBody.create(entry.mBody, entry.mBodyContentType) : null;
+        ReplayListener listener = new ReplayListener();
+        mHttpClientApi.request(identifier, entry.mMethod, getReplayHeaders(entry), entry.mUrl, body, mRequestOptions, listener);
+        try {
+            if (!listener.await(getReplayWaitMs())) {
+                mHttpClientApi.cancelRequest(identifier);
+                return onFailure(entry, HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR, -1);
+            }
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        if (listener.mErrorCode != 0) {
+            return onFailure(entry, listener.mErrorCode, listener.getRetryAfterMs());
+        }
+        onSuccess(entry, listener.mResponse.getBodyAsString());
+        return true;
+    }
+
+    /**
+     * Used to replay the requests as a single request to the batch endpoint.
+     * <p>
+     * Runs on outbox thread. Results are handled in enqueue order, requests after a transient failure are removed only
+     * if the server already completed them.
+     *
+     * @param entries Entries of the batch.
+     * @return True if replay can continue with the next requests.
+     */
+    private boolean replayBatch(final List<Entry> entries) {
+        BatchRequest.Builder builder = new BatchRequest.Builder();
+        List<String> entryIds = new ArrayList<String>();
+        for (Entry entry : entries) {
+            builder.addRequest(entry.mId, entry.mMethod, getReplayHeaders(entry), entry.mUrl, entry.mBody, entry.mBodyContentType,
+                    mRequestOptions);
+            entryIds.add(entry.mId);
+        }
+        BatchRequest batchRequest = builder.build();
+        BatchResult result = new BatchResult(entryIds);
+        long retryAfterMs = -1;
+
+        String body = null;
+        try {
+            body = mBatchCodec.encode(batchRequest.getItems());
+        } catch (Exception exp) {
+            // Codec can't encode these requests, they would fail the same way on every replay.
+            result.setErrorForAll(HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR);
+        }
+
+        if (body != null) {
+            String identifier = REQUEST_IDENTIFIER_PREFIX + entries.get(0).mId;
+            ReplayListener listener = new ReplayListener();
+            mHttpClientApi.request(identifier, HttpMethod.POST, mBatchEndpointHeaders, mBatchEndpointUrl,
+                    HttpRequestBody.create(body, mBatchCodec.getContentType()), mRequestOptions, listener);
+            try {
+                if (!listener.await(getReplayWaitMs())) {
+                    mHttpClientApi.cancelRequest(identifier);
+                    result.setErrorForAll(HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR);
+                } else if (listener.mErrorCode != 0) {
+                    result.setErrorForAll(listener.mErrorCode);
+                    retryAfterMs = listener.getRetryAfterMs();
+                } else {
+                    decodeBatch(entries, listener.mResponse, result);
+                }
+            } catch (InterruptedException exp) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        boolean proceed = true;
+        for (Entry entry : entries) {
+            if (result.isSuccessful(entry.mId)) {
+                onSuccess(entry, result.getResponse(entry.mId));
+            } else if (proceed) {
+                proceed = onFailure(entry, result.getErrorCode(entry.mId), retryAfterMs);
+            } else if (!isTransient(entry, result.getErrorCode(entry.mId))) {
+                remove(entry);
+                notifyFailed(entry, result.getErrorCode(entry.mId));
+            }
+        }
+        return proceed;
+    }
+
+    /**
+     * Used to decode the response of the batch endpoint, cache of the mutated urls is invalidated since the items don't
+     * go through "putRequest" & "deleteRequest".
+     * <p>
+     * Runs on outbox thread.
+     *
+     * @param entries  Entries of the batch.
+     * @param response Response of the batch endpoint.
+     * @param result   Result to be filled, every item fails with "ERROR_CODE_PARSE_ERROR" if the response can't be decoded.
+     */
+    private void decodeBatch(final List<Entry> entries, final HttpResponse response, final BatchResult result) {
+        try {
+            mBatchCodec.decode(response.getBodyAsString(), result);
+        } catch (Exception exp) {
+            result.setErrorForAll(HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR);
+            return;
+        }
+        for (Entry entry : entries) {
+            if ((entry.mMethod == HttpMethod.PUT || entry.mMethod == HttpMethod.DELETE) && result.isSuccessful(entry.mId)) {
+                mHttpClientApi.invalidateCache(entry.mUrl);
+            }
+        }
+    }
+
+    /**
+     * Used to get the headers of the replayed request, along with the idempotency key unless the caller set it.
+     *
+     * @param entry Entry.
+     * @return Headers.
+     */
+    private Map<String, String> getReplayHeaders(final Entry entry) {
+        if (mIdempotencyKeyHeader == null) {
+            return entry.mHeaders;
+        }
+        for (String name : entry.mHeaders.keySet()) {
+            if (mIdempotencyKeyHeader.equalsIgnoreCase(name)) {
+                return entry.mHeaders;
+            }
+        }
+        Map<String, String> headers = new LinkedHashMap<String, String>(entry.mHeaders);
+        headers.put(mIdempotencyKeyHeader, entry.mId);
+        return headers;
+    }
+
+    /**
+     * Used to get how long the outbox thread waits for a replay.
+     *
+     * @return Wait time in milliseconds.
+     */
+    private long getReplayWaitMs() {
+        return mRetryPolicy.getTimeoutMs() + mReplayWaitMarginMs;
+    }
+
+    /**
+     * Used to handle the successful request, removes it from the outbox.
+     * <p>
+     * Runs on outbox thread.
+     *
+     * @param entry    Entry.
+     * @param response Response.
+     */
+    private void onSuccess(final Entry entry, final String response) {
+        remove(entry);
+        mAttemptCount = 0;
+        mNextAttemptTimeMs = 0;
+        final OutboxListener listener = mListener;
+        if (listener != null) {
+            mDeliveryExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onRequestDelivered(entry.mId, response);
+                }
+            });
+        }
+    }
+
+    /**
+     * Used to handle the failed request, transient failures keep the request & schedule the next replay, others remove
+     * the request from the outbox.
+     * <p>
+     * Runs on outbox thread.
+     *
+     * @param entry        Entry.
+     * @param errorCode    Error code of the attempt.
+     * @param retryAfterMs Delay requested by the server using "Retry-After" header OR -1 if not present, honoured even if
+     *                     longer than the maximum backoff, since the request must not be dropped.
+     * @return True if replay can continue with the next request.
+     */
+    private boolean onFailure(final Entry entry, final int errorCode, final long retryAfterMs) {
+        if (isTransient(entry, errorCode)) {
+            long delayMs = (retryAfterMs >= 0) ? retryAfterMs : mRetryPolicy.getRetryDelayMs(mAttemptCount, -1);
+            mAttemptCount++;
+            mNextAttemptTimeMs = System.currentTimeMillis() + delayMs;
+            mScheduledFlush = mExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flushInternal(false);
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+            return false;
+        }
+
+        remove(entry);
+        mAttemptCount = 0;
+        mNextAttemptTimeMs = 0;
+        notifyFailed(entry, errorCode);
+        return true;
+    }
+
+    /**
+     * Used to check whether the failure is transient & the request has to be kept.
+     *
+     * @param entry     Entry.
+     * @param errorCode Error code of the attempt.
+     * @return True if transient.
+     */
+    private boolean isTransient(final Entry entry, final int errorCode) {
+        return mRetryPolicy.shouldRetry(entry.mMethod, mAttemptCount, errorCode);
+    }
+
+    /**
+     * Used to report the request removed from the outbox without being delivered.
+     *
+     * @param entry     Entry.
+     * @param errorCode Error code of the last attempt.
+     */
+    private void notifyFailed(final Entry entry, final int errorCode) {
+        final OutboxListener listener = mListener;
+        if (listener != null) {
+            mDeliveryExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onRequestFailed(entry.mId, errorCode);
+                }
+            });
+        }
+    }
+
+    /**
+     * Used to cancel the replay scheduled after the last transient failure.
+     */
+    private void cancelScheduledFlush() {
+        if (mScheduledFlush != null) {
+            mScheduledFlush.cancel(false);
+            mScheduledFlush = null;
+        }
+    }
+
+    /**
+     * Used to check whether device has network connectivity.
+     *
+     * @return True if connected.
+     */
+    private boolean isConnected() {
+        return mConnectivity.isConnected();
+    }
+
+    /**
+     * Used to load the persisted requests, once.
+     * <p>
+     * Runs on outbox thread. Unreadable files are deleted.
+     */
+    private void loadIfNeeded() {
+        if (mEntries != null) {
+            return;
+        }
+        mEntries = new ArrayList<Entry>();
+        if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+            return;
+        }
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.endsWith(FILE_EXTENSION)) {
+                // Left behind by a write which didn't complete.
+                file.delete();
+                continue;
+            }
+            try {
+                Entry entry = readEntry(file);
+                entry.mSequence = Long.parseLong(name.substring(0, name.length() - FILE_EXTENSION.length()));
+                mEntries.add(entry);
+                mNextSequence = entry.mSequence + 1;
+            } catch (IOException exp) {
+                file.delete();
+            } catch (NumberFormatException exp) {
+                file.delete();
+            }
+        }
+        mPendingCount = mEntries.size();
+    }
+
+    /**
+     * Used to persist the request & add it to the end of the outbox.
+     * <p>
+     * Runs on outbox thread. If the request can't be persisted it's still replayed, but lost if the process dies.
+     *
+     * @param entry Entry.
+     */
+    private void add(final Entry entry) {
+        loadIfNeeded();
+        entry.mSequence = mNextSequence++;
+        File file = getFile(entry);
+        File tempFile = new File(mDirectory, file.getName() + TEMP_FILE_EXTENSION);
+        try {
+            writeEntry(entry, tempFile);
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Couldn't rename " + tempFile);
+            }
+        } catch (IOException exp) {
+            tempFile.delete();
+        }
+        mEntries.add(entry);
+        mPendingCount = mEntries.size();
+    }
+
+    /**
+     * Used to remove the request from the outbox & delete its file.
+     * <p>
+     * Runs on outbox thread.
+     *
+     * @param entry Entry.
+     */
+    private void remove(final Entry entry) {
+        mEntries.remove(entry);
+        getFile(entry).delete();
+        mPendingCount = mEntries.size();
+    }
+
+    /**
+     * Used to get the file of the request.
+     *
+     * @param entry Entry.
+     * @return File.
+     */
+    private File getFile(final Entry entry) {
+        return new File(mDirectory, String.format("%019d", entry.mSequence) + FILE_EXTENSION);
+    }
+
+    /**
+     * Used to write the request to the given file.
+     *
+     * @param entry Entry.
+     * @param file  File.
+     * @throws IOException If writing fails.
+     */
+    private static void writeEntry(final Entry entry, final File file) throws IOException {
+        FileOutputStream fileOutputStream = new FileOutputStream(file);
+        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(fileOutputStream));
+        try {
+            outputStream.writeInt(FILE_VERSION);
+            outputStream.writeUTF(entry.mId);
+            outputStream.writeUTF(entry.mMethod.name());
+            writeString(outputStream, entry.mUrl);
+            outputStream.writeInt(entry.mHeaders.size());
+            for (Map.Entry<String, String> header : entry.mHeaders.entrySet()) {
+                writeString(outputStream, header.getKey());
+                writeString(outputStream, header.getValue());
+            }
+            writeString(outputStream, entry.mBody);
+            writeString(outputStream, entry.mBodyContentType);
+            outputStream.flush();
+            fileOutputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Used to read the request from the given file.
+     *
+     * @param file File.
+     * @return Entry.
+     * @throws IOException If reading fails OR file is not a request file.
+     */
+    private static Entry readEntry(final File file) throws IOException {
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (inputStream.readInt() != FILE_VERSION) {
+                throw new IOException("Unknown outbox file version " + file);
+            }
+            String id = inputStream.readUTF();
+            HttpMethod method;
+            try {
+                method = HttpMethod.valueOf(inputStream.readUTF());
+            } catch (IllegalArgumentException exp) {
+                throw new IOException("Unknown method " + file);
+            }
+            String url = readString(inputStream);
+            int headerCount = inputStream.readInt();
+            Map<String, String> headers = new LinkedHashMap<String, String>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(readString(inputStream), readString(inputStream));
+            }
+            String body = readString(inputStream);
+            String bodyContentType = readString(inputStream);
+            return new Entry(id, method, url, headers, body, bodyContentType);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Used to write the String which may be null & longer than "writeUTF" allows.
+     *
+     * @param outputStream Stream.
+     * @param value        Value.
+     * @throws IOException If writing fails.
+     */
+    private static void writeString(final DataOutputStream outputStream, final String value) throws IOException {
+        if (value == null) {
+            outputStream.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes("UTF-8");
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    /**
+     * Used to read the String written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param inputStream Stream.
+     * @return Value.
+     * @throws IOException If reading fails.
+     */
+    private static String readString(final DataInputStream inputStream) throws IOException {
+        int length = inputStream.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        inputStream.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    /**
+     * Outbox Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to get the outcome of the requests added to the outbox, called on the delivery executor.
+     */
+    public interface OutboxListener {
+
+        /**
+         * Called once the request is delivered & removed from the outbox.
+         *
+         * @param entryId  Identifier returned by {@link #enqueue(HttpMethod, Map, String, String, String)}.
+         * @param response Response.
+         */
+        void onRequestDelivered(String entryId, String response);
+
+        /**
+         * Called once the request fails permanently (like "4XX" status) & is removed from the outbox.
+         *
+         * @param entryId   Identifier returned by {@link #enqueue(HttpMethod, Map, String, String, String)}.
+         * @param errorCode Will get one of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes".
+         */
+        void onRequestFailed(String entryId, int errorCode);
+    }
+
+    /**
+     * Connectivity.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to check whether device has network connectivity, replaced by the unit tests.
+     */
+    interface Connectivity {
+
+        /**
+         * Used to check whether device has network connectivity.
+         *
+         * @return True if connected.
+         */
+        boolean isConnected();
+    }
+
+    /**
+     * Replay Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Listener of a replayed request, lets the outbox thread wait for its result.
+     */
+    private static class ReplayListener implements HttpClientApi.HttpFullResponseListener {
+
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+        private volatile HttpResponse mResponse;
+        private volatile int mErrorCode;
+
+        @Override
+        public void onSuccessResponse(final HttpResponse response) {
+            mResponse = response;
+            mLatch.countDown();
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode, final HttpResponse response) {
+            mResponse = response;
+            mErrorCode = errorCode;
+            mLatch.countDown();
+        }
+
+        /**
+         * Used to wait for the result.
+         *
+         * @param timeoutMs Maximum time to wait.
+         * @return True if the result arrived, false on timeout.
+         * @throws InterruptedException If the outbox thread is interrupted.
+         */
+        boolean await(final long timeoutMs) throws InterruptedException {
+            return mLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Used to get the delay requested by the server using "Retry-After" header of the error response.
+         *
+         * @return Delay in milliseconds OR -1 if not present.
+         */
+        long getRetryAfterMs() {
+            HttpResponse response = mResponse;
+            return (response != null) ? HttpRetryPolicy.parseRetryAfter(response.getHeader(HEADER_RETRY_AFTER), System.currentTimeMillis()) : -1;
+        }
+    }
+
+    /**
+     * Entry.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Request persisted in the outbox.
+     */
+    private static class Entry {
+
+        private final String mId;
+        private final HttpMethod mMethod;
+        private final String mUrl;
+        private final Map<String, String> mHeaders;
+        private final String mBody;
+        private final String mBodyContentType;
+        private long mSequence;
+
+        /**
+         * Constructor.
+         *
+         * @param id              Identifier.
+         * @param method          HTTP Request Method.
+         * @param url             Request Url.
+         * @param headers         Request headers.
+         * @param body            Request Body.
+         * @param bodyContentType Request Body Content Type.
+         */
+        Entry(final String id, final HttpMethod method, final String url, final Map<String, String> headers, final String body,
+              final String bodyContentType) {
+            this.mId = id;
+            this.mMethod = method;
+            this.mUrl = url;
+            this.mHeaders = Collections.unmodifiableMap(headers);
+            this.mBody = body;
+            this.mBodyContentType = bodyContentType;
+        }
+    }
+
+    /**
+     * Outbox Thread Factory.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Creates the single background thread which persists & replays the requests.
+     */
+    private static class OutboxThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "HttpOutbox");
+        }
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to configure the outbox.
+     */
+    public static class Builder {
+
+        private final Context mContext;
+        private final HttpClientApi mHttpClientApi;
+        private File mDirectory;
+        private String mBatchEndpointUrl;
+        private Map<String, String> mBatchEndpointHeaders;
+        private BatchCodec mBatchCodec;
+        private int mMaxBatchSize = 1;
+        private HttpRetryPolicy mRetryPolicy = DEFAULT_RETRY_POLICY;
+        private String mIdempotencyKeyHeader = DEFAULT_IDEMPOTENCY_KEY_HEADER;
+        private long mReplayWaitMarginMs = DEFAULT_REPLAY_WAIT_MARGIN_MS;
+        private Executor mDeliveryExecutor;
+        private Connectivity mConnectivity;
+
+        /**
+         * Constructor.
+         *
+         * @param context       Context.
+         * @param httpClientApi Http client used to replay the requests.
+         */
+        public Builder(final Context context, final HttpClientApi httpClientApi) {
+            this.mContext = context;
+            this.mHttpClientApi = httpClientApi;
+        }
+
+        /**
+         * Used to set the directory where requests are persisted, must be used by only one outbox.
+         *
+         * @param directory Directory, default "Context.getFilesDir()/{@link #DEFAULT_DIRECTORY_NAME}".
+         * @return Builder.
+         */
+        public Builder setDirectory(final File directory) {
+            this.mDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Used to replay the requests in batches using the server side batch endpoint.
+         *
+         * @param url          Batch endpoint url.
+         * @param headers      Batch endpoint headers.
+         * @param codec        Codec used to encode the requests & decode the results of the batch.
+         * @param maxBatchSize Maximum number of requests sent in one batch.
+         * @return Builder.
+         * @throws IllegalArgumentException If maxBatchSize is less than 1.
+         */
+        public Builder setBatchEndpoint(final String url, final Map<String, String> headers, final BatchCodec codec, final int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("Max batch size must be at least 1");
+            }
+            this.mBatchEndpointUrl = url;
+            this.mBatchEndpointHeaders = (headers != null) ? headers : new HashMap<String, String>();
+            this.mBatchCodec = codec;
+            this.mMaxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Used to set the retry policy, decides which failures are transient, the backoff between replays & the timeout
+         * of each request.
+         *
+         * @param retryPolicy Retry policy, default {@link #DEFAULT_RETRY_POLICY}.
+         * @return Builder.
+         */
+        public Builder setRetryPolicy(final HttpRetryPolicy retryPolicy) {
+            this.mRetryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Used to set the header carrying the entry id of the replayed requests, requests having the header already keep
+         * their own value.
+         *
+         * @param name Header name, default {@link #DEFAULT_IDEMPOTENCY_KEY_HEADER}, null to not add the header.
+         * @return Builder.
+         */
+        public Builder setIdempotencyKeyHeader(final String name) {
+            this.mIdempotencyKeyHeader = name;
+            return this;
+        }
+
+        /**
+         * Used to set the time the outbox thread waits for a replay beyond the request timeout of the retry policy.
+         *
+         * @param replayWaitMarginMs Margin in milliseconds, default {@link #DEFAULT_REPLAY_WAIT_MARGIN_MS}.
+         * @return Builder.
+         */
+        public Builder setReplayWaitMarginMs(final long replayWaitMarginMs) {
+            this.mReplayWaitMarginMs = replayWaitMarginMs;
+            return this;
+        }
+
+        /**
+         * Used to replace the connectivity check, used by the unit tests.
+         *
+         * @param connectivity Connectivity.
+         * @return Builder.
+         */
+        Builder setConnectivity(final Connectivity connectivity) {
+            this.mConnectivity = connectivity;
+            return this;
+        }
+
+        /**
+         * Used to set the executor on which {@link OutboxListener} is called.
+         *
+         * @param deliveryExecutor Executor, default {@link DeliveryExecutors#mainThread()}.
+         * @return Builder.
+         */
+        public Builder setDeliveryExecutor(final Executor deliveryExecutor) {
+            this.mDeliveryExecutor = deliveryExecutor;
+            return this;
+        }
+
+        /**
+         * Used to build the outbox, requests persisted by the previous run are replayed right away.
+         *
+         * @return Outbox.
+         */
+        public HttpOutbox build() {
+            return new HttpOutbox(this);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+
+/**
+ * Http Request Body.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Body of "HTTP POST REQUEST" & "HTTP PUT REQUEST", held in memory (String OR byte array) OR streamed from a file
+ * while the request is sent, see {@link MultipartBody} for "multipart/form-data" uploads.
+ * 1.b. String bodies are encoded using the charset of the content type, only once & reused by retries.
+ * 1.c. Bodies are repeatable, file bodies re-read the file on every attempt.
+ *
+ * @author Vasanth
+ */
+public abstract class HttpRequestBody {
+
+    // Content type used for byte array & file bodies if not given.
+    public static final String CONTENT_TYPE_OCTET_STREAM = "application/octet-stream";
+
+    // Charset used to encode String bodies if the content type doesn't specify one.
+    private static final String DEFAULT_CHARSET = "UTF-8";
+
+    // Buffer size used to copy file bodies.
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String mContentType;
+
+    /**
+     * Constructor.
+     *
+     * @param contentType Content type of the body.
+     */
+    protected HttpRequestBody(final String contentType) {
+        this.mContentType = contentType;
+    }
+
+    /**
+     * Used to create body from String.
+     *
+     * @param content     Content.
+     * @param contentType Content type, its charset is used to encode the content (UTF-8 if not given). Null for
+     *                    {@link HttpClientApi#BODY_CONTENT_TYPE_DEFAULT}.
+     * @return Body.
+     */
+    public static HttpRequestBody create(final String content, final String contentType) {
+        return new StringBody(content, (contentType != null) ? contentType : HttpClientApi.BODY_CONTENT_TYPE_DEFAULT);
+    }
+
+    /**
+     * Used to create body from byte array, the array is sent as it is & must not be modified afterwards.
+     *
+     * @param content     Content.
+     * @param contentType Content type, null for {@link #CONTENT_TYPE_OCTET_STREAM}.
+     * @return Body.
+     */
+    public static HttpRequestBody create(final byte[] content, final String contentType) {
+        return new ByteArrayBody(content, (contentType != null) ? contentType : CONTENT_TYPE_OCTET_STREAM);
+    }
+
+    /**
+     * Used to create body streamed from the file while the request is sent, without loading it into memory.
+     *
+     * @param file        File.
+     * @param contentType Content type, null for {@link #CONTENT_TYPE_OCTET_STREAM}.
+     * @return Body.
+     */
+    public static HttpRequestBody create(final File file, final String contentType) {
+        return new FileBody(file, (contentType != null) ? contentType : CONTENT_TYPE_OCTET_STREAM);
+    }
+
+    /**
+     * Used to get the charset of the given content type.
+     *
+     * @param contentType    Content type (like "application/json; charset=utf-8"), may be null.
+     * @param defaultCharset Charset returned if the content type doesn't specify one.
+     * @return Charset.
+     */
+    public static String parseCharset(final String contentType, final String defaultCharset) {
+        if (contentType != null) {
+            String[] params = contentType.split(";");
+            for (int i = 1; i < params.length; i++) {
+                String[] pair = params[i].trim().split("=", 2);
+                if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("charset")) {
+                    String charset = pair[1].trim();
+                    if (charset.length() > 1 && charset.startsWith("\"") && charset.endsWith("\"")) {
+                        charset = charset.substring(1, charset.length() - 1);
+                    }
+                    return charset;
+                }
+            }
+        }
+        return defaultCharset;
+    }
+
+    /**
+     * Used to get the content type of the body.
+     *
+     * @return Content type.
+     */
+    public String getContentType() {
+        return mContentType;
+    }
+
+    /**
+     * Used to get the body bytes, only available for bodies held in memory.
+     *
+     * @return Body bytes OR null if the body is streamed while sending, use {@link #writeTo(OutputStream)} instead.
+     */
+    public byte[] getBytes() {
+        return null;
+    }
+
+    /**
+     * Used to get the length of the body.
+     *
+     * @return Length in bytes OR -1 if unknown.
+     */
+    public abstract long getContentLength();
+
+    /**
+     * Used to write the body to the given stream, called on the network thread once per attempt.
+     *
+     * @param outputStream Stream of the request body, not closed by this method.
+     * @throws IOException If reading the body OR writing the stream fails.
+     */
+    public abstract void writeTo(OutputStream outputStream) throws IOException;
+
+    /**
+     * Used to copy the file to the given stream.
+     *
+     * @param file         File.
+     * @param outputStream Output stream.
+     * @throws IOException If reading the file OR writing the stream fails.
+     */
+    static void copyFile(final File file, final OutputStream outputStream) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * String Body.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Body encoded from String using the charset of the content type, on first use.
+     */
+    private static class StringBody extends HttpRequestBody {
+
+        private final String mContent;
+        private byte[] mEncoded;
+
+        /**
+         * Constructor.
+         *
+         * @param content     Content.
+         * @param contentType Content type.
+         */
+        StringBody(final String content, final String contentType) {
+            super(contentType);
+            this.mContent = content;
+        }
+
+        @Override
+        public synchronized byte[] getBytes() {
+            if (mEncoded == null) {
+                try {
+                    mEncoded = mContent.getBytes(parseCharset(getContentType(), DEFAULT_CHARSET));
+                } catch (UnsupportedEncodingException exp) {
+                    mEncoded = mContent.getBytes();
+                }
+            }
+            return mEncoded;
+        }
+
+        @Override
+        public long getContentLength() {
+            return getBytes().length;
+        }
+
+        @Override
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            outputStream.write(getBytes());
+        }
+    }
+
+    /**
+     * Byte Array Body.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Body sent from byte array as it is.
+     */
+    private static class ByteArrayBody extends HttpRequestBody {
+
+        private final byte[] mContent;
+
+        /**
+         * Constructor.
+         *
+         * @param content     Content.
+         * @param contentType Content type.
+         */
+        ByteArrayBody(final byte[] content, final String contentType) {
+            super(contentType);
+            this.mContent = content;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return mContent;
+        }
+
+        @Override
+        public long getContentLength() {
+            return mContent.length;
+        }
+
+        @Override
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            outputStream.write(mContent);
+        }
+    }
+
+    /**
+     * File Body.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Body streamed from the file, read again on every attempt.
+     */
+    private static class FileBody extends HttpRequestBody {
+
+        private final File mFile;
+
+        /**
+         * Constructor.
+         *
+         * @param file        File.
+         * @param contentType Content type.
+         */
+        FileBody(final File file, final String contentType) {
+            super(contentType);
+            this.mFile = file;
+        }
+
+        @Override
+        public long getContentLength() {
+            return mFile.length();
+        }
+
+        @Override
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            copyFile(mFile, outputStream);
+        }
+    }
+}
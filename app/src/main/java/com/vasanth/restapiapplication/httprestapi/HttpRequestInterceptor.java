@@ -0,0 +1,23 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Http Request Interceptor.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Interface used to add OR rewrite the headers of every request (like auth, user agent OR signature) instead of
+ * each caller building them, added using {@link HttpClientConfig.Builder#addInterceptor(HttpRequestInterceptor)}.
+ * 1.b. Interceptors run in the order they were added, on the network thread, before every attempt of the request
+ * (including retries & replays), so they see the headers set by the earlier interceptors.
+ *
+ * @author Vasanth
+ */
+public interface HttpRequestInterceptor {
+
+    /**
+     * Gets called on the network thread before the request is sent, must not block for long except to wait for a
+     * token refresh.
+     *
+     * @param request Request, its headers can be changed.
+     */
+    void intercept(InterceptedRequest request);
+}
@@ -0,0 +1,143 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Http Response.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Immutable HTTP response delivered to {@link HttpClientApi.HttpFullResponseListener}, carrying status code,
+ * headers & body bytes along with whether it was served from cache & the time taken by the network call.
+ * 1.b. Header names are case insensitive, repeated headers are joined with ", " (volley keeps only the last value).
+ * 1.c. Body is already decompressed if the server sent it gzip encoded.
+ *
+ * @author Vasanth
+ */
+public class HttpResponse {
+
+    private final int mStatusCode;
+    private final Map<String, String> mHeaders;
+    private final byte[] mBody;
+    private final String mCharset;
+    private final boolean mFromCache;
+    private final long mNetworkTimeMs;
+
+    /**
+     * Constructor.
+     *
+     * @param statusCode    HTTP status code.
+     * @param headers       Response headers, may be null.
+     * @param body          Response body, may be null.
+     * @param charset       Charset of the response body, parsed from "Content-Type" header.
+     * @param fromCache     True if the response was served from cache without network call.
+     * @param networkTimeMs Time taken by the network call in milliseconds OR -1 if served from cache.
+     */
+    public HttpResponse(final int statusCode, final Map<String, String> headers, final byte[] body, final String charset,
+                        final boolean fromCache, final long networkTimeMs) {
+        Map<String, String> caseInsensitiveHeaders = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            caseInsensitiveHeaders.putAll(headers);
+        }
+        this.mStatusCode = statusCode;
+        this.mHeaders = Collections.unmodifiableMap(caseInsensitiveHeaders);
+        this.mBody = (body != null) ? body : new byte[0];
+        this.mCharset = charset;
+        this.mFromCache = fromCache;
+        this.mNetworkTimeMs = networkTimeMs;
+    }
+
+    /**
+     * Used to get the HTTP status code.
+     *
+     * @return Status code.
+     */
+    public int getStatusCode() {
+        return mStatusCode;
+    }
+
+    /**
+     * Used to get the response headers.
+     *
+     * @return Unmodifiable headers with case insensitive names.
+     */
+    public Map<String, String> getHeaders() {
+        return mHeaders;
+    }
+
+    /**
+     * Used to get the value of the response header.
+     *
+     * @param name Header name, case insensitive.
+     * @return Value OR null if the response doesn't have the header.
+     */
+    public String getHeader(final String name) {
+        return mHeaders.get(name);
+    }
+
+    /**
+     * Used to get the response body, do not modify the returned array.
+     *
+     * @return Body bytes, empty if the response has no body.
+     */
+    public byte[] getBody() {
+        return mBody;
+    }
+
+    /**
+     * Used to get the charset of the response body.
+     *
+     * @return Charset name.
+     */
+    public String getCharset() {
+        return mCharset;
+    }
+
+    /**
+     * Used to get the response body as String, decoded using the response charset.
+     *
+     * @return Body.
+     */
+    public String getBodyAsString() {
+        try {
+            return new String(mBody, mCharset);
+        } catch (UnsupportedEncodingException exp) {
+            return new String(mBody);
+        }
+    }
+
+    /**
+     * Used to check whether the response was served from cache without network call.
+     *
+     * @return True if served from cache.
+     */
+    public boolean isFromCache() {
+        return mFromCache;
+    }
+
+    /**
+     * Used to get the time taken by the network call, including revalidation of a cached response.
+     *
+     * @return Time in milliseconds OR -1 if served from cache.
+     */
+    public long getNetworkTimeMs() {
+        return mNetworkTimeMs;
+    }
+
+    /**
+     * Used to check whether the status code is "2XX".
+     *
+     * @return True if successful.
+     */
+    public boolean isSuccessful() {
+        return mStatusCode >= 200 && mStatusCode < 300;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpResponse{statusCode=" + mStatusCode + ", fromCache=" + mFromCache + ", networkTimeMs=" + mNetworkTimeMs
+                + ", bodyBytes=" + mBody.length + "}";
+    }
+}
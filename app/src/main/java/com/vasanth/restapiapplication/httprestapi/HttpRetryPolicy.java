@@ -0,0 +1,283 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Http Retry Policy.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Decides the timeout of each attempt & whether a failed request has to be retried.
+ * 1.b. Retries only idempotent requests (unless enabled for all) failed with a timeout, network error or one of the
+ * retryable status codes.
+ * 1.c. Waits with exponential backoff & random jitter between attempts, so clients failed together don't retry together.
+ * A "Retry-After" header sent by the server overrides the backoff.
+ *
+ * @author Vasanth
+ */
+public class HttpRetryPolicy {
+
+    // The Default backoff before first retry in milliseconds.
+    public static final int DEFAULT_INITIAL_BACKOFF_MS = 500;
+
+    // The Default backoff multiplier applied for every retry.
+    public static final float DEFAULT_BACKOFF_MULTIPLIER = 2f;
+
+    // The Default maximum backoff in milliseconds, also the maximum "Retry-After" delay honored.
+    public static final int DEFAULT_MAX_BACKOFF_MS = 30 * 1000;
+
+    // The Default jitter - fraction of the backoff randomized, 0.5 means the delay is between 50% & 100% of the backoff.
+    public static final float DEFAULT_JITTER = 0.5f;
+
+    // Policy matching the old behaviour - single attempt with the default socket timeout.
+    public static final HttpRetryPolicy DEFAULT = new Builder().build();
+
+    private static final Random RANDOM = new Random();
+
+    // Largest "Retry-After" delay in seconds which doesn't overflow once converted to milliseconds.
+    private static final long MAX_RETRY_AFTER_SECONDS = Long.MAX_VALUE / 1000;
+
+    private final int mTimeoutMs;
+    private final int mMaxRetries;
+    private final int mInitialBackoffMs;
+    private final float mBackoffMultiplier;
+    private final int mMaxBackoffMs;
+    private final float mJitter;
+    private final boolean mRetryNonIdempotent;
+    private final Set<Integer> mRetryableStatusCodes;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private HttpRetryPolicy(final Builder builder) {
+        this.mTimeoutMs = builder.mTimeoutMs;
+        this.mMaxRetries = builder.mMaxRetries;
+        this.mInitialBackoffMs = builder.mInitialBackoffMs;
+        this.mBackoffMultiplier = builder.mBackoffMultiplier;
+        this.mMaxBackoffMs = builder.mMaxBackoffMs;
+        this.mJitter = builder.mJitter;
+        this.mRetryNonIdempotent = builder.mRetryNonIdempotent;
+        this.mRetryableStatusCodes = Collections.unmodifiableSet(new HashSet<Integer>(builder.mRetryableStatusCodes));
+    }
+
+    /**
+     * Used to get the socket timeout of each attempt.
+     *
+     * @return Timeout in milliseconds.
+     */
+    public int getTimeoutMs() {
+        return mTimeoutMs;
+    }
+
+    /**
+     * Used to get maximum number of retries.
+     *
+     * @return Maximum retries.
+     */
+    public int getMaxRetries() {
+        return mMaxRetries;
+    }
+
+    /**
+     * Used to check whether the failed request has to be retried.
+     *
+     * @param method     HTTP Request Method.
+     * @param retryCount Number of retries already made.
+     * @param errorCode  Error code of the failed attempt, one of "HttpResponseListener.ERROR_CODE_*" OR HTTP status code.
+     * @return True if request has to be retried.
+     */
+    public boolean shouldRetry(final HttpMethod method, final int retryCount, final int errorCode) {
+        if (retryCount >= mMaxRetries) {
+            return false;
+        }
+        if (!method.isIdempotent() && !mRetryNonIdempotent) {
+            return false;
+        }
+        return errorCode == HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR
+                || errorCode == HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR
+                || mRetryableStatusCodes.contains(errorCode);
+    }
+
+    /**
+     * Used to get the delay before the next retry.
+     *
+     * @param retryCount   Number of retries already made.
+     * @param retryAfterMs Delay requested by the server using "Retry-After" header OR -1 if not present.
+     * @return Delay in milliseconds OR -1 if server asked to wait longer than the maximum backoff (don't retry).
+     */
+    public long getRetryDelayMs(final int retryCount, final long retryAfterMs) {
+        if (retryAfterMs >= 0) {
+            return (retryAfterMs <= mMaxBackoffMs) ? retryAfterMs : -1;
+        }
+
+        double backoff = Math.min(mMaxBackoffMs, mInitialBackoffMs * Math.pow(mBackoffMultiplier, retryCount));
+        double jitter = backoff * mJitter * RANDOM.nextDouble();
+        return (long) (backoff - jitter);
+    }
+
+    /**
+     * Used to parse the "Retry-After" header value, which is either delay in seconds OR a HTTP date.
+     *
+     * @param retryAfter    Header value, may be null.
+     * @param currentTimeMs Current time in milliseconds.
+     * @return Delay in milliseconds OR -1 if header is not present or invalid.
+     */
+    public static long parseRetryAfter(final String retryAfter, final long currentTimeMs) {
+        if (retryAfter == null) {
+            return -1;
+        }
+        String value = retryAfter.trim();
+        if (isDigits(value)) {
+            long seconds;
+            try {
+                seconds = Long.parseLong(value);
+            } catch (NumberFormatException exp) {
+                // Too large for long, wait "forever".
+                seconds = MAX_RETRY_AFTER_SECONDS;
+            }
+            return Math.min(seconds, MAX_RETRY_AFTER_SECONDS) * 1000;
+        }
+        try {
+            SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            return Math.max(0, format.parse(value).getTime() - currentTimeMs);
+        } catch (ParseException exp) {
+            return -1;
+        }
+    }
+
+    /**
+     * Used to check whether the value is a non negative integer, like the delay in seconds.
+     *
+     * @param value Value.
+     * @return True if the value has only digits.
+     */
+    private static boolean isDigits(final String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int index = 0; index < value.length(); index++) {
+            char digit = value.charAt(index);
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to build {@link HttpRetryPolicy}.
+     */
+    public static class Builder {
+
+        private int mTimeoutMs = HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS;
+        private int mMaxRetries = HttpClientApi.DEFAULT_REQUEST_MAX_RETRIES;
+        private int mInitialBackoffMs = DEFAULT_INITIAL_BACKOFF_MS;
+        private float mBackoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+        private int mMaxBackoffMs = DEFAULT_MAX_BACKOFF_MS;
+        private float mJitter = DEFAULT_JITTER;
+        private boolean mRetryNonIdempotent;
+        private Set<Integer> mRetryableStatusCodes = new HashSet<Integer>();
+
+        /**
+         * Constructor, retryable status codes default to 408, 429, 500, 502, 503 & 504.
+         */
+        public Builder() {
+            Collections.addAll(mRetryableStatusCodes, 408, 429, 500, 502, 503, 504);
+        }
+
+        /**
+         * Used to set the socket timeout of each attempt.
+         *
+         * @param timeoutMs Timeout in milliseconds.
+         * @return Builder.
+         */
+        public Builder setTimeoutMs(final int timeoutMs) {
+            this.mTimeoutMs = timeoutMs;
+            return this;
+        }
+
+        /**
+         * Used to set maximum number of retries.
+         *
+         * @param maxRetries Maximum retries, zero disables retry.
+         * @return Builder.
+         */
+        public Builder setMaxRetries(final int maxRetries) {
+            this.mMaxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Used to set exponential backoff.
+         *
+         * @param initialBackoffMs  Backoff before first retry in milliseconds.
+         * @param backoffMultiplier Multiplier applied to the backoff for every retry.
+         * @param maxBackoffMs      Maximum backoff in milliseconds, also the maximum "Retry-After" delay honored.
+         * @return Builder.
+         */
+        public Builder setBackoff(final int initialBackoffMs, final float backoffMultiplier, final int maxBackoffMs) {
+            this.mInitialBackoffMs = initialBackoffMs;
+            this.mBackoffMultiplier = backoffMultiplier;
+            this.mMaxBackoffMs = maxBackoffMs;
+            return this;
+        }
+
+        /**
+         * Used to set jitter.
+         *
+         * @param jitter Fraction of the backoff randomized, between 0 (no jitter) & 1.
+         * @return Builder.
+         */
+        public Builder setJitter(final float jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("jitter must be between 0 and 1");
+            }
+            this.mJitter = jitter;
+            return this;
+        }
+
+        /**
+         * Used to allow retry of non idempotent requests (like POST), use only if the server de-duplicates them.
+         *
+         * @param retryNonIdempotent True to retry non idempotent requests.
+         * @return Builder.
+         */
+        public Builder setRetryNonIdempotent(final boolean retryNonIdempotent) {
+            this.mRetryNonIdempotent = retryNonIdempotent;
+            return this;
+        }
+
+        /**
+         * Used to set HTTP status codes for which request has to be retried.
+         *
+         * @param statusCodes Retryable status codes.
+         * @return Builder.
+         */
+        public Builder setRetryableStatusCodes(final Integer... statusCodes) {
+            mRetryableStatusCodes.clear();
+            Collections.addAll(mRetryableStatusCodes, statusCodes);
+            return this;
+        }
+
+        /**
+         * Used to build the policy.
+         *
+         * @return Policy.
+         */
+        public HttpRetryPolicy build() {
+            return new HttpRetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Intercepted Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Request as seen by {@link HttpRequestInterceptor}, holds the headers of an attempt which the interceptors can
+ * add, replace OR remove. Method, url & body can't be changed.
+ * 1.b. Header names are case insensitive.
+ *
+ * @author Vasanth
+ */
+public class InterceptedRequest {
+
+    private final String mIdentifier;
+    private final HttpMethod mMethod;
+    private final String mUrl;
+    private final HttpRequestBody mBody;
+    private final Map<String, String> mHeaders = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string used to identify the request.
+     * @param method     HTTP Request Method.
+     * @param url        Request Url.
+     * @param headers    Request headers given by the caller, may be null.
+     * @param body       Request Body, may be null.
+     */
+    public InterceptedRequest(final String identifier, final HttpMethod method, final String url, final Map<String, String> headers,
+                              final HttpRequestBody body) {
+        this.mIdentifier = identifier;
+        this.mMethod = method;
+        this.mUrl = url;
+        this.mBody = body;
+        if (headers != null) {
+            mHeaders.putAll(headers);
+        }
+    }
+
+    /**
+     * Used to get the identifier of the request.
+     *
+     * @return Identifier.
+     */
+    public String getIdentifier() {
+        return mIdentifier;
+    }
+
+    /**
+     * Used to get the HTTP method.
+     *
+     * @return Method.
+     */
+    public HttpMethod getMethod() {
+        return mMethod;
+    }
+
+    /**
+     * Used to get the request url.
+     *
+     * @return Url.
+     */
+    public String getUrl() {
+        return mUrl;
+    }
+
+    /**
+     * Used to get the request body, as given by the caller (before compression).
+     *
+     * @return Body OR null. Bytes are available using {@link HttpRequestBody#getBytes()} unless the body is streamed.
+     */
+    public HttpRequestBody getBody() {
+        return mBody;
+    }
+
+    /**
+     * Used to get the value of the header.
+     *
+     * @param name Header name.
+     * @return Value OR null if not set.
+     */
+    public String getHeader(final String name) {
+        return mHeaders.get(name);
+    }
+
+    /**
+     * Used to get the headers.
+     *
+     * @return Unmodifiable headers, use {@link #setHeader(String, String)} to change them.
+     */
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(mHeaders);
+    }
+
+    /**
+     * Used to add the header OR replace its value.
+     *
+     * @param name  Header name.
+     * @param value Header value.
+     */
+    public void setHeader(final String name, final String value) {
+        mHeaders.put(name, value);
+    }
+
+    /**
+     * Used to remove the header.
+     *
+     * @param name Header name.
+     */
+    public void removeHeader(final String name) {
+        mHeaders.remove(name);
+    }
+}
@@ -0,0 +1,99 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Json Batch Codec.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link BatchCodec} packing the items as a json array.
+ * 1.b. Request - {"requests":[{"id":"..","method":"GET","url":"..","headers":{..},"body":".."}]}
+ * 1.c. Response - {"responses":[{"id":"..","status":200,"body":".."}]}, items with non 2xx status fail with the status as
+ * error code.
+ *
+ * @author Vasanth
+ */
+public class JsonBatchCodec implements BatchCodec {
+
+    // Json keys of the batch request & response.
+    private static final String KEY_REQUESTS = "requests";
+    private static final String KEY_RESPONSES = "responses";
+    private static final String KEY_ID = "id";
+    private static final String KEY_METHOD = "method";
+    private static final String KEY_URL = "url";
+    private static final String KEY_HEADERS = "headers";
+    private static final String KEY_BODY = "body";
+    private static final String KEY_STATUS = "status";
+
+    // Header used to send the body content type of an item.
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+    /**
+     * Used to get the content type of the batch endpoint request body.
+     *
+     * @return Content type.
+     */
+    @Override
+    public String getContentType() {
+        return HttpClientApi.BODY_CONTENT_TYPE_JSON;
+    }
+
+    /**
+     * Used to pack the items into the batch endpoint request body.
+     *
+     * @param items Items of the batch.
+     * @return Request body.
+     * @throws Exception If the items can't be encoded.
+     */
+    @Override
+    public String encode(final List<BatchRequest.Item> items) throws Exception {
+        JSONArray requests = new JSONArray();
+        for (BatchRequest.Item item : items) {
+            JSONObject request = new JSONObject();
+            request.put(KEY_ID, item.getItemId());
+            request.put(KEY_METHOD, item.getMethod().name());
+            request.put(KEY_URL, item.getUrl());
+
+            JSONObject headers = new JSONObject();
+            if (item.getHeaders() != null) {
+                for (Map.Entry<String, String> header : item.getHeaders().entrySet()) {
+                    headers.put(header.getKey(), header.getValue());
+                }
+            }
+            if (item.getBody() != null) {
+                headers.put(HEADER_CONTENT_TYPE, (item.getBodyContentType() != null) ? item.getBodyContentType()
+                        : HttpClientApi.BODY_CONTENT_TYPE_DEFAULT);
+                request.put(KEY_BODY, item.getBody());
+            }
+            request.put(KEY_HEADERS, headers);
+            requests.put(request);
+        }
+        return new JSONObject().put(KEY_REQUESTS, requests).toString();
+    }
+
+    /**
+     * Used to unpack the batch endpoint response into per item results.
+     *
+     * @param response Batch endpoint response body.
+     * @param result   Result to be filled.
+     * @throws Exception If the response can't be decoded.
+     */
+    @Override
+    public void decode(final String response, final BatchResult result) throws Exception {
+        JSONArray responses = new JSONObject(response).getJSONArray(KEY_RESPONSES);
+        for (int index = 0; index < responses.length(); index++) {
+            JSONObject itemResponse = responses.getJSONObject(index);
+            String itemId = itemResponse.getString(KEY_ID);
+            int status = itemResponse.getInt(KEY_STATUS);
+            if (status >= 200 && status < 300) {
+                result.setResponse(itemId, itemResponse.optString(KEY_BODY, ""));
+            } else {
+                result.setError(itemId, status);
+            }
+        }
+    }
+}
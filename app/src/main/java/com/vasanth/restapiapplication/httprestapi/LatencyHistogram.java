@@ -0,0 +1,137 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Latency Histogram.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Records latencies in logarithmic buckets (each ~10% wider than the previous one), so percentiles can be read
+ * with bounded error using constant memory, however many values are recorded.
+ * 1.b. Not thread safe, callers have to synchronize.
+ *
+ * @author Vasanth
+ */
+public class LatencyHistogram {
+
+    // Growth factor between consecutive bucket bounds, decides the percentile error.
+    private static final double BUCKET_GROWTH = 1.1;
+
+    // Values above this are recorded in the last bucket (10 minutes).
+    private static final long MAX_TRACKABLE_VALUE = 10 * 60 * 1000;
+
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+    private final long[] mCounts = new long[BUCKET_COUNT];
+    private long mCount;
+    private long mSum;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax;
+
+    /**
+     * Used to record a value.
+     *
+     * @param value Value, negative values are ignored.
+     */
+    public void record(final long value) {
+        if (value < 0) {
+            return;
+        }
+        mCounts[bucketIndex(Math.min(value, MAX_TRACKABLE_VALUE))]++;
+        mCount++;
+        mSum += value;
+        mMin = Math.min(mMin, value);
+        mMax = Math.max(mMax, value);
+    }
+
+    /**
+     * Used to get number of recorded values.
+     *
+     * @return Count.
+     */
+    public long getCount() {
+        return mCount;
+    }
+
+    /**
+     * Used to get the mean of recorded values.
+     *
+     * @return Mean OR zero if nothing recorded.
+     */
+    public double getMean() {
+        return (mCount > 0) ? (double) mSum / mCount : 0;
+    }
+
+    /**
+     * Used to get the minimum recorded value.
+     *
+     * @return Minimum OR zero if nothing recorded.
+     */
+    public long getMin() {
+        return (mCount > 0) ? mMin : 0;
+    }
+
+    /**
+     * Used to get the maximum recorded value.
+     *
+     * @return Maximum.
+     */
+    public long getMax() {
+        return mMax;
+    }
+
+    /**
+     * Used to get the value below which the given percentage of recorded values fall.
+     *
+     * @param percentile Percentile between 0 & 100, like 50, 90 OR 99.
+     * @return Upper bound of the bucket containing the percentile, limited to the maximum recorded value.
+     */
+    public long getPercentile(final double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(mCount * Math.min(100, Math.max(0, percentile)) / 100);
+        rank = Math.max(1, rank);
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += mCounts[index];
+            if (seen >= rank) {
+                return Math.min(mMax, Math.max(mMin, bucketUpperBound(index)));
+            }
+        }
+        return mMax;
+    }
+
+    /**
+     * Used to add the values recorded by another histogram to this one.
+     *
+     * @param other Other histogram.
+     */
+    public void add(final LatencyHistogram other) {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            mCounts[index] += other.mCounts[index];
+        }
+        mCount += other.mCount;
+        mSum += other.mSum;
+        mMin = Math.min(mMin, other.mMin);
+        mMax = Math.max(mMax, other.mMax);
+    }
+
+    /**
+     * Used to get the bucket of a value.
+     *
+     * @param value Value.
+     * @return Bucket index.
+     */
+    private static int bucketIndex(final long value) {
+        return (int) Math.ceil(Math.log(value + 1) / Math.log(BUCKET_GROWTH));
+    }
+
+    /**
+     * Used to get the largest value of a bucket.
+     *
+     * @param index Bucket index.
+     * @return Upper bound.
+     */
+    private static long bucketUpperBound(final int index) {
+        return (long) Math.floor(Math.pow(BUCKET_GROWTH, index)) - 1;
+    }
+}
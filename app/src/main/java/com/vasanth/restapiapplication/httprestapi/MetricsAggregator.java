@@ -0,0 +1,245 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Metrics Aggregator.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HttpMetricsListener} which aggregates the metrics in process, per endpoint (method & url without query,
+ * id path segments replaced by "{id}"), so "/todos/1" & "/todos/2" are one endpoint.
+ * 1.d. Keeps at most {@link #MAX_ENDPOINTS} endpoints, further endpoints are aggregated as one "other" endpoint of the
+ * method, so the memory stays bounded whatever urls the app requests.
+ * 1.b. Keeps latency histograms (total, queue wait, network, parse) & counters (requests, errors, cache hits, bytes,
+ * retries), which can be dumped as text for logs or bug reports.
+ * 1.c. Optionally forwards every metric to another listener (like an analytics exporter).
+ *
+ * @author Vasanth
+ */
+public class MetricsAggregator implements HttpMetricsListener {
+
+    // Maximum endpoints kept, metrics of further endpoints are aggregated under the "other" endpoint of their method.
+    public static final int MAX_ENDPOINTS = 200;
+    // Replaces the id path segments (numbers, uuids & hashes) of the urls.
+    private static final String ID_SEGMENT = "{id}";
+    // Endpoint path of the metrics aggregated after reaching the maximum endpoints.
+    private static final String OTHER_ENDPOINT = "(other)";
+    // Minimum length of a hexadecimal path segment considered as id (uuid OR hash), shorter ones are like "cafe".
+    private static final int MIN_HEX_ID_LENGTH = 16;
+
+    private final Map<String, EndpointStats> mEndpoints = new TreeMap<String, EndpointStats>();
+    private final HttpMetricsListener mDelegate;
+
+    /**
+     * Constructor.
+     */
+    public MetricsAggregator() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate Listener to which every metric is forwarded after aggregation, may be null.
+     */
+    public MetricsAggregator(final HttpMetricsListener delegate) {
+        this.mDelegate = delegate;
+    }
+
+    @Override
+    public void onRequestMetrics(final RequestMetrics metrics) {
+        String endpoint = getEndpoint(metrics.getMethod(), metrics.getUrl());
+        synchronized (this) {
+            EndpointStats stats = mEndpoints.get(endpoint);
+            if (stats == null && mEndpoints.size() >= MAX_ENDPOINTS) {
+                endpoint = metrics.getMethod() + " " + OTHER_ENDPOINT;
+                stats = mEndpoints.get(endpoint);
+            }
+            if (stats == null) {
+                stats = new EndpointStats();
+                mEndpoints.put(endpoint, stats);
+            }
+            stats.record(metrics);
+        }
+        if (mDelegate != null) {
+            mDelegate.onRequestMetrics(metrics);
+        }
+    }
+
+    /**
+     * Used to get the total latency histogram of an endpoint.
+     *
+     * @param method HTTP method.
+     * @param url    Any url of the endpoint, query & ids are ignored.
+     * @return Copy of the histogram, empty if no request was made to the endpoint.
+     */
+    public synchronized LatencyHistogram getTotalTimeHistogram(final HttpMethod method, final String url) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        EndpointStats stats = mEndpoints.get(getEndpoint(method, url));
+        if (stats != null) {
+            histogram.add(stats.mTotalTime);
+        }
+        return histogram;
+    }
+
+    /**
+     * Used to clear the aggregated metrics.
+     */
+    public synchronized void reset() {
+        mEndpoints.clear();
+    }
+
+    /**
+     * Used to dump the aggregated metrics as text, one line per endpoint.
+     *
+     * @return Metrics.
+     */
+    public synchronized String dump() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : mEndpoints.entrySet()) {
+            EndpointStats stats = entry.getValue();
+            builder.append(entry.getKey())
+                    .append(" count=").append(stats.mCount)
+                    .append(" errors=").append(stats.mErrorCount)
+                    .append(" cacheHits=").append(stats.mCacheHitCount)
+                    .append(" retries=").append(stats.mRetryCount)
+                    .append(" bytesIn=").append(stats.mBytesIn)
+                    .append(" bytesOut=").append(stats.mBytesOut);
+            appendHistogram(builder, "total", stats.mTotalTime);
+            appendHistogram(builder, "queue", stats.mQueueWait);
+            appendHistogram(builder, "network", stats.mNetworkTime);
+            appendHistogram(builder, "parse", stats.mParseTime);
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Used to get the endpoint of the request.
+     *
+     * @param method HTTP method.
+     * @param url    Request url.
+     * @return Endpoint - method & url without query, id path segments replaced by "{id}".
+     */
+    static String getEndpoint(final HttpMethod method, final String url) {
+        int end = url.length();
+        int queryIndex = url.indexOf('?');
+        if (queryIndex >= 0) {
+            end = queryIndex;
+        }
+        int fragmentIndex = url.indexOf('#');
+        if (fragmentIndex >= 0 && fragmentIndex < end) {
+            end = fragmentIndex;
+        }
+        int schemeIndex = url.indexOf("://");
+        int pathIndex = url.indexOf('/', (schemeIndex >= 0) ? schemeIndex + 3 : 0);
+        if (pathIndex < 0 || pathIndex >= end) {
+            return method + " " + url.substring(0, end);
+        }
+
+        StringBuilder builder = new StringBuilder().append(method).append(' ').append(url, 0, pathIndex);
+        int segmentStart = pathIndex + 1;
+        while (segmentStart <= end) {
+            int segmentEnd = url.indexOf('/', segmentStart);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            builder.append('/');
+            if (isIdSegment(url, segmentStart, segmentEnd)) {
+                builder.append(ID_SEGMENT);
+            } else {
+                builder.append(url, segmentStart, segmentEnd);
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Used to check whether the path segment is an id - a number OR a long hexadecimal value (uuid, hash).
+     *
+     * @param url   Url.
+     * @param start Start index of the segment.
+     * @param end   End index of the segment (exclusive).
+     * @return True if id.
+     */
+    private static boolean isIdSegment(final String url, final int start, final int end) {
+        if (start == end) {
+            return false;
+        }
+        boolean digitsOnly = true;
+        for (int index = start; index < end; index++) {
+            char character = url.charAt(index);
+            if (character < '0' || character > '9') {
+                digitsOnly = false;
+                boolean hex = (character >= 'a' && character <= 'f') || (character >= 'A' && character <= 'F') || character == '-';
+                if (!hex) {
+                    return false;
+                }
+            }
+        }
+        return digitsOnly || (end - start) >= MIN_HEX_ID_LENGTH;
+    }
+
+    /**
+     * Used to append percentiles of the histogram.
+     *
+     * @param builder   Builder.
+     * @param name      Name of the histogram.
+     * @param histogram Histogram.
+     */
+    private static void appendHistogram(final StringBuilder builder, final String name, final LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        builder.append(' ').append(name)
+                .append("[p50=").append(histogram.getPercentile(50))
+                .append(" p90=").append(histogram.getPercentile(90))
+                .append(" p99=").append(histogram.getPercentile(99))
+                .append(" max=").append(histogram.getMax())
+                .append("ms]");
+    }
+
+    /**
+     * Endpoint Stats.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the aggregated metrics of an endpoint.
+     */
+    private static class EndpointStats {
+
+        private final LatencyHistogram mTotalTime = new LatencyHistogram();
+        private final LatencyHistogram mQueueWait = new LatencyHistogram();
+        private final LatencyHistogram mNetworkTime = new LatencyHistogram();
+        private final LatencyHistogram mParseTime = new LatencyHistogram();
+        private long mCount;
+        private long mErrorCount;
+        private long mCacheHitCount;
+        private long mRetryCount;
+        private long mBytesIn;
+        private long mBytesOut;
+
+        /**
+         * Used to add the metrics of a request.
+         *
+         * @param metrics Request metrics.
+         */
+        void record(final RequestMetrics metrics) {
+            mCount++;
+            if (!metrics.isSuccess()) {
+                mErrorCount++;
+            }
+            if (metrics.isFromCache()) {
+                mCacheHitCount++;
+            }
+            mRetryCount += metrics.getRetryCount();
+            mBytesIn += Math.max(0, metrics.getBytesIn());
+            mBytesOut += Math.max(0, metrics.getBytesOut());
+            mTotalTime.record(metrics.getTotalTimeMs());
+            mQueueWait.record(metrics.getQueueWaitMs());
+            mNetworkTime.record(metrics.getNetworkTimeMs());
+            mParseTime.record(metrics.getParseTimeMs());
+        }
+    }
+}
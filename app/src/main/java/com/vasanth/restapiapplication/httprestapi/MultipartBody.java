@@ -0,0 +1,228 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Multipart Body.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. "multipart/form-data" request body made of form fields & files, built using {@link Builder}.
+ * 1.b. Parts are written one after the other while the request is sent, so file parts are streamed from disk & never
+ * loaded into memory.
+ *
+ * @author Vasanth
+ */
+public class MultipartBody extends HttpRequestBody {
+
+    // Content type of the body, followed by the boundary.
+    private static final String CONTENT_TYPE_FORM_DATA = "multipart/form-data; boundary=";
+
+    // Content type of form field parts.
+    private static final String CONTENT_TYPE_FORM_FIELD = "text/plain; charset=UTF-8";
+
+    // Charset used to encode part headers & form fields.
+    private static final String CHARSET = "UTF-8";
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] DASH_DASH = {'-', '-'};
+
+    private final byte[] mBoundary;
+    private final List<Part> mParts;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private MultipartBody(final Builder builder) {
+        super(CONTENT_TYPE_FORM_DATA + builder.mBoundary);
+        this.mBoundary = encode(builder.mBoundary);
+        this.mParts = Collections.unmodifiableList(new ArrayList<Part>(builder.mParts));
+    }
+
+    /**
+     * Used to get the length of the body.
+     *
+     * @return Length in bytes OR -1 if the length of any part is unknown.
+     */
+    @Override
+    public long getContentLength() {
+        long length = 0;
+        for (Part part : mParts) {
+            long bodyLength = part.mBody.getContentLength();
+            if (bodyLength < 0) {
+                return -1;
+            }
+            length += DASH_DASH.length + mBoundary.length + CRLF.length + part.mHeaders.length + bodyLength + CRLF.length;
+        }
+        return length + DASH_DASH.length + mBoundary.length + DASH_DASH.length + CRLF.length;
+    }
+
+    /**
+     * Used to write the parts to the given stream.
+     *
+     * @param outputStream Stream of the request body, not closed by this method.
+     * @throws IOException If reading a part OR writing the stream fails.
+     */
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        for (Part part : mParts) {
+            outputStream.write(DASH_DASH);
+            outputStream.write(mBoundary);
+            outputStream.write(CRLF);
+            outputStream.write(part.mHeaders);
+            part.mBody.writeTo(outputStream);
+            outputStream.write(CRLF);
+        }
+        outputStream.write(DASH_DASH);
+        outputStream.write(mBoundary);
+        outputStream.write(DASH_DASH);
+        outputStream.write(CRLF);
+    }
+
+    /**
+     * Used to encode the given String using UTF-8.
+     *
+     * @param value Value.
+     * @return Bytes.
+     */
+    private static byte[] encode(final String value) {
+        try {
+            return value.getBytes(CHARSET);
+        } catch (UnsupportedEncodingException exp) {
+            return value.getBytes();
+        }
+    }
+
+    /**
+     * Part.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Single part of the body, holds the encoded part headers & the part body.
+     */
+    private static class Part {
+
+        private final byte[] mHeaders;
+        private final HttpRequestBody mBody;
+
+        /**
+         * Constructor.
+         *
+         * @param name     Form field name.
+         * @param fileName File name OR null for plain form fields.
+         * @param body     Part body.
+         */
+        Part(final String name, final String fileName, final HttpRequestBody body) {
+            StringBuilder headers = new StringBuilder("Content-Disposition: form-data; name=");
+            appendQuoted(headers, name);
+            if (fileName != null) {
+                headers.append("; filename=");
+                appendQuoted(headers, fileName);
+            }
+            headers.append("\r\nContent-Type: ").append(body.getContentType()).append("\r\n\r\n");
+            this.mHeaders = encode(headers.toString());
+            this.mBody = body;
+        }
+
+        /**
+         * Used to append the quoted value, escaping characters which would break the header.
+         *
+         * @param builder Builder.
+         * @param value   Value.
+         */
+        private static void appendQuoted(final StringBuilder builder, final String value) {
+            builder.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\n':
+                        builder.append("%0A");
+                        break;
+                    case '\r':
+                        builder.append("%0D");
+                        break;
+                    case '"':
+                        builder.append("%22");
+                        break;
+                    default:
+                        builder.append(c);
+                        break;
+                }
+            }
+            builder.append('"');
+        }
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to add the parts of the body in the order they are sent.
+     */
+    public static class Builder {
+
+        private final String mBoundary = UUID.randomUUID().toString();
+        private final List<Part> mParts = new ArrayList<Part>();
+
+        /**
+         * Used to add form field.
+         *
+         * @param name  Form field name.
+         * @param value Form field value, sent as UTF-8.
+         * @return Builder.
+         */
+        public Builder addFormField(final String name, final String value) {
+            mParts.add(new Part(name, null, HttpRequestBody.create(value, CONTENT_TYPE_FORM_FIELD)));
+            return this;
+        }
+
+        /**
+         * Used to add file, streamed from disk while the request is sent.
+         *
+         * @param name        Form field name.
+         * @param file        File, its name is sent as the file name.
+         * @param contentType Content type of the file, null for {@link HttpRequestBody#CONTENT_TYPE_OCTET_STREAM}.
+         * @return Builder.
+         */
+        public Builder addFile(final String name, final File file, final String contentType) {
+            mParts.add(new Part(name, file.getName(), HttpRequestBody.create(file, contentType)));
+            return this;
+        }
+
+        /**
+         * Used to add part with the given body (like image bytes).
+         *
+         * @param name     Form field name.
+         * @param fileName File name OR null to send the part as a plain form field.
+         * @param body     Part body, can't be another multipart body.
+         * @return Builder.
+         */
+        public Builder addPart(final String name, final String fileName, final HttpRequestBody body) {
+            if (body instanceof MultipartBody) {
+                throw new IllegalArgumentException("Nested multipart bodies are not supported");
+            }
+            mParts.add(new Part(name, fileName, body));
+            return this;
+        }
+
+        /**
+         * Used to build the body.
+         *
+         * @return Body.
+         * @throws IllegalStateException If no part was added.
+         */
+        public MultipartBody build() {
+            if (mParts.isEmpty()) {
+                throw new IllegalStateException("Multipart body must have at least one part");
+            }
+            return new MultipartBody(this);
+        }
+    }
+}
@@ -0,0 +1,612 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Paginator.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Helper on top of {@link HttpClientApi} which follows a paginated endpoint page by page & delivers the pages to
+ * the {@link PageListener} incrementally, as the consumer asks for them using {@link #loadMore()}.
+ * 1.b. Url of the next page is given by the {@link PageDecoder}, use {@link #getNextLink(HttpResponse, String)} for
+ * "Link" header pagination & {@link #setQueryParameter(String, String, String)} for cursor pagination.
+ * 1.c. Prefetches the next pages in the background with {@link RequestOptions.Priority#LOW} priority while the consumer
+ * is reading the current one, so the page asked next is usually delivered right away without a round trip.
+ * 1.d. Pages fetched ahead are held in a buffer bounded by the prefetch count, prefetch resumes once the consumer takes
+ * a page. Pages are fetched one at a time, since the url of a page is known only once the previous page is decoded.
+ * 1.e. Failed prefetch is not reported, the page is fetched again with normal priority once the consumer asks for it.
+ * Prefetch still in flight when the consumer asks for its page is cancelled & fetched again with normal priority, so
+ * the page the user waits for doesn't queue behind other requests.
+ * 1.f. Decoder is called on the network thread (page requests are delivered immediately), listener on the delivery
+ * executor (main thread by default), in order & never holding the lock of the paginator.
+ *
+ * @param <T> Type of the page items.
+ * @author Vasanth
+ */
+public class Paginator<T> {
+
+    // Default number of pages fetched ahead of the consumer.
+    public static final int DEFAULT_PREFETCH_PAGES = 1;
+
+    // Header carrying the urls of the related pages, see RFC 5988.
+    public static final String HEADER_LINK = "Link";
+
+    // Relation of the next page in the "Link" header.
+    private static final String LINK_RELATION_NEXT = "next";
+
+    // Charset used to encode the query parameters.
+    private static final String QUERY_CHARSET = "UTF-8";
+
+    private final HttpClientApi mHttpClientApi;
+    private final String mIdentifier;
+    private final Map<String, String> mHeaders;
+    private final PageDecoder<T> mDecoder;
+    private final PageListener<T> mListener;
+    private final Executor mDeliveryExecutor;
+    private final int mPrefetchPages;
+    private final RequestOptions mOptions;
+    private final RequestOptions mPrefetchOptions;
+
+    // Pages fetched but not delivered yet.
+    private final Queue<Page<T>> mBuffer = new ArrayDeque<Page<T>>();
+    // Url of the page to be fetched next, null once the last page is fetched.
+    private String mNextUrl;
+    private boolean mFetching;
+    private boolean mFetchingPrefetch;
+    // Incremented by every fetch, results of a cancelled fetch are dropped.
+    private int mFetchGeneration;
+    // Number of pages asked by the consumer & not delivered yet.
+    private int mRequestedPages;
+    private int mDeliveredPages;
+    private boolean mPrefetchFailed;
+    private boolean mCompleted;
+    private boolean mClosed;
+    // Listener callbacks in order, run outside the lock by one thread at a time.
+    private final Queue<Runnable> mCallbacks = new ArrayDeque<Runnable>();
+    private boolean mRunningCallbacks;
+    private final Runnable mCallbackRunner = new Runnable() {
+        @Override
+        public void run() {
+            runCallbacks();
+        }
+    };
+
+    /**
+     * Page Decoder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to decode the items of a page & find the url of the next page.
+     *
+     * @param <T> Type of the page items.
+     */
+    public interface PageDecoder<T> {
+
+        /**
+         * Gets called on the network thread with the successful response of a page.
+         *
+         * @param url      Url of the page.
+         * @param response Response of the page.
+         * @return Page.
+         * @throws Exception If the page can't be decoded, consumer gets "ERROR_CODE_PARSE_ERROR".
+         */
+        Page<T> decode(String url, HttpResponse response) throws Exception;
+    }
+
+    /**
+     * Page Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to receive the pages asked using {@link #loadMore()}, in order.
+     *
+     * @param <T> Type of the page items.
+     */
+    public interface PageListener<T> {
+
+        /**
+         * Gets called with the items of the page.
+         *
+         * @param pageIndex Index of the page, starting from zero.
+         * @param items     Items of the page.
+         */
+        void onPage(int pageIndex, List<T> items);
+
+        /**
+         * Gets called once after the last page is delivered, no more pages are fetched.
+         */
+        void onComplete();
+
+        /**
+         * Gets called when the page asked by the consumer fails, {@link #loadMore()} tries again.
+         *
+         * @param errorCode Will get one of "HttpResponseListener.ERROR_CODE_*" OR "Common Http Error Codes"
+         */
+        void onErrorResponse(int errorCode);
+    }
+
+    /**
+     * Page.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Decoded page, holds its items & the url of the next page.
+     *
+     * @param <T> Type of the page items.
+     */
+    public static class Page<T> {
+
+        private final List<T> mItems;
+        private final String mNextUrl;
+
+        /**
+         * Constructor.
+         *
+         * @param items   Items of the page, may be null for no items.
+         * @param nextUrl Url of the next page OR null if this is the last page.
+         */
+        public Page(final List<T> items, final String nextUrl) {
+            this.mItems = (items != null) ? Collections.unmodifiableList(items) : Collections.<T>emptyList();
+            this.mNextUrl = nextUrl;
+        }
+
+        /**
+         * Used to get the items of the page.
+         *
+         * @return Unmodifiable items.
+         */
+        public List<T> getItems() {
+            return mItems;
+        }
+
+        /**
+         * Used to get the url of the next page.
+         *
+         * @return Url OR null if this is the last page.
+         */
+        public String getNextUrl() {
+            return mNextUrl;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param builder  Builder.
+     * @param listener Listener used to receive the pages.
+     */
+    private Paginator(final Builder<T> builder, final PageListener<T> listener) {
+        this.mHttpClientApi = builder.mHttpClientApi;
+        this.mIdentifier = builder.mIdentifier;
+        this.mHeaders = builder.mHeaders;
+        this.mDecoder = builder.mDecoder;
+        this.mListener = listener;
+        this.mDeliveryExecutor = (builder.mDeliveryExecutor != null) ? builder.mDeliveryExecutor : DeliveryExecutors.mainThread();
+        this.mPrefetchPages = builder.mPrefetchPages;
+        this.mNextUrl = builder.mFirstUrl;
+        // Pages are decoded on the network thread, listener gets them on the delivery executor.
+        this.mOptions = new RequestOptions.Builder().setShouldCache(builder.mShouldCache)
+                .setDeliveryExecutor(DeliveryExecutors.immediate()).build();
+        this.mPrefetchOptions = new RequestOptions.Builder().setShouldCache(builder.mShouldCache)
+                .setPriority(RequestOptions.Priority.LOW).setDeliveryExecutor(DeliveryExecutors.immediate()).build();
+    }
+
+    /**
+     * Used to ask for the next page, like when the user scrolls to the end of the list. Page is delivered right away if
+     * it's already prefetched, else once it's fetched.
+     */
+    public void loadMore() {
+        synchronized (this) {
+            if (mClosed || mCompleted) {
+                return;
+            }
+            mRequestedPages++;
+            deliverBufferedPages();
+            if (mFetching && mFetchingPrefetch && mRequestedPages > mBuffer.size()) {
+                // Consumer waits for the page being prefetched.
+                mHttpClientApi.cancelRequest(mIdentifier);
+                mFetching = false;
+            }
+            fetchIfNeeded();
+        }
+        mDeliveryExecutor.execute(mCallbackRunner);
+    }
+
+    /**
+     * Used to stop the pagination, the request in flight is cancelled & no more callbacks are delivered.
+     */
+    public synchronized void close() {
+        if (mClosed) {
+            return;
+        }
+        mClosed = true;
+        mBuffer.clear();
+        mCallbacks.clear();
+        if (mFetching) {
+            mHttpClientApi.cancelRequest(mIdentifier);
+        }
+    }
+
+    /**
+     * Used to check whether all the pages are delivered.
+     *
+     * @return True once {@link PageListener#onComplete()} is delivered.
+     */
+    public synchronized boolean isCompleted() {
+        return mCompleted;
+    }
+
+    /**
+     * Used to get the number of pages fetched ahead & not delivered yet.
+     *
+     * @return Buffered pages.
+     */
+    public synchronized int getBufferedPages() {
+        return mBuffer.size();
+    }
+
+    /**
+     * Used to deliver the buffered pages asked by the consumer, then completion if the last page is delivered.
+     * <p>
+     * Must be called holding the lock, listener is called once the lock is released.
+     */
+    private void deliverBufferedPages() {
+        while (!mClosed && mRequestedPages > 0 && !mBuffer.isEmpty()) {
+            final Page<T> page = mBuffer.poll();
+            final int pageIndex = mDeliveredPages++;
+            mRequestedPages--;
+            mCallbacks.add(new Runnable() {
+                @Override
+                public void run() {
+                    mListener.onPage(pageIndex, page.getItems());
+                }
+            });
+        }
+        if (!mClosed && !mCompleted && mBuffer.isEmpty() && mNextUrl == null && !mFetching) {
+            mCompleted = true;
+            mRequestedPages = 0;
+            mCallbacks.add(new Runnable() {
+                @Override
+                public void run() {
+                    mListener.onComplete();
+                }
+            });
+        }
+    }
+
+    /**
+     * Used to run the queued listener callbacks in order, runs on the delivery executor without holding the lock.
+     * Callbacks queued by the listener itself (like by calling {@link #loadMore()}) are run by the same loop.
+     */
+    private void runCallbacks() {
+        synchronized (this) {
+            if (mRunningCallbacks) {
+                return;
+            }
+            mRunningCallbacks = true;
+        }
+        boolean completed = false;
+        try {
+            while (true) {
+                Runnable callback;
+                synchronized (this) {
+                    callback = mClosed ? null : mCallbacks.poll();
+                    if (callback == null) {
+                        mRunningCallbacks = false;
+                        completed = true;
+                        return;
+                    }
+                }
+                callback.run();
+            }
+        } finally {
+            if (!completed) {
+                // Listener threw, later callbacks are run by the next delivery.
+                synchronized (this) {
+                    mRunningCallbacks = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Used to fetch the next page, with normal priority if the consumer is waiting for it, else with low priority if
+     * the buffer isn't full.
+     */
+    private void fetchIfNeeded() {
+        if (mClosed || mFetching || mNextUrl == null) {
+            return;
+        }
+        if (mRequestedPages > mBuffer.size()) {
+            fetch(mOptions);
+        } else if (!mPrefetchFailed && mBuffer.size() < mPrefetchPages) {
+            fetch(mPrefetchOptions);
+        }
+    }
+
+    /**
+     * Used to fetch the page at the next url.
+     * <p>
+     * Must be called holding the lock.
+     *
+     * @param options Request options.
+     */
+    private void fetch(final RequestOptions options) {
+        final String url = mNextUrl;
+        final int generation = ++mFetchGeneration;
+        mFetching = true;
+        mFetchingPrefetch = options == mPrefetchOptions;
+        mHttpClientApi.request(mIdentifier, HttpMethod.GET, mHeaders, url, null, options, new HttpClientApi.HttpFullResponseListener() {
+            @Override
+            public void onSuccessResponse(final HttpResponse response) {
+                if (!isCurrentFetch(generation)) {
+                    return;
+                }
+                Page<T> page;
+                try {
+                    page = mDecoder.decode(url, response);
+                } catch (Exception exp) {
+                    onPageFailed(generation, HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR);
+                    return;
+                }
+                onPageFetched(generation, page);
+            }
+
+            @Override
+            public void onErrorResponse(final int errorCode, final HttpResponse response) {
+                onPageFailed(generation, errorCode);
+            }
+        });
+    }
+
+    /**
+     * Used to check whether the fetch is still the current one, not cancelled & re-issued.
+     *
+     * @param generation Generation of the fetch.
+     * @return True if current.
+     */
+    private synchronized boolean isCurrentFetch(final int generation) {
+        return !mClosed && mFetching && generation == mFetchGeneration;
+    }
+
+    /**
+     * Gets called on the network thread once the page is fetched & decoded.
+     *
+     * @param generation Generation of the fetch.
+     * @param page       Page.
+     */
+    private void onPageFetched(final int generation, final Page<T> page) {
+        synchronized (this) {
+            if (!isCurrentFetch(generation)) {
+                return;
+            }
+            mFetching = false;
+            mPrefetchFailed = false;
+            mNextUrl = page.getNextUrl();
+            mBuffer.add(page);
+            deliverBufferedPages();
+            fetchIfNeeded();
+        }
+        mDeliveryExecutor.execute(mCallbackRunner);
+    }
+
+    /**
+     * Gets called on the network thread once the page fails, reported only if the consumer is waiting for it.
+     *
+     * @param generation Generation of the fetch.
+     * @param errorCode  Error code.
+     */
+    private void onPageFailed(final int generation, final int errorCode) {
+        synchronized (this) {
+            if (!isCurrentFetch(generation)) {
+                return;
+            }
+            mFetching = false;
+            if (mRequestedPages > mBuffer.size()) {
+                mRequestedPages = mBuffer.size();
+                mCallbacks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        mListener.onErrorResponse(errorCode);
+                    }
+                });
+            } else {
+                mPrefetchFailed = true;
+            }
+        }
+        mDeliveryExecutor.execute(mCallbackRunner);
+    }
+
+    /**
+     * Used to get the url of the next page from the "Link" header of the response, like
+     * {@code <https://api.example.com/items?page=2>; rel="next"}.
+     *
+     * @param response Response of the page.
+     * @param url      Url of the page, used to resolve relative links.
+     * @return Absolute url of the next page OR null if the response has no next link.
+     */
+    public static String getNextLink(final HttpResponse response, final String url) {
+        String header = response.getHeader(HEADER_LINK);
+        if (header == null) {
+            return null;
+        }
+        for (String link : header.split(",\\s*(?=<)")) {
+            int start = link.indexOf('<');
+            int end = link.indexOf('>', start + 1);
+            if (start < 0 || end < 0) {
+                continue;
+            }
+            String[] params = link.substring(end + 1).split(";");
+            for (String param : params) {
+                int equals = param.indexOf('=');
+                if (equals < 0 || !"rel".equalsIgnoreCase(param.substring(0, equals).trim())) {
+                    continue;
+                }
+                String relations = param.substring(equals + 1).trim().replace("\"", "");
+                for (String relation : relations.split("\\s+")) {
+                    if (LINK_RELATION_NEXT.equalsIgnoreCase(relation)) {
+                        return resolve(url, link.substring(start + 1, end).trim());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Used to set the query parameter of the url, replacing its current value, like the cursor of the next page.
+     *
+     * @param url   Url.
+     * @param name  Parameter name.
+     * @param value Parameter value, gets url encoded.
+     * @return Url with the parameter.
+     */
+    public static String setQueryParameter(final String url, final String name, final String value) {
+        String encodedName = encode(name);
+        String parameter = encodedName + "=" + encode(value);
+        int fragmentIndex = url.indexOf('#');
+        String fragment = (fragmentIndex >= 0) ? url.substring(fragmentIndex) : "";
+        String base = (fragmentIndex >= 0) ? url.substring(0, fragmentIndex) : url;
+        int queryIndex = base.indexOf('?');
+        if (queryIndex < 0) {
+            return base + "?" + parameter + fragment;
+        }
+
+        StringBuilder result = new StringBuilder(base.substring(0, queryIndex + 1)).append(parameter);
+        for (String pair : base.substring(queryIndex + 1).split("&")) {
+            // Current values are dropped, so the parameter isn't repeated.
+            if (!pair.isEmpty() && !pair.equals(encodedName) && !pair.startsWith(encodedName + "=")) {
+                result.append('&').append(pair);
+            }
+        }
+        return result.append(fragment).toString();
+    }
+
+    /**
+     * Used to resolve the link against the url of the page.
+     *
+     * @param url  Url of the page.
+     * @param link Absolute OR relative link.
+     * @return Absolute url, link as it is if it can't be resolved.
+     */
+    private static String resolve(final String url, final String link) {
+        try {
+            return new URL(new URL(url), link).toString();
+        } catch (MalformedURLException exp) {
+            return link;
+        }
+    }
+
+    /**
+     * Used to url encode the query parameter name OR value.
+     *
+     * @param value Value.
+     * @return Encoded value.
+     */
+    private static String encode(final String value) {
+        try {
+            return URLEncoder.encode(value, QUERY_CHARSET);
+        } catch (UnsupportedEncodingException exp) {
+            // UTF-8 is always supported.
+            throw new IllegalStateException(exp);
+        }
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to build {@link Paginator}.
+     *
+     * @param <T> Type of the page items.
+     */
+    public static class Builder<T> {
+
+        private final HttpClientApi mHttpClientApi;
+        private final String mIdentifier;
+        private final String mFirstUrl;
+        private final PageDecoder<T> mDecoder;
+        private Map<String, String> mHeaders;
+        private int mPrefetchPages = DEFAULT_PREFETCH_PAGES;
+        private boolean mShouldCache;
+        private Executor mDeliveryExecutor;
+
+        /**
+         * Constructor.
+         *
+         * @param httpClientApi Http client used to fetch the pages, like a {@link RequestScope} of the screen.
+         * @param identifier    Unique string used to identify the page requests.
+         * @param firstUrl      Url of the first page.
+         * @param decoder       Decoder of the pages.
+         */
+        public Builder(final HttpClientApi httpClientApi, final String identifier, final String firstUrl, final PageDecoder<T> decoder) {
+            this.mHttpClientApi = httpClientApi;
+            this.mIdentifier = identifier;
+            this.mFirstUrl = firstUrl;
+            this.mDecoder = decoder;
+        }
+
+        /**
+         * Used to set the headers sent with every page request.
+         *
+         * @param headers Request headers.
+         * @return Builder.
+         */
+        public Builder<T> setHeaders(final Map<String, String> headers) {
+            this.mHeaders = headers;
+            return this;
+        }
+
+        /**
+         * Used to set the number of pages fetched ahead of the consumer, which is also the size of the page buffer.
+         *
+         * @param prefetchPages Pages, zero turns prefetch off.
+         * @return Builder.
+         */
+        public Builder<T> setPrefetchPages(final int prefetchPages) {
+            if (prefetchPages < 0) {
+                throw new IllegalArgumentException("prefetchPages must not be negative");
+            }
+            this.mPrefetchPages = prefetchPages;
+            return this;
+        }
+
+        /**
+         * Used to set whether or not the page responses should be cached.
+         *
+         * @param shouldCache True if should be cached.
+         * @return Builder.
+         */
+        public Builder<T> setShouldCache(final boolean shouldCache) {
+            this.mShouldCache = shouldCache;
+            return this;
+        }
+
+        /**
+         * Used to set the executor on which {@link PageListener} is called.
+         *
+         * @param deliveryExecutor Executor running the tasks in order, default {@link DeliveryExecutors#mainThread()}.
+         * @return Builder.
+         */
+        public Builder<T> setDeliveryExecutor(final Executor deliveryExecutor) {
+            this.mDeliveryExecutor = deliveryExecutor;
+            return this;
+        }
+
+        /**
+         * Used to build the paginator, nothing is fetched until {@link #loadMore()} is called.
+         *
+         * @param listener Listener used to receive the pages.
+         * @return Paginator.
+         */
+        public Paginator<T> build(final PageListener<T> listener) {
+            return new Paginator<T>(this, listener);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Request Coalescer.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Used by {@link HttpClientApi} implementations to share one network call between identical requests which are
+ * in flight at the same time (single flight).
+ * 1.b. First request for a key becomes the {@link Flight}, implementation performs the network call using the flight as
+ * listener & tag. Identical requests made before it completes just join the flight & receive the same result.
+ * 1.c. Cancelling an identifier removes only its listeners, flight itself is cancelled once it has no listeners left.
+ * 1.d. Requests are identical only if their options match too (caching, priority, retry policy & delivery executor),
+ * so every member is delivered on its own executor, at its own priority & with its own cache rules.
+ * 1.e. Flight stops accepting new members on its first delivery, but keeps delivering to its members until the
+ * implementation reports {@link HttpClientApi.RequestFinishedListener#onRequestFinished()}, since a cached response
+ * needing refresh is delivered first & then the refreshed one.
+ *
+ * @param <T> Type of the response.
+ * @author Vasanth
+ */
+public class RequestCoalescer<T> {
+
+    // Flights which can be joined, not delivered yet.
+    private final Map<Key, Flight<T>> mFlights = new HashMap<Key, Flight<T>>();
+    // Flights which delivered a response & may deliver more, can't be joined anymore.
+    private final Set<Flight<T>> mDeliveringFlights = new HashSet<Flight<T>>();
+
+    /**
+     * Used to build the key identifying identical requests.
+     *
+     * @param method  HTTP Request Method.
+     * @param url     Request Url.
+     * @param headers Request headers, order doesn't matter.
+     * @param options Request options.
+     * @return Key.
+     */
+    public static Key buildKey(final String method, final String url, final Map<String, String> headers, final RequestOptions options) {
+        StringBuilder key = new StringBuilder(method).append(' ').append(url)
+                .append(' ').append(options.shouldCache())
+                .append(' ').append(options.getCachePolicy())
+                .append(' ').append(options.getMaxAgeMs())
+                .append(' ').append(options.getMaxStaleMs())
+                .append(' ').append(options.getPriority());
+        if (headers != null && !headers.isEmpty()) {
+            for (Map.Entry<String, String> header : new TreeMap<String, String>(headers).entrySet()) {
+                key.append('\n').append(header.getKey()).append(':').append(header.getValue());
+            }
+        }
+        return new Key(key.toString(), options.getRetryPolicy(), options.getDeliveryExecutor());
+    }
+
+    /**
+     * Used to join the flight for the given key.
+     *
+     * @param key        Key identifying identical requests, see {@link #buildKey(String, String, Map, RequestOptions)}.
+     * @param identifier Unique string to identify individual request.
+     * @param listener   Listener used to get callback on request completes.
+     * @return New flight if there is no identical request in flight, caller has to perform the network call using it as
+     * listener. Null if the request joined an existing flight.
+     */
+    public synchronized Flight<T> join(final Key key, final String identifier, final HttpClientApi.TypedResponseListener<T> listener) {
+        Flight<T> flight = mFlights.get(key);
+        if (flight != null) {
+            flight.mMembers.add(new Member<T>(identifier, listener));
+            return null;
+        }
+
+        flight = new Flight<T>(this, key);
+        flight.mMembers.add(new Member<T>(identifier, listener));
+        mFlights.put(key, flight);
+        return flight;
+    }
+
+    /**
+     * Used to remove all the listeners joined using the given identifier.
+     *
+     * @param identifier Unique string used to join the flights.
+     * @return Flights which have no listeners left, caller has to cancel their network call.
+     */
+    public synchronized List<Flight<T>> cancel(final String identifier) {
+        List<Flight<T>> emptyFlights = new ArrayList<Flight<T>>();
+        removeMembers(mFlights.values().iterator(), identifier, emptyFlights);
+        removeMembers(mDeliveringFlights.iterator(), identifier, emptyFlights);
+        return emptyFlights;
+    }
+
+    /**
+     * Used to remove the listeners joined using the given identifier from the flights.
+     *
+     * @param iterator     Iterator of the flights, empty flights are removed using it.
+     * @param identifier   Unique string used to join the flights.
+     * @param emptyFlights Flights which have no listeners left, to be filled.
+     */
+    private void removeMembers(final Iterator<Flight<T>> iterator, final String identifier, final List<Flight<T>> emptyFlights) {
+        while (iterator.hasNext()) {
+            Flight<T> flight = iterator.next();
+            Iterator<Member<T>> memberIterator = flight.mMembers.iterator();
+            while (memberIterator.hasNext()) {
+                if (identifier.equals(memberIterator.next().mIdentifier)) {
+                    memberIterator.remove();
+                }
+            }
+            if (flight.mMembers.isEmpty()) {
+                iterator.remove();
+                emptyFlights.add(flight);
+            }
+        }
+    }
+
+    /**
+     * Used to mark the flight as delivering, requests made after this call start a new flight.
+     *
+     * @param flight Flight.
+     * @return Listeners joined the flight.
+     */
+    private synchronized List<Member<T>> deliver(final Flight<T> flight) {
+        if (mFlights.get(flight.mKey) == flight) {
+            mFlights.remove(flight.mKey);
+            mDeliveringFlights.add(flight);
+        }
+        return new ArrayList<Member<T>>(flight.mMembers);
+    }
+
+    /**
+     * Used to mark the flight as finished, its listeners are released.
+     *
+     * @param flight Flight.
+     * @return Listeners joined the flight.
+     */
+    private synchronized List<Member<T>> finish(final Flight<T> flight) {
+        if (mFlights.get(flight.mKey) == flight) {
+            mFlights.remove(flight.mKey);
+        }
+        mDeliveringFlights.remove(flight);
+        List<Member<T>> members = new ArrayList<Member<T>>(flight.mMembers);
+        flight.mMembers.clear();
+        return members;
+    }
+
+    /**
+     * Flight.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Listener of the shared network call, forwards the result to every request joined the flight.
+     * 1.b. Members are released once the implementation reports the request is finished.
+     *
+     * @param <T> Type of the response.
+     */
+    public static class Flight<T> implements HttpClientApi.TypedResponseListener<T>, HttpClientApi.RequestFinishedListener {
+
+        private final RequestCoalescer<T> mCoalescer;
+        private final Key mKey;
+        private final List<Member<T>> mMembers = new ArrayList<Member<T>>();
+
+        /**
+         * Constructor.
+         *
+         * @param coalescer Coalescer owning the flight.
+         * @param key       Key identifying identical requests.
+         */
+        Flight(final RequestCoalescer<T> coalescer, final Key key) {
+            this.mCoalescer = coalescer;
+            this.mKey = key;
+        }
+
+        @Override
+        public void onSuccessResponse(final T response) {
+            for (Member<T> member : mCoalescer.deliver(this)) {
+                if (member.mListener != null) {
+                    member.mListener.onSuccessResponse(response);
+                }
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            for (Member<T> member : mCoalescer.deliver(this)) {
+                if (member.mListener != null) {
+                    member.mListener.onErrorResponse(errorCode);
+                }
+            }
+        }
+
+        @Override
+        public void onRequestFinished() {
+            for (Member<T> member : mCoalescer.finish(this)) {
+                if (member.mListener instanceof HttpClientApi.RequestFinishedListener) {
+                    ((HttpClientApi.RequestFinishedListener) member.mListener).onRequestFinished();
+                }
+            }
+        }
+    }
+
+    /**
+     * Key.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Identifies identical requests - method, url, headers & option values, along with the same retry policy &
+     * delivery executor instances (compared by identity, they have no value equality).
+     */
+    public static final class Key {
+
+        private final String mRequest;
+        private final HttpRetryPolicy mRetryPolicy;
+        private final Executor mDeliveryExecutor;
+
+        /**
+         * Constructor.
+         *
+         * @param request          Method, url, headers & option values.
+         * @param retryPolicy      Retry policy of the request.
+         * @param deliveryExecutor Delivery executor of the request, may be null.
+         */
+        Key(final String request, final HttpRetryPolicy retryPolicy, final Executor deliveryExecutor) {
+            this.mRequest = request;
+            this.mRetryPolicy = retryPolicy;
+            this.mDeliveryExecutor = deliveryExecutor;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return mRequest.equals(key.mRequest) && mRetryPolicy == key.mRetryPolicy && mDeliveryExecutor == key.mDeliveryExecutor;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * mRequest.hashCode() + System.identityHashCode(mRetryPolicy)) + System.identityHashCode(mDeliveryExecutor);
+        }
+    }
+
+    /**
+     * Member.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the identifier & listener of a request joined the flight.
+     *
+     * @param <T> Type of the response.
+     */
+    private static class Member<T> {
+
+        private final String mIdentifier;
+        private final HttpClientApi.TypedResponseListener<T> mListener;
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Unique string to identify individual request.
+         * @param listener   Listener used to get callback on request completes.
+         */
+        Member(final String identifier, final HttpClientApi.TypedResponseListener<T> listener) {
+            this.mIdentifier = identifier;
+            this.mListener = listener;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Request Metrics.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Immutable timings, sizes & outcome of a completed request, reported to {@link HttpMetricsListener}.
+ * 1.b. Times are in milliseconds, -1 if the phase didn't happen (like network time for a cache hit).
+ *
+ * @author Vasanth
+ */
+public class RequestMetrics {
+
+    private final String mIdentifier;
+    private final HttpMethod mMethod;
+    private final String mUrl;
+    private final boolean mSuccess;
+    private final int mStatusCode;
+    private final boolean mFromCache;
+    private final long mQueueWaitMs;
+    private final long mCacheLookupMs;
+    private final long mNetworkTimeMs;
+    private final long mParseTimeMs;
+    private final long mTotalTimeMs;
+    private final long mBytesIn;
+    private final long mBytesOut;
+    private final int mRetryCount;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier    Unique string used to identify the request.
+     * @param method        HTTP Request Method.
+     * @param url           Request Url.
+     * @param success       True if the request succeeded.
+     * @param statusCode    HTTP status code on success OR error code on failure.
+     * @param fromCache     True if the response was served from cache without network call.
+     * @param queueWaitMs   Time spent waiting for a network thread.
+     * @param cacheLookupMs Time spent looking up the cache.
+     * @param networkTimeMs Time spent on the network call.
+     * @param parseTimeMs   Time spent decoding the response.
+     * @param totalTimeMs   Time from the request being queued till delivery, including retries.
+     * @param bytesIn       Response body size in bytes.
+     * @param bytesOut      Request body size in bytes.
+     * @param retryCount    Number of retries made.
+     */
+    public RequestMetrics(final String identifier, final HttpMethod method, final String url, final boolean success, final int statusCode,
+                          final boolean fromCache, final long queueWaitMs, final long cacheLookupMs, final long networkTimeMs,
+                          final long parseTimeMs, final long totalTimeMs, final long bytesIn, final long bytesOut, final int retryCount) {
+        this.mIdentifier = identifier;
+        this.mMethod = method;
+        this.mUrl = url;
+        this.mSuccess = success;
+        this.mStatusCode = statusCode;
+        this.mFromCache = fromCache;
+        this.mQueueWaitMs = queueWaitMs;
+        this.mCacheLookupMs = cacheLookupMs;
+        this.mNetworkTimeMs = networkTimeMs;
+        this.mParseTimeMs = parseTimeMs;
+        this.mTotalTimeMs = totalTimeMs;
+        this.mBytesIn = bytesIn;
+        this.mBytesOut = bytesOut;
+        this.mRetryCount = retryCount;
+    }
+
+    /**
+     * Used to get the identifier of the request.
+     *
+     * @return Identifier.
+     */
+    public String getIdentifier() {
+        return mIdentifier;
+    }
+
+    /**
+     * Used to get the HTTP method.
+     *
+     * @return Method.
+     */
+    public HttpMethod getMethod() {
+        return mMethod;
+    }
+
+    /**
+     * Used to get the request url.
+     *
+     * @return Url.
+     */
+    public String getUrl() {
+        return mUrl;
+    }
+
+    /**
+     * Used to check whether the request succeeded.
+     *
+     * @return True if succeeded.
+     */
+    public boolean isSuccess() {
+        return mSuccess;
+    }
+
+    /**
+     * Used to get HTTP status code on success OR error code on failure.
+     *
+     * @return Status OR error code.
+     */
+    public int getStatusCode() {
+        return mStatusCode;
+    }
+
+    /**
+     * Used to check whether the response was served from cache without network call.
+     *
+     * @return True if served from cache.
+     */
+    public boolean isFromCache() {
+        return mFromCache;
+    }
+
+    /**
+     * Used to get time spent waiting for a network thread.
+     *
+     * @return Time in milliseconds OR -1.
+     */
+    public long getQueueWaitMs() {
+        return mQueueWaitMs;
+    }
+
+    /**
+     * Used to get time spent looking up the cache.
+     *
+     * @return Time in milliseconds OR -1.
+     */
+    public long getCacheLookupMs() {
+        return mCacheLookupMs;
+    }
+
+    /**
+     * Used to get time spent on the network call.
+     *
+     * @return Time in milliseconds OR -1.
+     */
+    public long getNetworkTimeMs() {
+        return mNetworkTimeMs;
+    }
+
+    /**
+     * Used to get time spent decoding the response.
+     *
+     * @return Time in milliseconds OR -1.
+     */
+    public long getParseTimeMs() {
+        return mParseTimeMs;
+    }
+
+    /**
+     * Used to get time from the request being queued till delivery, including retries.
+     *
+     * @return Time in milliseconds.
+     */
+    public long getTotalTimeMs() {
+        return mTotalTimeMs;
+    }
+
+    /**
+     * Used to get response body size.
+     *
+     * @return Size in bytes.
+     */
+    public long getBytesIn() {
+        return mBytesIn;
+    }
+
+    /**
+     * Used to get request body size.
+     *
+     * @return Size in bytes.
+     */
+    public long getBytesOut() {
+        return mBytesOut;
+    }
+
+    /**
+     * Used to get number of retries made.
+     *
+     * @return Retry count.
+     */
+    public int getRetryCount() {
+        return mRetryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{" + mMethod + " " + mUrl + ", identifier=" + mIdentifier + ", success=" + mSuccess
+                + ", status=" + mStatusCode + ", fromCache=" + mFromCache + ", queueWait=" + mQueueWaitMs
+                + "ms, cacheLookup=" + mCacheLookupMs + "ms, network=" + mNetworkTimeMs + "ms, parse=" + mParseTimeMs
+                + "ms, total=" + mTotalTimeMs + "ms, in=" + mBytesIn + "B, out=" + mBytesOut + "B, retries=" + mRetryCount + "}";
+    }
+}
@@ -0,0 +1,300 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Request Options.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Holds the per request options (caching, cache policy, retry policy, priority, body compression, delivery executor)
+ * accepted by {@link HttpClientApi} methods.
+ * 1.b. Use {@link Builder} to create the options, values not set on the builder use the defaults.
+ *
+ * @author Vasanth
+ */
+public class RequestOptions {
+
+    // Options matching the old behaviour - not cached, single attempt with the default socket timeout.
+    public static final RequestOptions DEFAULT = new Builder().build();
+
+    // Request body compression threshold which turns off the compression.
+    public static final int REQUEST_COMPRESSION_DISABLED = -1;
+
+    // Max age which keeps the freshness lifetime given by the response cache headers.
+    public static final long MAX_AGE_FROM_RESPONSE = -1;
+
+    // Same as DEFAULT, but cached.
+    private static final RequestOptions DEFAULT_CACHED = new Builder().setShouldCache(true).build();
+
+    /**
+     * Priority.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Order in which queued requests are sent, higher priority requests are sent first.
+     */
+    public enum Priority {
+        // Background work like prefetch & sync.
+        LOW,
+        // Default priority.
+        NORMAL,
+        // Request the user is actively waiting on.
+        HIGH,
+        // Request which has to be sent before everything else.
+        IMMEDIATE
+    }
+
+    /**
+     * Cache Policy.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Decides how the cached response is used, applies only to requests with "shouldCache" set.
+     * 1.b. Cached responses with "ETag" OR "Last-Modified" are revalidated using "If-None-Match" OR "If-Modified-Since",
+     * so "304 Not Modified" serves the cached body without downloading it again.
+     */
+    public enum CachePolicy {
+        // Response cache headers decide, fresh responses are served from cache & expired ones are revalidated.
+        DEFAULT,
+        // Cache isn't read, response is still stored for later requests.
+        NETWORK_ONLY,
+        // Cached response is always revalidated with the server, even if fresh.
+        FORCE_REVALIDATE,
+        // Cached response is served even if expired, network is used only on cache miss.
+        CACHE_FIRST,
+        // Cached response is delivered immediately even if expired, expired response is then revalidated & the new response
+        // is delivered again (listener gets called twice), unless the server answers "304 Not Modified". Failure of the
+        // revalidation is not delivered.
+        STALE_WHILE_REVALIDATE
+    }
+
+    private final boolean mShouldCache;
+    private final CachePolicy mCachePolicy;
+    private final long mMaxAgeMs;
+    private final long mMaxStaleMs;
+    private final HttpRetryPolicy mRetryPolicy;
+    private final Priority mPriority;
+    private final int mRequestCompressionThresholdBytes;
+    private final Executor mDeliveryExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Builder.
+     */
+    private RequestOptions(final Builder builder) {
+        this.mShouldCache = builder.mShouldCache;
+        this.mCachePolicy = builder.mCachePolicy;
+        this.mMaxAgeMs = builder.mMaxAgeMs;
+        this.mMaxStaleMs = builder.mMaxStaleMs;
+        this.mRetryPolicy = builder.mRetryPolicy;
+        this.mPriority = builder.mPriority;
+        this.mRequestCompressionThresholdBytes = builder.mRequestCompressionThresholdBytes;
+        this.mDeliveryExecutor = builder.mDeliveryExecutor;
+    }
+
+    /**
+     * Used to get options with only "shouldCache" set, used by the methods accepting "shouldCache" flag.
+     *
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @return Options.
+     */
+    public static RequestOptions withShouldCache(final boolean shouldCache) {
+        return shouldCache ? DEFAULT_CACHED : DEFAULT;
+    }
+
+    /**
+     * Used to check whether or not responses to this request should be cached.
+     *
+     * @return True if should be cached.
+     */
+    public boolean shouldCache() {
+        return mShouldCache;
+    }
+
+    /**
+     * Used to get the cache policy.
+     *
+     * @return Cache policy.
+     */
+    public CachePolicy getCachePolicy() {
+        return mCachePolicy;
+    }
+
+    /**
+     * Used to get the freshness lifetime given to the response stored by this request.
+     *
+     * @return Max age in milliseconds OR {@link #MAX_AGE_FROM_RESPONSE}.
+     */
+    public long getMaxAgeMs() {
+        return mMaxAgeMs;
+    }
+
+    /**
+     * Used to get how long an expired cached response is still served without revalidation, used by
+     * {@link CachePolicy#DEFAULT}.
+     *
+     * @return Max stale in milliseconds, zero if expired responses are always revalidated.
+     */
+    public long getMaxStaleMs() {
+        return mMaxStaleMs;
+    }
+
+    /**
+     * Used to get the retry & timeout policy.
+     *
+     * @return Retry policy.
+     */
+    public HttpRetryPolicy getRetryPolicy() {
+        return mRetryPolicy;
+    }
+
+    /**
+     * Used to get the priority.
+     *
+     * @return Priority.
+     */
+    public Priority getPriority() {
+        return mPriority;
+    }
+
+    /**
+     * Used to get the request body size from which the body is gzip compressed.
+     *
+     * @return Threshold in bytes OR {@link #REQUEST_COMPRESSION_DISABLED}.
+     */
+    public int getRequestCompressionThresholdBytes() {
+        return mRequestCompressionThresholdBytes;
+    }
+
+    /**
+     * Used to get the executor on which the result of the request is delivered.
+     *
+     * @return Executor OR null to use the delivery executor of the http client.
+     */
+    public Executor getDeliveryExecutor() {
+        return mDeliveryExecutor;
+    }
+
+    /**
+     * Builder.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to build {@link RequestOptions}.
+     */
+    public static class Builder {
+
+        private boolean mShouldCache;
+        private CachePolicy mCachePolicy = CachePolicy.DEFAULT;
+        private long mMaxAgeMs = MAX_AGE_FROM_RESPONSE;
+        private long mMaxStaleMs;
+        private HttpRetryPolicy mRetryPolicy = HttpRetryPolicy.DEFAULT;
+        private Priority mPriority = Priority.NORMAL;
+        private int mRequestCompressionThresholdBytes = REQUEST_COMPRESSION_DISABLED;
+        private Executor mDeliveryExecutor;
+
+        /**
+         * Used to set whether or not responses to this request should be cached.
+         *
+         * @param shouldCache True if should be cached.
+         * @return Builder.
+         */
+        public Builder setShouldCache(final boolean shouldCache) {
+            this.mShouldCache = shouldCache;
+            return this;
+        }
+
+        /**
+         * Used to set how the cached response is used, applies only if "shouldCache" is set.
+         *
+         * @param cachePolicy Cache policy.
+         * @return Builder.
+         */
+        public Builder setCachePolicy(final CachePolicy cachePolicy) {
+            this.mCachePolicy = (cachePolicy != null) ? cachePolicy : CachePolicy.DEFAULT;
+            return this;
+        }
+
+        /**
+         * Used to override the freshness lifetime of the response stored by this request, instead of the one given by
+         * the response cache headers ("Cache-Control: max-age", "Expires").
+         * <p>
+         * Responses with "Cache-Control: no-store" OR "no-cache" are still not cached.
+         *
+         * @param maxAgeMs Max age in milliseconds, negative to use the response cache headers.
+         * @return Builder.
+         */
+        public Builder setMaxAgeMs(final long maxAgeMs) {
+            this.mMaxAgeMs = (maxAgeMs >= 0) ? maxAgeMs : MAX_AGE_FROM_RESPONSE;
+            return this;
+        }
+
+        /**
+         * Used to serve expired cached responses without revalidation, as long as they expired less than the given
+         * time ago. Used by {@link CachePolicy#DEFAULT}.
+         *
+         * @param maxStaleMs Max stale in milliseconds, zero OR negative to always revalidate expired responses.
+         * @return Builder.
+         */
+        public Builder setMaxStaleMs(final long maxStaleMs) {
+            this.mMaxStaleMs = Math.max(0, maxStaleMs);
+            return this;
+        }
+
+        /**
+         * Used to set the retry & timeout policy.
+         *
+         * @param retryPolicy Retry policy.
+         * @return Builder.
+         */
+        public Builder setRetryPolicy(final HttpRetryPolicy retryPolicy) {
+            this.mRetryPolicy = (retryPolicy != null) ? retryPolicy : HttpRetryPolicy.DEFAULT;
+            return this;
+        }
+
+        /**
+         * Used to set the priority, higher priority requests are sent first.
+         *
+         * @param priority Priority.
+         * @return Builder.
+         */
+        public Builder setPriority(final Priority priority) {
+            this.mPriority = (priority != null) ? priority : Priority.NORMAL;
+            return this;
+        }
+
+        /**
+         * Used to gzip compress request bodies of at least the given size, sent with "Content-Encoding: gzip".
+         * <p>
+         * Turned off by default, enable only for servers which accept gzip request bodies.
+         *
+         * @param thresholdBytes Body size in bytes from which the body is compressed, negative turns off compression.
+         * @return Builder.
+         */
+        public Builder setRequestCompressionThreshold(final int thresholdBytes) {
+            this.mRequestCompressionThresholdBytes = (thresholdBytes >= 0) ? thresholdBytes : REQUEST_COMPRESSION_DISABLED;
+            return this;
+        }
+
+        /**
+         * Used to set the executor on which the result of the request is delivered, see {@link DeliveryExecutors}.
+         * <p>
+         * Decoding always happens on the network thread, this only moves the listener callback. A GET request joining an
+         * identical in-flight request gets delivered on the executor of the in-flight request.
+         *
+         * @param deliveryExecutor Executor, null to use the delivery executor of the http client.
+         * @return Builder.
+         */
+        public Builder setDeliveryExecutor(final Executor deliveryExecutor) {
+            this.mDeliveryExecutor = deliveryExecutor;
+            return this;
+        }
+
+        /**
+         * Used to build the options.
+         *
+         * @return Options.
+         */
+        public RequestOptions build() {
+            return new RequestOptions(this);
+        }
+    }
+}
@@ -0,0 +1,951 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request Scope.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HttpClientApi} decorator which ties the requests made through it to a lifecycle owner (like Activity), so
+ * all of them can be cancelled at once using {@link #cancelAll()} OR {@link #close()}.
+ * 1.b. Identifiers are prefixed with the unique prefix of the scope before reaching the wrapped client, so scopes (like
+ * two instances of the same Activity) using the same identifier don't cancel each other's requests. Metrics &
+ * {@link #setMaxConcurrentRequests(String, int)} see the prefixed identifier.
+ * 1.c. Listeners are held by the scope & released once their request completes OR gets cancelled, so a cancelled
+ * request still waiting in the queue doesn't keep the listener (& the Activity it refers) in memory & never delivers a
+ * callback. Cache enabled requests may deliver the cached response & then the refreshed one, their listeners are
+ * released once the wrapped client reports {@link RequestFinishedListener#onRequestFinished()} (OR on failure OR
+ * cancel).
+ * 1.d. Requests made after the scope is closed are dropped without any callback.
+ * 1.e. Use {@link #forActivity(Activity, HttpClientApi)} to close the scope automatically once the Activity is
+ * destroyed.
+ *
+ * @author Vasanth
+ */
+public class RequestScope implements HttpClientApi {
+
+    // Separates the prefix of the scope from the identifier.
+    private static final String IDENTIFIER_SEPARATOR = "/";
+
+    // Used to make the prefix of every scope unique.
+    private static final AtomicInteger SCOPE_COUNTER = new AtomicInteger();
+
+    private final HttpClientApi mHttpClientApi;
+    private final String mPrefix;
+    // Listeners of the requests which are not completed yet.
+    private final Set<ScopedListener<?>> mListeners = new HashSet<ScopedListener<?>>();
+    // Number of not completed requests per prefixed identifier.
+    private final Map<String, Integer> mIdentifierCounts = new HashMap<String, Integer>();
+    private boolean mClosed;
+
+    /**
+     * Constructor.
+     *
+     * @param httpClientApi Http client used to make the requests.
+     * @param name          Name of the scope (like Activity name), used in the prefix of the identifiers.
+     */
+    public RequestScope(final HttpClientApi httpClientApi, final String name) {
+        this.mHttpClientApi = httpClientApi;
+        this.mPrefix = name + "#" + SCOPE_COUNTER.incrementAndGet() + IDENTIFIER_SEPARATOR;
+    }
+
+    /**
+     * Used to create the scope of the Activity, which gets closed once the Activity is destroyed.
+     * <p>
+     * Must be called on main thread, typically from "onCreate".
+     *
+     * @param activity      Activity.
+     * @param httpClientApi Http client used to make the requests.
+     * @return Scope.
+     */
+    public static RequestScope forActivity(final Activity activity, final HttpClientApi httpClientApi) {
+        final RequestScope requestScope = new RequestScope(httpClientApi, activity.getClass().getSimpleName());
+        final Application application = activity.getApplication();
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityCreated(final Activity createdActivity, final Bundle savedInstanceState) {
+            }
+
+            @Override
+            public void onActivityStarted(final Activity startedActivity) {
+            }
+
+            @Override
+            public void onActivityResumed(final Activity resumedActivity) {
+            }
+
+            @Override
+            public void onActivityPaused(final Activity pausedActivity) {
+            }
+
+            @Override
+            public void onActivityStopped(final Activity stoppedActivity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(final Activity savedActivity, final Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(final Activity destroyedActivity) {
+                if (destroyedActivity == activity) {
+                    application.unregisterActivityLifecycleCallbacks(this);
+                    requestScope.close();
+                }
+            }
+        });
+        return requestScope;
+    }
+
+    /**
+     * Used to cancel all the requests made through the scope, scope can still be used for new requests.
+     */
+    public void cancelAll() {
+        List<String> identifiers;
+        synchronized (this) {
+            identifiers = new ArrayList<String>(mIdentifierCounts.keySet());
+            for (ScopedListener<?> scopedListener : new ArrayList<ScopedListener<?>>(mListeners)) {
+                scopedListener.cancel();
+            }
+        }
+        for (String identifier : identifiers) {
+            mHttpClientApi.cancelRequest(identifier);
+        }
+    }
+
+    /**
+     * Used to cancel all the requests made through the scope & drop the requests made later.
+     */
+    public void close() {
+        synchronized (this) {
+            mClosed = true;
+        }
+        cancelAll();
+    }
+
+    /**
+     * Used to check whether the scope is closed.
+     *
+     * @return True if closed.
+     */
+    public synchronized boolean isClosed() {
+        return mClosed;
+    }
+
+    /**
+     * Used to get the identifier the wrapped client sees for the given identifier, like to match metrics.
+     *
+     * @param identifier Identifier used with the scope.
+     * @return Prefixed identifier.
+     */
+    public String getScopedIdentifier(final String identifier) {
+        return mPrefix + identifier;
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & get response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    @Override
+    public void getRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache, HttpResponseListener listener) {
+        getRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        ScopedResponseListener scopedListener = register(new ScopedResponseListener(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.getRequest(scopedListener.mIdentifier, headers, url, options, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                            boolean shouldCache, HttpResponseListener listener) {
+        postRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                            RequestOptions options, HttpResponseListener listener) {
+        ScopedResponseListener scopedListener = register(new ScopedResponseListener(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.postRequest(scopedListener.mIdentifier, headers, url, body, bodyContentType, options, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param decoder     Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        getRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), decoder, listener);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        ScopedTypedResponseListener<T> scopedListener = register(new ScopedTypedResponseListener<T>(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.getRequest(scopedListener.mIdentifier, headers, url, options, decoder, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                boolean shouldCache, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        postRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), decoder, listener);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                RequestOptions options, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        ScopedTypedResponseListener<T> scopedListener = register(new ScopedTypedResponseListener<T>(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.postRequest(scopedListener.mIdentifier, headers, url, body, bodyContentType, options, decoder, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                           boolean shouldCache, HttpResponseListener listener) {
+        putRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                           RequestOptions options, HttpResponseListener listener) {
+        ScopedResponseListener scopedListener = register(new ScopedResponseListener(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.putRequest(scopedListener.mIdentifier, headers, url, body, bodyContentType, options, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                            HttpResponseListener listener) {
+        ScopedResponseListener scopedListener = register(new ScopedResponseListener(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.postRequest(scopedListener.mIdentifier, headers, url, body, options, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                                ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        ScopedTypedResponseListener<T> scopedListener = register(new ScopedTypedResponseListener<T>(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.postRequest(scopedListener.mIdentifier, headers, url, body, options, decoder, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                           HttpResponseListener listener) {
+        ScopedResponseListener scopedListener = register(new ScopedResponseListener(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.putRequest(scopedListener.mIdentifier, headers, url, body, options, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP DELETE REQUEST" & get response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    @Override
+    public void deleteRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache, HttpResponseListener listener) {
+        deleteRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP DELETE REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void deleteRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        ScopedResponseListener scopedListener = register(new ScopedResponseListener(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.deleteRequest(scopedListener.mIdentifier, headers, url, options, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make the request & get the whole response (status code, headers, body, cache & timing) using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, used only by "POST" & "PUT", may be null.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void request(String identifier, HttpMethod method, Map<String, String> headers, String url, HttpRequestBody body,
+                        RequestOptions options, HttpFullResponseListener listener) {
+        ScopedFullResponseListener scopedListener = register(new ScopedFullResponseListener(getScopedIdentifier(identifier), options, listener));
+        if (scopedListener != null) {
+            mHttpClientApi.request(scopedListener.mIdentifier, method, headers, url, body, options, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & consume the response body as a stream.
+     * <p>
+     * Stream of the request cancelled while the body is consumed is closed without "onStreamComplete".
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param listener   Listener used to consume the response stream & get callback on request completes.
+     */
+    @Override
+    public void streamRequest(String identifier, Map<String, String> headers, String url, HttpStreamResponseListener listener) {
+        ScopedStreamResponseListener scopedListener = register(new ScopedStreamResponseListener(getScopedIdentifier(identifier), listener));
+        if (scopedListener != null) {
+            mHttpClientApi.streamRequest(scopedListener.mIdentifier, headers, url, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & write the response body directly to the given file.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param destinationFile File to which response body has to be written, replaced if already exists.
+     * @param listener        Listener used to get callback on download progress & completion.
+     */
+    @Override
+    public void downloadRequest(String identifier, Map<String, String> headers, String url, File destinationFile, HttpDownloadListener listener) {
+        ScopedDownloadListener scopedListener = register(new ScopedDownloadListener(getScopedIdentifier(identifier), listener));
+        if (scopedListener != null) {
+            mHttpClientApi.downloadRequest(scopedListener.mIdentifier, headers, url, destinationFile, scopedListener);
+        }
+    }
+
+    /**
+     * Used to make the request on the calling thread & get the response directly.
+     * <p>
+     * Request runs on the calling thread, so it isn't cancelled by the scope.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body, used only by "POST" & "PUT".
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @return Response.
+     * @throws HttpClientException If the request fails, carries the error code.
+     */
+    @Override
+    public String execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body, String bodyContentType,
+                          RequestOptions options) throws HttpClientException {
+        return mHttpClientApi.execute(getScopedIdentifier(identifier), method, headers, url, body, bodyContentType, options);
+    }
+
+    /**
+     * Used to make the request on the calling thread & get the decoded response directly.
+     * <p>
+     * Request runs on the calling thread, so it isn't cancelled by the scope.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body, used only by "POST" & "PUT".
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on the calling thread.
+     * @return Decoded response.
+     * @throws HttpClientException If the request fails, carries the error code.
+     */
+    @Override
+    public <T> T execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body, String bodyContentType,
+                         RequestOptions options, ResponseDecoder<T> decoder) throws HttpClientException {
+        return mHttpClientApi.execute(getScopedIdentifier(identifier), method, headers, url, body, bodyContentType, options, decoder);
+    }
+
+    /**
+     * Used to make a group of requests together & get one aggregated callback once all of them complete.
+     *
+     * @param identifier   Unique string to identify the batch.
+     * @param batchRequest Requests of the batch.
+     * @param listener     Listener used to get callback once all the requests complete.
+     */
+    @Override
+    public void batchRequest(String identifier, BatchRequest batchRequest, BatchResponseListener listener) {
+        ScopedBatchResponseListener scopedListener = register(new ScopedBatchResponseListener(getScopedIdentifier(identifier), listener));
+        if (scopedListener != null) {
+            mHttpClientApi.batchRequest(scopedListener.mIdentifier, batchRequest, scopedListener);
+        }
+    }
+
+    /**
+     * Used to remove cached responses of all the urls starting with the given prefix.
+     *
+     * @param urlPrefix Url prefix.
+     */
+    @Override
+    public void invalidateCache(String urlPrefix) {
+        mHttpClientApi.invalidateCache(urlPrefix);
+    }
+
+    /**
+     * Used to limit the number of requests of this scope with the given identifier running at the same time.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    @Override
+    public void setMaxConcurrentRequests(String identifier, int maxConcurrentRequests) {
+        mHttpClientApi.setMaxConcurrentRequests(getScopedIdentifier(identifier), maxConcurrentRequests);
+    }
+
+    /**
+     * Used to set the listener which receives timings, sizes & outcome of every completed request.
+     * <p>
+     * Listener is set on the wrapped client, hence it receives the requests of every scope.
+     *
+     * @param metricsListener Metrics listener, null to stop reporting.
+     */
+    @Override
+    public void setMetricsListener(HttpMetricsListener metricsListener) {
+        mHttpClientApi.setMetricsListener(metricsListener);
+    }
+
+    /**
+     * Used to cancel the requests of this scope with the given identifier.
+     *
+     * @param identifier Unique string to identify the request & cancel it.
+     */
+    @Override
+    public void cancelRequest(String identifier) {
+        String scopedIdentifier = getScopedIdentifier(identifier);
+        synchronized (this) {
+            for (ScopedListener<?> scopedListener : new ArrayList<ScopedListener<?>>(mListeners)) {
+                if (scopedIdentifier.equals(scopedListener.mIdentifier)) {
+                    scopedListener.cancel();
+                }
+            }
+        }
+        mHttpClientApi.cancelRequest(scopedIdentifier);
+    }
+
+    /**
+     * Used to hold the listener until its request completes.
+     *
+     * @param scopedListener Listener.
+     * @return Same listener OR null if the scope is closed.
+     */
+    private synchronized <L extends ScopedListener<?>> L register(final L scopedListener) {
+        if (mClosed) {
+            return null;
+        }
+        mListeners.add(scopedListener);
+        Integer count = mIdentifierCounts.get(scopedListener.mIdentifier);
+        mIdentifierCounts.put(scopedListener.mIdentifier, (count != null) ? count + 1 : 1);
+        return scopedListener;
+    }
+
+    /**
+     * Scoped Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the listener of a request until the request completes OR the scope cancels it.
+     *
+     * @param <L> Type of the listener.
+     */
+    private abstract class ScopedListener<L> implements RequestFinishedListener {
+
+        final String mIdentifier;
+        private final boolean mMultipleResponses;
+        private L mListener;
+        // Listener told once the request finishes, kept after the final callback until then.
+        private RequestFinishedListener mFinishedListener;
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param listener   Listener.
+         */
+        ScopedListener(final String identifier, final L listener) {
+            this(identifier, null, listener);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param options    Request options, cache enabled requests may deliver two responses.
+         * @param listener   Listener.
+         */
+        ScopedListener(final String identifier, final RequestOptions options, final L listener) {
+            this.mIdentifier = identifier;
+            this.mMultipleResponses = options != null && options.shouldCache();
+            this.mListener = listener;
+            if (listener instanceof RequestFinishedListener) {
+                this.mFinishedListener = (RequestFinishedListener) listener;
+            }
+        }
+
+        /**
+         * Used to get the listener while the request is running, like for progress callbacks.
+         *
+         * @return Listener OR null if released.
+         */
+        L get() {
+            synchronized (RequestScope.this) {
+                return mListener;
+            }
+        }
+
+        /**
+         * Used to get the listener for the success callback, released unless the refreshed response may follow (kept
+         * until the request finishes, since "304 Not Modified" isn't delivered).
+         *
+         * @return Listener OR null if released.
+         */
+        L success() {
+            return mMultipleResponses ? get() : finish();
+        }
+
+        /**
+         * Used to get the listener for the final callback & release it.
+         *
+         * @return Listener OR null if already released.
+         */
+        L finish() {
+            synchronized (RequestScope.this) {
+                L listener = mListener;
+                release();
+                return listener;
+            }
+        }
+
+        /**
+         * Gets called once no more callbacks follow, releases the listener.
+         */
+        @Override
+        public void onRequestFinished() {
+            RequestFinishedListener finishedListener;
+            synchronized (RequestScope.this) {
+                release();
+                finishedListener = mFinishedListener;
+                mFinishedListener = null;
+            }
+            if (finishedListener != null) {
+                finishedListener.onRequestFinished();
+            }
+        }
+
+        /**
+         * Used to drop the listener on cancel, so it never receives a callback (not even the finish).
+         * <p>
+         * Must be called holding the lock of the scope.
+         */
+        void cancel() {
+            mFinishedListener = null;
+            release();
+        }
+
+        /**
+         * Used to drop the listener, so it never receives a callback.
+         * <p>
+         * Must be called holding the lock of the scope.
+         */
+        void release() {
+            if (mListener == null) {
+                return;
+            }
+            mListener = null;
+            mListeners.remove(this);
+            Integer count = mIdentifierCounts.get(mIdentifier);
+            if (count == null || count <= 1) {
+                mIdentifierCounts.remove(mIdentifier);
+            } else {
+                mIdentifierCounts.put(mIdentifier, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Scoped Typed Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. {@link TypedResponseListener} which forwards the callback only if the request wasn't cancelled by the scope.
+     *
+     * @param <T> Type of the decoded response.
+     */
+    private class ScopedTypedResponseListener<T> extends ScopedListener<TypedResponseListener<T>> implements TypedResponseListener<T> {
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param options    Request options.
+         * @param listener   Listener.
+         */
+        ScopedTypedResponseListener(final String identifier, final RequestOptions options, final TypedResponseListener<T> listener) {
+            super(identifier, options, listener);
+        }
+
+        @Override
+        public void onSuccessResponse(final T response) {
+            TypedResponseListener<T> listener = success();
+            if (listener != null) {
+                listener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            TypedResponseListener<T> listener = finish();
+            if (listener != null) {
+                listener.onErrorResponse(errorCode);
+            }
+        }
+    }
+
+    /**
+     * Scoped Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. {@link HttpResponseListener} which forwards the callback only if the request wasn't cancelled by the scope.
+     */
+    private class ScopedResponseListener extends ScopedListener<HttpResponseListener> implements HttpResponseListener {
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param options    Request options.
+         * @param listener   Listener.
+         */
+        ScopedResponseListener(final String identifier, final RequestOptions options, final HttpResponseListener listener) {
+            super(identifier, options, listener);
+        }
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            HttpResponseListener listener = success();
+            if (listener != null) {
+                listener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            HttpResponseListener listener = finish();
+            if (listener != null) {
+                listener.onErrorResponse(errorCode);
+            }
+        }
+    }
+
+    /**
+     * Scoped Full Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. {@link HttpFullResponseListener} which forwards the callback only if the request wasn't cancelled by the scope.
+     */
+    private class ScopedFullResponseListener extends ScopedListener<HttpFullResponseListener> implements HttpFullResponseListener {
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param options    Request options.
+         * @param listener   Listener.
+         */
+        ScopedFullResponseListener(final String identifier, final RequestOptions options, final HttpFullResponseListener listener) {
+            super(identifier, options, listener);
+        }
+
+        @Override
+        public void onSuccessResponse(final HttpResponse response) {
+            HttpFullResponseListener listener = success();
+            if (listener != null) {
+                listener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode, final HttpResponse response) {
+            HttpFullResponseListener listener = finish();
+            if (listener != null) {
+                listener.onErrorResponse(errorCode, response);
+            }
+        }
+    }
+
+    /**
+     * Scoped Stream Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. {@link HttpStreamResponseListener} which forwards the callbacks only if the request wasn't cancelled by the
+     * scope.
+     */
+    private class ScopedStreamResponseListener extends ScopedListener<HttpStreamResponseListener> implements HttpStreamResponseListener {
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param listener   Listener.
+         */
+        ScopedStreamResponseListener(final String identifier, final HttpStreamResponseListener listener) {
+            super(identifier, listener);
+        }
+
+        @Override
+        public void onResponseStream(final InputStream inputStream, final long contentLength) throws IOException {
+            HttpStreamResponseListener listener = get();
+            if (listener != null) {
+                listener.onResponseStream(inputStream, contentLength);
+            }
+        }
+
+        @Override
+        public void onStreamComplete() {
+            HttpStreamResponseListener listener = finish();
+            if (listener != null) {
+                listener.onStreamComplete();
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            HttpStreamResponseListener listener = finish();
+            if (listener != null) {
+                listener.onErrorResponse(errorCode);
+            }
+        }
+    }
+
+    /**
+     * Scoped Download Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. {@link HttpDownloadListener} which forwards the callbacks only if the request wasn't cancelled by the scope.
+     */
+    private class ScopedDownloadListener extends ScopedListener<HttpDownloadListener> implements HttpDownloadListener {
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param listener   Listener.
+         */
+        ScopedDownloadListener(final String identifier, final HttpDownloadListener listener) {
+            super(identifier, listener);
+        }
+
+        @Override
+        public void onDownloadProgress(final long bytesDownloaded, final long contentLength) {
+            HttpDownloadListener listener = get();
+            if (listener != null) {
+                listener.onDownloadProgress(bytesDownloaded, contentLength);
+            }
+        }
+
+        @Override
+        public void onDownloadComplete(final File file) {
+            HttpDownloadListener listener = finish();
+            if (listener != null) {
+                listener.onDownloadComplete(file);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            HttpDownloadListener listener = finish();
+            if (listener != null) {
+                listener.onErrorResponse(errorCode);
+            }
+        }
+    }
+
+    /**
+     * Scoped Batch Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. {@link BatchResponseListener} which forwards the callback only if the batch wasn't cancelled by the scope.
+     */
+    private class ScopedBatchResponseListener extends ScopedListener<BatchResponseListener> implements BatchResponseListener {
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Prefixed identifier.
+         * @param listener   Listener.
+         */
+        ScopedBatchResponseListener(final String identifier, final BatchResponseListener listener) {
+            super(identifier, listener);
+        }
+
+        @Override
+        public void onBatchComplete(final BatchResult result) {
+            BatchResponseListener listener = finish();
+            if (listener != null) {
+                listener.onBatchComplete(result);
+            }
+        }
+    }
+}
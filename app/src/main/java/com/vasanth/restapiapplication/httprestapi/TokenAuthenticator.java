@@ -0,0 +1,221 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Token Authenticator.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HttpAuthenticator} sending the token of the {@link TokenProvider} as "Authorization: Bearer" header &
+ * refreshing it once the server answers "401 Unauthorized".
+ * 1.b. Refresh is single flight - concurrent requests rejected with the same token wait for the one refresh & are then
+ * replayed with the new token, requests started while refreshing wait for the new token instead of sending the old one.
+ * 1.c. Token whose refresh failed isn't refreshed again for the other requests rejected with it, until the token changes
+ * OR the refresh retry interval passes.
+ * 1.d. Refresh is called without holding the lock of the authenticator. Refresh made through the same http client must
+ * use the identifier {@link #IDENTIFIER_TOKEN_REFRESH} (it may be scoped, like by {@link RequestScope}), such requests
+ * neither wait for the refresh nor get the token, else they wait for the refresh they are part of.
+ *
+ * @author Vasanth
+ */
+public class TokenAuthenticator implements HttpAuthenticator {
+
+    // Header carrying the token.
+    public static final String HEADER_AUTHORIZATION = "Authorization";
+
+    // Scheme prefixed to the token.
+    public static final String SCHEME_BEARER = "Bearer ";
+
+    // Identifier (OR identifier suffix) of the requests made by the provider to refresh the token.
+    public static final String IDENTIFIER_TOKEN_REFRESH = "TokenAuthenticator.refreshToken";
+
+    // Time after which the token whose refresh failed is refreshed again.
+    public static final long DEFAULT_REFRESH_RETRY_INTERVAL_MS = 30 * 1000;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final TokenProvider mTokenProvider;
+    private final long mRefreshRetryIntervalMs;
+    private String mToken;
+    private boolean mTokenLoaded;
+    // Incremented every time the token is set, refresh result is dropped if the token was set meanwhile.
+    private int mTokenVersion;
+    // Thread running the refresh, null if not refreshing.
+    private Thread mRefreshThread;
+    // Token whose refresh failed & when.
+    private String mFailedToken;
+    private long mFailedAtMs;
+
+    /**
+     * Token Provider.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used to load the stored token (once, holding the lock of the authenticator) & get a new one (without holding
+     * it, only one refresh runs at a time), both called on the network thread.
+     */
+    public interface TokenProvider {
+
+        /**
+         * Gets called once before the first request to get the stored token.
+         *
+         * @return Token OR null if not logged in.
+         */
+        String getToken();
+
+        /**
+         * Gets called once the server rejects the current token, blocks until the new token is received. Requests made
+         * for the refresh through the same http client must use {@link #IDENTIFIER_TOKEN_REFRESH}.
+         *
+         * @param expiredToken Rejected token, may be null.
+         * @return New token OR null if it can't be refreshed (like refresh token expired).
+         */
+        String refreshToken(String expiredToken);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tokenProvider Provider of the tokens.
+     */
+    public TokenAuthenticator(final TokenProvider tokenProvider) {
+        this(tokenProvider, DEFAULT_REFRESH_RETRY_INTERVAL_MS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tokenProvider          Provider of the tokens.
+     * @param refreshRetryIntervalMs Time after which the token whose refresh failed is refreshed again.
+     */
+    public TokenAuthenticator(final TokenProvider tokenProvider, final long refreshRetryIntervalMs) {
+        this.mTokenProvider = tokenProvider;
+        this.mRefreshRetryIntervalMs = refreshRetryIntervalMs;
+    }
+
+    /**
+     * Used to set the token, like after login OR logout.
+     *
+     * @param token Token OR null to send requests without it.
+     */
+    public synchronized void setToken(final String token) {
+        this.mToken = token;
+        this.mTokenLoaded = true;
+        this.mTokenVersion++;
+        this.mFailedToken = null;
+        notifyAll();
+    }
+
+    /**
+     * Adds the current token, waits if a refresh is in progress.
+     *
+     * @param request Request.
+     */
+    @Override
+    public void intercept(final InterceptedRequest request) {
+        if (isRefreshRequest(request)) {
+            return;
+        }
+        String token = getToken();
+        if (token != null) {
+            request.setHeader(HEADER_AUTHORIZATION, SCHEME_BEARER + token);
+        }
+    }
+
+    /**
+     * Refreshes the token the request was sent with, unless another request already did.
+     *
+     * @param request Request as sent.
+     * @return True if the request has to be replayed with the new token.
+     */
+    @Override
+    public boolean authenticate(final InterceptedRequest request) {
+        if (isRefreshRequest(request)) {
+            return false;
+        }
+        String currentToken;
+        int tokenVersion;
+        synchronized (this) {
+            currentToken = getToken();
+            if (mRefreshThread != null) {
+                // Made by the refresh itself OR interrupted while waiting for it.
+                return false;
+            }
+            String sentHeader = request.getHeader(HEADER_AUTHORIZATION);
+            String currentHeader = (currentToken != null) ? SCHEME_BEARER + currentToken : null;
+            if (currentHeader != null && !currentHeader.equals(sentHeader)) {
+                // Refreshed while the request was in flight.
+                return true;
+            }
+            if (currentToken != null && currentToken.equals(mFailedToken) && nowMs() - mFailedAtMs < mRefreshRetryIntervalMs) {
+                return false;
+            }
+            mRefreshThread = Thread.currentThread();
+            tokenVersion = mTokenVersion;
+        }
+
+        String newToken = null;
+        try {
+            newToken = mTokenProvider.refreshToken(currentToken);
+        } finally {
+            synchronized (this) {
+                mRefreshThread = null;
+                notifyAll();
+                if (tokenVersion == mTokenVersion) {
+                    if (newToken == null || newToken.equals(currentToken)) {
+                        mFailedToken = currentToken;
+                        mFailedAtMs = nowMs();
+                    } else {
+                        mToken = newToken;
+                        mTokenVersion++;
+                        mFailedToken = null;
+                    }
+                }
+            }
+        }
+        synchronized (this) {
+            // Token set meanwhile (like logout) wins over the refreshed one.
+            return mToken != null && !mToken.equals(currentToken);
+        }
+    }
+
+    /**
+     * Used to get the current token, loaded from the provider on first use. Waits while a refresh is in progress, unless
+     * called by the refresh itself (like its synchronous request).
+     *
+     * @return Token OR null.
+     */
+    private synchronized String getToken() {
+        while (mRefreshThread != null && mRefreshThread != Thread.currentThread()) {
+            try {
+                wait();
+            } catch (InterruptedException exp) {
+                // Sent with the current token, may get refreshed again.
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!mTokenLoaded) {
+            mToken = mTokenProvider.getToken();
+            mTokenLoaded = true;
+        }
+        return mToken;
+    }
+
+    /**
+     * Used to check whether the request is made by the provider to refresh the token.
+     *
+     * @param request Request.
+     * @return True if made for the refresh.
+     */
+    private static boolean isRefreshRequest(final InterceptedRequest request) {
+        String identifier = request.getIdentifier();
+        return identifier != null && identifier.endsWith(IDENTIFIER_TOKEN_REFRESH);
+    }
+
+    /**
+     * Used to get the monotonic current time.
+     *
+     * @return Time in milliseconds.
+     */
+    private static long nowMs() {
+        return System.nanoTime() / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,52 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+/**
+ * Url Prefix.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Matches urls against the prefix given to {@link HttpClientApi#invalidateCache(String)} on a path segment
+ * boundary, so "/items/1" matches "/items/1", "/items/1/comments" & "/items/1?page=2" but not its sibling "/items/10".
+ * 1.b. Prefix ending with a separator ("/", "?" OR "&") matches every url starting with it.
+ *
+ * @author Vasanth
+ */
+public class UrlPrefix {
+
+    /**
+     * Private Constructor.
+     */
+    private UrlPrefix() {
+    }
+
+    /**
+     * Used to check whether the url is the prefix itself OR below it.
+     *
+     * @param url       Url (OR cache key).
+     * @param urlPrefix Url prefix.
+     * @return True if the url matches the prefix.
+     */
+    public static boolean matches(final String url, final String urlPrefix) {
+        if (!url.startsWith(urlPrefix)) {
+            return false;
+        }
+        if (url.length() == urlPrefix.length() || urlPrefix.isEmpty()) {
+            return true;
+        }
+        char last = urlPrefix.charAt(urlPrefix.length() - 1);
+        if (isSeparator(last)) {
+            return true;
+        }
+        char next = url.charAt(urlPrefix.length());
+        return isSeparator(next) || next == '#';
+    }
+
+    /**
+     * Used to check whether the character separates the path segments OR the query.
+     *
+     * @param c Character.
+     * @return True if separator.
+     */
+    private static boolean isSeparator(final char c) {
+        return c == '/' || c == '?' || c == '&';
+    }
+}
@@ -0,0 +1,113 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+import com.vasanth.restapiapplication.httprestapi.HttpResponse;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import java.util.Map;
+
+import okhttp3.Response;
+
+/**
+ * OkHttp Full Response Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Class responsible for retrieving the whole {@link HttpResponse} at a given URL, including the error response
+ * of a failed request.
+ *
+ * @author Vasanth
+ */
+class OkHttpFullResponseRequest extends OkHttpRequest<HttpResponse> {
+
+    private final HttpClientApi.HttpFullResponseListener mFullResponseListener;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param body       Request Body, may be null.
+     * @param options    Request options.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    OkHttpFullResponseRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                              final HttpRequestBody body, final RequestOptions options, final HttpClientApi.HttpFullResponseListener listener) {
+        super(identifier, method, headers, url, body, options, null, new SuccessListener(listener));
+        this.mFullResponseListener = listener;
+    }
+
+    /**
+     * Builds the response from the status code, headers & body, on the request thread.
+     *
+     * @param response OkHttp response.
+     * @param data     Response body.
+     * @param charset  Charset of the response body.
+     * @return Response.
+     */
+    @Override
+    HttpResponse decodeResponse(final Response response, final byte[] data, final String charset) {
+        return new HttpResponse(response.code(), toHeaderMap(response.headers()), data, charset, isFromCache(),
+                isFromCache() ? -1 : getNetworkTimeMs());
+    }
+
+    /**
+     * Notifies the listener of the failure along with the error response, if the server sent one.
+     *
+     * @param errorCode     Error code.
+     * @param errorResponse Error response OR null.
+     */
+    @Override
+    void deliverErrorResponse(final int errorCode, final HttpResponse errorResponse) {
+        if (mFullResponseListener != null) {
+            mFullResponseListener.onErrorResponse(errorCode, errorResponse);
+        }
+    }
+
+    /**
+     * Success Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Adapts the full response listener to the typed listener of the base request (forwarding
+     * {@link HttpClientApi.RequestFinishedListener} too), failures are delivered by
+     * {@link #deliverErrorResponse(int, HttpResponse)} instead.
+     */
+    private static class SuccessListener implements HttpClientApi.TypedResponseListener<HttpResponse>,
+            HttpClientApi.RequestFinishedListener {
+
+        private final HttpClientApi.HttpFullResponseListener mListener;
+
+        /**
+         * Constructor.
+         *
+         * @param listener Listener.
+         */
+        SuccessListener(final HttpClientApi.HttpFullResponseListener listener) {
+            this.mListener = listener;
+        }
+
+        @Override
+        public void onSuccessResponse(final HttpResponse response) {
+            if (mListener != null) {
+                mListener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            if (mListener != null) {
+                mListener.onErrorResponse(errorCode, null);
+            }
+        }
+
+        @Override
+        public void onRequestFinished() {
+            if (mListener instanceof HttpClientApi.RequestFinishedListener) {
+                ((HttpClientApi.RequestFinishedListener) mListener).onRequestFinished();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * OkHttp Max Age Interceptor.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Network interceptor of the caching client, replaces the cache headers of the network response with the max age
+ * override of the request ({@link RequestOptions#getMaxAgeMs()}) before the response is stored by the OkHttp cache.
+ * 1.b. Options are carried as the request tag, responses with "Cache-Control: no-store" OR "no-cache" are left as it is.
+ *
+ * @author Vasanth
+ */
+class OkHttpMaxAgeInterceptor implements Interceptor {
+
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    private static final String HEADER_EXPIRES = "Expires";
+    private static final String HEADER_PRAGMA = "Pragma";
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        RequestOptions options = chain.request().tag(RequestOptions.class);
+        if (options == null || options.getMaxAgeMs() == RequestOptions.MAX_AGE_FROM_RESPONSE) {
+            return response;
+        }
+        if (!response.isSuccessful() && response.code() != HttpURLConnection.HTTP_NOT_MODIFIED) {
+            return response;
+        }
+        if (response.cacheControl().noStore() || response.cacheControl().noCache()) {
+            return response;
+        }
+        return response.newBuilder()
+                .header(HEADER_CACHE_CONTROL, "max-age=" + TimeUnit.MILLISECONDS.toSeconds(options.getMaxAgeMs()))
+                .removeHeader(HEADER_EXPIRES)
+                .removeHeader(HEADER_PRAGMA)
+                .build();
+    }
+}
@@ -0,0 +1,883 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.CircuitBreaker;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientException;
+import com.vasanth.restapiapplication.httprestapi.HttpInterceptorChain;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpMetricsListener;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+import com.vasanth.restapiapplication.httprestapi.HttpResponse;
+import com.vasanth.restapiapplication.httprestapi.HttpRetryPolicy;
+import com.vasanth.restapiapplication.httprestapi.InterceptedRequest;
+import com.vasanth.restapiapplication.httprestapi.RequestMetrics;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * OkHttp Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Request made by {@link OkHttpRestApiImpl}, executed synchronously on a request thread of {@link OkHttpSingleton}
+ * so that requests can be ordered by priority & limited per identifier, like volley requests.
+ * 1.b. Decodes the response body on the request thread using {@link HttpClientApi.ResponseDecoder} & delivers the
+ * result on the delivery executor (main thread by default), failures use the same error codes as the volley
+ * implementation.
+ * 1.c. Retries failed attempts as per {@link HttpRetryPolicy}, by adding the request back after the backoff delay.
+ * 1.d. Compresses in memory request bodies over the threshold set in {@link RequestOptions}, other bodies (file,
+ * multipart) are streamed while sending. Gzip responses are decompressed by OkHttp itself.
+ * 1.e. Reports {@link RequestMetrics} to the {@link HttpMetricsListener} once the result is delivered.
+ * 1.f. Can also be executed on the calling thread using {@link #executeSync(OkHttpSingleton)}.
+ * 1.g. Applies {@link RequestOptions.CachePolicy} using request "Cache-Control", OkHttp cache sends "If-None-Match" /
+ * "If-Modified-Since" itself. Stale while revalidate makes a cache only call first & delivers its response before the
+ * network call.
+ * 1.h. Asks the {@link CircuitBreaker} of the url before every call & reports the result of the network call (connect
+ * failures too), while the circuit is open only the cached response can be served, else the attempt fails with
+ * "ERROR_CODE_CIRCUIT_OPEN" without any connection.
+ * 1.i. Tells {@link HttpClientApi.RequestFinishedListener} once the last callback is delivered.
+ *
+ * @param <T> Type of the decoded response.
+ * @author Vasanth
+ */
+class OkHttpRequest<T> implements Runnable, Comparable<OkHttpRequest<?>> {
+
+    // Charset used to decode the response if "Content-Type" header doesn't specify one (same as volley).
+    private static final String DEFAULT_RESPONSE_CHARSET = "ISO-8859-1";
+
+    // Response header used by the server to ask the client to wait before retrying.
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String ENCODING_GZIP = "gzip";
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    // Result of an attempt which succeeded, error codes are never zero.
+    private static final int ATTEMPT_SUCCEEDED = 0;
+
+    // Warning added by OkHttp cache to the responses served after they expired.
+    private static final String HEADER_WARNING = "Warning";
+    private static final String WARNING_RESPONSE_IS_STALE = "110";
+
+    // Cache controls used by the cache policies.
+    private static final CacheControl CACHE_CONTROL_FORCE_REVALIDATE = new CacheControl.Builder()
+            .maxAge(0, TimeUnit.SECONDS)
+            .build();
+    private static final CacheControl CACHE_CONTROL_CACHE_FIRST = new CacheControl.Builder()
+            .maxStale(Integer.MAX_VALUE, TimeUnit.SECONDS)
+            .build();
+
+    private final String mIdentifier;
+    private final HttpMethod mHttpMethod;
+    private final Map<String, String> mHeaders;
+    private final String mUrl;
+    private final HttpRequestBody mBody;
+    private final RequestOptions mOptions;
+    private final HttpClientApi.ResponseDecoder<T> mDecoder;
+    private final HttpClientApi.TypedResponseListener<T> mListener;
+
+    private Object mTag;
+    private OkHttpSingleton mOkHttpSingleton;
+    private long mSequence;
+    private int mRetryCount;
+    private byte[] mEncodedBody;
+    private boolean mBodyCompressed;
+    private volatile boolean mCanceled;
+    // Stale while revalidate, cached response is checked only once & later deliveries are the revalidation.
+    private boolean mCacheChecked;
+    private boolean mIntermediateDelivered;
+    private volatile Call mCall;
+    // Request as sent by the current attempt, null if the config has no interceptor.
+    private InterceptedRequest mInterceptedRequest;
+
+    // Result of the last attempt.
+    private T mResponse;
+    private int mStatusCode;
+    private String mRetryAfter;
+    private boolean mStale;
+    private boolean mNotModified;
+    private HttpResponse mErrorResponse;
+    // Result of the last attempt, reported to the host limiter.
+    private int mAttemptResultCode;
+    private long mAttemptLatencyMs = -1;
+
+    // Metrics of the last attempt, total time starts when the request is first added.
+    private long mStartNs;
+    private long mQueuedNs;
+    private long mQueueWaitMs = -1;
+    private long mNetworkTimeMs = -1;
+    private long mParseTimeMs = -1;
+    private long mBytesIn;
+    private boolean mFromCache;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param options    Request options.
+     * @param decoder    Decoder used to convert the response body into the model.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    OkHttpRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                  final RequestOptions options, final HttpClientApi.ResponseDecoder<T> decoder,
+                  final HttpClientApi.TypedResponseListener<T> listener) {
+        this(identifier, method, headers, url, (HttpRequestBody) null, options, decoder, listener);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request Headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options.
+     * @param decoder         Decoder used to convert the response body into the model.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    OkHttpRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url, final String body,
+                  final String bodyContentType, final RequestOptions options, final HttpClientApi.ResponseDecoder<T> decoder,
+                  final HttpClientApi.TypedResponseListener<T> listener) {
+        this(identifier, method, headers, url, (body != null) ? HttpRequestBody.create(body, bodyContentType) : null, options, decoder,
+                listener);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param body       Request Body.
+     * @param options    Request options.
+     * @param decoder    Decoder used to convert the response body into the model.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    OkHttpRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                  final HttpRequestBody body, final RequestOptions options, final HttpClientApi.ResponseDecoder<T> decoder,
+                  final HttpClientApi.TypedResponseListener<T> listener) {
+        this.mIdentifier = identifier;
+        this.mTag = identifier;
+        this.mHttpMethod = method;
+        this.mHeaders = headers;
+        this.mUrl = url;
+        this.mBody = body;
+        this.mOptions = options;
+        this.mDecoder = decoder;
+        this.mListener = listener;
+    }
+
+    /**
+     * Used to get the identifier the request was made with.
+     *
+     * @return Identifier.
+     */
+    String getIdentifier() {
+        return mIdentifier;
+    }
+
+    /**
+     * Used to set the tag used to cancel the request, identifier by default.
+     *
+     * @param tag Tag.
+     */
+    void setTag(final Object tag) {
+        this.mTag = tag;
+    }
+
+    /**
+     * Used to get the tag used to cancel the request.
+     *
+     * @return Tag.
+     */
+    Object getTag() {
+        return mTag;
+    }
+
+    /**
+     * Used to cancel the request, no callback will be delivered after this call.
+     */
+    void cancel() {
+        mCanceled = true;
+        Call call = mCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    /**
+     * Used to check whether the request is canceled.
+     *
+     * @return True if canceled.
+     */
+    boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * Gets called by {@link OkHttpSingleton} every time the request is queued (first attempt & retries).
+     *
+     * @param okHttpSingleton OkHttp singleton executing the request.
+     * @param sequence        Queue order, used to keep requests of same priority in order.
+     */
+    void onQueued(final OkHttpSingleton okHttpSingleton, final long sequence) {
+        this.mOkHttpSingleton = okHttpSingleton;
+        this.mSequence = sequence;
+        this.mQueuedNs = System.nanoTime();
+        if (mStartNs == 0) {
+            mStartNs = mQueuedNs;
+        }
+    }
+
+    /**
+     * Higher priority first, then earlier queued first.
+     *
+     * @param other Other request.
+     * @return Comparison result.
+     */
+    @Override
+    public int compareTo(final OkHttpRequest<?> other) {
+        int priorityCompare = other.mOptions.getPriority().ordinal() - mOptions.getPriority().ordinal();
+        if (priorityCompare != 0) {
+            return priorityCompare;
+        }
+        return (mSequence < other.mSequence) ? -1 : ((mSequence == other.mSequence) ? 0 : 1);
+    }
+
+    /**
+     * Used to get the result of the last attempt, available once the attempt finishes.
+     *
+     * @return HTTP status code OR one of "HttpResponseListener.ERROR_CODE_*", zero if no network call was made.
+     */
+    int getAttemptResultCode() {
+        return mAttemptResultCode;
+    }
+
+    /**
+     * Used to get the time taken by the network call of the last attempt.
+     *
+     * @return Time in milliseconds OR -1 if served from cache OR not known.
+     */
+    long getAttemptLatencyMs() {
+        return mAttemptLatencyMs;
+    }
+
+    /**
+     * Used to get the request url.
+     *
+     * @return Url.
+     */
+    String getUrl() {
+        return mUrl;
+    }
+
+    /**
+     * Executes an attempt of the request on the calling (request) thread.
+     */
+    @Override
+    public void run() {
+        mAttemptResultCode = 0;
+        mAttemptLatencyMs = -1;
+        try {
+            if (!mCanceled) {
+                execute();
+            }
+        } finally {
+            mOkHttpSingleton.onAttemptFinished(this);
+        }
+    }
+
+    /**
+     * Used to execute the call & deliver its result, OR schedule a retry.
+     */
+    private void execute() {
+        if (!mCacheChecked && mOptions.shouldCache() && mOptions.getCachePolicy() == RequestOptions.CachePolicy.STALE_WHILE_REVALIDATE) {
+            mCacheChecked = true;
+            if (attempt(CacheControl.FORCE_CACHE) == ATTEMPT_SUCCEEDED) {
+                postResponse(mResponse, mStatusCode, !mStale);
+                if (!mStale) {
+                    return;
+                }
+                mIntermediateDelivered = true;
+            }
+        }
+
+        int errorCode = attempt(getCacheControl());
+        mAttemptResultCode = (errorCode == ATTEMPT_SUCCEEDED) ? mStatusCode : errorCode;
+        mAttemptLatencyMs = mFromCache ? -1 : mNetworkTimeMs;
+        if (errorCode == ATTEMPT_SUCCEEDED) {
+            if (mIntermediateDelivered && mNotModified) {
+                postRevalidationFinished();
+            } else {
+                postResponse(mResponse, mStatusCode, true);
+            }
+            return;
+        }
+
+        long delayMs = getRetryDelayMs(errorCode);
+        if (delayMs >= 0) {
+            mRetryCount++;
+            mOkHttpSingleton.scheduleRetry(this, delayMs);
+            return;
+        }
+        if (mIntermediateDelivered) {
+            // Listener keeps the stale response.
+            postRevalidationFinished();
+        } else {
+            postError(errorCode);
+        }
+    }
+
+    /**
+     * Used to execute the request on the calling thread & return the result directly, retries sleep on the calling
+     * thread for the backoff delay.
+     *
+     * @param okHttpSingleton OkHttp singleton providing the client.
+     * @return Decoded response.
+     * @throws HttpClientException If the request fails.
+     */
+    T executeSync(final OkHttpSingleton okHttpSingleton) throws HttpClientException {
+        this.mOkHttpSingleton = okHttpSingleton;
+        this.mStartNs = System.nanoTime();
+        while (true) {
+            mQueuedNs = System.nanoTime();
+            // Only one response can be returned, hence stale while revalidate revalidates right away.
+            int errorCode = attempt(getCacheControl());
+            if (errorCode == ATTEMPT_SUCCEEDED) {
+                reportMetrics(buildMetrics(true, mStatusCode));
+                return mResponse;
+            }
+
+            long delayMs = getRetryDelayMs(errorCode);
+            if (delayMs < 0) {
+                reportMetrics(buildMetrics(false, errorCode));
+                throw new HttpClientException(errorCode);
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException exp) {
+                Thread.currentThread().interrupt();
+                throw new HttpClientException(HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR, exp);
+            }
+            mRetryCount++;
+        }
+    }
+
+    /**
+     * Used to make an attempt of the request, decoded response & status code are kept in the fields.
+     *
+     * @param cacheControl Cache control of the request, null to use the response cache headers.
+     * @return {@link #ATTEMPT_SUCCEEDED} OR error code.
+     */
+    private int attempt(final CacheControl cacheControl) {
+        long startNs = System.nanoTime();
+        mQueueWaitMs = (startNs - mQueuedNs) / NANOS_PER_MILLI;
+        mNetworkTimeMs = -1;
+        mParseTimeMs = -1;
+        mBytesIn = 0;
+        mFromCache = false;
+        mRetryAfter = null;
+        mStale = false;
+        mNotModified = false;
+        mErrorResponse = null;
+
+        // Cache only call of stale while revalidate never touches the network.
+        CircuitBreaker circuitBreaker = (cacheControl != CacheControl.FORCE_CACHE) ? mOkHttpSingleton.getCircuitBreaker(mUrl) : null;
+        CacheControl attemptCacheControl = cacheControl;
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            attemptCacheControl = getCircuitOpenCacheControl(cacheControl);
+            if (attemptCacheControl == null) {
+                return HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN;
+            }
+            circuitBreaker = null;
+        }
+
+        Response response = null;
+        try {
+            OkHttpClient client = mOkHttpSingleton.getClient(mOptions.shouldCache());
+            response = executeCall(client, attemptCacheControl);
+            HttpInterceptorChain interceptorChain = mOkHttpSingleton.getInterceptorChain();
+            if (response.code() == HttpInterceptorChain.STATUS_CODE_UNAUTHORIZED && mInterceptedRequest != null && !mCanceled
+                    && interceptorChain.authenticate(mInterceptedRequest)) {
+                // Replayed once with the headers intercepted again.
+                response.close();
+                response = null;
+                response = executeCall(client, attemptCacheControl);
+            }
+            if (circuitBreaker != null) {
+                // Cache hit says nothing about the backend.
+                if (response.networkResponse() != null) {
+                    circuitBreaker.onResult(response.networkResponse().code());
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+                circuitBreaker = null;
+            } else if (attemptCacheControl != cacheControl && response.cacheResponse() == null) {
+                // Circuit is open & the cache can't serve the request.
+                return HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN;
+            }
+            ResponseBody responseBody = response.body();
+            String charset = getCharset(responseBody.contentType());
+            byte[] data = responseBody.bytes();
+            mNetworkTimeMs = (System.nanoTime() - startNs) / NANOS_PER_MILLI;
+            mBytesIn = data.length;
+            mFromCache = response.networkResponse() == null;
+            mNotModified = !mFromCache && response.networkResponse().code() == HttpURLConnection.HTTP_NOT_MODIFIED;
+            String warning = response.header(HEADER_WARNING);
+            mStale = mFromCache && warning != null && warning.startsWith(WARNING_RESPONSE_IS_STALE);
+
+            if (!response.isSuccessful()) {
+                mRetryAfter = response.header(HEADER_RETRY_AFTER);
+                mErrorResponse = new HttpResponse(response.code(), toHeaderMap(response.headers()), data, charset, mFromCache,
+                        mFromCache ? -1 : mNetworkTimeMs);
+                return response.code();
+            }
+
+            long parseStartNs = System.nanoTime();
+            try {
+                mResponse = decodeResponse(response, data, charset);
+                mStatusCode = response.code();
+                return ATTEMPT_SUCCEEDED;
+            } catch (Exception exp) {
+                return HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR;
+            } finally {
+                mParseTimeMs = (System.nanoTime() - parseStartNs) / NANOS_PER_MILLI;
+            }
+        } catch (SocketTimeoutException exp) {
+            circuitBreaker = onCallFailed(circuitBreaker, HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR);
+            return HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR;
+        } catch (IOException exp) {
+            // Connect failures (refused, unreachable, connect timeout) end up here too.
+            circuitBreaker = onCallFailed(circuitBreaker, HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+            return HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR;
+        } catch (IllegalArgumentException exp) {
+            // Malformed url OR header.
+            return HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR;
+        } finally {
+            mCall = null;
+            if (response != null) {
+                response.close();
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.onIgnored();
+            }
+        }
+    }
+
+    /**
+     * Used to report the failed call to the circuit breaker, canceled calls are ignored.
+     *
+     * @param circuitBreaker Circuit breaker of the call, null if the call has none OR its result is already reported.
+     * @param errorCode      Error code of the call.
+     * @return Null, as the result is reported.
+     */
+    private CircuitBreaker onCallFailed(final CircuitBreaker circuitBreaker, final int errorCode) {
+        if (circuitBreaker != null) {
+            if (mCanceled) {
+                circuitBreaker.onIgnored();
+            } else {
+                circuitBreaker.onResult(errorCode);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Used to get the cache control of the attempt rejected by the open circuit, only the cached response can be served.
+     *
+     * @param cacheControl Cache control of the attempt, null to use the response cache headers.
+     * @return Cache only cache control OR null if the attempt must go to the network (not cached, network only OR force
+     * revalidate).
+     */
+    private CacheControl getCircuitOpenCacheControl(final CacheControl cacheControl) {
+        if (!mOptions.shouldCache() || cacheControl == CacheControl.FORCE_NETWORK || cacheControl == CACHE_CONTROL_FORCE_REVALIDATE) {
+            return null;
+        }
+        CacheControl.Builder builder = new CacheControl.Builder().onlyIfCached();
+        if (cacheControl != null && cacheControl.maxStaleSeconds() > 0) {
+            builder.maxStale(cacheControl.maxStaleSeconds(), TimeUnit.SECONDS);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Used to make a call of the attempt, interceptors run while the request is built.
+     *
+     * @param client       OkHttp client.
+     * @param cacheControl Cache control of the request, null to use the response cache headers.
+     * @return Response, must be closed.
+     * @throws IOException If the call fails.
+     */
+    private Response executeCall(final OkHttpClient client, final CacheControl cacheControl) throws IOException {
+        Call call = client.newCall(buildRequest(cacheControl));
+        mCall = call;
+        if (mCanceled) {
+            call.cancel();
+        }
+        return call.execute();
+    }
+
+    /**
+     * Used to get the backoff delay before retrying the failed attempt.
+     *
+     * @param errorCode Error code of the failed attempt.
+     * @return Delay in milliseconds OR negative if the request shouldn't be retried.
+     */
+    private long getRetryDelayMs(final int errorCode) {
+        HttpRetryPolicy retryPolicy = mOptions.getRetryPolicy();
+        if (mCanceled || !retryPolicy.shouldRetry(mHttpMethod, mRetryCount, errorCode)) {
+            return -1;
+        }
+        return retryPolicy.getRetryDelayMs(mRetryCount, HttpRetryPolicy.parseRetryAfter(mRetryAfter, System.currentTimeMillis()));
+    }
+
+    /**
+     * Used to get the cache control applying the cache policy, stale while revalidate uses it for revalidation.
+     *
+     * @return Cache control OR null to use the response cache headers.
+     */
+    private CacheControl getCacheControl() {
+        if (!mOptions.shouldCache()) {
+            return null;
+        }
+        switch (mOptions.getCachePolicy()) {
+            case NETWORK_ONLY:
+                return CacheControl.FORCE_NETWORK;
+            case FORCE_REVALIDATE:
+                return CACHE_CONTROL_FORCE_REVALIDATE;
+            case CACHE_FIRST:
+                return CACHE_CONTROL_CACHE_FIRST;
+            case DEFAULT:
+                if (mOptions.getMaxStaleMs() > 0) {
+                    return new CacheControl.Builder().maxStale((int) Math.min(mOptions.getMaxStaleMs(), Integer.MAX_VALUE),
+                            TimeUnit.MILLISECONDS).build();
+                }
+                return null;
+            case STALE_WHILE_REVALIDATE:
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Used to build the OkHttp request, running the interceptors of the config on the headers.
+     *
+     * @param cacheControl Cache control of the request, null to use the response cache headers.
+     * @return Request.
+     */
+    private Request buildRequest(final CacheControl cacheControl) {
+        // Options are read by "OkHttpMaxAgeInterceptor".
+        Request.Builder builder = new Request.Builder().url(mUrl).tag(RequestOptions.class, mOptions);
+        Map<String, String> headers = mHeaders;
+        HttpInterceptorChain interceptorChain = mOkHttpSingleton.getInterceptorChain();
+        if (interceptorChain != null) {
+            mInterceptedRequest = interceptorChain.intercept(mIdentifier, mHttpMethod, mUrl, mHeaders, mBody);
+            headers = mInterceptedRequest.getHeaders();
+        }
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        if (cacheControl != null) {
+            builder.cacheControl(cacheControl);
+        }
+
+        RequestBody body = null;
+        if (getEncodedBody() != null) {
+            body = RequestBody.create(MediaType.parse(mBody.getContentType()), getEncodedBody());
+            if (mBodyCompressed) {
+                builder.header(HEADER_CONTENT_ENCODING, ENCODING_GZIP);
+            }
+        } else if (mBody != null) {
+            body = new StreamedBody(mBody);
+        }
+
+        switch (mHttpMethod) {
+            case POST:
+                return builder.post((body != null) ? body : RequestBody.create(null, new byte[0])).build();
+            case PUT:
+                return builder.put((body != null) ? body : RequestBody.create(null, new byte[0])).build();
+            case DELETE:
+                return ((body != null) ? builder.delete(body) : builder.delete()).build();
+            case GET:
+            default:
+                return builder.get().build();
+        }
+    }
+
+    /**
+     * Used to get the body as sent, encoded once & reused by retries.
+     *
+     * @return Encoded body OR null if the request has no body OR it's streamed.
+     */
+    private byte[] getEncodedBody() {
+        byte[] body = (mEncodedBody == null && mBody != null) ? mBody.getBytes() : null;
+        if (body != null) {
+            int threshold = mOptions.getRequestCompressionThresholdBytes();
+            if (threshold != RequestOptions.REQUEST_COMPRESSION_DISABLED && body.length >= threshold) {
+                try {
+                    Buffer buffer = new Buffer();
+                    BufferedSink sink = Okio.buffer(new GzipSink(buffer));
+                    sink.write(body);
+                    sink.close();
+                    body = buffer.readByteArray();
+                    mBodyCompressed = true;
+                } catch (IOException exp) {
+                    // Sent uncompressed.
+                }
+            }
+            mEncodedBody = body;
+        }
+        return mEncodedBody;
+    }
+
+    /**
+     * Used to get the charset of the response body.
+     *
+     * @param contentType Response content type, may be null.
+     * @return Charset name.
+     */
+    private static String getCharset(final MediaType contentType) {
+        Charset charset = (contentType != null) ? contentType.charset() : null;
+        return (charset != null) ? charset.name() : DEFAULT_RESPONSE_CHARSET;
+    }
+
+    /**
+     * Used to post the decoded response to the delivery executor.
+     *
+     * @param response   Decoded response.
+     * @param statusCode HTTP status code.
+     * @param last       False if the response is stale & gets revalidated after this delivery.
+     */
+    private void postResponse(final T response, final int statusCode, final boolean last) {
+        // Like volley, only the first delivery is reported.
+        final RequestMetrics metrics = mIntermediateDelivered ? null : buildMetrics(true, statusCode);
+        getDeliveryExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (mCanceled) {
+                    return;
+                }
+                if (last) {
+                    mOkHttpSingleton.onRequestDelivered(OkHttpRequest.this);
+                }
+                if (metrics != null) {
+                    reportMetrics(metrics);
+                }
+                if (mListener != null) {
+                    mListener.onSuccessResponse(response);
+                }
+                if (last) {
+                    notifyRequestFinished();
+                }
+            }
+        });
+    }
+
+    /**
+     * Used to finish the request whose stale response was delivered, without delivering the revalidation result (not
+     * modified OR failed).
+     */
+    private void postRevalidationFinished() {
+        getDeliveryExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!mCanceled) {
+                    mOkHttpSingleton.onRequestDelivered(OkHttpRequest.this);
+                    notifyRequestFinished();
+                }
+            }
+        });
+    }
+
+    /**
+     * Used to post the error to the delivery executor.
+     *
+     * @param errorCode Error code.
+     */
+    private void postError(final int errorCode) {
+        final RequestMetrics metrics = buildMetrics(false, errorCode);
+        final HttpResponse errorResponse = mErrorResponse;
+        getDeliveryExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (mCanceled) {
+                    return;
+                }
+                mOkHttpSingleton.onRequestDelivered(OkHttpRequest.this);
+                reportMetrics(metrics);
+                deliverErrorResponse(errorCode, errorResponse);
+                notifyRequestFinished();
+            }
+        });
+    }
+
+    /**
+     * Gets called on the delivery thread once no more callbacks follow, tells the listener if it wants to know.
+     */
+    private void notifyRequestFinished() {
+        if (mListener instanceof HttpClientApi.RequestFinishedListener) {
+            ((HttpClientApi.RequestFinishedListener) mListener).onRequestFinished();
+        }
+    }
+
+    /**
+     * Gets called on the request thread to decode the response body, uses the decoder of the request.
+     *
+     * @param response OkHttp response.
+     * @param data     Response body.
+     * @param charset  Charset of the response body.
+     * @return Decoded response.
+     * @throws Exception If the body can't be decoded.
+     */
+    T decodeResponse(final Response response, final byte[] data, final String charset) throws Exception {
+        return mDecoder.decode(data, charset);
+    }
+
+    /**
+     * Gets called on the delivery thread to notify the listener of the failure, once retries are exhausted.
+     *
+     * @param errorCode     Error code.
+     * @param errorResponse Error response received from the server OR null if there was no response.
+     */
+    void deliverErrorResponse(final int errorCode, final HttpResponse errorResponse) {
+        if (mListener != null) {
+            mListener.onErrorResponse(errorCode);
+        }
+    }
+
+    /**
+     * Used to check whether the response being decoded was served from cache without network call.
+     *
+     * @return True if served from cache.
+     */
+    boolean isFromCache() {
+        return mFromCache;
+    }
+
+    /**
+     * Used to get the time taken by the network call of the response being decoded.
+     *
+     * @return Time in milliseconds.
+     */
+    long getNetworkTimeMs() {
+        return mNetworkTimeMs;
+    }
+
+    /**
+     * Used to convert the OkHttp headers, repeated headers are joined with ", ".
+     *
+     * @param headers OkHttp headers.
+     * @return Headers.
+     */
+    static Map<String, String> toHeaderMap(final Headers headers) {
+        Map<String, String> headerMap = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            String value = headerMap.get(name);
+            headerMap.put(name, (value != null) ? value + ", " + headers.value(i) : headers.value(i));
+        }
+        return headerMap;
+    }
+
+    /**
+     * Used to get the executor on which the result is delivered.
+     *
+     * @return Executor of the request OR the default executor.
+     */
+    private Executor getDeliveryExecutor() {
+        Executor deliveryExecutor = mOptions.getDeliveryExecutor();
+        return (deliveryExecutor != null) ? deliveryExecutor : mOkHttpSingleton.getDeliveryExecutor();
+    }
+
+    /**
+     * Used to build the metrics of the request.
+     *
+     * @param success    True if the request succeeded.
+     * @param statusCode HTTP status code on success OR error code on failure.
+     * @return Metrics.
+     */
+    private RequestMetrics buildMetrics(final boolean success, final int statusCode) {
+        long bytesOut = (getEncodedBody() != null) ? getEncodedBody().length : (mBody != null) ? mBody.getContentLength() : 0;
+        // OkHttp cache lookup isn't timed separately, it's part of the network time.
+        return new RequestMetrics(mIdentifier, mHttpMethod, mUrl, success, statusCode, mFromCache, mQueueWaitMs, -1,
+                mFromCache ? -1 : mNetworkTimeMs, mParseTimeMs, (System.nanoTime() - mStartNs) / NANOS_PER_MILLI, mBytesIn, bytesOut,
+                mRetryCount);
+    }
+
+    /**
+     * Used to report the metrics to the metrics listener, if set.
+     *
+     * @param metrics Metrics.
+     */
+    private void reportMetrics(final RequestMetrics metrics) {
+        HttpMetricsListener metricsListener = mOkHttpSingleton.getMetricsListener();
+        if (metricsListener != null) {
+            metricsListener.onRequestMetrics(metrics);
+        }
+    }
+
+    /**
+     * Streamed Body.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. OkHttp request body writing the {@link HttpRequestBody} directly to the connection, without loading it into memory.
+     */
+    private static class StreamedBody extends RequestBody {
+
+        private final HttpRequestBody mBody;
+
+        /**
+         * Constructor.
+         *
+         * @param body Body.
+         */
+        StreamedBody(final HttpRequestBody body) {
+            this.mBody = body;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return MediaType.parse(mBody.getContentType());
+        }
+
+        @Override
+        public long contentLength() {
+            return mBody.getContentLength();
+        }
+
+        @Override
+        public void writeTo(final BufferedSink sink) throws IOException {
+            mBody.writeTo(sink.outputStream());
+        }
+    }
+}
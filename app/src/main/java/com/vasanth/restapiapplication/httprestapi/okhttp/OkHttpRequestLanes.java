@@ -0,0 +1,160 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.HostLimiter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * OkHttp Request Lanes.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Limits the number of requests with the same identifier running on the request threads at the same time.
+ * 1.b. Requests over the limit wait in their lane ordered by priority (then by queue order) & are executed once a
+ * running request of the lane finishes its attempt.
+ * 1.c. Requests with identifiers without a limit go to the executor directly.
+ * 1.d. Admitted requests pass through the {@link HostLimiter} (if hosts are limited) before reaching the executor.
+ *
+ * @author Vasanth
+ */
+class OkHttpRequestLanes {
+
+    private final Executor mExecutor;
+    private final HostLimiter<OkHttpRequest<?>> mHostLimiter;
+    private final Map<String, Lane> mLanes = new HashMap<String, Lane>();
+
+    /**
+     * Constructor.
+     *
+     * @param executor    Executor running the admitted requests.
+     * @param hostLimiter Host limiter through which admitted requests are executed, null if hosts are not limited.
+     */
+    OkHttpRequestLanes(final Executor executor, final HostLimiter<OkHttpRequest<?>> hostLimiter) {
+        this.mExecutor = executor;
+        this.mHostLimiter = hostLimiter;
+    }
+
+    /**
+     * Used to set the maximum number of requests with the given identifier running at the same time.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    void setMaxConcurrentRequests(final String identifier, final int maxConcurrentRequests) {
+        synchronized (this) {
+            Lane lane = mLanes.get(identifier);
+            if (lane == null) {
+                if (maxConcurrentRequests <= 0) {
+                    return;
+                }
+                lane = new Lane();
+                mLanes.put(identifier, lane);
+            }
+            lane.mMaxConcurrentRequests = (maxConcurrentRequests > 0) ? maxConcurrentRequests : Integer.MAX_VALUE;
+        }
+        drain(identifier);
+    }
+
+    /**
+     * Used to execute the request OR add it to its lane if the lane is full.
+     *
+     * @param request Request.
+     */
+    void add(final OkHttpRequest<?> request) {
+        synchronized (this) {
+            Lane lane = mLanes.get(request.getIdentifier());
+            if (lane != null) {
+                if (lane.mRunning.size() >= lane.mMaxConcurrentRequests) {
+                    lane.mPending.add(request);
+                    return;
+                }
+                lane.mRunning.add(request);
+            }
+        }
+        dispatch(request);
+    }
+
+    /**
+     * Used to remove the canceled waiting requests with the given tag.
+     *
+     * @param tag Tag of the canceled requests.
+     */
+    synchronized void cancelAll(final Object tag) {
+        for (Lane lane : mLanes.values()) {
+            Iterator<OkHttpRequest<?>> iterator = lane.mPending.iterator();
+            while (iterator.hasNext()) {
+                if (tag.equals(iterator.next().getTag())) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets called once an attempt of the request finishes, frees a slot in its lane.
+     *
+     * @param request Request.
+     */
+    void onAttemptFinished(final OkHttpRequest<?> request) {
+        String identifier = request.getIdentifier();
+        synchronized (this) {
+            Lane lane = mLanes.get(identifier);
+            if (lane == null || !lane.mRunning.remove(request)) {
+                return;
+            }
+        }
+        drain(identifier);
+    }
+
+    /**
+     * Used to execute the waiting requests of the lane while the lane has free slots.
+     *
+     * @param identifier Identifier of the lane.
+     */
+    private void drain(final String identifier) {
+        while (true) {
+            OkHttpRequest<?> next;
+            synchronized (this) {
+                Lane lane = mLanes.get(identifier);
+                if (lane == null || lane.mPending.isEmpty() || lane.mRunning.size() >= lane.mMaxConcurrentRequests) {
+                    return;
+                }
+                next = lane.mPending.poll();
+                lane.mRunning.add(next);
+            }
+            dispatch(next);
+        }
+    }
+
+    /**
+     * Used to execute the admitted request, through the host limiter if hosts are limited.
+     *
+     * @param request Request.
+     */
+    private void dispatch(final OkHttpRequest<?> request) {
+        if (mHostLimiter != null) {
+            mHostLimiter.add(request.getUrl(), request);
+        } else {
+            mExecutor.execute(request);
+        }
+    }
+
+    /**
+     * Lane.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the running & waiting requests of an identifier, waiting requests are ordered by
+     * {@link OkHttpRequest#compareTo(OkHttpRequest)}.
+     */
+    private static class Lane {
+
+        private int mMaxConcurrentRequests;
+        private final Set<OkHttpRequest<?>> mRunning = new HashSet<OkHttpRequest<?>>();
+        private final PriorityQueue<OkHttpRequest<?>> mPending = new PriorityQueue<OkHttpRequest<?>>();
+    }
+}
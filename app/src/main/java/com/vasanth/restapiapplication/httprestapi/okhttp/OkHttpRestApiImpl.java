@@ -0,0 +1,617 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import android.content.Context;
+import android.os.Looper;
+
+import com.vasanth.restapiapplication.httprestapi.BatchDispatcher;
+import com.vasanth.restapiapplication.httprestapi.BatchRequest;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.HttpClientException;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpMetricsListener;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+import com.vasanth.restapiapplication.httprestapi.HttpResponse;
+import com.vasanth.restapiapplication.httprestapi.RequestCoalescer;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+import com.vasanth.restapiapplication.httprestapi.UrlPrefix;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+import okhttp3.Cache;
+
+/**
+ * OkHttp Rest Api Implementation.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HttpClientApi} implementation using OkHttp Library.
+ * 1.b. All the requests share a single connection pool, idle connections are kept alive as per
+ * {@link HttpClientConfig#getMaxIdleConnections()} & {@link HttpClientConfig#getKeepAliveDurationMs()}, and requests to
+ * the same host are multiplexed over one connection when the server supports HTTP/2.
+ *
+ * @author Vasanth
+ */
+public class OkHttpRestApiImpl implements HttpClientApi {
+
+    private static OkHttpRestApiImpl mInstance;
+    private OkHttpSingleton okHttpSingleton;
+    private RequestCoalescer<String> mGetRequestCoalescer = new RequestCoalescer<String>();
+
+    /**
+     * Constructor.
+     *
+     * @param context Context.
+     * @param config  Config used to size the request threads, cache & connection pool.
+     */
+    private OkHttpRestApiImpl(final Context context, final HttpClientConfig config) {
+        okHttpSingleton = OkHttpSingleton.getInstance(context, config);
+    }
+
+    /**
+     * Used to singleton instance of OkHttpRestApiImpl.
+     *
+     * @param context Context.
+     * @return Singleton instance of OkHttpRestApiImpl.
+     */
+    public static synchronized OkHttpRestApiImpl getInstance(Context context) {
+        return getInstance(context, HttpClientConfig.getDefault());
+    }
+
+    /**
+     * Used to singleton instance of OkHttpRestApiImpl.
+     * <p>
+     * Config is used only when the instance gets created by this call, later calls return the existing instance.
+     *
+     * @param context Context.
+     * @param config  Config used to size the request threads, cache & connection pool.
+     * @return Singleton instance of OkHttpRestApiImpl.
+     */
+    public static synchronized OkHttpRestApiImpl getInstance(Context context, HttpClientConfig config) {
+        if (mInstance == null) {
+            mInstance = new OkHttpRestApiImpl(context, config);
+        }
+        return mInstance;
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & get response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    @Override
+    public void getRequest(String identifier, Map<String, String> headers, String url, final boolean shouldCache, HttpResponseListener listener) {
+        getRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get response using callback.
+     * <p>
+     * Identical requests (same url, headers & options) made while one is in flight share its network call.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        if (options.getCachePolicy() != RequestOptions.CachePolicy.DEFAULT) {
+            // Cache policy decides whether the network is used at all, hence the request isn't shared.
+            okHttpSingleton.addToRequestQueue(new OkHttpStringRequest(identifier, HttpMethod.GET, headers, url, options, listener));
+            return;
+        }
+        RequestCoalescer.Key key = RequestCoalescer.buildKey(HttpMethod.GET.name(), url, headers, options);
+        RequestCoalescer.Flight<String> flight = mGetRequestCoalescer.join(key, identifier, listener);
+        if (flight == null) {
+            // Joined the identical request in flight.
+            return;
+        }
+
+        OkHttpStringRequest okHttpStringRequest = new OkHttpStringRequest(identifier, HttpMethod.GET, headers, url, options, flight);
+        // Flight is used as tag, since it may be shared by more than one identifier.
+        okHttpStringRequest.setTag(flight);
+        okHttpSingleton.addToRequestQueue(okHttpStringRequest);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                            final boolean shouldCache, HttpResponseListener listener) {
+        postRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                            RequestOptions options, HttpResponseListener listener) {
+        OkHttpStringRequest okHttpStringRequest = new OkHttpStringRequest(identifier, HttpMethod.POST, headers, url, body, bodyContentType,
+                options, listener);
+        okHttpSingleton.addToRequestQueue(okHttpStringRequest);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param decoder     Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        getRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), decoder, listener);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        OkHttpRequest<T> okHttpRequest = new OkHttpRequest<T>(identifier, HttpMethod.GET, headers, url, options, decoder, listener);
+        okHttpSingleton.addToRequestQueue(okHttpRequest);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                boolean shouldCache, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        postRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), decoder, listener);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                RequestOptions options, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        OkHttpRequest<T> okHttpRequest = new OkHttpRequest<T>(identifier, HttpMethod.POST, headers, url, body, bodyContentType,
+                options, decoder, listener);
+        okHttpSingleton.addToRequestQueue(okHttpRequest);
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                           final boolean shouldCache, HttpResponseListener listener) {
+        putRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                           RequestOptions options, HttpResponseListener listener) {
+        OkHttpStringRequest okHttpStringRequest = new OkHttpStringRequest(identifier, HttpMethod.PUT, headers, url, body, bodyContentType,
+                options, new CacheInvalidatingListener(url, listener));
+        okHttpSingleton.addToRequestQueue(okHttpStringRequest);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                            HttpResponseListener listener) {
+        OkHttpStringRequest okHttpStringRequest = new OkHttpStringRequest(identifier, HttpMethod.POST, headers, url, body, options, listener);
+        okHttpSingleton.addToRequestQueue(okHttpStringRequest);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                                ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        OkHttpRequest<T> okHttpRequest = new OkHttpRequest<T>(identifier, HttpMethod.POST, headers, url, body, options, decoder, listener);
+        okHttpSingleton.addToRequestQueue(okHttpRequest);
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                           HttpResponseListener listener) {
+        OkHttpStringRequest okHttpStringRequest = new OkHttpStringRequest(identifier, HttpMethod.PUT, headers, url, body, options,
+                new CacheInvalidatingListener(url, listener));
+        okHttpSingleton.addToRequestQueue(okHttpStringRequest);
+    }
+
+    /**
+     * Used to make "HTTP DELETE REQUEST" & get response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    @Override
+    public void deleteRequest(String identifier, Map<String, String> headers, String url, final boolean shouldCache, HttpResponseListener listener) {
+        deleteRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP DELETE REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void deleteRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        OkHttpStringRequest okHttpStringRequest = new OkHttpStringRequest(identifier, HttpMethod.DELETE, headers, url, options,
+                new CacheInvalidatingListener(url, listener));
+        okHttpSingleton.addToRequestQueue(okHttpStringRequest);
+    }
+
+    /**
+     * Used to make the request & get the whole response (status code, headers, body, cache & timing) using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, used only by "POST" & "PUT", may be null.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void request(String identifier, HttpMethod method, Map<String, String> headers, String url, HttpRequestBody body,
+                        RequestOptions options, HttpFullResponseListener listener) {
+        boolean mutating = method == HttpMethod.PUT || method == HttpMethod.DELETE;
+        OkHttpFullResponseRequest okHttpFullResponseRequest = new OkHttpFullResponseRequest(identifier, method, headers, url, body, options,
+                mutating ? new CacheInvalidatingFullResponseListener(url, listener) : listener);
+        okHttpSingleton.addToRequestQueue(okHttpFullResponseRequest);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & consume the response body as a stream, without loading it completely into memory.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param listener   Listener used to consume the response stream & get callback on request completes.
+     */
+    @Override
+    public void streamRequest(String identifier, Map<String, String> headers, String url, HttpStreamResponseListener listener) {
+        OkHttpInputStreamRequest inputStreamRequest = new OkHttpInputStreamRequest(okHttpSingleton, identifier, headers, url, listener);
+        okHttpSingleton.addToStreamExecutor(inputStreamRequest);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & write the response body directly to the given file.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param destinationFile File to which response body has to be written, replaced if already exists.
+     * @param listener        Listener used to get callback on download progress & completion.
+     */
+    @Override
+    public void downloadRequest(String identifier, Map<String, String> headers, String url, File destinationFile,
+                                HttpDownloadListener listener) {
+        OkHttpDownloadRequest downloadRequest = new OkHttpDownloadRequest(okHttpSingleton, identifier, headers, url, destinationFile,
+                listener);
+        okHttpSingleton.addToStreamExecutor(downloadRequest);
+    }
+
+    /**
+     * Used to make the request on the calling thread & get the response directly.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @return Response.
+     * @throws HttpClientException If the request fails.
+     */
+    @Override
+    public String execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body, String bodyContentType,
+                          RequestOptions options) throws HttpClientException {
+        checkNotMainThread();
+        OkHttpStringRequest okHttpStringRequest = new OkHttpStringRequest(identifier, method, headers, url, body, bodyContentType, options, null);
+        String response = okHttpStringRequest.executeSync(okHttpSingleton);
+        invalidateCacheIfMutating(method, url);
+        return response;
+    }
+
+    /**
+     * Used to make the request on the calling thread & get the decoded response directly.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on the calling thread.
+     * @return Decoded response.
+     * @throws HttpClientException If the request fails.
+     */
+    @Override
+    public <T> T execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body, String bodyContentType,
+                         RequestOptions options, ResponseDecoder<T> decoder) throws HttpClientException {
+        checkNotMainThread();
+        OkHttpRequest<T> okHttpRequest = new OkHttpRequest<T>(identifier, method, headers, url, body, bodyContentType, options, decoder, null);
+        T response = okHttpRequest.executeSync(okHttpSingleton);
+        invalidateCacheIfMutating(method, url);
+        return response;
+    }
+
+    /**
+     * Used to make a group of requests together & get one aggregated callback once all of them complete.
+     *
+     * @param identifier   Unique string to identify the batch.
+     * @param batchRequest Requests of the batch.
+     * @param listener     Listener used to get callback once all the requests complete.
+     */
+    @Override
+    public void batchRequest(String identifier, BatchRequest batchRequest, BatchResponseListener listener) {
+        BatchDispatcher.dispatch(this, identifier, batchRequest, listener);
+    }
+
+    /**
+     * Used to remove cached responses of all the urls starting with the given prefix.
+     * <p>
+     * OkHttp has only the disk cache, entries are removed on the background executor.
+     *
+     * @param urlPrefix Url prefix.
+     */
+    @Override
+    public void invalidateCache(final String urlPrefix) {
+        final Cache cache = okHttpSingleton.getCache();
+        okHttpSingleton.executeInBackground(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Iterator<String> urls = cache.urls();
+                    while (urls.hasNext()) {
+                        if (UrlPrefix.matches(urls.next(), urlPrefix)) {
+                            urls.remove();
+                        }
+                    }
+                } catch (IOException exp) {
+                    // Cache is unreadable, nothing to invalidate.
+                }
+            }
+        });
+    }
+
+    /**
+     * Used to limit the number of requests with the given identifier running at the same time.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    @Override
+    public void setMaxConcurrentRequests(String identifier, int maxConcurrentRequests) {
+        okHttpSingleton.setMaxConcurrentRequests(identifier, maxConcurrentRequests);
+    }
+
+    /**
+     * Used to set the listener which receives timings, sizes & outcome of every completed request.
+     *
+     * @param metricsListener Metrics listener, null to stop reporting.
+     */
+    @Override
+    public void setMetricsListener(HttpMetricsListener metricsListener) {
+        okHttpSingleton.setMetricsListener(metricsListener);
+    }
+
+    /**
+     * Used to cancel the request.
+     *
+     * @param identifier Unique string to identify the request & cancel it.
+     */
+    @Override
+    public void cancelRequest(String identifier) {
+        okHttpSingleton.cancelAll(identifier);
+        for (RequestCoalescer.Flight<String> flight : mGetRequestCoalescer.cancel(identifier)) {
+            okHttpSingleton.cancelAll(flight);
+        }
+    }
+
+    /**
+     * Used to invalidate the cached responses of the url after a successful mutating request.
+     *
+     * @param method HTTP Request Method.
+     * @param url    Request Url.
+     */
+    private void invalidateCacheIfMutating(final HttpMethod method, final String url) {
+        if (method == HttpMethod.PUT || method == HttpMethod.DELETE) {
+            invalidateCache(url);
+        }
+    }
+
+    /**
+     * Used to make sure synchronous requests are not made on main thread.
+     */
+    private static void checkNotMainThread() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("Synchronous requests must not be made on main thread");
+        }
+    }
+
+    /**
+     * Cache Invalidating Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Listener used for mutating requests, invalidates the cached responses of the url once the request succeeds.
+     */
+    private class CacheInvalidatingListener implements HttpResponseListener {
+
+        private String mUrl;
+        private HttpResponseListener mListener;
+
+        /**
+         * Constructor.
+         *
+         * @param url      Request Url, used as prefix to invalidate the cache.
+         * @param listener Listener used to send callback on request completes.
+         */
+        CacheInvalidatingListener(final String url, final HttpResponseListener listener) {
+            this.mUrl = url;
+            this.mListener = listener;
+        }
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            invalidateCache(mUrl);
+            if (mListener != null) {
+                mListener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            if (mListener != null) {
+                mListener.onErrorResponse(errorCode);
+            }
+        }
+    }
+
+    /**
+     * Cache Invalidating Full Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Same as {@link CacheInvalidatingListener}, for the requests delivering the whole response.
+     */
+    private class CacheInvalidatingFullResponseListener implements HttpFullResponseListener {
+
+        private String mUrl;
+        private HttpFullResponseListener mListener;
+
+        /**
+         * Constructor.
+         *
+         * @param url      Request Url, used as prefix to invalidate the cache.
+         * @param listener Listener used to send callback on request completes.
+         */
+        CacheInvalidatingFullResponseListener(final String url, final HttpFullResponseListener listener) {
+            this.mUrl = url;
+            this.mListener = listener;
+        }
+
+        @Override
+        public void onSuccessResponse(final HttpResponse response) {
+            invalidateCache(mUrl);
+            if (mListener != null) {
+                mListener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode, final HttpResponse response) {
+            if (mListener != null) {
+                mListener.onErrorResponse(errorCode, response);
+            }
+        }
+    }
+}
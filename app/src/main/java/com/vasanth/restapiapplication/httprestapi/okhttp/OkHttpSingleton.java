@@ -0,0 +1,388 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import com.vasanth.restapiapplication.httprestapi.CircuitBreaker;
+import com.vasanth.restapiapplication.httprestapi.DeliveryExecutors;
+import com.vasanth.restapiapplication.httprestapi.HostLimitPolicy;
+import com.vasanth.restapiapplication.httprestapi.HostLimiter;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.HttpInterceptorChain;
+import com.vasanth.restapiapplication.httprestapi.HttpMetricsListener;
+import com.vasanth.restapiapplication.httprestapi.HttpRetryPolicy;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * OkHttp Singleton.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Singleton class used to provide single instance OkHttp components.
+ * 1.b. Holds the OkHttp client, both the cached & non cached clients share the connection pool, so parallel calls to
+ * the same host reuse connections (multiplexed over a single connection when the server speaks HTTP/2). Timeouts are
+ * applied per call, so no other client is built per request.
+ * 1.c. Runs {@link OkHttpRequest} on the request threads ordered by priority & applies per identifier concurrency
+ * limits using {@link OkHttpRequestLanes}.
+ * 1.d. Provides "Stream Executor" used to run {@link OkHttpStreamRequest}.
+ * 1.e. Adds failed requests back after their retry backoff & delivers results on the delivery executor of the config
+ * (main thread by default) OR of the request.
+ * 1.f. Applies per host rate & concurrency limits of the config using {@link HostLimiter}.
+ * 1.g. Holds the {@link CircuitBreaker} of every url (if the config has circuit breaker policies), asked by the
+ * requests before their calls, so connect failures are counted & an open circuit rejects the call before any
+ * connection is made.
+ * 1.h. Holds the interceptors of the config, run by the requests before every attempt.
+ * 1.i. OkHttp's own retry on connection failure is disabled, every retry goes through {@link HttpRetryPolicy} of the
+ * request, so non idempotent requests aren't sent twice unless allowed.
+ *
+ * @author Vasanth
+ */
+class OkHttpSingleton {
+
+    // Disk cache directory name, created inside application cache directory if config doesn't provide one.
+    private static final String CACHE_DIRECTORY_NAME = "okhttp";
+
+    // Number of threads used to run stream requests, if config doesn't provide an executor.
+    private static final int STREAM_THREAD_POOL_SIZE = 2;
+
+    // Time idle request threads are kept alive.
+    private static final long REQUEST_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private static OkHttpSingleton mInstance;
+
+    private final OkHttpClient mClient;
+    private final OkHttpClient mNoCacheClient;
+    private final Cache mCache;
+    private final HttpInterceptorChain mInterceptorChain;
+    private final CircuitBreaker.Registry mCircuitBreakers;
+    private final ThreadPoolExecutor mRequestExecutor;
+    private final OkHttpRequestLanes mRequestLanes;
+    private final HostLimiter<OkHttpRequest<?>> mHostLimiter;
+    private final ExecutorService mStreamExecutor;
+    private final AtomicLong mSequence = new AtomicLong();
+    // Requests added & not yet delivered (queued, running OR waiting for retry).
+    private final Set<OkHttpRequest<?>> mRequests = Collections.synchronizedSet(new HashSet<OkHttpRequest<?>>());
+    private final Set<OkHttpStreamRequest> mStreamRequests = Collections.synchronizedSet(new HashSet<OkHttpStreamRequest>());
+    // Used to schedule retries.
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Executor mDeliveryExecutor;
+    private volatile HttpMetricsListener mMetricsListener;
+
+    /**
+     * Constructor.
+     *
+     * @param context Application Context.
+     * @param config  Config used to size the request threads, cache & connection pool.
+     */
+    private OkHttpSingleton(final Context context, final HttpClientConfig config) {
+        File cacheDirectory = config.getCacheDirectory();
+        if (cacheDirectory == null) {
+            cacheDirectory = new File(context.getApplicationContext().getCacheDir(), CACHE_DIRECTORY_NAME);
+        }
+        mCache = new Cache(cacheDirectory, config.getCacheSizeBytes());
+
+        ConnectionPool connectionPool = new ConnectionPool(config.getMaxIdleConnections(), config.getKeepAliveDurationMs(),
+                TimeUnit.MILLISECONDS);
+        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .connectTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .writeTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                // OkHttp would silently resend any request (POST & PUT too) after a connection failure, retries are
+                // decided by the retry policy of the request instead.
+                .retryOnConnectionFailure(false)
+                // Timeout of the request is applied per call, so the clients are shared by all the timeouts.
+                .addInterceptor(new OkHttpTimeoutInterceptor());
+        mCircuitBreakers = CircuitBreaker.Registry.fromConfig(config);
+        mNoCacheClient = clientBuilder.build();
+        mInterceptorChain = HttpInterceptorChain.fromConfig(config);
+        mClient = mNoCacheClient.newBuilder().cache(mCache).addNetworkInterceptor(new OkHttpMaxAgeInterceptor()).build();
+
+        // Requests are compared by priority, hence "execute" must be used instead of "submit".
+        int threadPoolSize = config.getThreadPoolSize();
+        mRequestExecutor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize, REQUEST_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new RequestThreadFactory());
+        mHostLimiter = (config.getHostLimitPolicy() != null) ? createHostLimiter(config.getHostLimitPolicy()) : null;
+        mRequestLanes = new OkHttpRequestLanes(mRequestExecutor, mHostLimiter);
+
+        mDeliveryExecutor = (config.getDeliveryExecutor() != null) ? config.getDeliveryExecutor() : DeliveryExecutors.mainThread();
+        mStreamExecutor = (config.getExecutorService() != null) ? config.getExecutorService() : Executors.newFixedThreadPool(STREAM_THREAD_POOL_SIZE);
+    }
+
+    /**
+     * Used to create the host limiter executing the admitted requests on the request threads.
+     *
+     * @param policy Host limit policy.
+     * @return Host limiter.
+     */
+    private HostLimiter<OkHttpRequest<?>> createHostLimiter(final HostLimitPolicy policy) {
+        return new HostLimiter<OkHttpRequest<?>>(policy, new Comparator<OkHttpRequest<?>>() {
+            @Override
+            public int compare(final OkHttpRequest<?> left, final OkHttpRequest<?> right) {
+                return left.compareTo(right);
+            }
+        }, new HostLimiter.Callback<OkHttpRequest<?>>() {
+            @Override
+            public void dispatch(final OkHttpRequest<?> request) {
+                mRequestExecutor.execute(request);
+            }
+
+            @Override
+            public boolean isCanceled(final OkHttpRequest<?> request) {
+                return request.isCanceled();
+            }
+        });
+    }
+
+    /**
+     * Used to singleton instance of OkHttpSingleton.
+     * <p>
+     * Config is used only when the instance gets created by this call.
+     *
+     * @param context Context.
+     * @param config  Config used to size the request threads, cache & connection pool.
+     * @return Singleton instance of OkHttpSingleton.
+     */
+    static synchronized OkHttpSingleton getInstance(final Context context, final HttpClientConfig config) {
+        if (mInstance == null) {
+            mInstance = new OkHttpSingleton(context, config);
+        }
+        return mInstance;
+    }
+
+    /**
+     * Used to get the interceptors run before every attempt.
+     *
+     * @return Interceptor chain OR null if the config has no interceptor.
+     */
+    HttpInterceptorChain getInterceptorChain() {
+        return mInterceptorChain;
+    }
+
+    /**
+     * Used to get the circuit breaker of the url.
+     *
+     * @param url Url.
+     * @return Circuit breaker OR null if no circuit breaker policy applies to the url.
+     */
+    CircuitBreaker getCircuitBreaker(final String url) {
+        return (mCircuitBreakers != null) ? mCircuitBreakers.get(url) : null;
+    }
+
+    /**
+     * Used to get the OkHttp client for a request, both the clients share the connection pool. Socket timeout of the
+     * request is applied per call by {@link OkHttpTimeoutInterceptor}, from the options tagged to the request.
+     *
+     * @param shouldCache whether or not responses to the request should be cached.
+     * @return OkHttp client.
+     */
+    OkHttpClient getClient(final boolean shouldCache) {
+        return shouldCache ? mClient : mNoCacheClient;
+    }
+
+    /**
+     * Used to get the disk cache used by the cached client.
+     *
+     * @return Cache.
+     */
+    Cache getCache() {
+        return mCache;
+    }
+
+    /**
+     * Used to run the given task on the background executor.
+     *
+     * @param task Task to be executed.
+     */
+    void executeInBackground(final Runnable task) {
+        mStreamExecutor.execute(task);
+    }
+
+    /**
+     * Used to get the executor on which results are delivered, unless the request sets its own.
+     *
+     * @return Executor.
+     */
+    Executor getDeliveryExecutor() {
+        return mDeliveryExecutor;
+    }
+
+    /**
+     * Used to run the given task on the default delivery executor.
+     *
+     * @param task Task to be run.
+     */
+    void postToDeliveryThread(final Runnable task) {
+        mDeliveryExecutor.execute(task);
+    }
+
+    /**
+     * Used to add the request to the request threads.
+     *
+     * @param request Request to be executed.
+     */
+    <T> void addToRequestQueue(final OkHttpRequest<T> request) {
+        mRequests.add(request);
+        request.onQueued(this, mSequence.getAndIncrement());
+        mRequestLanes.add(request);
+    }
+
+    /**
+     * Gets called on the request thread once an attempt of the request finishes.
+     *
+     * @param request Request.
+     */
+    void onAttemptFinished(final OkHttpRequest<?> request) {
+        if (mHostLimiter != null) {
+            mHostLimiter.onFinished(request, request.getAttemptResultCode(), request.getAttemptLatencyMs());
+        }
+        mRequestLanes.onAttemptFinished(request);
+    }
+
+    /**
+     * Gets called on the delivery thread once the result of the request is delivered.
+     *
+     * @param request Request.
+     */
+    void onRequestDelivered(final OkHttpRequest<?> request) {
+        mRequests.remove(request);
+    }
+
+    /**
+     * Used to limit the number of requests with the given identifier running at the same time.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    void setMaxConcurrentRequests(final String identifier, final int maxConcurrentRequests) {
+        mRequestLanes.setMaxConcurrentRequests(identifier, maxConcurrentRequests);
+    }
+
+    /**
+     * Used to add the failed request back after the given delay.
+     *
+     * @param request Request to be retried.
+     * @param delayMs Delay in milliseconds.
+     */
+    <T> void scheduleRetry(final OkHttpRequest<T> request, final long delayMs) {
+        mMainHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                if (!request.isCanceled()) {
+                    addToRequestQueue(request);
+                }
+            }
+        }, delayMs);
+    }
+
+    /**
+     * Used to run the stream request on the stream executor.
+     *
+     * @param request Stream request to be executed.
+     */
+    void addToStreamExecutor(final OkHttpStreamRequest request) {
+        mStreamRequests.add(request);
+        mStreamExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    request.run();
+                } finally {
+                    mStreamRequests.remove(request);
+                }
+            }
+        });
+    }
+
+    /**
+     * Used to set the listener to which requests report their metrics.
+     *
+     * @param metricsListener Metrics listener, null to stop reporting.
+     */
+    void setMetricsListener(final HttpMetricsListener metricsListener) {
+        this.mMetricsListener = metricsListener;
+    }
+
+    /**
+     * Used to get the listener to which requests report their metrics.
+     *
+     * @return Metrics listener OR null.
+     */
+    HttpMetricsListener getMetricsListener() {
+        return mMetricsListener;
+    }
+
+    /**
+     * Used to cancel all the requests (queued, running, waiting for retry & streaming) with the given tag.
+     * <p>
+     * Canceled requests still queued on the request threads finish without making a call.
+     *
+     * @param tag Tag of the requests to be canceled.
+     */
+    void cancelAll(final Object tag) {
+        synchronized (mRequests) {
+            Iterator<OkHttpRequest<?>> iterator = mRequests.iterator();
+            while (iterator.hasNext()) {
+                OkHttpRequest<?> request = iterator.next();
+                if (tag.equals(request.getTag())) {
+                    request.cancel();
+                    iterator.remove();
+                }
+            }
+        }
+        mRequestLanes.cancelAll(tag);
+        if (mHostLimiter != null) {
+            mHostLimiter.dispatchCanceled();
+        }
+        synchronized (mStreamRequests) {
+            for (OkHttpStreamRequest request : mStreamRequests) {
+                if (tag.equals(request.getIdentifier())) {
+                    request.cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Request Thread Factory.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Creates background priority request threads, same as volley network dispatchers.
+     */
+    private static class RequestThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger mThreadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "OkHttpRequest-" + mThreadCount.incrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.CircuitBreaker;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpInterceptorChain;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.InterceptedRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * OkHttp Stream Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Base class for requests whose response body has to be consumed incrementally, executed on the stream executor
+ * of {@link OkHttpSingleton} using the shared OkHttp client (without cache).
+ * 1.b. Maps failures to the same error codes used by {@link OkHttpRequest}.
+ * 1.c. Runs the interceptors of the config & calls again once if an authenticator handles the "401" response.
+ * 1.d. Asks the {@link CircuitBreaker} of the url before the call & reports the result of the call (connect failures
+ * too), fails with "ERROR_CODE_CIRCUIT_OPEN" without any connection while the circuit is open.
+ *
+ * @author Vasanth
+ */
+abstract class OkHttpStreamRequest implements Runnable {
+
+    // Size of the buffer used to read the response body.
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    private final OkHttpSingleton mOkHttpSingleton;
+    private final String mIdentifier;
+    private final Map<String, String> mHeaders;
+    private final String mUrl;
+
+    private volatile boolean mCanceled;
+    private volatile Call mCall;
+
+    /**
+     * Constructor.
+     *
+     * @param okHttpSingleton OkHttp singleton providing the client & delivery executor.
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request Headers.
+     * @param url             Request Url.
+     */
+    OkHttpStreamRequest(final OkHttpSingleton okHttpSingleton, final String identifier, final Map<String, String> headers,
+                        final String url) {
+        this.mOkHttpSingleton = okHttpSingleton;
+        this.mIdentifier = identifier;
+        this.mHeaders = headers;
+        this.mUrl = url;
+    }
+
+    /**
+     * Used to get the identifier of the request.
+     *
+     * @return Identifier.
+     */
+    String getIdentifier() {
+        return mIdentifier;
+    }
+
+    /**
+     * Used to cancel the request, no callback will be delivered after this call.
+     */
+    void cancel() {
+        mCanceled = true;
+        Call call = mCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    /**
+     * Used to check whether the request is canceled.
+     *
+     * @return True if canceled.
+     */
+    boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * Executes the request on the calling thread.
+     */
+    @Override
+    public void run() {
+        if (mCanceled) {
+            return;
+        }
+        CircuitBreaker circuitBreaker = mOkHttpSingleton.getCircuitBreaker(mUrl);
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            postError(HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN);
+            return;
+        }
+
+        Response response = null;
+        try {
+            HttpInterceptorChain interceptorChain = mOkHttpSingleton.getInterceptorChain();
+            InterceptedRequest interceptedRequest = null;
+            Map<String, String> headers = mHeaders;
+            if (interceptorChain != null) {
+                interceptedRequest = interceptorChain.intercept(mIdentifier, HttpMethod.GET, mUrl, mHeaders, null);
+                headers = interceptedRequest.getHeaders();
+            }
+            response = execute(headers);
+            if (response.code() == HttpInterceptorChain.STATUS_CODE_UNAUTHORIZED && interceptedRequest != null && !mCanceled
+                    && interceptorChain.authenticate(interceptedRequest)) {
+                response.close();
+                response = null;
+                response = execute(interceptorChain.intercept(mIdentifier, HttpMethod.GET, mUrl, mHeaders, null).getHeaders());
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.onResult(response.code());
+                circuitBreaker = null;
+            }
+            if (!response.isSuccessful()) {
+                postError(response.code());
+                return;
+            }
+
+            ResponseBody body = response.body();
+            onResponseStream(body.byteStream(), body.contentLength());
+            if (!mCanceled) {
+                postComplete();
+            }
+        } catch (SocketTimeoutException exp) {
+            circuitBreaker = onCallFailed(circuitBreaker, HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR);
+            postError(HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR);
+        } catch (IOException exp) {
+            circuitBreaker = onCallFailed(circuitBreaker, HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+            postError(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        } catch (IllegalArgumentException exp) {
+            // Malformed url OR header.
+            postError(HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR);
+        } finally {
+            closeQuietly(response);
+            mCall = null;
+            if (circuitBreaker != null) {
+                circuitBreaker.onIgnored();
+            }
+        }
+    }
+
+    /**
+     * Used to report the failed call to the circuit breaker, canceled calls are ignored.
+     *
+     * @param circuitBreaker Circuit breaker of the call, null if the call has none OR its result is already reported.
+     * @param errorCode      Error code of the call.
+     * @return Null, as the result is reported.
+     */
+    private CircuitBreaker onCallFailed(final CircuitBreaker circuitBreaker, final int errorCode) {
+        if (circuitBreaker != null) {
+            if (mCanceled) {
+                circuitBreaker.onIgnored();
+            } else {
+                circuitBreaker.onResult(errorCode);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Used to call the url with the given headers.
+     *
+     * @param headers Request headers, may be null.
+     * @return Response, must be closed.
+     * @throws IOException If the call fails.
+     */
+    private Response execute(final Map<String, String> headers) throws IOException {
+        Request.Builder builder = new Request.Builder().url(mUrl);
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.addHeader(header.getKey(), header.getValue());
+            }
+        }
+        Call call = mOkHttpSingleton.getClient(false).newCall(builder.build());
+        mCall = call;
+        if (mCanceled) {
+            call.cancel();
+        }
+        return call.execute();
+    }
+
+    /**
+     * Gets called on the stream executor thread with the response body.
+     *
+     * @param inputStream   Response body stream.
+     * @param contentLength Response body length in bytes OR -1 if unknown.
+     * @throws IOException If reading the stream fails.
+     */
+    abstract void onResponseStream(InputStream inputStream, long contentLength) throws IOException;
+
+    /**
+     * Gets called on the delivery thread once the response body is consumed completely.
+     */
+    abstract void deliverComplete();
+
+    /**
+     * Gets called on the delivery thread on request failure.
+     *
+     * @param errorCode Error code.
+     */
+    abstract void deliverError(int errorCode);
+
+    /**
+     * Used to run the given runnable on the delivery thread, unless request gets canceled in between.
+     *
+     * @param runnable Runnable to be run on the delivery thread.
+     */
+    void postToDeliveryThread(final Runnable runnable) {
+        mOkHttpSingleton.postToDeliveryThread(new Runnable() {
+            @Override
+            public void run() {
+                if (!mCanceled) {
+                    runnable.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Used to post completion callback to the delivery thread.
+     */
+    private void postComplete() {
+        postToDeliveryThread(new Runnable() {
+            @Override
+            public void run() {
+                deliverComplete();
+            }
+        });
+    }
+
+    /**
+     * Used to post error callback to the delivery thread.
+     *
+     * @param errorCode Error code.
+     */
+    private void postError(final int errorCode) {
+        if (mCanceled) {
+            return;
+        }
+        postToDeliveryThread(new Runnable() {
+            @Override
+            public void run() {
+                deliverError(errorCode);
+            }
+        });
+    }
+
+    /**
+     * Used to close the stream ignoring failures.
+     *
+     * @param closeable Stream to be closed.
+     */
+    static void closeQuietly(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException exp) {
+                // Ignore.
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+
+/**
+ * OkHttp String Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Class responsible for retrieving the response body at a given URL as a String.
+ *
+ * @author Vasanth
+ */
+class OkHttpStringRequest extends OkHttpRequest<String> {
+
+    // Decoder used to convert the response body into String.
+    static final HttpClientApi.ResponseDecoder<String> STRING_DECODER = new HttpClientApi.ResponseDecoder<String>() {
+        @Override
+        public String decode(final byte[] data, final String charset) throws Exception {
+            try {
+                return new String(data, charset);
+            } catch (UnsupportedEncodingException exp) {
+                return new String(data);
+            }
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param options    Request options.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    OkHttpStringRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                        final RequestOptions options, final HttpClientApi.TypedResponseListener<String> listener) {
+        super(identifier, method, headers, url, options, STRING_DECODER, listener);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request Headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    OkHttpStringRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url, final String body,
+                        final String bodyContentType, final RequestOptions options, final HttpClientApi.TypedResponseListener<String> listener) {
+        super(identifier, method, headers, url, body, bodyContentType, options, STRING_DECODER, listener);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param body       Request Body.
+     * @param options    Request options.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    OkHttpStringRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                        final HttpRequestBody body, final RequestOptions options, final HttpClientApi.TypedResponseListener<String> listener) {
+        super(identifier, method, headers, url, body, options, STRING_DECODER, listener);
+    }
+}
@@ -0,0 +1,45 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.HttpRetryPolicy;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * OkHttp Timeout Interceptor.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Application interceptor of both the clients, applies the socket timeout of the request
+ * ({@link HttpRetryPolicy#getTimeoutMs()}) to its call, so requests with a non default timeout share the clients
+ * instead of building a new client per request.
+ * 1.b. Options are carried as the request tag, requests without options OR with the timeout of the client are left as
+ * it is.
+ *
+ * @author Vasanth
+ */
+class OkHttpTimeoutInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        RequestOptions options = chain.request().tag(RequestOptions.class);
+        if (options == null) {
+            return chain.proceed(chain.request());
+        }
+        int timeoutMs = options.getRetryPolicy().getTimeoutMs();
+        Chain timedChain = chain;
+        if (timeoutMs != chain.connectTimeoutMillis()) {
+            timedChain = timedChain.withConnectTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        if (timeoutMs != chain.readTimeoutMillis()) {
+            timedChain = timedChain.withReadTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        if (timeoutMs != chain.writeTimeoutMillis()) {
+            timedChain = timedChain.withWriteTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        return timedChain.proceed(chain.request());
+    }
+}
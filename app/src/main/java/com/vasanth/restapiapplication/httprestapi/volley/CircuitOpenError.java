@@ -0,0 +1,26 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.VolleyError;
+
+/**
+ * Circuit Open Error.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Error of the request rejected by an open circuit breaker without making the network call, mapped to
+ * "ERROR_CODE_CIRCUIT_OPEN".
+ *
+ * @author Vasanth
+ */
+class CircuitOpenError extends VolleyError {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     *
+     * @param url Request Url.
+     */
+    CircuitOpenError(final String url) {
+        super("Circuit open for " + url);
+    }
+}
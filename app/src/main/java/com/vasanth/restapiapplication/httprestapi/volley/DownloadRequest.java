@@ -0,0 +1,112 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import android.os.SystemClock;
+
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Download Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Class responsible for writing the response body at a given URL to a file, one buffer at a time.
+ * 1.b. Body is written to a temporary file first & renamed on completion, so a failed download never
+ * leaves a partial destination file.
+ *
+ * @author Vasanth
+ */
+class DownloadRequest extends StreamRequest {
+
+    // Minimum interval between two progress callbacks.
+    private static final long PROGRESS_INTERVAL_MS = 100;
+
+    private File mDestinationFile;
+    private HttpClientApi.HttpDownloadListener mListener;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request Headers.
+     * @param url             Request Url.
+     * @param destinationFile File to which response body has to be written.
+     * @param listener        Listener used to get callback on download progress & completion.
+     */
+    DownloadRequest(final String identifier, final Map<String, String> headers, final String url, final File destinationFile,
+                    final HttpClientApi.HttpDownloadListener listener) {
+        super(identifier, headers, url);
+
+        this.mDestinationFile = destinationFile;
+        this.mListener = listener;
+    }
+
+    @Override
+    void onResponseStream(final InputStream inputStream, final long contentLength) throws IOException {
+        File tempFile = new File(mDestinationFile.getPath() + ".download");
+        OutputStream outputStream = new FileOutputStream(tempFile);
+        boolean success = false;
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long bytesDownloaded = 0;
+            long lastProgressTime = 0;
+            int count;
+            while (!isCanceled() && (count = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, count);
+                bytesDownloaded += count;
+
+                long now = SystemClock.uptimeMillis();
+                if (now - lastProgressTime >= PROGRESS_INTERVAL_MS) {
+                    lastProgressTime = now;
+                    postProgress(bytesDownloaded, contentLength);
+                }
+            }
+            outputStream.close();
+            success = !isCanceled() && (mDestinationFile.delete() || !mDestinationFile.exists()) && tempFile.renameTo(mDestinationFile);
+            if (!success && !isCanceled()) {
+                throw new IOException("Unable to move download to " + mDestinationFile);
+            }
+        } finally {
+            closeQuietly(outputStream);
+            if (!success) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    @Override
+    void deliverComplete() {
+        if (mListener != null) {
+            mListener.onDownloadComplete(mDestinationFile);
+        }
+    }
+
+    @Override
+    void deliverError(final int errorCode) {
+        if (mListener != null) {
+            mListener.onErrorResponse(errorCode);
+        }
+    }
+
+    /**
+     * Used to post download progress to the delivery thread.
+     *
+     * @param bytesDownloaded Number of bytes written so far.
+     * @param contentLength   Response body length in bytes OR -1 if unknown.
+     */
+    private void postProgress(final long bytesDownloaded, final long contentLength) {
+        postToDeliveryThread(new Runnable() {
+            @Override
+            public void run() {
+                if (mListener != null) {
+                    mListener.onDownloadProgress(bytesDownloaded, contentLength);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip Codec.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Compresses request bodies & decompresses response bodies using gzip "Content-Encoding".
+ * 1.b. Requests send "Accept-Encoding: gzip" themselves, which turns off the transparent decompression of
+ * {@link java.net.HttpURLConnection}. Hence the body reaches volley compressed, is cached compressed & is decompressed
+ * only while parsing.
+ *
+ * @author Vasanth
+ */
+class GzipCodec {
+
+    static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    static final String ENCODING_GZIP = "gzip";
+
+    // Size of the buffer used to compress & decompress.
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Private Constructor.
+     */
+    private GzipCodec() {
+    }
+
+    /**
+     * Used to check whether the body with the given headers is gzip encoded.
+     *
+     * @param headers Headers, may be null. Names are matched ignoring case, since cached headers lose the case
+     *                insensitive map.
+     * @return True if gzip encoded.
+     */
+    static boolean isGzipEncoded(final Map<String, String> headers) {
+        String contentEncoding = getHeader(headers, HEADER_CONTENT_ENCODING);
+        return contentEncoding != null && ENCODING_GZIP.equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    /**
+     * Used to get the header value, matching the name ignoring case.
+     *
+     * @param headers Headers, may be null.
+     * @param name    Header name.
+     * @return Header value OR null.
+     */
+    static String getHeader(final Map<String, String> headers, final String name) {
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Used to gzip compress the data.
+     *
+     * @param data Data.
+     * @return Compressed data.
+     * @throws IOException If compression fails.
+     */
+    static byte[] compress(final byte[] data) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length / 4 + 32);
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        try {
+            gzipOutputStream.write(data);
+        } finally {
+            gzipOutputStream.close();
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Used to decompress the gzip compressed data.
+     *
+     * @param data Compressed data.
+     * @return Data.
+     * @throws IOException If the data is not valid gzip.
+     */
+    static byte[] decompress(final byte[] data) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length * 4);
+        GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(data), BUFFER_SIZE);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = gzipInputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } finally {
+            gzipInputStream.close();
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,56 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Input Stream Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Class responsible for handing over the response body at a given URL as an {@link InputStream}.
+ *
+ * @author Vasanth
+ */
+class InputStreamRequest extends StreamRequest {
+
+    private HttpClientApi.HttpStreamResponseListener mListener;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param listener   Listener used to consume the response stream & get callback on request completes.
+     */
+    InputStreamRequest(final String identifier, final Map<String, String> headers, final String url,
+                       final HttpClientApi.HttpStreamResponseListener listener) {
+        super(identifier, headers, url);
+
+        this.mListener = listener;
+    }
+
+    @Override
+    void onResponseStream(final InputStream inputStream, final long contentLength) throws IOException {
+        if (mListener != null) {
+            mListener.onResponseStream(inputStream, contentLength);
+        }
+    }
+
+    @Override
+    void deliverComplete() {
+        if (mListener != null) {
+            mListener.onStreamComplete();
+        }
+    }
+
+    @Override
+    void deliverError(final int errorCode) {
+        if (mListener != null) {
+            mListener.onErrorResponse(errorCode);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.vasanth.restapiapplication.httprestapi.CircuitBreaker;
+import com.vasanth.restapiapplication.httprestapi.DeliveryExecutors;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpInterceptorChain;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.InterceptedRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Stream Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Base class for requests whose response body has to be consumed incrementally.
+ * 1.b. Volley always reads the complete body into memory, hence these requests are executed using
+ * {@link HttpURLConnection} (the same stack used by Volley's HurlStack) on the stream executor.
+ * 1.c. Maps failures to the same error codes used by {@link VolleyStringRequest}.
+ * 1.d. Decompresses gzip encoded response bodies, content length is unknown then.
+ * 1.e. Goes through the {@link CircuitBreaker} of its url (if any), same as requests of the request queue.
+ * 1.f. Runs the interceptors of the config & reconnects once if an authenticator handles the "401" response.
+ *
+ * @author Vasanth
+ */
+abstract class StreamRequest implements Runnable {
+
+    // Size of the buffer used to read the response body.
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    private final String mIdentifier;
+    private final Map<String, String> mHeaders;
+    private final String mUrl;
+
+    private volatile boolean mCanceled;
+    private volatile HttpURLConnection mConnection;
+    private Executor mDeliveryExecutor = DeliveryExecutors.mainThread();
+    private CircuitBreaker mCircuitBreaker;
+    private HttpInterceptorChain mInterceptorChain;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     */
+    StreamRequest(final String identifier, final Map<String, String> headers, final String url) {
+        this.mIdentifier = identifier;
+        this.mHeaders = headers;
+        this.mUrl = url;
+    }
+
+    /**
+     * Used to get the identifier of the request.
+     *
+     * @return Identifier.
+     */
+    String getIdentifier() {
+        return mIdentifier;
+    }
+
+    /**
+     * Used to get the request url.
+     *
+     * @return Url.
+     */
+    String getUrl() {
+        return mUrl;
+    }
+
+    /**
+     * Used to cancel the request, no callback will be delivered after this call.
+     */
+    void cancel() {
+        mCanceled = true;
+        HttpURLConnection connection = mConnection;
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Used to set the executor on which callbacks are delivered, main thread by default.
+     *
+     * @param deliveryExecutor Executor.
+     */
+    void setDeliveryExecutor(final Executor deliveryExecutor) {
+        this.mDeliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Used to set the circuit breaker guarding the connection.
+     *
+     * @param circuitBreaker Circuit breaker OR null.
+     */
+    void setCircuitBreaker(final CircuitBreaker circuitBreaker) {
+        this.mCircuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Used to set the interceptors run before connecting.
+     *
+     * @param interceptorChain Interceptor chain OR null.
+     */
+    void setInterceptorChain(final HttpInterceptorChain interceptorChain) {
+        this.mInterceptorChain = interceptorChain;
+    }
+
+    /**
+     * Used to check whether the request is canceled.
+     *
+     * @return True if canceled.
+     */
+    boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * Executes the request on the calling thread.
+     */
+    @Override
+    public void run() {
+        if (mCanceled) {
+            return;
+        }
+        CircuitBreaker circuitBreaker = mCircuitBreaker;
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            postError(HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN);
+            return;
+        }
+
+        // Result reported to the circuit breaker, zero if the request ends without one (like canceled).
+        int resultCode = 0;
+        HttpURLConnection connection = null;
+        InputStream inputStream = null;
+        try {
+            HttpInterceptorChain interceptorChain = mInterceptorChain;
+            InterceptedRequest interceptedRequest = null;
+            Map<String, String> headers = mHeaders;
+            if (interceptorChain != null) {
+                interceptedRequest = interceptorChain.intercept(mIdentifier, HttpMethod.GET, mUrl, mHeaders, null);
+                headers = interceptedRequest.getHeaders();
+            }
+            connection = openConnection(headers);
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode == HttpInterceptorChain.STATUS_CODE_UNAUTHORIZED && interceptedRequest != null && !mCanceled
+                    && interceptorChain.authenticate(interceptedRequest)) {
+                connection.disconnect();
+                interceptedRequest = interceptorChain.intercept(mIdentifier, HttpMethod.GET, mUrl, mHeaders, null);
+                connection = openConnection(interceptedRequest.getHeaders());
+                statusCode = connection.getResponseCode();
+            }
+            resultCode = statusCode;
+            if (statusCode < 200 || statusCode > 299) {
+                postError(statusCode);
+                return;
+            }
+
+            inputStream = connection.getInputStream();
+            long contentLength = connection.getContentLength();
+            // Only when the caller asked for gzip, otherwise the connection decompresses transparently.
+            if (GzipCodec.ENCODING_GZIP.equalsIgnoreCase(connection.getContentEncoding())) {
+                inputStream = new GZIPInputStream(inputStream, BUFFER_SIZE);
+                contentLength = -1;
+            }
+            onResponseStream(inputStream, contentLength);
+            if (!mCanceled) {
+                postComplete();
+            }
+        } catch (SocketTimeoutException exp) {
+            resultCode = HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR;
+            postError(resultCode);
+        } catch (MalformedURLException exp) {
+            postError(HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR);
+        } catch (IOException exp) {
+            resultCode = mCanceled ? 0 : HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR;
+            postError(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        } finally {
+            if (circuitBreaker != null) {
+                if (resultCode != 0) {
+                    circuitBreaker.onResult(resultCode);
+                } else {
+                    circuitBreaker.onIgnored();
+                }
+            }
+            closeQuietly(inputStream);
+            if (connection != null) {
+                connection.disconnect();
+            }
+            mConnection = null;
+        }
+    }
+
+    /**
+     * Used to open the connection to the url with the given headers.
+     *
+     * @param headers Request headers, may be null.
+     * @return Connection, also set as the connection disconnected on cancel.
+     * @throws IOException If the url is invalid OR the connection can't be opened.
+     */
+    private HttpURLConnection openConnection(final Map<String, String> headers) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(mUrl).openConnection();
+        mConnection = connection;
+        connection.setConnectTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS);
+        connection.setReadTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS);
+        connection.setUseCaches(false);
+        connection.setDoInput(true);
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.addRequestProperty(header.getKey(), header.getValue());
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Gets called on the stream executor thread with the response body.
+     *
+     * @param inputStream   Response body stream.
+     * @param contentLength Response body length in bytes OR -1 if unknown.
+     * @throws IOException If reading the stream fails.
+     */
+    abstract void onResponseStream(InputStream inputStream, long contentLength) throws IOException;
+
+    /**
+     * Gets called on the delivery thread once the response body is consumed completely.
+     */
+    abstract void deliverComplete();
+
+    /**
+     * Gets called on the delivery thread on request failure.
+     *
+     * @param errorCode Error code.
+     */
+    abstract void deliverError(int errorCode);
+
+    /**
+     * Used to run the given runnable on the delivery thread, unless request gets canceled in between.
+     *
+     * @param runnable Runnable to be run on the delivery thread.
+     */
+    void postToDeliveryThread(final Runnable runnable) {
+        mDeliveryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!mCanceled) {
+                    runnable.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Used to post completion callback to the delivery thread.
+     */
+    private void postComplete() {
+        postToDeliveryThread(new Runnable() {
+            @Override
+            public void run() {
+                deliverComplete();
+            }
+        });
+    }
+
+    /**
+     * Used to post error callback to the delivery thread.
+     *
+     * @param errorCode Error code.
+     */
+    private void postError(final int errorCode) {
+        if (mCanceled) {
+            return;
+        }
+        postToDeliveryThread(new Runnable() {
+            @Override
+            public void run() {
+                deliverError(errorCode);
+            }
+        });
+    }
+
+    /**
+     * Used to close the stream ignoring failures.
+     *
+     * @param closeable Stream to be closed.
+     */
+    static void closeQuietly(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException exp) {
+                // Ignore.
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Network;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.VolleyError;
+import com.vasanth.restapiapplication.httprestapi.CircuitBreaker;
+
+/**
+ * Volley Circuit Breaker Network.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link Network} which asks the {@link CircuitBreaker} of the request url before the network call & reports the
+ * result of the call to it, requests to an open circuit fail right away with {@link CircuitOpenError}.
+ * 1.b. Only network calls go through the network, so cache hits are served even if the circuit is open.
+ *
+ * @author Vasanth
+ */
+class VolleyCircuitBreakerNetwork implements Network {
+
+    private final Network mNetwork;
+    private final CircuitBreaker.Registry mRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param network  Network making the calls.
+     * @param registry Circuit breakers.
+     */
+    VolleyCircuitBreakerNetwork(final Network network, final CircuitBreaker.Registry registry) {
+        this.mNetwork = network;
+        this.mRegistry = registry;
+    }
+
+    /**
+     * Used to perform the request, if its circuit allows.
+     *
+     * @param request Request.
+     * @return Response.
+     * @throws VolleyError {@link CircuitOpenError} if the circuit is open, else error of the call.
+     */
+    @Override
+    public NetworkResponse performRequest(final Request<?> request) throws VolleyError {
+        CircuitBreaker breaker = mRegistry.get(request.getUrl());
+        if (breaker == null) {
+            return mNetwork.performRequest(request);
+        }
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenError(request.getUrl());
+        }
+
+        NetworkResponse response;
+        try {
+            response = mNetwork.performRequest(request);
+        } catch (VolleyError exp) {
+            breaker.onResult(VolleyRequest.getErrorCode(exp));
+            throw exp;
+        } catch (RuntimeException exp) {
+            breaker.onIgnored();
+            throw exp;
+        }
+        breaker.onResult(response.statusCode);
+        return response;
+    }
+}
@@ -0,0 +1,96 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.toolbox.DiskBasedCache;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Volley Disk Based Cache.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Volley's {@link DiskBasedCache} (one file per entry) which can list its keys, read from the header of every
+ * entry file since volley keeps its index private.
+ * 1.b. Header starts with the magic number & the key, both little endian as written by volley 1.0.x. Files with any
+ * other magic number are skipped.
+ *
+ * @author Vasanth
+ */
+class VolleyDiskBasedCache extends DiskBasedCache implements VolleyListableCache {
+
+    // Magic number at the start of every entry file.
+    private static final int CACHE_MAGIC = 0x20150306;
+
+    // Longest key read, longer length means the file isn't an entry file.
+    private static final int MAX_KEY_BYTES = 64 * 1024;
+
+    private static final String CHARSET = "UTF-8";
+
+    private final File mRootDirectory;
+
+    /**
+     * Constructor.
+     *
+     * @param rootDirectory Directory holding the entry files.
+     * @param maxSizeBytes  Maximum size of the cache in bytes.
+     */
+    VolleyDiskBasedCache(final File rootDirectory, final int maxSizeBytes) {
+        super(rootDirectory, maxSizeBytes);
+        this.mRootDirectory = rootDirectory;
+    }
+
+    /**
+     * Used to get the keys, reading the header of every entry file. Holds the lock of the cache, so no file is half
+     * written meanwhile.
+     *
+     * @return Snapshot of the keys.
+     */
+    @Override
+    public synchronized List<String> getKeys() {
+        List<String> keys = new ArrayList<String>();
+        File[] files = mRootDirectory.listFiles();
+        if (files == null) {
+            return keys;
+        }
+        for (File file : files) {
+            String key = readKey(file);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Used to read the key from the header of the entry file.
+     *
+     * @param file Entry file.
+     * @return Key OR null if the file is not a readable entry file.
+     */
+    private static String readKey(final File file) {
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (Integer.reverseBytes(input.readInt()) != CACHE_MAGIC) {
+                return null;
+            }
+            long length = Long.reverseBytes(input.readLong());
+            if (length < 0 || length > MAX_KEY_BYTES) {
+                return null;
+            }
+            byte[] key = new byte[(int) length];
+            input.readFully(key);
+            return new String(key, CHARSET);
+        } catch (IOException exp) {
+            // Removed meanwhile OR truncated.
+            return null;
+        } finally {
+            StreamRequest.closeQuietly(input);
+        }
+    }
+}
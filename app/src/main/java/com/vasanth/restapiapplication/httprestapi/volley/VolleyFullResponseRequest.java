@@ -0,0 +1,130 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+import com.vasanth.restapiapplication.httprestapi.HttpResponse;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Volley Full Response Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Class responsible for retrieving the whole {@link HttpResponse} at a given URL, including the error response
+ * of a failed request.
+ *
+ * @author Vasanth
+ */
+class VolleyFullResponseRequest extends VolleyRequest<HttpResponse> {
+
+    private final HttpClientApi.HttpFullResponseListener mFullResponseListener;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param body       Request Body, may be null.
+     * @param options    Request options.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    VolleyFullResponseRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                              final HttpRequestBody body, final RequestOptions options, final HttpClientApi.HttpFullResponseListener listener) {
+        super(identifier, method, headers, url, body, options, null, new SuccessListener(listener));
+        this.mFullResponseListener = listener;
+    }
+
+    /**
+     * Builds the response from the status code, headers & body, on the network (or cache) thread.
+     *
+     * @param response Network response.
+     * @param data     Response body, decompressed.
+     * @param charset  Charset of the response body.
+     * @return Response.
+     */
+    @Override
+    HttpResponse decodeResponse(final NetworkResponse response, final byte[] data, final String charset) {
+        return new HttpResponse(response.statusCode, response.headers, data, charset, isFromCache(),
+                isFromCache() ? -1 : response.networkTimeMs);
+    }
+
+    /**
+     * Notifies the listener of the failure along with the error response, if the server sent one.
+     *
+     * @param errorCode Error code.
+     * @param error     Volley error.
+     */
+    @Override
+    void deliverErrorResponse(final int errorCode, final VolleyError error) {
+        if (mFullResponseListener == null) {
+            return;
+        }
+        NetworkResponse networkResponse = error.networkResponse;
+        HttpResponse response = null;
+        if (networkResponse != null) {
+            byte[] data = networkResponse.data;
+            if (data != null && GzipCodec.isGzipEncoded(networkResponse.headers)) {
+                try {
+                    data = GzipCodec.decompress(data);
+                } catch (IOException exp) {
+                    // Delivered as received.
+                }
+            }
+            response = new HttpResponse(networkResponse.statusCode, networkResponse.headers, data,
+                    HttpHeaderParser.parseCharset(networkResponse.headers, DEFAULT_RESPONSE_CHARSET), false, error.getNetworkTimeMs());
+        }
+        mFullResponseListener.onErrorResponse(errorCode, response);
+    }
+
+    /**
+     * Success Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Adapts the full response listener to the typed listener of the base request (forwarding
+     * {@link HttpClientApi.RequestFinishedListener} too), failures are delivered by
+     * {@link #deliverErrorResponse(int, VolleyError)} instead.
+     */
+    private static class SuccessListener implements HttpClientApi.TypedResponseListener<HttpResponse>,
+            HttpClientApi.RequestFinishedListener {
+
+        private final HttpClientApi.HttpFullResponseListener mListener;
+
+        /**
+         * Constructor.
+         *
+         * @param listener Listener.
+         */
+        SuccessListener(final HttpClientApi.HttpFullResponseListener listener) {
+            this.mListener = listener;
+        }
+
+        @Override
+        public void onSuccessResponse(final HttpResponse response) {
+            if (mListener != null) {
+                mListener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            if (mListener != null) {
+                mListener.onErrorResponse(errorCode, null);
+            }
+        }
+
+        @Override
+        public void onRequestFinished() {
+            if (mListener instanceof HttpClientApi.RequestFinishedListener) {
+                ((HttpClientApi.RequestFinishedListener) mListener).onRequestFinished();
+            }
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.vasanth.restapiapplication.httprestapi.volley;
 
 import android.content.Context;
+import android.os.Looper;
 
-import com.android.volley.Request;
+import com.vasanth.restapiapplication.httprestapi.BatchDispatcher;
+import com.vasanth.restapiapplication.httprestapi.BatchRequest;
+import com.vasanth.restapiapplication.httprestapi.HttpCacheStats;
 import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.HttpClientException;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpMetricsListener;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+import com.vasanth.restapiapplication.httprestapi.HttpResponse;
+import com.vasanth.restapiapplication.httprestapi.RequestCoalescer;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
 
+import java.io.File;
 import java.util.Map;
 
 /**
@@ -19,14 +31,16 @@ public class VolleyHttpRestApiImpl implements HttpClientApi {
 
     private static VolleyHttpRestApiImpl mInstance;
     private VolleySingleton volleySingleton;
+    private RequestCoalescer<String> mGetRequestCoalescer = new RequestCoalescer<String>();
 
     /**
      * Constructor.
      *
      * @param context Context.
+     * @param config  Config used to size the request queue & cache.
      */
-    private VolleyHttpRestApiImpl(final Context context) {
-        volleySingleton = VolleySingleton.getInstance(context);
+    private VolleyHttpRestApiImpl(final Context context, final HttpClientConfig config) {
+        volleySingleton = VolleySingleton.getInstance(context, config);
     }
 
     /**
@@ -36,8 +50,21 @@ public class VolleyHttpRestApiImpl implements HttpClientApi {
      * @return Singleton instance of VolleySingleton.
      */
     public static synchronized VolleyHttpRestApiImpl getInstance(Context context) {
+        return getInstance(context, HttpClientConfig.getDefault());
+    }
+
+    /**
+     * Used to singleton instance of VolleySingleton.
+     * <p>
+     * Config is used only when the instance gets created by this call, later calls return the existing instance.
+     *
+     * @param context Context.
+     * @param config  Config used to size the request queue & cache.
+     * @return Singleton instance of VolleySingleton.
+     */
+    public static synchronized VolleyHttpRestApiImpl getInstance(Context context, HttpClientConfig config) {
         if (mInstance == null) {
-            mInstance = new VolleyHttpRestApiImpl(context);
+            mInstance = new VolleyHttpRestApiImpl(context, config);
         }
         return mInstance;
     }
@@ -53,7 +80,37 @@ public class VolleyHttpRestApiImpl implements HttpClientApi {
      */
     @Override
     public void getRequest(String identifier, Map<String, String> headers, String url, final boolean shouldCache, HttpResponseListener listener) {
-        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, Request.Method.GET, headers, url, shouldCache, listener);
+        getRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get response using callback.
+     * <p>
+     * Identical requests (same url, headers & options) made while one is in flight share its network call.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        if (options.getCachePolicy() != RequestOptions.CachePolicy.DEFAULT) {
+            // Cache policy decides whether the network is used at all, hence the request isn't shared.
+            volleySingleton.addToRequestQueue(new VolleyStringRequest(identifier, HttpMethod.GET, headers, url, options, listener));
+            return;
+        }
+        RequestCoalescer.Key key = RequestCoalescer.buildKey(HttpMethod.GET.name(), url, headers, options);
+        RequestCoalescer.Flight<String> flight = mGetRequestCoalescer.join(key, identifier, listener);
+        if (flight == null) {
+            // Joined the identical request in flight.
+            return;
+        }
+
+        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, HttpMethod.GET, headers, url, options, flight);
+        // Flight is used as tag, since it may be shared by more than one identifier.
+        volleyStringRequest.setTag(flight);
         volleySingleton.addToRequestQueue(volleyStringRequest);
     }
 
@@ -71,11 +128,99 @@ public class VolleyHttpRestApiImpl implements HttpClientApi {
     @Override
     public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
                             final boolean shouldCache, HttpResponseListener listener) {
-        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, Request.Method.POST, headers, url, body, bodyContentType,
-                shouldCache, listener);
+        postRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                            RequestOptions options, HttpResponseListener listener) {
+        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, HttpMethod.POST, headers, url, body, bodyContentType,
+                options, listener);
         volleySingleton.addToRequestQueue(volleyStringRequest);
     }
 
+    /**
+     * Used to make "HTTP GET REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier  Unique string to identify individual request.
+     * @param headers     Request headers.
+     * @param url         Request Url.
+     * @param shouldCache whether or not responses to this request should be cached.
+     * @param decoder     Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener    Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        getRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), decoder, listener);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        VolleyRequest<T> volleyRequest = new VolleyRequest<T>(identifier, HttpMethod.GET, headers, url, options, decoder, listener);
+        volleySingleton.addToRequestQueue(volleyRequest);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param shouldCache     whether or not responses to this request should be cached.
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                boolean shouldCache, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        postRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), decoder, listener);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with the given options & get the decoded response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                RequestOptions options, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        VolleyRequest<T> volleyRequest = new VolleyRequest<T>(identifier, HttpMethod.POST, headers, url, body, bodyContentType,
+                options, decoder, listener);
+        volleySingleton.addToRequestQueue(volleyRequest);
+    }
+
     /**
      * Used to make "HTTP PUT REQUEST" & get response using callback.
      *
@@ -90,8 +235,78 @@ public class VolleyHttpRestApiImpl implements HttpClientApi {
     @Override
     public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
                            final boolean shouldCache, HttpResponseListener listener) {
-        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, Request.Method.PUT, headers, url, body, bodyContentType,
-                shouldCache, listener);
+        putRequest(identifier, headers, url, body, bodyContentType, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy, priority etc).
+     * @param listener        Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                           RequestOptions options, HttpResponseListener listener) {
+        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, HttpMethod.PUT, headers, url, body, bodyContentType,
+                options, new CacheInvalidatingListener(url, listener));
+        volleySingleton.addToRequestQueue(volleyStringRequest);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                            HttpResponseListener listener) {
+        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, HttpMethod.POST, headers, url, body, options, listener);
+        volleySingleton.addToRequestQueue(volleyStringRequest);
+    }
+
+    /**
+     * Used to make "HTTP POST REQUEST" with a binary, file OR multipart body & get the decoded response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param decoder    Decoder used to convert the response body into the model, runs on network thread.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                                ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        VolleyRequest<T> volleyRequest = new VolleyRequest<T>(identifier, HttpMethod.POST, headers, url, body, options, decoder, listener);
+        volleySingleton.addToRequestQueue(volleyRequest);
+    }
+
+    /**
+     * Used to make "HTTP PUT REQUEST" with a binary, file OR multipart body & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, carries its own content type. File & multipart bodies are streamed from disk.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                           HttpResponseListener listener) {
+        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, HttpMethod.PUT, headers, url, body, options,
+                new CacheInvalidatingListener(url, listener));
         volleySingleton.addToRequestQueue(volleyStringRequest);
     }
 
@@ -106,10 +321,183 @@ public class VolleyHttpRestApiImpl implements HttpClientApi {
      */
     @Override
     public void deleteRequest(String identifier, Map<String, String> headers, String url, final boolean shouldCache, HttpResponseListener listener) {
-        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, Request.Method.DELETE, headers, url, shouldCache, listener);
+        deleteRequest(identifier, headers, url, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    /**
+     * Used to make "HTTP DELETE REQUEST" with the given options & get response using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void deleteRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, HttpMethod.DELETE, headers, url, options,
+                new CacheInvalidatingListener(url, listener));
         volleySingleton.addToRequestQueue(volleyStringRequest);
     }
 
+    /**
+     * Used to make the request & get the whole response (status code, headers, body, cache & timing) using callback.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param body       Request Body, used only by "POST" & "PUT", may be null.
+     * @param options    Request options (caching, retry policy, priority etc).
+     * @param listener   Listener used to get callback on request completes.
+     */
+    @Override
+    public void request(String identifier, HttpMethod method, Map<String, String> headers, String url, HttpRequestBody body,
+                        RequestOptions options, HttpFullResponseListener listener) {
+        boolean mutating = method == HttpMethod.PUT || method == HttpMethod.DELETE;
+        VolleyFullResponseRequest volleyFullResponseRequest = new VolleyFullResponseRequest(identifier, method, headers, url, body, options,
+                mutating ? new CacheInvalidatingFullResponseListener(url, listener) : listener);
+        volleySingleton.addToRequestQueue(volleyFullResponseRequest);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & consume the response body as a stream, without loading it completely into memory.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param headers    Request headers.
+     * @param url        Request Url.
+     * @param listener   Listener used to consume the response stream & get callback on request completes.
+     */
+    @Override
+    public void streamRequest(String identifier, Map<String, String> headers, String url, HttpStreamResponseListener listener) {
+        InputStreamRequest inputStreamRequest = new InputStreamRequest(identifier, headers, url, listener);
+        volleySingleton.addToStreamExecutor(inputStreamRequest);
+    }
+
+    /**
+     * Used to make "HTTP GET REQUEST" & write the response body directly to the given file.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param destinationFile File to which response body has to be written, replaced if already exists.
+     * @param listener        Listener used to get callback on download progress & completion.
+     */
+    @Override
+    public void downloadRequest(String identifier, Map<String, String> headers, String url, File destinationFile,
+                                HttpDownloadListener listener) {
+        DownloadRequest downloadRequest = new DownloadRequest(identifier, headers, url, destinationFile, listener);
+        volleySingleton.addToStreamExecutor(downloadRequest);
+    }
+
+    /**
+     * Used to make the request on the calling thread & get the response directly.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @return Response.
+     * @throws HttpClientException If the request fails.
+     */
+    @Override
+    public String execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body, String bodyContentType,
+                          RequestOptions options) throws HttpClientException {
+        checkNotMainThread();
+        VolleyStringRequest volleyStringRequest = new VolleyStringRequest(identifier, method, headers, url, body, bodyContentType, options, null);
+        String response = volleyStringRequest.executeSync(volleySingleton);
+        invalidateCacheIfMutating(method, url);
+        return response;
+    }
+
+    /**
+     * Used to make the request on the calling thread & get the decoded response directly.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options (caching, retry policy etc).
+     * @param decoder         Decoder used to convert the response body into the model, runs on the calling thread.
+     * @return Decoded response.
+     * @throws HttpClientException If the request fails.
+     */
+    @Override
+    public <T> T execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body, String bodyContentType,
+                         RequestOptions options, ResponseDecoder<T> decoder) throws HttpClientException {
+        checkNotMainThread();
+        VolleyRequest<T> volleyRequest = new VolleyRequest<T>(identifier, method, headers, url, body, bodyContentType, options, decoder, null);
+        T response = volleyRequest.executeSync(volleySingleton);
+        invalidateCacheIfMutating(method, url);
+        return response;
+    }
+
+    /**
+     * Used to make a group of requests together & get one aggregated callback once all of them complete.
+     *
+     * @param identifier   Unique string to identify the batch.
+     * @param batchRequest Requests of the batch.
+     * @param listener     Listener used to get callback once all the requests complete.
+     */
+    @Override
+    public void batchRequest(String identifier, BatchRequest batchRequest, BatchResponseListener listener) {
+        BatchDispatcher.dispatch(this, identifier, batchRequest, listener);
+    }
+
+    /**
+     * Used to remove cached responses of all the urls starting with the given prefix.
+     * <p>
+     * Memory entries are removed immediately, disk entries are removed on the background executor.
+     *
+     * @param urlPrefix Url prefix.
+     */
+    @Override
+    public void invalidateCache(final String urlPrefix) {
+        final VolleyTieredCache cache = volleySingleton.getCache();
+        cache.invalidateMemory(urlPrefix);
+        volleySingleton.executeInBackground(new Runnable() {
+            @Override
+            public void run() {
+                cache.removeFromDisk(urlPrefix);
+            }
+        });
+    }
+
+    /**
+     * Used to get the in-memory response cache stats.
+     *
+     * @return Stats.
+     */
+    public HttpCacheStats getMemoryCacheStats() {
+        return volleySingleton.getCache().getStats();
+    }
+
+    /**
+     * Used to limit the number of requests with the given identifier running at the same time.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    @Override
+    public void setMaxConcurrentRequests(String identifier, int maxConcurrentRequests) {
+        volleySingleton.setMaxConcurrentRequests(identifier, maxConcurrentRequests);
+    }
+
+    /**
+     * Used to set the listener which receives timings, sizes & outcome of every completed request.
+     *
+     * @param metricsListener Metrics listener, null to stop reporting.
+     */
+    @Override
+    public void setMetricsListener(HttpMetricsListener metricsListener) {
+        volleySingleton.setMetricsListener(metricsListener);
+    }
+
     /**
      * Used to cancel the request.
      *
@@ -117,6 +505,106 @@ public class VolleyHttpRestApiImpl implements HttpClientApi {
      */
     @Override
     public void cancelRequest(String identifier) {
-        volleySingleton.getRequestQueue().cancelAll(identifier);
+        volleySingleton.cancelAll(identifier);
+        for (RequestCoalescer.Flight<String> flight : mGetRequestCoalescer.cancel(identifier)) {
+            volleySingleton.cancelAll(flight);
+        }
+    }
+
+    /**
+     * Used to invalidate the cached responses of the url after a successful mutating request.
+     *
+     * @param method HTTP Request Method.
+     * @param url    Request Url.
+     */
+    private void invalidateCacheIfMutating(final HttpMethod method, final String url) {
+        if (method == HttpMethod.PUT || method == HttpMethod.DELETE) {
+            invalidateCache(url);
+        }
+    }
+
+    /**
+     * Used to make sure synchronous requests are not made on main thread.
+     */
+    private static void checkNotMainThread() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("Synchronous requests must not be made on main thread");
+        }
+    }
+
+    /**
+     * Cache Invalidating Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Listener used for mutating requests, invalidates the cached responses of the url once the request succeeds.
+     */
+    private class CacheInvalidatingListener implements HttpResponseListener {
+
+        private String mUrl;
+        private HttpResponseListener mListener;
+
+        /**
+         * Constructor.
+         *
+         * @param url      Request Url, used as prefix to invalidate the cache.
+         * @param listener Listener used to send callback on request completes.
+         */
+        CacheInvalidatingListener(final String url, final HttpResponseListener listener) {
+            this.mUrl = url;
+            this.mListener = listener;
+        }
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            invalidateCache(mUrl);
+            if (mListener != null) {
+                mListener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            if (mListener != null) {
+                mListener.onErrorResponse(errorCode);
+            }
+        }
+    }
+
+    /**
+     * Cache Invalidating Full Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Same as {@link CacheInvalidatingListener}, for the requests delivering the whole response.
+     */
+    private class CacheInvalidatingFullResponseListener implements HttpFullResponseListener {
+
+        private String mUrl;
+        private HttpFullResponseListener mListener;
+
+        /**
+         * Constructor.
+         *
+         * @param url      Request Url, used as prefix to invalidate the cache.
+         * @param listener Listener used to send callback on request completes.
+         */
+        CacheInvalidatingFullResponseListener(final String url, final HttpFullResponseListener listener) {
+            this.mUrl = url;
+            this.mListener = listener;
+        }
+
+        @Override
+        public void onSuccessResponse(final HttpResponse response) {
+            invalidateCache(mUrl);
+            if (mListener != null) {
+                mListener.onSuccessResponse(response);
+            }
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode, final HttpResponse response) {
+            if (mListener != null) {
+                mListener.onErrorResponse(errorCode, response);
+            }
+        }
     }
 }
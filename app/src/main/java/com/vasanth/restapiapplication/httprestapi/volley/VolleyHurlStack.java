@@ -0,0 +1,129 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HurlStack;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Volley Hurl Stack.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HurlStack} which streams file & multipart request bodies (see {@link VolleyRequest#getStreamedBody()})
+ * directly to the connection, since volley only sends bodies given as a byte array.
+ * 1.b. Other requests are made by {@link HurlStack} itself.
+ *
+ * @author Vasanth
+ */
+class VolleyHurlStack extends HurlStack {
+
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+    // Buffer size used to write the streamed body.
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Used to perform the request.
+     *
+     * @param request           Request.
+     * @param additionalHeaders Headers added by volley (like cache validation headers).
+     * @return Response.
+     * @throws IOException      If the connection OR reading the body fails.
+     * @throws AuthFailureError If request headers can't be obtained.
+     */
+    @Override
+    public HttpResponse performRequest(final Request<?> request, final Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        HttpRequestBody body = (request instanceof VolleyRequest) ? ((VolleyRequest<?>) request).getStreamedBody() : null;
+        if (body == null) {
+            return super.performRequest(request, additionalHeaders);
+        }
+
+        HttpURLConnection connection = createConnection(new URL(request.getUrl()));
+        connection.setConnectTimeout(request.getTimeoutMs());
+        connection.setReadTimeout(request.getTimeoutMs());
+        connection.setUseCaches(false);
+        connection.setDoInput(true);
+        connection.setDoOutput(true);
+        connection.setRequestMethod((request.getMethod() == Request.Method.PUT) ? "PUT" : "POST");
+
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.putAll(request.getHeaders());
+        headers.putAll(additionalHeaders);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connection.addRequestProperty(header.getKey(), header.getValue());
+        }
+        connection.setRequestProperty(HEADER_CONTENT_TYPE, request.getBodyContentType());
+
+        // "setFixedLengthStreamingMode(long)" needs API 19.
+        long contentLength = body.getContentLength();
+        if (contentLength >= 0 && contentLength <= Integer.MAX_VALUE) {
+            connection.setFixedLengthStreamingMode((int) contentLength);
+        } else {
+            connection.setChunkedStreamingMode(0);
+        }
+        OutputStream outputStream = new BufferedOutputStream(connection.getOutputStream(), BUFFER_SIZE);
+        try {
+            body.writeTo(outputStream);
+            outputStream.flush();
+        } finally {
+            outputStream.close();
+        }
+
+        int responseCode = connection.getResponseCode();
+        if (responseCode == -1) {
+            throw new IOException("Could not retrieve response code from HttpUrlConnection.");
+        }
+        BasicHttpResponse response = new BasicHttpResponse(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), responseCode,
+                connection.getResponseMessage()));
+        // Informational, "204 No Content" & "304 Not Modified" responses have no body.
+        if (responseCode >= HttpURLConnection.HTTP_OK && responseCode != HttpURLConnection.HTTP_NO_CONTENT
+                && responseCode != HttpURLConnection.HTTP_NOT_MODIFIED) {
+            response.setEntity(entityFromConnection(connection));
+        }
+        for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+            if (header.getKey() != null) {
+                response.addHeader(new BasicHeader(header.getKey(), header.getValue().get(0)));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Used to create the response entity reading the body from the connection (same as {@link HurlStack}).
+     *
+     * @param connection Connection.
+     * @return Entity.
+     */
+    private static BasicHttpEntity entityFromConnection(final HttpURLConnection connection) {
+        BasicHttpEntity entity = new BasicHttpEntity();
+        InputStream inputStream;
+        try {
+            inputStream = connection.getInputStream();
+        } catch (IOException exp) {
+            inputStream = connection.getErrorStream();
+        }
+        entity.setContent(inputStream);
+        entity.setContentLength(connection.getContentLength());
+        entity.setContentEncoding(connection.getContentEncoding());
+        entity.setContentType(connection.getContentType());
+        return entity;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Network;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.VolleyError;
+import com.vasanth.restapiapplication.httprestapi.HttpInterceptorChain;
+import com.vasanth.restapiapplication.httprestapi.InterceptedRequest;
+
+/**
+ * Volley Interceptor Network.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link Network} which replays the request once, with its headers intercepted again, if an authenticator of the
+ * {@link HttpInterceptorChain} handles its "401 Unauthorized" response.
+ * 1.b. Headers themselves are intercepted by {@link VolleyRequest#getHeaders()}, which the stack calls for every call.
+ * 1.c. Sits inside the circuit breaker network, so the replay is part of the same call.
+ *
+ * @author Vasanth
+ */
+class VolleyInterceptorNetwork implements Network {
+
+    private final Network mNetwork;
+    private final HttpInterceptorChain mInterceptorChain;
+
+    /**
+     * Constructor.
+     *
+     * @param network          Network making the calls.
+     * @param interceptorChain Interceptors of the config.
+     */
+    VolleyInterceptorNetwork(final Network network, final HttpInterceptorChain interceptorChain) {
+        this.mNetwork = network;
+        this.mInterceptorChain = interceptorChain;
+    }
+
+    /**
+     * Used to perform the request, replaying it once if the "401" response is handled by an authenticator.
+     *
+     * @param request Request.
+     * @return Response.
+     * @throws VolleyError Error of the call OR of the replay.
+     */
+    @Override
+    public NetworkResponse performRequest(final Request<?> request) throws VolleyError {
+        try {
+            return mNetwork.performRequest(request);
+        } catch (AuthFailureError exp) {
+            if (!(request instanceof VolleyRequest) || exp.networkResponse == null
+                    || exp.networkResponse.statusCode != HttpInterceptorChain.STATUS_CODE_UNAUTHORIZED) {
+                throw exp;
+            }
+            VolleyRequest<?> volleyRequest = (VolleyRequest<?>) request;
+            InterceptedRequest interceptedRequest = volleyRequest.getInterceptedRequest();
+            if (interceptedRequest == null || request.isCanceled() || !mInterceptorChain.authenticate(interceptedRequest)) {
+                throw exp;
+            }
+            request.addMarker("auth-replay");
+            volleyRequest.resetHeaders();
+            return mNetwork.performRequest(request);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Cache;
+
+import java.util.List;
+
+/**
+ * Volley Listable Cache.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Disk {@link Cache} which can list the keys of all its entries, including the ones stored by an earlier process,
+ * used by {@link VolleyTieredCache} to invalidate the entries by url prefix.
+ *
+ * @author Vasanth
+ */
+interface VolleyListableCache extends Cache {
+
+    /**
+     * Used to get the keys of all the entries, may do file IO hence must not be called on main thread.
+     *
+     * @return Snapshot of the keys.
+     */
+    List<String> getKeys();
+}
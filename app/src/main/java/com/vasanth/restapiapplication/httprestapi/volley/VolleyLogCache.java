@@ -0,0 +1,753 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Cache;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Volley Log Cache.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Disk {@link Cache} implementation storing all the entries in a few append only segment files, instead of
+ * volley's "DiskBasedCache" which keeps one file per entry & reads the header of every file in {@link #initialize()}.
+ * 1.b. Every put appends a record (key, cache headers, response headers & body) to the active segment, every remove
+ * appends a small tombstone record. Active segment rolls over to a new one once it reaches the segment size.
+ * 1.c. Index (key to record location) is kept in memory & loaded lazily on first access by scanning the segments
+ * sequentially, reading only the keys & skipping the bodies. Torn record at the end of a segment (like after a crash
+ * while writing) is truncated.
+ * 1.d. Total size of the live entries is bounded, least recently used entries are evicted. Space of replaced, removed
+ * & evicted records is reclaimed by compacting the oldest segment (live records are copied to the active segment & the
+ * segment file is deleted) once the segments take more than the compaction threshold.
+ * 1.e. Segment files are kept open for reading, hits cost a seek & a single read.
+ *
+ * @author Vasanth
+ */
+class VolleyLogCache implements VolleyListableCache {
+
+    // Magic number of a put record.
+    private static final int RECORD_MAGIC_PUT = 0x56434c50;
+
+    // Magic number of a remove record.
+    private static final int RECORD_MAGIC_REMOVE = 0x56434c52;
+
+    // Size of the record magic & record length fields.
+    private static final int RECORD_PREFIX_BYTES = 8;
+
+    // Segment file name prefix & extension, followed by the segment id.
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_EXTENSION = ".log";
+
+    // Number of segments the maximum cache size is split into.
+    private static final int SEGMENTS_PER_CACHE = 4;
+
+    // Minimum size of a segment, so small caches don't create many small files.
+    private static final long MIN_SEGMENT_SIZE_BYTES = 64 * 1024;
+
+    // Live entries are evicted down to this fraction of the maximum size, same as "DiskBasedCache".
+    private static final float HYSTERESIS_FACTOR = 0.9f;
+
+    // Segments are compacted once they take more than this factor of the maximum size.
+    private static final float COMPACTION_FACTOR = 1.5f;
+
+    // Size of the buffer used to scan the segments.
+    private static final int SCAN_BUFFER_SIZE = 16 * 1024;
+
+    private final File mRootDirectory;
+    private final long mMaxSizeBytes;
+    private final long mSegmentSizeBytes;
+
+    // Access ordered index, iteration starts from least recently used entry.
+    private final LinkedHashMap<String, Location> mIndex = new LinkedHashMap<String, Location>(16, 0.75f, true);
+    // Segments by id, iteration starts from the oldest segment.
+    private final TreeMap<Integer, Segment> mSegments = new TreeMap<Integer, Segment>();
+    private Segment mActiveSegment;
+    private boolean mLoaded;
+    // Total size of the live records.
+    private long mLiveBytes;
+    // Total size of the segment files.
+    private long mDiskBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param rootDirectory Directory holding the segment files.
+     * @param maxSizeBytes  Maximum size of the live entries in bytes.
+     */
+    VolleyLogCache(final File rootDirectory, final long maxSizeBytes) {
+        this.mRootDirectory = rootDirectory;
+        this.mMaxSizeBytes = maxSizeBytes;
+        this.mSegmentSizeBytes = Math.max(maxSizeBytes / SEGMENTS_PER_CACHE, MIN_SEGMENT_SIZE_BYTES);
+    }
+
+    /**
+     * Used to get the entry, reading its record from the segment.
+     *
+     * @param key Key (url).
+     * @return Entry OR null if not cached.
+     */
+    @Override
+    public synchronized Entry get(final String key) {
+        ensureLoaded();
+        Location location = mIndex.get(key);
+        if (location == null) {
+            return null;
+        }
+        try {
+            byte[] record = location.mSegment.read(location.mOffset, location.mLength);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+            if (input.readInt() != RECORD_MAGIC_PUT || input.readInt() != location.mLength - RECORD_PREFIX_BYTES
+                    || !key.equals(input.readUTF())) {
+                throw new IOException("Corrupt record of " + key);
+            }
+            return readEntry(input);
+        } catch (IOException exp) {
+            // Unreadable record, fetched again from the network.
+            remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Used to add OR replace the entry, appending its record to the active segment.
+     *
+     * @param key   Key (url).
+     * @param entry Entry.
+     */
+    @Override
+    public synchronized void put(final String key, final Entry entry) {
+        ensureLoaded();
+        try {
+            byte[] record = createPutRecord(key, entry);
+            if (record.length > mMaxSizeBytes) {
+                // Too large to be cached, older response isn't valid anymore.
+                remove(key);
+                return;
+            }
+            Segment segment = getActiveSegment(record.length);
+            long offset = segment.append(record);
+            mDiskBytes += record.length;
+            removeFromIndex(key);
+            mIndex.put(key, new Location(segment, offset, record.length));
+            mLiveBytes += record.length;
+        } catch (IOException exp) {
+            // Not cached.
+            return;
+        }
+        evict();
+        compact();
+    }
+
+    /**
+     * Index is loaded lazily on first access, so creating the cache dispatcher doesn't read the segments.
+     */
+    @Override
+    public synchronized void initialize() {
+        if (!mRootDirectory.exists()) {
+            mRootDirectory.mkdirs();
+        }
+    }
+
+    /**
+     * Used to expire the entry, by appending its record again with the updated expiry.
+     *
+     * @param key        Key (url).
+     * @param fullExpire True to expire the entry fully, else only refresh is needed.
+     */
+    @Override
+    public synchronized void invalidate(final String key, final boolean fullExpire) {
+        Entry entry = get(key);
+        if (entry != null) {
+            entry.softTtl = 0;
+            if (fullExpire) {
+                entry.ttl = 0;
+            }
+            put(key, entry);
+        }
+    }
+
+    /**
+     * Used to remove the entry, appending a tombstone so it stays removed after restart.
+     *
+     * @param key Key (url).
+     */
+    @Override
+    public synchronized void remove(final String key) {
+        ensureLoaded();
+        if (!removeFromIndex(key)) {
+            return;
+        }
+        appendTombstone(key);
+        compact();
+    }
+
+    /**
+     * Used to remove all the entries along with the segment files.
+     */
+    @Override
+    public synchronized void clear() {
+        for (Segment segment : mSegments.values()) {
+            segment.delete();
+        }
+        File[] files = mRootDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (getSegmentId(file) >= 0) {
+                    file.delete();
+                }
+            }
+        }
+        mSegments.clear();
+        mIndex.clear();
+        mActiveSegment = null;
+        mLiveBytes = 0;
+        mDiskBytes = 0;
+        mLoaded = true;
+    }
+
+    /**
+     * Used to get the number of cached entries.
+     *
+     * @return Entry count.
+     */
+    synchronized int size() {
+        ensureLoaded();
+        return mIndex.size();
+    }
+
+    /**
+     * Used to get the keys of the live entries, from the index loaded from all the segments.
+     *
+     * @return Snapshot of the keys.
+     */
+    @Override
+    public synchronized List<String> getKeys() {
+        ensureLoaded();
+        return new ArrayList<String>(mIndex.keySet());
+    }
+
+    /**
+     * Used to get the total size of the segment files, including the records not live anymore.
+     *
+     * @return Size in bytes.
+     */
+    synchronized long getDiskBytes() {
+        ensureLoaded();
+        return mDiskBytes;
+    }
+
+    /**
+     * Used to load the index by scanning the segments, oldest first so newer records replace older ones.
+     */
+    private void ensureLoaded() {
+        if (mLoaded) {
+            return;
+        }
+        mLoaded = true;
+        File[] files = mRootDirectory.listFiles();
+        if (files == null) {
+            mRootDirectory.mkdirs();
+            return;
+        }
+        for (File file : files) {
+            int id = getSegmentId(file);
+            if (id >= 0) {
+                mSegments.put(id, new Segment(id, file));
+            } else if (file.isFile()) {
+                // Left by the other cache storage.
+                file.delete();
+            }
+        }
+        for (Segment segment : mSegments.values()) {
+            scan(segment);
+            mDiskBytes += segment.mSize;
+        }
+        if (!mSegments.isEmpty()) {
+            mActiveSegment = mSegments.lastEntry().getValue();
+        }
+        evict();
+    }
+
+    /**
+     * Used to add the records of the segment to the index, reading only the keys.
+     *
+     * @param segment Segment.
+     */
+    private void scan(final Segment segment) {
+        long offset = 0;
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.mFile), SCAN_BUFFER_SIZE));
+            long fileLength = segment.mFile.length();
+            while (offset + RECORD_PREFIX_BYTES <= fileLength) {
+                int magic = input.readInt();
+                int length = input.readInt();
+                long recordLength = RECORD_PREFIX_BYTES + (long) length;
+                if ((magic != RECORD_MAGIC_PUT && magic != RECORD_MAGIC_REMOVE) || length < 2 || offset + recordLength > fileLength) {
+                    break;
+                }
+                String key = input.readUTF();
+                // Key is written with a two byte length prefix.
+                skipFully(input, length - 2 - getUtfLength(key));
+
+                removeFromIndex(key);
+                if (magic == RECORD_MAGIC_PUT) {
+                    mIndex.put(key, new Location(segment, offset, (int) recordLength));
+                    mLiveBytes += recordLength;
+                }
+                offset += recordLength;
+            }
+        } catch (IOException exp) {
+            // Torn record, truncated below.
+        } finally {
+            StreamRequest.closeQuietly(input);
+        }
+        segment.mSize = offset;
+        if (offset < segment.mFile.length()) {
+            segment.truncate(offset);
+        }
+    }
+
+    /**
+     * Used to evict the least recently used entries until the live entries fit in the maximum size.
+     */
+    private void evict() {
+        if (mLiveBytes <= mMaxSizeBytes) {
+            return;
+        }
+        long targetBytes = (long) (mMaxSizeBytes * HYSTERESIS_FACTOR);
+        List<String> evictedKeys = new ArrayList<String>();
+        Iterator<Map.Entry<String, Location>> iterator = mIndex.entrySet().iterator();
+        while (mLiveBytes > targetBytes && iterator.hasNext()) {
+            Map.Entry<String, Location> indexEntry = iterator.next();
+            Location location = indexEntry.getValue();
+            mLiveBytes -= location.mLength;
+            iterator.remove();
+            evictedKeys.add(indexEntry.getKey());
+        }
+        for (String key : evictedKeys) {
+            appendTombstone(key);
+        }
+    }
+
+    /**
+     * Used to compact the oldest segments while the segment files take more than the compaction threshold.
+     */
+    private void compact() {
+        while (mDiskBytes > mMaxSizeBytes * COMPACTION_FACTOR && mSegments.size() > 1) {
+            Segment oldest = mSegments.firstEntry().getValue();
+            if (oldest == mActiveSegment) {
+                return;
+            }
+            try {
+                compact(oldest);
+            } catch (IOException exp) {
+                // Entries of the segment are dropped instead of being copied.
+                dropSegment(oldest);
+            }
+        }
+    }
+
+    /**
+     * Used to copy the live records of the segment to the active segment & delete the segment. Its tombstones are
+     * dropped, since older segments are already compacted.
+     *
+     * @param segment Segment to be compacted.
+     * @throws IOException If a record can't be copied.
+     */
+    private void compact(final Segment segment) throws IOException {
+        List<Map.Entry<String, Location>> liveRecords = new ArrayList<Map.Entry<String, Location>>();
+        for (Map.Entry<String, Location> indexEntry : mIndex.entrySet()) {
+            if (indexEntry.getValue().mSegment == segment) {
+                liveRecords.add(indexEntry);
+            }
+        }
+        for (Map.Entry<String, Location> indexEntry : liveRecords) {
+            Location location = indexEntry.getValue();
+            byte[] record = segment.read(location.mOffset, location.mLength);
+            Segment target = getActiveSegment(record.length);
+            long offset = target.append(record);
+            mDiskBytes += record.length;
+            // Updated in place, so the access order is kept.
+            indexEntry.setValue(new Location(target, offset, record.length));
+        }
+        deleteSegment(segment);
+    }
+
+    /**
+     * Used to drop the entries of the unreadable segment & delete it.
+     *
+     * @param segment Segment.
+     */
+    private void dropSegment(final Segment segment) {
+        Iterator<Location> iterator = mIndex.values().iterator();
+        while (iterator.hasNext()) {
+            Location location = iterator.next();
+            if (location.mSegment == segment) {
+                mLiveBytes -= location.mLength;
+                iterator.remove();
+            }
+        }
+        deleteSegment(segment);
+    }
+
+    /**
+     * Used to delete the segment file.
+     *
+     * @param segment Segment.
+     */
+    private void deleteSegment(final Segment segment) {
+        mSegments.remove(segment.mId);
+        mDiskBytes -= segment.mSize;
+        segment.delete();
+        if (segment == mActiveSegment) {
+            mActiveSegment = null;
+        }
+    }
+
+    /**
+     * Used to append the tombstone of the key.
+     *
+     * @param key Key (url).
+     */
+    private void appendTombstone(final String key) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeUTF(key);
+            output.flush();
+            byte[] record = withPrefix(RECORD_MAGIC_REMOVE, bytes.toByteArray());
+            getActiveSegment(record.length).append(record);
+            mDiskBytes += record.length;
+        } catch (IOException exp) {
+            // Entry may come back after restart, cache stays consistent in this process.
+        }
+    }
+
+    /**
+     * Used to remove the key from the index.
+     *
+     * @param key Key (url).
+     * @return True if the key was in the index.
+     */
+    private boolean removeFromIndex(final String key) {
+        Location location = mIndex.remove(key);
+        if (location == null) {
+            return false;
+        }
+        mLiveBytes -= location.mLength;
+        return true;
+    }
+
+    /**
+     * Used to get the segment to which the record is appended, rolling over to a new segment if the active one is full.
+     *
+     * @param recordLength Length of the record to be appended.
+     * @return Active segment.
+     * @throws IOException If the segment file can't be created.
+     */
+    private Segment getActiveSegment(final int recordLength) throws IOException {
+        if (mActiveSegment == null || (mActiveSegment.mSize > 0 && mActiveSegment.mSize + recordLength > mSegmentSizeBytes)) {
+            int id = mSegments.isEmpty() ? 0 : mSegments.lastKey() + 1;
+            if (!mRootDirectory.exists() && !mRootDirectory.mkdirs()) {
+                throw new IOException("Can't create " + mRootDirectory);
+            }
+            mActiveSegment = new Segment(id, new File(mRootDirectory, SEGMENT_FILE_PREFIX + id + SEGMENT_FILE_EXTENSION));
+            mSegments.put(id, mActiveSegment);
+        }
+        return mActiveSegment;
+    }
+
+    /**
+     * Used to create the put record of the entry.
+     *
+     * @param key   Key (url).
+     * @param entry Entry.
+     * @return Record.
+     * @throws IOException If the entry can't be written.
+     */
+    private static byte[] createPutRecord(final String key, final Entry entry) throws IOException {
+        byte[] data = (entry.data != null) ? entry.data : new byte[0];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length + 256);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeUTF(key);
+        output.writeBoolean(entry.etag != null);
+        if (entry.etag != null) {
+            output.writeUTF(entry.etag);
+        }
+        output.writeLong(entry.serverDate);
+        output.writeLong(entry.lastModified);
+        output.writeLong(entry.ttl);
+        output.writeLong(entry.softTtl);
+        Map<String, String> headers = entry.responseHeaders;
+        output.writeInt((headers != null) ? headers.size() : 0);
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                output.writeUTF(header.getKey());
+                output.writeUTF(header.getValue());
+            }
+        }
+        output.writeInt(data.length);
+        output.write(data);
+        output.flush();
+        return withPrefix(RECORD_MAGIC_PUT, bytes.toByteArray());
+    }
+
+    /**
+     * Used to read the entry from the put record, positioned after the key.
+     *
+     * @param input Record input.
+     * @return Entry.
+     * @throws IOException If the record is corrupt.
+     */
+    private static Entry readEntry(final DataInputStream input) throws IOException {
+        Entry entry = new Entry();
+        entry.etag = input.readBoolean() ? input.readUTF() : null;
+        entry.serverDate = input.readLong();
+        entry.lastModified = input.readLong();
+        entry.ttl = input.readLong();
+        entry.softTtl = input.readLong();
+        int headerCount = input.readInt();
+        if (headerCount < 0) {
+            throw new IOException("Corrupt header count " + headerCount);
+        }
+        Map<String, String> headers = new HashMap<String, String>(Math.max(2 * headerCount, 16));
+        for (int index = 0; index < headerCount; index++) {
+            headers.put(input.readUTF(), input.readUTF());
+        }
+        entry.responseHeaders = headers;
+        int dataLength = input.readInt();
+        if (dataLength < 0 || dataLength > input.available()) {
+            throw new IOException("Corrupt data length " + dataLength);
+        }
+        entry.data = new byte[dataLength];
+        input.readFully(entry.data);
+        return entry;
+    }
+
+    /**
+     * Used to prefix the record body with the magic & length.
+     *
+     * @param magic Record magic.
+     * @param body  Record body.
+     * @return Record.
+     */
+    private static byte[] withPrefix(final int magic, final byte[] body) {
+        byte[] record = new byte[RECORD_PREFIX_BYTES + body.length];
+        writeInt(record, 0, magic);
+        writeInt(record, 4, body.length);
+        System.arraycopy(body, 0, record, RECORD_PREFIX_BYTES, body.length);
+        return record;
+    }
+
+    /**
+     * Used to write the big endian int into the array.
+     *
+     * @param array  Array.
+     * @param offset Offset.
+     * @param value  Value.
+     */
+    private static void writeInt(final byte[] array, final int offset, final int value) {
+        array[offset] = (byte) (value >>> 24);
+        array[offset + 1] = (byte) (value >>> 16);
+        array[offset + 2] = (byte) (value >>> 8);
+        array[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Used to get the length of the string in modified UTF-8, as written by {@link DataOutputStream#writeUTF(String)}.
+     *
+     * @param value String.
+     * @return Length in bytes, without the length prefix.
+     */
+    private static int getUtfLength(final String value) {
+        int length = 0;
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length++;
+            } else if (c > 0x07FF) {
+                length += 3;
+            } else {
+                length += 2;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Used to skip the given number of bytes.
+     *
+     * @param input Input.
+     * @param count Bytes to be skipped.
+     * @throws IOException If the input ends before.
+     */
+    private static void skipFully(final DataInputStream input, final long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = input.skip(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Used to get the id of the segment file.
+     *
+     * @param file File.
+     * @return Segment id OR -1 if not a segment file.
+     */
+    private static int getSegmentId(final File file) {
+        String name = file.getName();
+        if (!name.startsWith(SEGMENT_FILE_PREFIX) || !name.endsWith(SEGMENT_FILE_EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_FILE_PREFIX.length(), name.length() - SEGMENT_FILE_EXTENSION.length()));
+        } catch (NumberFormatException exp) {
+            return -1;
+        }
+    }
+
+    /**
+     * Location.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Position of the live record of a key.
+     */
+    private static class Location {
+
+        private final Segment mSegment;
+        private final long mOffset;
+        private final int mLength;
+
+        /**
+         * Constructor.
+         *
+         * @param segment Segment holding the record.
+         * @param offset  Offset of the record in the segment.
+         * @param length  Length of the record.
+         */
+        Location(final Segment segment, final long offset, final int length) {
+            this.mSegment = segment;
+            this.mOffset = offset;
+            this.mLength = length;
+        }
+    }
+
+    /**
+     * Segment.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Append only segment file, opened lazily & kept open for reads & appends.
+     */
+    private static class Segment {
+
+        private final int mId;
+        private final File mFile;
+        private RandomAccessFile mRandomAccessFile;
+        // Size of the valid records.
+        private long mSize;
+
+        /**
+         * Constructor.
+         *
+         * @param id   Segment id, newer segments have higher ids.
+         * @param file Segment file.
+         */
+        Segment(final int id, final File file) {
+            this.mId = id;
+            this.mFile = file;
+        }
+
+        /**
+         * Used to read the record.
+         *
+         * @param offset Offset of the record.
+         * @param length Length of the record.
+         * @return Record bytes.
+         * @throws IOException If the record can't be read.
+         */
+        byte[] read(final long offset, final int length) throws IOException {
+            RandomAccessFile file = open();
+            byte[] record = new byte[length];
+            file.seek(offset);
+            file.readFully(record);
+            return record;
+        }
+
+        /**
+         * Used to append the record at the end of the segment.
+         *
+         * @param record Record bytes.
+         * @return Offset of the record.
+         * @throws IOException If the record can't be written, segment is truncated back to its size.
+         */
+        long append(final byte[] record) throws IOException {
+            RandomAccessFile file = open();
+            long offset = mSize;
+            try {
+                file.seek(offset);
+                file.write(record);
+            } catch (IOException exp) {
+                truncate(offset);
+                throw exp;
+            }
+            mSize = offset + record.length;
+            return offset;
+        }
+
+        /**
+         * Used to drop everything after the given size.
+         *
+         * @param size Size to be kept.
+         */
+        void truncate(final long size) {
+            try {
+                open().setLength(size);
+            } catch (IOException exp) {
+                // Appends overwrite from the size anyway.
+            }
+            mSize = size;
+        }
+
+        /**
+         * Used to close & delete the segment file.
+         */
+        void delete() {
+            StreamRequest.closeQuietly(mRandomAccessFile);
+            mRandomAccessFile = null;
+            mFile.delete();
+        }
+
+        /**
+         * Used to get the open segment file.
+         *
+         * @return File opened for reads & writes.
+         * @throws IOException If the file can't be opened.
+         */
+        private RandomAccessFile open() throws IOException {
+            if (mRandomAccessFile == null) {
+                mRandomAccessFile = new RandomAccessFile(mFile, "rw");
+            }
+            return mRandomAccessFile;
+        }
+    }
+}
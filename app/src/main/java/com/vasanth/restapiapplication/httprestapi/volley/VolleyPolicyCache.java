@@ -0,0 +1,75 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Cache;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+/**
+ * Volley Policy Cache.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link Cache} given to the request queue, applies the {@link RequestOptions.CachePolicy} of the request being
+ * looked up to the entry returned by the underlying cache, see {@link VolleyRequest#applyCachePolicy(Cache.Entry)}.
+ * 1.b. Volley cache dispatcher doesn't pass the request to the cache, hence the request registers itself on the cache
+ * thread just before its lookup ("cache-queue-take" marker) using {@link #setLookupRequest(VolleyRequest)}.
+ * 1.c. Entries are never modified, policy returns an adjusted copy so other requests still see the stored expiry.
+ *
+ * @author Vasanth
+ */
+class VolleyPolicyCache implements Cache {
+
+    // Request whose lookup is next on the cache dispatcher thread.
+    private static final ThreadLocal<VolleyRequest<?>> LOOKUP_REQUEST = new ThreadLocal<VolleyRequest<?>>();
+
+    private final Cache mCache;
+
+    /**
+     * Constructor.
+     *
+     * @param cache Cache storing the entries.
+     */
+    VolleyPolicyCache(final Cache cache) {
+        this.mCache = cache;
+    }
+
+    /**
+     * Used to set the request whose lookup is next on the calling thread.
+     *
+     * @param request Request.
+     */
+    static void setLookupRequest(final VolleyRequest<?> request) {
+        LOOKUP_REQUEST.set(request);
+    }
+
+    @Override
+    public Entry get(final String key) {
+        VolleyRequest<?> request = LOOKUP_REQUEST.get();
+        LOOKUP_REQUEST.remove();
+        Entry entry = mCache.get(key);
+        return (request != null) ? request.applyCachePolicy(entry) : entry;
+    }
+
+    @Override
+    public void put(final String key, final Entry entry) {
+        mCache.put(key, entry);
+    }
+
+    @Override
+    public void initialize() {
+        mCache.initialize();
+    }
+
+    @Override
+    public void invalidate(final String key, final boolean fullExpire) {
+        mCache.invalidate(key, fullExpire);
+    }
+
+    @Override
+    public void remove(final String key) {
+        mCache.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        mCache.clear();
+    }
+}
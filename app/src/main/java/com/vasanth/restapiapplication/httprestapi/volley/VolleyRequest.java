@@ -0,0 +1,765 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Cache;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.ExecutorDelivery;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.ResponseDelivery;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientException;
+import com.vasanth.restapiapplication.httprestapi.HttpInterceptorChain;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpMetricsListener;
+import com.vasanth.restapiapplication.httprestapi.HttpRequestBody;
+import com.vasanth.restapiapplication.httprestapi.HttpRetryPolicy;
+import com.vasanth.restapiapplication.httprestapi.InterceptedRequest;
+import com.vasanth.restapiapplication.httprestapi.RequestMetrics;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Volley Request.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Base class for all the volley requests made by {@link VolleyHttpRestApiImpl}.
+ * 1.b. Holds request headers & body, decodes the response body on the network thread using
+ * {@link HttpClientApi.ResponseDecoder} & maps volley errors to {@link HttpClientApi.HttpResponseListener} error codes.
+ * 1.c. Retries failed attempts as per {@link HttpRetryPolicy}. Volley retries immediately on the network thread, hence
+ * volley retry is disabled & the request is added back to the queue after the backoff delay instead.
+ * 1.d. Negotiates gzip response compression & compresses in memory request bodies over the threshold set in
+ * {@link RequestOptions}, see {@link GzipCodec}. Other bodies (file, multipart) are streamed by {@link VolleyHurlStack}.
+ * 1.e. Times the request phases using volley markers & reports {@link RequestMetrics} to the {@link HttpMetricsListener}
+ * on the first delivery (a soft expired cache hit is reported as served from cache, its background refresh isn't).
+ * 1.f. Can also be executed on the calling thread using {@link #executeSync(VolleySingleton)}.
+ * 1.g. Applies {@link RequestOptions.CachePolicy} to the cached entry (see {@link VolleyPolicyCache}) & the max age
+ * override to the stored entry. Volley sends "If-None-Match" / "If-Modified-Since" for expired entries itself.
+ * 1.h. Tells {@link HttpClientApi.RequestFinishedListener} once the request is finished, since a cache hit needing
+ * refresh delivers twice (intermediate response & then the refreshed one).
+ *
+ * @param <T> Type of the decoded response.
+ * @author Vasanth
+ */
+class VolleyRequest<T> extends Request<T> {
+
+    // Charset used to decode the response if "Content-Type" header doesn't specify one (same as volley StringRequest).
+    static final String DEFAULT_RESPONSE_CHARSET = "ISO-8859-1";
+
+    // Response header used by the server to ask the client to wait before retrying.
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    // Volley markers used to time the request phases.
+    private static final String MARKER_ADD_TO_QUEUE = "add-to-queue";
+    private static final String MARKER_CACHE_QUEUE_TAKE = "cache-queue-take";
+    private static final String MARKER_CACHE_HIT = "cache-hit";
+    private static final String MARKER_CACHE_MISS = "cache-miss";
+    private static final String MARKER_CACHE_HIT_EXPIRED = "cache-hit-expired";
+    private static final String MARKER_NETWORK_QUEUE_TAKE = "network-queue-take";
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private String mIdentifier;
+    private Priority mPriority;
+    private HttpRetryPolicy mRetryPolicy;
+    private HttpMethod mHttpMethod;
+    private VolleySingleton mVolleySingleton;
+    private int mRetryCount;
+    private int mRequestCompressionThresholdBytes;
+    private RequestOptions.CachePolicy mCachePolicy;
+    private long mMaxAgeMs;
+    private long mMaxStaleMs;
+    private HttpClientApi.ResponseDecoder<T> mDecoder;
+    private HttpClientApi.TypedResponseListener<T> mListener;
+    private ResponseDelivery mResponseDelivery;
+    private Map<String, String> mHeaders;
+    private HttpRequestBody mBody;
+    // Headers & body as sent, created on first use.
+    private Map<String, String> mRequestHeaders;
+    private InterceptedRequest mInterceptedRequest;
+    private byte[] mEncodedBody;
+    private boolean mBodyCompressed;
+
+    // Metrics, phase times are System.nanoTime() of the current attempt, zero if the phase didn't happen.
+    private long mStartNs;
+    private long mEnqueuedNs;
+    private long mQueuedNs;
+    private long mCacheTakeNs;
+    private long mCacheDoneNs;
+    private long mNetworkTakeNs;
+    private boolean mFromCache;
+    private long mNetworkTimeMs = -1;
+    private long mParseTimeMs = -1;
+    private long mBytesIn;
+    private int mStatusCode;
+    private boolean mMetricsReported;
+    // Result of the current attempt, reported to the host limiter.
+    private int mAttemptResultCode;
+    private long mAttemptLatencyMs = -1;
+    // Set once the failed attempt is scheduled for retry, volley still finishes the attempt.
+    private boolean mRetryScheduled;
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param options    Request options.
+     * @param decoder    Decoder used to convert the response body into the model.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    VolleyRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                  final RequestOptions options, final HttpClientApi.ResponseDecoder<T> decoder,
+                  final HttpClientApi.TypedResponseListener<T> listener) {
+        // Errors are delivered by "deliverError", since volley drops the error listener once the request finishes.
+        super(toVolleyMethod(method), url, null);
+
+        setTag(identifier);
+        setShouldCache(options.shouldCache());
+        this.mIdentifier = identifier;
+        this.mPriority = toVolleyPriority(options.getPriority());
+        this.mHttpMethod = method;
+        this.mRetryPolicy = options.getRetryPolicy();
+        this.mRequestCompressionThresholdBytes = options.getRequestCompressionThresholdBytes();
+        this.mCachePolicy = options.getCachePolicy();
+        this.mMaxAgeMs = options.getMaxAgeMs();
+        this.mMaxStaleMs = options.getMaxStaleMs();
+        if (options.getDeliveryExecutor() != null) {
+            this.mResponseDelivery = new ExecutorDelivery(options.getDeliveryExecutor());
+        }
+        resetVolleyRetryPolicy();
+
+        this.mHeaders = headers;
+        this.mDecoder = decoder;
+        this.mListener = listener;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param identifier      Unique string to identify individual request.
+     * @param method          HTTP Request Method.
+     * @param headers         Request Headers.
+     * @param url             Request Url.
+     * @param body            Request Body.
+     * @param bodyContentType Request Body Content Type.
+     * @param options         Request options.
+     * @param decoder         Decoder used to convert the response body into the model.
+     * @param listener        Listener used to get callback on request completes.
+     */
+    VolleyRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url, final String body,
+                  final String bodyContentType, final RequestOptions options, final HttpClientApi.ResponseDecoder<T> decoder,
+                  final HttpClientApi.TypedResponseListener<T> listener) {
+        this(identifier, method, headers, url, (body != null) ? HttpRequestBody.create(body, bodyContentType) : null, options, decoder,
+                listener);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param identifier Unique string to identify individual request.
+     * @param method     HTTP Request Method.
+     * @param headers    Request Headers.
+     * @param url        Request Url.
+     * @param body       Request Body.
+     * @param options    Request options.
+     * @param decoder    Decoder used to convert the response body into the model.
+     * @param listener   Listener used to get callback on request completes.
+     */
+    VolleyRequest(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+                  final HttpRequestBody body, final RequestOptions options, final HttpClientApi.ResponseDecoder<T> decoder,
+                  final HttpClientApi.TypedResponseListener<T> listener) {
+        this(identifier, method, headers, url, options, decoder, listener);
+
+        this.mBody = body;
+    }
+
+    /**
+     * Returns a list of extra HTTP headers to go along with this request.
+     * <p>
+     * Runs the interceptors of the config (once per attempt), then adds "Accept-Encoding: gzip" unless given by the
+     * caller & "Content-Encoding: gzip" if the body is compressed.
+     *
+     * @return Headers.
+     * @throws AuthFailureError
+     */
+    @Override
+    public Map<String, String> getHeaders() throws AuthFailureError {
+        if (mRequestHeaders == null) {
+            Map<String, String> headers = new HashMap<String, String>();
+            HttpInterceptorChain interceptorChain = (mVolleySingleton != null) ? mVolleySingleton.getInterceptorChain() : null;
+            if (interceptorChain != null) {
+                mInterceptedRequest = interceptorChain.intercept(mIdentifier, mHttpMethod, getUrl(), mHeaders, mBody);
+                headers.putAll(mInterceptedRequest.getHeaders());
+            } else if (mHeaders != null) {
+                headers.putAll(mHeaders);
+            }
+            if (GzipCodec.getHeader(headers, GzipCodec.HEADER_ACCEPT_ENCODING) == null) {
+                headers.put(GzipCodec.HEADER_ACCEPT_ENCODING, GzipCodec.ENCODING_GZIP);
+            }
+            if (getEncodedBody() != null && mBodyCompressed) {
+                headers.put(GzipCodec.HEADER_CONTENT_ENCODING, GzipCodec.ENCODING_GZIP);
+            }
+            mRequestHeaders = headers;
+        }
+        return mRequestHeaders;
+    }
+
+    /**
+     * Used to get request body.
+     *
+     * @return Request body, gzip compressed if over the compression threshold. Null if the body is streamed.
+     * @throws AuthFailureError
+     */
+    @Override
+    public byte[] getBody() throws AuthFailureError {
+        return (mBody != null) ? getEncodedBody() : super.getBody();
+    }
+
+    /**
+     * Used to get request body content type.
+     *
+     * @return Request body content type.
+     */
+    @Override
+    public String getBodyContentType() {
+        return (mBody != null) ? mBody.getContentType() : super.getBodyContentType();
+    }
+
+    /**
+     * Used to get request priority, volley dispatches higher priority requests first.
+     *
+     * @return Priority.
+     */
+    @Override
+    public Priority getPriority() {
+        return mPriority;
+    }
+
+    /**
+     * Adds an event to this request's event log, also used to time the request phases.
+     *
+     * @param tag Marker.
+     */
+    @Override
+    public void addMarker(final String tag) {
+        super.addMarker(tag);
+
+        long now = System.nanoTime();
+        if (MARKER_ADD_TO_QUEUE.equals(tag)) {
+            // Queued by the singleton before waiting for its lane & host, directly by the synchronous execution.
+            mQueuedNs = (mEnqueuedNs != 0) ? mEnqueuedNs : now;
+            mEnqueuedNs = 0;
+            // Added again on every retry, only the first one starts the total time.
+            if (mStartNs == 0) {
+                mStartNs = mQueuedNs;
+            }
+            // Intercepted again, credentials may have changed since the last attempt.
+            resetHeaders();
+            mCacheTakeNs = 0;
+            mCacheDoneNs = 0;
+            mNetworkTakeNs = 0;
+            mFromCache = false;
+            mAttemptResultCode = 0;
+            mAttemptLatencyMs = -1;
+        } else if (MARKER_CACHE_QUEUE_TAKE.equals(tag)) {
+            mCacheTakeNs = now;
+            VolleyPolicyCache.setLookupRequest(this);
+        } else if (MARKER_CACHE_HIT.equals(tag)) {
+            mCacheDoneNs = now;
+            mFromCache = true;
+        } else if (MARKER_CACHE_MISS.equals(tag) || MARKER_CACHE_HIT_EXPIRED.equals(tag)) {
+            mCacheDoneNs = now;
+        } else if (MARKER_NETWORK_QUEUE_TAKE.equals(tag)) {
+            mNetworkTakeNs = now;
+            mFromCache = false;
+        }
+    }
+
+    /**
+     * Gets called on the network (or cache) thread, decodes the response body directly from bytes.
+     *
+     * @param response Network response.
+     * @return Decoded response OR parse error.
+     */
+    @Override
+    protected Response<T> parseNetworkResponse(final NetworkResponse response) {
+        long parseStartNs = System.nanoTime();
+        mStatusCode = response.statusCode;
+        mBytesIn = (response.data != null) ? response.data.length : 0;
+        mAttemptResultCode = response.statusCode;
+        if (!mFromCache) {
+            mNetworkTimeMs = response.networkTimeMs;
+            mAttemptLatencyMs = response.networkTimeMs;
+        }
+        try {
+            String charset = HttpHeaderParser.parseCharset(response.headers, DEFAULT_RESPONSE_CHARSET);
+            byte[] data = GzipCodec.isGzipEncoded(response.headers) ? GzipCodec.decompress(response.data) : response.data;
+            T decoded = decodeResponse(response, data, charset);
+            Cache.Entry cacheEntry = HttpHeaderParser.parseCacheHeaders(response);
+            if (cacheEntry != null && mMaxAgeMs != RequestOptions.MAX_AGE_FROM_RESPONSE) {
+                cacheEntry.softTtl = System.currentTimeMillis() + mMaxAgeMs;
+                cacheEntry.ttl = cacheEntry.softTtl;
+            }
+            return Response.success(decoded, cacheEntry);
+        } catch (Exception exp) {
+            return Response.error(new ParseError(exp));
+        } finally {
+            mParseTimeMs = (System.nanoTime() - parseStartNs) / NANOS_PER_MILLI;
+        }
+    }
+
+    /**
+     * Gets called on the delivery thread (main thread by default) with the decoded response.
+     *
+     * @param response Decoded response.
+     */
+    @Override
+    protected void deliverResponse(final T response) {
+        reportMetrics(true, mStatusCode);
+        if (mListener != null) {
+            mListener.onSuccessResponse(response);
+        }
+    }
+
+    /**
+     * Gets called on the delivery thread (main thread by default) on failure, either schedules a retry OR notifies the
+     * listener.
+     *
+     * @param error Error.
+     */
+    @Override
+    public void deliverError(final VolleyError error) {
+        if (hasHadResponseDelivered()) {
+            // Revalidation of the stale response already delivered failed, listener keeps the stale response.
+            return;
+        }
+        int errorCode = getErrorCode(error);
+        mAttemptResultCode = errorCode;
+        mAttemptLatencyMs = (mNetworkTakeNs != 0 && error.networkResponse != null) ? error.getNetworkTimeMs() : -1;
+        long delayMs = (mVolleySingleton != null) ? getRetryDelayMs(error, errorCode) : -1;
+        if (delayMs >= 0) {
+            mRetryCount++;
+            addMarker("retry-scheduled-" + mRetryCount);
+            resetVolleyRetryPolicy();
+            mRetryScheduled = true;
+            mVolleySingleton.scheduleRetry(this, delayMs);
+            return;
+        }
+
+        recordErrorMetrics(error);
+        reportMetrics(false, errorCode);
+        deliverErrorResponse(errorCode, error);
+    }
+
+    /**
+     * Gets called by volley once the request is finished (after the last delivery, OR without delivery if the refresh of
+     * the intermediate response is "304 Not Modified"), tells the listener unless the attempt is retried OR cancelled.
+     */
+    @Override
+    protected void onFinish() {
+        super.onFinish();
+        if (mRetryScheduled) {
+            // Delivery of the failed attempt finishes it, on the same thread.
+            mRetryScheduled = false;
+            return;
+        }
+        if (!isCanceled() && mListener instanceof HttpClientApi.RequestFinishedListener) {
+            ((HttpClientApi.RequestFinishedListener) mListener).onRequestFinished();
+        }
+    }
+
+    /**
+     * Gets called on the network (or cache) thread to decode the response body, uses the decoder of the request.
+     *
+     * @param response Network response.
+     * @param data     Response body, decompressed.
+     * @param charset  Charset of the response body.
+     * @return Decoded response.
+     * @throws Exception If the body can't be decoded.
+     */
+    T decodeResponse(final NetworkResponse response, final byte[] data, final String charset) throws Exception {
+        return mDecoder.decode(data, charset);
+    }
+
+    /**
+     * Gets called on the delivery thread to notify the listener of the failure, once retries are exhausted.
+     *
+     * @param errorCode Error code.
+     * @param error     Volley error, carries the error response if any.
+     */
+    void deliverErrorResponse(final int errorCode, final VolleyError error) {
+        if (mListener != null) {
+            mListener.onErrorResponse(errorCode);
+        }
+    }
+
+    /**
+     * Used to check whether the response being parsed OR delivered was served from cache without network call.
+     *
+     * @return True if served from cache.
+     */
+    boolean isFromCache() {
+        return mFromCache;
+    }
+
+    /**
+     * Used to execute the request on the calling thread & return the result directly, same as the cache & network
+     * dispatchers do but without the request queue & delivery executor. Retries sleep on the calling thread for the
+     * backoff delay.
+     *
+     * @param volleySingleton Volley singleton providing the network & cache.
+     * @return Decoded response.
+     * @throws HttpClientException If the request fails.
+     */
+    T executeSync(final VolleySingleton volleySingleton) throws HttpClientException {
+        this.mVolleySingleton = volleySingleton;
+        Cache cache = volleySingleton.getCache();
+        while (true) {
+            addMarker(MARKER_ADD_TO_QUEUE);
+            if (shouldCache()) {
+                addMarker(MARKER_CACHE_QUEUE_TAKE);
+                Cache.Entry entry = applyCachePolicy(cache.get(getCacheKey()));
+                if (entry == null) {
+                    addMarker(MARKER_CACHE_MISS);
+                } else if (entry.isExpired() || entry.refreshNeeded()) {
+                    // Stale response can't be delivered before the revalidated one, hence revalidated right away.
+                    addMarker(MARKER_CACHE_HIT_EXPIRED);
+                    // Used by the network to send conditional request headers.
+                    setCacheEntry(entry);
+                } else {
+                    addMarker(MARKER_CACHE_HIT);
+                    Response<T> response = parseNetworkResponse(new NetworkResponse(entry.data, entry.responseHeaders));
+                    if (response.isSuccess()) {
+                        reportMetrics(true, mStatusCode);
+                        return response.result;
+                    }
+                    // Unreadable cache entry, fetched again from the network.
+                }
+            }
+
+            addMarker(MARKER_NETWORK_QUEUE_TAKE);
+            VolleyError error;
+            try {
+                Response<T> response = parseNetworkResponse(volleySingleton.getNetwork().performRequest(this));
+                if (response.isSuccess()) {
+                    if (shouldCache() && response.cacheEntry != null) {
+                        cache.put(getCacheKey(), response.cacheEntry);
+                    }
+                    reportMetrics(true, mStatusCode);
+                    return response.result;
+                }
+                error = response.error;
+            } catch (VolleyError exp) {
+                error = parseNetworkError(exp);
+            }
+
+            int errorCode = getErrorCode(error);
+            long delayMs = getRetryDelayMs(error, errorCode);
+            if (delayMs < 0) {
+                recordErrorMetrics(error);
+                reportMetrics(false, errorCode);
+                throw new HttpClientException(errorCode, error);
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException exp) {
+                Thread.currentThread().interrupt();
+                throw new HttpClientException(HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR, exp);
+            }
+            mRetryCount++;
+            resetVolleyRetryPolicy();
+        }
+    }
+
+    /**
+     * Used to get the result of the current attempt, available once the response OR error is delivered.
+     *
+     * @return HTTP status code OR one of "HttpResponseListener.ERROR_CODE_*", zero if not known.
+     */
+    int getAttemptResultCode() {
+        return mAttemptResultCode;
+    }
+
+    /**
+     * Used to get the time taken by the network call of the current attempt.
+     *
+     * @return Time in milliseconds OR -1 if served from cache OR not known.
+     */
+    long getAttemptLatencyMs() {
+        return mAttemptLatencyMs;
+    }
+
+    /**
+     * Used to get the request as sent by the current attempt, available once its headers are obtained.
+     *
+     * @return Intercepted request OR null if the config has no interceptor.
+     */
+    InterceptedRequest getInterceptedRequest() {
+        return mInterceptedRequest;
+    }
+
+    /**
+     * Used to drop the headers of the current attempt, so the interceptors run again when the request is replayed.
+     */
+    void resetHeaders() {
+        mRequestHeaders = null;
+        mInterceptedRequest = null;
+    }
+
+    /**
+     * Gets called by {@link VolleySingleton} every time the request is queued (first attempt & retries), before it waits
+     * for its lane & host, so the queue wait includes those waits.
+     *
+     * @param volleySingleton Volley singleton, used to schedule retries.
+     */
+    void onQueued(final VolleySingleton volleySingleton) {
+        this.mVolleySingleton = volleySingleton;
+        this.mEnqueuedNs = System.nanoTime();
+    }
+
+    /**
+     * Used to apply the cache policy to the cached entry, gets called on the cache thread just before the entry is used.
+     *
+     * @param entry Cached entry, may be null.
+     * @return Entry as seen by the cache dispatcher (copy if the expiry is adjusted), null to go to the network without
+     * conditional headers.
+     */
+    Cache.Entry applyCachePolicy(final Cache.Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+        switch (mCachePolicy) {
+            case NETWORK_ONLY:
+                return null;
+            case FORCE_REVALIDATE:
+                // Expired entry is sent to the network with its validators.
+                return copyEntry(entry, 0, 0);
+            case CACHE_FIRST:
+                return copyEntry(entry, Long.MAX_VALUE, Long.MAX_VALUE);
+            case STALE_WHILE_REVALIDATE:
+                // Entry needing refresh is delivered as intermediate response & then revalidated by the network.
+                return (entry.isExpired() || entry.refreshNeeded()) ? copyEntry(entry, Long.MAX_VALUE, 0) : entry;
+            case DEFAULT:
+            default:
+                if (mMaxStaleMs > 0 && entry.isExpired() && System.currentTimeMillis() - entry.ttl < mMaxStaleMs) {
+                    return copyEntry(entry, Long.MAX_VALUE, Long.MAX_VALUE);
+                }
+                return entry;
+        }
+    }
+
+    /**
+     * Used to get the body which has to be streamed while sending, see {@link VolleyHurlStack}.
+     *
+     * @return Body OR null if the request has no body OR it's held in memory (sent using {@link #getBody()}).
+     */
+    HttpRequestBody getStreamedBody() {
+        return (mBody != null && mBody.getBytes() == null) ? mBody : null;
+    }
+
+    /**
+     * Used to get the delivery of the request's own executor, see {@link VolleyResponseDelivery}.
+     *
+     * @return Delivery OR null to use the default delivery.
+     */
+    ResponseDelivery getResponseDelivery() {
+        return mResponseDelivery;
+    }
+
+    /**
+     * Used to get the identifier the request was made with, unlike tag it never changes.
+     *
+     * @return Identifier.
+     */
+    String getRequestIdentifier() {
+        return mIdentifier;
+    }
+
+    /**
+     * Used to get the number of retries made.
+     *
+     * @return Retry count.
+     */
+    int getRetryCount() {
+        return mRetryCount;
+    }
+
+    /**
+     * Used to get the backoff delay before retrying the failed attempt.
+     *
+     * @param error     Error of the failed attempt.
+     * @param errorCode Error code of the failed attempt.
+     * @return Delay in milliseconds OR negative if the request shouldn't be retried.
+     */
+    private long getRetryDelayMs(final VolleyError error, final int errorCode) {
+        if (isCanceled() || !mRetryPolicy.shouldRetry(mHttpMethod, mRetryCount, errorCode)) {
+            return -1;
+        }
+        String retryAfter = (error.networkResponse != null && error.networkResponse.headers != null)
+                ? error.networkResponse.headers.get(HEADER_RETRY_AFTER) : null;
+        return mRetryPolicy.getRetryDelayMs(mRetryCount, HttpRetryPolicy.parseRetryAfter(retryAfter, System.currentTimeMillis()));
+    }
+
+    /**
+     * Used to copy the cache entry with the given expiry.
+     *
+     * @param entry   Entry.
+     * @param ttl     Time at which the copy expires.
+     * @param softTtl Time at which the copy needs refresh.
+     * @return Copy.
+     */
+    private static Cache.Entry copyEntry(final Cache.Entry entry, final long ttl, final long softTtl) {
+        Cache.Entry copy = new Cache.Entry();
+        copy.data = entry.data;
+        copy.etag = entry.etag;
+        copy.serverDate = entry.serverDate;
+        copy.lastModified = entry.lastModified;
+        copy.responseHeaders = entry.responseHeaders;
+        copy.ttl = ttl;
+        copy.softTtl = softTtl;
+        return copy;
+    }
+
+    /**
+     * Used to record the response size & network time of the failed request.
+     *
+     * @param error Error.
+     */
+    private void recordErrorMetrics(final VolleyError error) {
+        if (error.networkResponse != null) {
+            mBytesIn = (error.networkResponse.data != null) ? error.networkResponse.data.length : 0;
+        }
+        if (mNetworkTakeNs != 0) {
+            mNetworkTimeMs = error.getNetworkTimeMs();
+        }
+    }
+
+    /**
+     * Used to get the body as sent, encoded once & reused by retries.
+     *
+     * @return Encoded body OR null if the request has no body OR it's streamed.
+     */
+    private byte[] getEncodedBody() {
+        byte[] body = (mEncodedBody == null && mBody != null) ? mBody.getBytes() : null;
+        if (body != null) {
+            if (mRequestCompressionThresholdBytes != RequestOptions.REQUEST_COMPRESSION_DISABLED
+                    && body.length >= mRequestCompressionThresholdBytes) {
+                try {
+                    body = GzipCodec.compress(body);
+                    mBodyCompressed = true;
+                } catch (IOException exp) {
+                    // Sent uncompressed.
+                }
+            }
+            mEncodedBody = body;
+        }
+        return mEncodedBody;
+    }
+
+    /**
+     * Used to report the metrics of the request to the metrics listener, only once per request.
+     *
+     * @param success    True if the request succeeded.
+     * @param statusCode HTTP status code on success OR error code on failure.
+     */
+    private void reportMetrics(final boolean success, final int statusCode) {
+        HttpMetricsListener metricsListener = (mVolleySingleton != null) ? mVolleySingleton.getMetricsListener() : null;
+        if (metricsListener == null || mMetricsReported || mStartNs == 0) {
+            return;
+        }
+        mMetricsReported = true;
+
+        long now = System.nanoTime();
+        long queueWaitNs = 0;
+        if (mCacheTakeNs != 0) {
+            queueWaitNs += mCacheTakeNs - mQueuedNs;
+        }
+        if (mNetworkTakeNs != 0) {
+            queueWaitNs += mNetworkTakeNs - ((mCacheDoneNs != 0) ? mCacheDoneNs : mQueuedNs);
+        }
+        long cacheLookupMs = (mCacheTakeNs != 0 && mCacheDoneNs != 0) ? (mCacheDoneNs - mCacheTakeNs) / NANOS_PER_MILLI : -1;
+        long bytesOut = (getEncodedBody() != null) ? getEncodedBody().length : (mBody != null) ? mBody.getContentLength() : 0;
+        metricsListener.onRequestMetrics(new RequestMetrics(mIdentifier, mHttpMethod, getUrl(), success, statusCode, mFromCache,
+                queueWaitNs / NANOS_PER_MILLI, cacheLookupMs, mFromCache ? -1 : mNetworkTimeMs, mParseTimeMs,
+                (now - mStartNs) / NANOS_PER_MILLI, mBytesIn, bytesOut, mRetryCount));
+    }
+
+    /**
+     * Used to set a fresh volley retry policy, volley policy only applies the timeout & never retries by itself.
+     */
+    private void resetVolleyRetryPolicy() {
+        setRetryPolicy(new DefaultRetryPolicy(mRetryPolicy.getTimeoutMs(), 0, HttpClientApi.DEFAULT_REQUEST_BACKOFF_MULTIPLIER));
+    }
+
+    /**
+     * Used to map {@link HttpMethod} to volley request method.
+     *
+     * @param method HTTP method.
+     * @return Volley request method.
+     */
+    static int toVolleyMethod(final HttpMethod method) {
+        switch (method) {
+            case POST:
+                return Method.POST;
+            case PUT:
+                return Method.PUT;
+            case DELETE:
+                return Method.DELETE;
+            case GET:
+            default:
+                return Method.GET;
+        }
+    }
+
+    /**
+     * Used to map {@link RequestOptions.Priority} to volley request priority.
+     *
+     * @param priority Priority.
+     * @return Volley request priority.
+     */
+    static Priority toVolleyPriority(final RequestOptions.Priority priority) {
+        switch (priority) {
+            case LOW:
+                return Priority.LOW;
+            case HIGH:
+                return Priority.HIGH;
+            case IMMEDIATE:
+                return Priority.IMMEDIATE;
+            case NORMAL:
+            default:
+                return Priority.NORMAL;
+        }
+    }
+
+    /**
+     * Used to map the volley error to {@link HttpClientApi.HttpResponseListener} error code.
+     *
+     * @param error Volley error.
+     * @return Error code.
+     */
+    static int getErrorCode(final VolleyError error) {
+        if (error instanceof CircuitOpenError) {
+            return HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN;
+        } else if (error instanceof NetworkError) {
+            return HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR;
+        } else if (error instanceof TimeoutError) {
+            return HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR;
+        } else if (error instanceof ParseError && error.networkResponse == null) {
+            return HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR;
+        } else {
+            return (error.networkResponse != null) ? error.networkResponse.statusCode : HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR;
+        }
+    }
+}
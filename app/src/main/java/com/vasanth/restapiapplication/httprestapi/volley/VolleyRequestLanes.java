@@ -0,0 +1,204 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.vasanth.restapiapplication.httprestapi.HostLimiter;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Volley Request Lanes.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Limits the number of requests with the same identifier running in the request queue at the same time.
+ * 1.b. Requests over the limit wait in their lane ordered by priority (then by arrival) & are added to the
+ * request queue once a running request of the lane finishes.
+ * 1.c. Requests with identifiers without a limit go to the request queue directly.
+ * 1.d. Admitted requests pass through the {@link HostLimiter} (if hosts are limited) before reaching the request queue.
+ *
+ * @author Vasanth
+ */
+class VolleyRequestLanes implements RequestQueue.RequestFinishedListener<Object> {
+
+    private final RequestQueue mRequestQueue;
+    private final HostLimiter<VolleyRequest<?>> mHostLimiter;
+    private final Map<String, Lane> mLanes = new HashMap<String, Lane>();
+    private long mArrivalCounter;
+
+    /**
+     * Constructor.
+     *
+     * @param requestQueue Request queue to which admitted requests are added.
+     * @param hostLimiter  Host limiter through which admitted requests are added, null if hosts are not limited.
+     */
+    VolleyRequestLanes(final RequestQueue requestQueue, final HostLimiter<VolleyRequest<?>> hostLimiter) {
+        this.mRequestQueue = requestQueue;
+        this.mHostLimiter = hostLimiter;
+        mRequestQueue.addRequestFinishedListener(this);
+    }
+
+    /**
+     * Used to set the maximum number of requests with the given identifier running at the same time.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    void setMaxConcurrentRequests(final String identifier, final int maxConcurrentRequests) {
+        synchronized (this) {
+            Lane lane = mLanes.get(identifier);
+            if (lane == null) {
+                if (maxConcurrentRequests <= 0) {
+                    return;
+                }
+                lane = new Lane();
+                mLanes.put(identifier, lane);
+            }
+            lane.mMaxConcurrentRequests = (maxConcurrentRequests > 0) ? maxConcurrentRequests : Integer.MAX_VALUE;
+        }
+        drain(identifier);
+    }
+
+    /**
+     * Used to add the request to the request queue OR to its lane if the lane is full.
+     *
+     * @param request Request.
+     */
+    void add(final VolleyRequest<?> request) {
+        synchronized (this) {
+            Lane lane = mLanes.get(request.getRequestIdentifier());
+            if (lane != null) {
+                if (lane.mRunning.size() >= lane.mMaxConcurrentRequests) {
+                    lane.mPending.add(new PendingRequest(request, mArrivalCounter++));
+                    return;
+                }
+                lane.mRunning.add(request);
+            }
+        }
+        dispatch(request);
+    }
+
+    /**
+     * Used to cancel the waiting requests with the given tag.
+     *
+     * @param tag Tag of the requests to be canceled.
+     */
+    synchronized void cancelAll(final Object tag) {
+        for (Lane lane : mLanes.values()) {
+            Iterator<PendingRequest> iterator = lane.mPending.iterator();
+            while (iterator.hasNext()) {
+                VolleyRequest<?> request = iterator.next().mRequest;
+                if (tag.equals(request.getTag())) {
+                    request.cancel();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets called once a request in the request queue finishes, frees a slot in its lane.
+     *
+     * @param request Finished request.
+     */
+    @Override
+    public void onRequestFinished(final Request<Object> request) {
+        if (!(request instanceof VolleyRequest)) {
+            return;
+        }
+        String identifier = ((VolleyRequest<?>) request).getRequestIdentifier();
+        synchronized (this) {
+            Lane lane = mLanes.get(identifier);
+            if (lane == null || !lane.mRunning.remove(request)) {
+                return;
+            }
+        }
+        drain(identifier);
+    }
+
+    /**
+     * Used to add the waiting requests of the lane to the request queue while the lane has free slots.
+     *
+     * @param identifier Identifier of the lane.
+     */
+    private void drain(final String identifier) {
+        while (true) {
+            VolleyRequest<?> next;
+            synchronized (this) {
+                Lane lane = mLanes.get(identifier);
+                if (lane == null || lane.mPending.isEmpty() || lane.mRunning.size() >= lane.mMaxConcurrentRequests) {
+                    return;
+                }
+                next = lane.mPending.poll().mRequest;
+                lane.mRunning.add(next);
+            }
+            dispatch(next);
+        }
+    }
+
+    /**
+     * Used to add the admitted request to the request queue, through the host limiter if hosts are limited.
+     *
+     * @param request Request.
+     */
+    private void dispatch(final VolleyRequest<?> request) {
+        if (mHostLimiter != null) {
+            mHostLimiter.add(request.getUrl(), request);
+        } else {
+            mRequestQueue.add(request);
+        }
+    }
+
+    /**
+     * Lane.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the running & waiting requests of an identifier.
+     */
+    private static class Lane {
+
+        private int mMaxConcurrentRequests;
+        private final Set<Request<?>> mRunning = new HashSet<Request<?>>();
+        private final PriorityQueue<PendingRequest> mPending = new PriorityQueue<PendingRequest>(11, PendingRequest.COMPARATOR);
+    }
+
+    /**
+     * Pending Request.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Request waiting in a lane along with its arrival order, used to keep requests of same priority in order.
+     */
+    private static class PendingRequest {
+
+        // Higher priority first, then earlier arrival first.
+        private static final Comparator<PendingRequest> COMPARATOR = new Comparator<PendingRequest>() {
+            @Override
+            public int compare(final PendingRequest left, final PendingRequest right) {
+                int priorityCompare = right.mRequest.getPriority().ordinal() - left.mRequest.getPriority().ordinal();
+                if (priorityCompare != 0) {
+                    return priorityCompare;
+                }
+                return (left.mArrival < right.mArrival) ? -1 : ((left.mArrival == right.mArrival) ? 0 : 1);
+            }
+        };
+
+        private final VolleyRequest<?> mRequest;
+        private final long mArrival;
+
+        /**
+         * Constructor.
+         *
+         * @param request Request.
+         * @param arrival Arrival order.
+         */
+        PendingRequest(final VolleyRequest<?> request, final long arrival) {
+            this.mRequest = request;
+            this.mArrival = arrival;
+        }
+    }
+}
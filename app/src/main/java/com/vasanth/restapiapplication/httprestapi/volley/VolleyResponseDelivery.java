@@ -0,0 +1,60 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.ExecutorDelivery;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.ResponseDelivery;
+import com.android.volley.VolleyError;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Volley Response Delivery.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Response delivery of the request queue, delivers every response on the executor chosen by the request
+ * (see {@link VolleyRequest#getResponseDelivery()}) OR on the default executor of the http client.
+ * 1.b. Delivery itself is done by volley {@link ExecutorDelivery}, so cancellation & intermediate responses (soft
+ * expired cache hits) behave the same as the default volley delivery.
+ *
+ * @author Vasanth
+ */
+class VolleyResponseDelivery implements ResponseDelivery {
+
+    private final ResponseDelivery mDefaultDelivery;
+
+    /**
+     * Constructor.
+     *
+     * @param defaultExecutor Executor used for requests which don't set their own executor.
+     */
+    VolleyResponseDelivery(final Executor defaultExecutor) {
+        this.mDefaultDelivery = new ExecutorDelivery(defaultExecutor);
+    }
+
+    @Override
+    public void postResponse(final Request<?> request, final Response<?> response) {
+        getDelivery(request).postResponse(request, response);
+    }
+
+    @Override
+    public void postResponse(final Request<?> request, final Response<?> response, final Runnable runnable) {
+        getDelivery(request).postResponse(request, response, runnable);
+    }
+
+    @Override
+    public void postError(final Request<?> request, final VolleyError error) {
+        getDelivery(request).postError(request, error);
+    }
+
+    /**
+     * Used to get the delivery used for the request.
+     *
+     * @param request Request.
+     * @return Delivery of the request OR the default delivery.
+     */
+    private ResponseDelivery getDelivery(final Request<?> request) {
+        ResponseDelivery delivery = (request instanceof VolleyRequest) ? ((VolleyRequest<?>) request).getResponseDelivery() : null;
+        return (delivery != null) ? delivery : mDefaultDelivery;
+    }
+}
@@ -1,10 +1,29 @@
 package com.vasanth.restapiapplication.httprestapi.volley;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 
+import com.android.volley.Network;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.Volley;
+import com.android.volley.toolbox.BasicNetwork;
+import com.vasanth.restapiapplication.httprestapi.CircuitBreaker;
+import com.vasanth.restapiapplication.httprestapi.DeliveryExecutors;
+import com.vasanth.restapiapplication.httprestapi.HostLimitPolicy;
+import com.vasanth.restapiapplication.httprestapi.HostLimiter;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.HttpInterceptorChain;
+import com.vasanth.restapiapplication.httprestapi.HttpMetricsListener;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Volley Singleton.
@@ -12,24 +31,118 @@ import com.android.volley.toolbox.Volley;
  * 1. Responsibility.
  * 1.a. Singleton class used to provide single instance volley components.
  * 1.b. Provides "Request Queue" & allows as to add "Request" to the queue.
+ * 1.c. Provides "Stream Executor" used to run {@link StreamRequest} which can't go through the request queue.
+ * 1.d. Adds failed requests back to the queue after their retry backoff.
+ * 1.e. Applies per identifier concurrency limits using {@link VolleyRequestLanes}.
+ * 1.f. Holds the metrics listener to which requests report their metrics.
+ * 1.g. Delivers responses on the delivery executor of the config (main thread by default) OR of the request.
+ * 1.h. Request queue reads the cache through {@link VolleyPolicyCache}, so every request applies its own cache policy.
+ * Disk tier is {@link VolleyDiskBasedCache} OR {@link VolleyLogCache}, as per the cache storage of the config.
+ * 1.i. Applies per host rate & concurrency limits of the config using {@link HostLimiter}, requests are limited before
+ * the cache lookup since volley does it inside the request queue.
+ * 1.j. Network calls (also of stream requests) go through the {@link CircuitBreaker} of their url, if the config has
+ * circuit breaker policies.
+ * 1.k. Runs the interceptors of the config before every network call (also of stream requests) & replays the request
+ * once if an authenticator handles its "401" response, see {@link VolleyInterceptorNetwork}.
  *
  * @author Vasanth
  */
 class VolleySingleton {
 
+    // Number of threads used to run stream requests, if config doesn't provide an executor.
+    private static final int STREAM_THREAD_POOL_SIZE = 2;
+
     private static VolleySingleton mInstance;
+
     private RequestQueue mRequestQueue;
+    private Network mNetwork;
+    private VolleyRequestLanes mRequestLanes;
+    private HostLimiter<VolleyRequest<?>> mHostLimiter;
+    private CircuitBreaker.Registry mCircuitBreakers;
+    private HttpInterceptorChain mInterceptorChain;
+    private VolleyTieredCache mCache;
+    private ExecutorService mStreamExecutor;
+    private final Set<StreamRequest> mStreamRequests = Collections.synchronizedSet(new HashSet<StreamRequest>());
+    // Requests waiting for their retry backoff.
+    private final Set<VolleyRequest<?>> mRetryRequests = Collections.synchronizedSet(new HashSet<VolleyRequest<?>>());
+    private Executor mDeliveryExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private volatile HttpMetricsListener mMetricsListener;
 
     /**
      * Constructor.
      *
      * @param context Application Context.
+     * @param config  Config used to size the request queue & cache.
      */
-    private VolleySingleton(final Context context) {
+    private VolleySingleton(final Context context, final HttpClientConfig config) {
         // getApplicationContext() is key, it keeps you from leaking the
         // Activity or BroadcastReceiver if someone passes one in.
-        mRequestQueue = Volley.newRequestQueue(context.getApplicationContext());
+        File cacheDirectory = config.getCacheDirectory();
+        if (cacheDirectory == null) {
+            cacheDirectory = new File(context.getApplicationContext().getCacheDir(), HttpClientConfig.DEFAULT_CACHE_DIRECTORY_NAME);
+        }
+
+        // Same as Volley.newRequestQueue(), but with configurable cache & thread pool size.
+        VolleyListableCache diskCache = (config.getCacheStorage() == HttpClientConfig.CacheStorage.SEGMENTED_LOG)
+                ? new VolleyLogCache(cacheDirectory, config.getCacheSizeBytes())
+                : new VolleyDiskBasedCache(cacheDirectory, config.getCacheSizeBytes());
+        mCache = new VolleyTieredCache(diskCache, config.getMemoryCacheSizeBytes());
+        mNetwork = new BasicNetwork(new VolleyHurlStack());
+        mInterceptorChain = HttpInterceptorChain.fromConfig(config);
+        if (mInterceptorChain != null) {
+            mNetwork = new VolleyInterceptorNetwork(mNetwork, mInterceptorChain);
+        }
+        mCircuitBreakers = CircuitBreaker.Registry.fromConfig(config);
+        if (mCircuitBreakers != null) {
+            mNetwork = new VolleyCircuitBreakerNetwork(mNetwork, mCircuitBreakers);
+        }
+        mDeliveryExecutor = (config.getDeliveryExecutor() != null) ? config.getDeliveryExecutor() : DeliveryExecutors.mainThread();
+        mRequestQueue = new RequestQueue(new VolleyPolicyCache(mCache), mNetwork, config.getThreadPoolSize(),
+                new VolleyResponseDelivery(mDeliveryExecutor));
+        mRequestQueue.start();
+        if (config.getHostLimitPolicy() != null) {
+            mHostLimiter = createHostLimiter(config.getHostLimitPolicy());
+        }
+        mRequestLanes = new VolleyRequestLanes(mRequestQueue, mHostLimiter);
 
+        mStreamExecutor = (config.getExecutorService() != null) ? config.getExecutorService() : Executors.newFixedThreadPool(STREAM_THREAD_POOL_SIZE);
+    }
+
+    /**
+     * Used to create the host limiter adding the admitted requests to the request queue, every finished request frees
+     * its slot.
+     *
+     * @param policy Host limit policy.
+     * @return Host limiter.
+     */
+    private HostLimiter<VolleyRequest<?>> createHostLimiter(final HostLimitPolicy policy) {
+        final HostLimiter<VolleyRequest<?>> hostLimiter = new HostLimiter<VolleyRequest<?>>(policy, new Comparator<VolleyRequest<?>>() {
+            @Override
+            public int compare(final VolleyRequest<?> left, final VolleyRequest<?> right) {
+                return right.getPriority().ordinal() - left.getPriority().ordinal();
+            }
+        }, new HostLimiter.Callback<VolleyRequest<?>>() {
+            @Override
+            public void dispatch(final VolleyRequest<?> request) {
+                mRequestQueue.add(request);
+            }
+
+            @Override
+            public boolean isCanceled(final VolleyRequest<?> request) {
+                return request.isCanceled();
+            }
+        });
+        mRequestQueue.addRequestFinishedListener(new RequestQueue.RequestFinishedListener<Object>() {
+            @Override
+            public void onRequestFinished(final Request<Object> request) {
+                if (request instanceof VolleyRequest) {
+                    VolleyRequest<?> volleyRequest = (VolleyRequest<?>) request;
+                    hostLimiter.onFinished(volleyRequest, volleyRequest.getAttemptResultCode(), volleyRequest.getAttemptLatencyMs());
+                }
+            }
+        });
+        return hostLimiter;
     }
 
     /**
@@ -39,8 +152,21 @@ class VolleySingleton {
      * @return Singleton instance of VolleySingleton.
      */
     static synchronized VolleySingleton getInstance(Context context) {
+        return getInstance(context, HttpClientConfig.getDefault());
+    }
+
+    /**
+     * Used to singleton instance of VolleySingleton.
+     * <p>
+     * Config is used only when the instance gets created by this call.
+     *
+     * @param context Context.
+     * @param config  Config used to size the request queue & cache.
+     * @return Singleton instance of VolleySingleton.
+     */
+    static synchronized VolleySingleton getInstance(Context context, HttpClientConfig config) {
         if (mInstance == null) {
-            mInstance = new VolleySingleton(context);
+            mInstance = new VolleySingleton(context, config);
         }
         return mInstance;
     }
@@ -54,13 +180,159 @@ class VolleySingleton {
         return mRequestQueue;
     }
 
+    /**
+     * Used to get the network used by the request queue, also used to execute requests on the calling thread.
+     *
+     * @return Network.
+     */
+    Network getNetwork() {
+        return mNetwork;
+    }
+
+    /**
+     * Used to get the interceptors run before every network call.
+     *
+     * @return Interceptor chain OR null if the config has no interceptor.
+     */
+    HttpInterceptorChain getInterceptorChain() {
+        return mInterceptorChain;
+    }
+
+    /**
+     * Used to get the cache used by the request queue.
+     *
+     * @return Tiered (memory & disk) cache.
+     */
+    VolleyTieredCache getCache() {
+        return mCache;
+    }
+
+    /**
+     * Used to set the listener to which requests report their metrics.
+     *
+     * @param metricsListener Metrics listener, null to stop reporting.
+     */
+    void setMetricsListener(final HttpMetricsListener metricsListener) {
+        this.mMetricsListener = metricsListener;
+    }
+
+    /**
+     * Used to get the listener to which requests report their metrics.
+     *
+     * @return Metrics listener OR null.
+     */
+    HttpMetricsListener getMetricsListener() {
+        return mMetricsListener;
+    }
+
+    /**
+     * Used to run the given task on the background executor.
+     *
+     * @param task Task to be executed.
+     */
+    void executeInBackground(final Runnable task) {
+        mStreamExecutor.execute(task);
+    }
+
     /**
      * Used to add the request to the request queue.
      *
      * @param request Request to be added to the queue.
      */
-    <T> void addToRequestQueue(Request<T> request) {
-        getRequestQueue().add(request);
+    <T> void addToRequestQueue(VolleyRequest<T> request) {
+        request.onQueued(this);
+        mRequestLanes.add(request);
+    }
+
+    /**
+     * Used to limit the number of requests with the given identifier running at the same time.
+     *
+     * @param identifier            Identifier of the requests.
+     * @param maxConcurrentRequests Maximum requests running at the same time, zero OR less removes the limit.
+     */
+    void setMaxConcurrentRequests(final String identifier, final int maxConcurrentRequests) {
+        mRequestLanes.setMaxConcurrentRequests(identifier, maxConcurrentRequests);
     }
 
+    /**
+     * Used to add the failed request back to the request queue after the given delay.
+     *
+     * @param request Request to be retried.
+     * @param delayMs Delay in milliseconds.
+     */
+    <T> void scheduleRetry(final VolleyRequest<T> request, final long delayMs) {
+        mRetryRequests.add(request);
+        mMainHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                if (mRetryRequests.remove(request) && !request.isCanceled()) {
+                    addToRequestQueue(request);
+                }
+            }
+        }, delayMs);
+    }
+
+    /**
+     * Used to run the stream request on the stream executor.
+     *
+     * @param request Stream request to be executed.
+     */
+    void addToStreamExecutor(final StreamRequest request) {
+        request.setDeliveryExecutor(mDeliveryExecutor);
+        request.setInterceptorChain(mInterceptorChain);
+        if (mCircuitBreakers != null) {
+            request.setCircuitBreaker(mCircuitBreakers.get(request.getUrl()));
+        }
+        mStreamRequests.add(request);
+        mStreamExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    request.run();
+                } finally {
+                    mStreamRequests.remove(request);
+                }
+            }
+        });
+    }
+
+    /**
+     * Used to cancel all the requests (queued, waiting for their host & streaming) with the given tag.
+     * <p>
+     * Tags are compared using "equals" (request queue's "cancelAll(Object)" compares references), since identifiers
+     * built at runtime (like by "RequestScope") are equal but not the same instance.
+     *
+     * @param tag Tag of the requests to be canceled.
+     */
+    void cancelAll(final Object tag) {
+        getRequestQueue().cancelAll(new RequestQueue.RequestFilter() {
+            @Override
+            public boolean apply(final Request<?> request) {
+                return tag.equals(request.getTag());
+            }
+        });
+        mRequestLanes.cancelAll(tag);
+        if (mHostLimiter != null) {
+            for (VolleyRequest<?> request : mHostLimiter.getPendingRequests()) {
+                if (tag.equals(request.getTag())) {
+                    request.cancel();
+                }
+            }
+            mHostLimiter.dispatchCanceled();
+        }
+        synchronized (mRetryRequests) {
+            for (VolleyRequest<?> request : mRetryRequests) {
+                if (tag.equals(request.getTag())) {
+                    request.cancel();
+                }
+            }
+        }
+        synchronized (mStreamRequests) {
+            for (StreamRequest request : mStreamRequests) {
+                if (tag.equals(request.getIdentifier())) {
+                    request.cancel();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,251 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Cache;
+import com.vasanth.restapiapplication.httprestapi.HttpCacheStats;
+import com.vasanth.restapiapplication.httprestapi.UrlPrefix;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Volley Tiered Cache.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link Cache} implementation which keeps recently used entries in memory in front of the disk cache.
+ * 1.b. Memory tier is a least recently used map bounded by the total size of the entries in bytes, so hot
+ * responses are served without opening a file on the cache dispatcher thread.
+ * 1.c. Allows to invalidate all the entries whose key (url) matches a given prefix (see {@link UrlPrefix}), disk
+ * entries are found by listing the keys of the {@link VolleyListableCache}, so the entries stored by an earlier process
+ * are invalidated too.
+ * 1.d. Memory tier has its own lock & disk IO is done outside of it, so memory reads & invalidation (on main thread)
+ * never wait for the disk cache (initialization, file reads & writes).
+ *
+ * @author Vasanth
+ */
+class VolleyTieredCache implements Cache {
+
+    // Approximate per entry overhead (object headers, fields & map node) added to the body size.
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final VolleyListableCache mDiskCache;
+    private final long mMaxSizeBytes;
+
+    // Guards the memory tier, never held during disk IO.
+    private final Object mMemoryLock = new Object();
+
+    // Access ordered map, iteration starts from least recently used entry.
+    private final LinkedHashMap<String, MemoryEntry> mMemoryCache = new LinkedHashMap<String, MemoryEntry>(16, 0.75f, true);
+
+    private long mSizeBytes;
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+    // Incremented whenever entries are removed, a disk read started before it doesn't re-populate the memory tier.
+    private long mRemovalCount;
+
+    /**
+     * Constructor.
+     *
+     * @param diskCache    Disk cache used when the entry is not available in memory.
+     * @param maxSizeBytes Maximum size of the memory tier in bytes, zero disables the memory tier.
+     */
+    VolleyTieredCache(final VolleyListableCache diskCache, final long maxSizeBytes) {
+        this.mDiskCache = diskCache;
+        this.mMaxSizeBytes = maxSizeBytes;
+    }
+
+    @Override
+    public Entry get(final String key) {
+        long removalCount;
+        synchronized (mMemoryLock) {
+            MemoryEntry memoryEntry = mMemoryCache.get(key);
+            if (memoryEntry != null) {
+                mHitCount++;
+                return memoryEntry.mEntry;
+            }
+            mMissCount++;
+            removalCount = mRemovalCount;
+        }
+
+        Entry entry = mDiskCache.get(key);
+        if (entry != null) {
+            synchronized (mMemoryLock) {
+                if (removalCount == mRemovalCount) {
+                    putInMemory(key, entry);
+                }
+            }
+        }
+        return entry;
+    }
+
+    @Override
+    public void put(final String key, final Entry entry) {
+        mDiskCache.put(key, entry);
+        synchronized (mMemoryLock) {
+            putInMemory(key, entry);
+        }
+    }
+
+    @Override
+    public void initialize() {
+        mDiskCache.initialize();
+    }
+
+    @Override
+    public void invalidate(final String key, final boolean fullExpire) {
+        mDiskCache.invalidate(key, fullExpire);
+        synchronized (mMemoryLock) {
+            MemoryEntry memoryEntry = mMemoryCache.get(key);
+            if (memoryEntry != null) {
+                memoryEntry.mEntry.softTtl = 0;
+                if (fullExpire) {
+                    memoryEntry.mEntry.ttl = 0;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(final String key) {
+        mDiskCache.remove(key);
+        synchronized (mMemoryLock) {
+            removeFromMemory(key);
+            mRemovalCount++;
+        }
+    }
+
+    @Override
+    public void clear() {
+        mDiskCache.clear();
+        synchronized (mMemoryLock) {
+            mMemoryCache.clear();
+            mSizeBytes = 0;
+            mRemovalCount++;
+        }
+    }
+
+    /**
+     * Used to remove all the memory entries whose key matches the given prefix, doesn't wait for the disk cache.
+     *
+     * @param keyPrefix Key (url) prefix, disk entries are removed later using {@link #removeFromDisk(String)}.
+     */
+    void invalidateMemory(final String keyPrefix) {
+        synchronized (mMemoryLock) {
+            Iterator<Map.Entry<String, MemoryEntry>> iterator = mMemoryCache.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, MemoryEntry> memoryEntry = iterator.next();
+                if (UrlPrefix.matches(memoryEntry.getKey(), keyPrefix)) {
+                    mSizeBytes -= memoryEntry.getValue().mSizeBytes;
+                    iterator.remove();
+                }
+            }
+            mRemovalCount++;
+        }
+    }
+
+    /**
+     * Used to remove all the disk entries whose key matches the given prefix, does file IO hence must not be called on
+     * main thread.
+     * <p>
+     * Entries are removed from memory again, in case they got re-populated from disk in between.
+     *
+     * @param keyPrefix Key (url) prefix.
+     */
+    void removeFromDisk(final String keyPrefix) {
+        for (String key : mDiskCache.getKeys()) {
+            if (UrlPrefix.matches(key, keyPrefix)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Used to get the memory tier stats.
+     *
+     * @return Stats.
+     */
+    HttpCacheStats getStats() {
+        synchronized (mMemoryLock) {
+            return new HttpCacheStats(mHitCount, mMissCount, mEvictionCount, mSizeBytes, mMaxSizeBytes, mMemoryCache.size());
+        }
+    }
+
+    /**
+     * Used to put the entry in memory tier & evict least recently used entries to stay within the size limit, called holding the memory lock.
+     *
+     * @param key   Key.
+     * @param entry Entry.
+     */
+    private void putInMemory(final String key, final Entry entry) {
+        removeFromMemory(key);
+
+        long size = sizeOf(entry);
+        if (size > mMaxSizeBytes) {
+            // Too large to be kept in memory, served from disk only.
+            return;
+        }
+
+        mMemoryCache.put(key, new MemoryEntry(entry, size));
+        mSizeBytes += size;
+
+        Iterator<MemoryEntry> iterator = mMemoryCache.values().iterator();
+        while (mSizeBytes > mMaxSizeBytes && iterator.hasNext()) {
+            mSizeBytes -= iterator.next().mSizeBytes;
+            iterator.remove();
+            mEvictionCount++;
+        }
+    }
+
+    /**
+     * Used to remove the entry from memory tier, called holding the memory lock.
+     *
+     * @param key Key.
+     */
+    private void removeFromMemory(final String key) {
+        MemoryEntry previous = mMemoryCache.remove(key);
+        if (previous != null) {
+            mSizeBytes -= previous.mSizeBytes;
+        }
+    }
+
+    /**
+     * Used to get approximate size of the entry in bytes.
+     *
+     * @param entry Entry.
+     * @return Size in bytes.
+     */
+    private static long sizeOf(final Entry entry) {
+        long size = ENTRY_OVERHEAD_BYTES + ((entry.data != null) ? entry.data.length : 0);
+        if (entry.responseHeaders != null) {
+            for (Map.Entry<String, String> header : entry.responseHeaders.entrySet()) {
+                size += 2 * (header.getKey().length() + header.getValue().length());
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Memory Entry.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the cache entry along with the size computed when it was added, since volley updates
+     * the headers of a cached entry in place on "304 Not Modified".
+     */
+    private static class MemoryEntry {
+
+        private final Entry mEntry;
+        private final long mSizeBytes;
+
+        /**
+         * Constructor.
+         *
+         * @param entry     Cache entry.
+         * @param sizeBytes Size of the entry in bytes.
+         */
+        MemoryEntry(final Entry entry, final long sizeBytes) {
+            this.mEntry = entry;
+            this.mSizeBytes = sizeBytes;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link BatchDispatcher} sending every item as its own request.
+ */
+public class BatchDispatcherTest {
+
+    private static final String URL_TODOS = "https://api.example.com/todos";
+    private static final String URL_USERS = "https://api.example.com/users";
+
+    private FakeHttpClientApi mHttpClientApi;
+    private List<BatchResult> mResults;
+    private HttpClientApi.BatchResponseListener mListener;
+
+    @Before
+    public void setUp() {
+        mHttpClientApi = new FakeHttpClientApi();
+        mResults = new ArrayList<BatchResult>();
+        mListener = new HttpClientApi.BatchResponseListener() {
+            @Override
+            public void onBatchComplete(final BatchResult result) {
+                mResults.add(result);
+            }
+        };
+    }
+
+    @Test
+    public void dispatch_completesOnceAllItemsComplete() {
+        BatchRequest batchRequest = new BatchRequest.Builder()
+                .addGetRequest("todos", null, URL_TODOS, RequestOptions.DEFAULT)
+                .addRequest("user", HttpMethod.PUT, null, URL_USERS + "/1", "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON,
+                        RequestOptions.DEFAULT)
+                .build();
+        mHttpClientApi.batchRequest("batch", batchRequest, mListener);
+
+        assertEquals(2, mHttpClientApi.getCallCount());
+        assertEquals("batch", mHttpClientApi.getCall(0).getIdentifier());
+        assertEquals(HttpMethod.PUT, mHttpClientApi.getCall(1).getMethod());
+
+        mHttpClientApi.getCall(1).fail(503);
+        assertTrue(mResults.isEmpty());
+        mHttpClientApi.getCall(0).succeed("[]");
+
+        assertEquals(1, mResults.size());
+        BatchResult result = mResults.get(0);
+        assertTrue(result.isSuccessful("todos"));
+        assertEquals("[]", result.getResponse("todos"));
+        assertFalse(result.isSuccessful("user"));
+        assertEquals(503, result.getErrorCode("user"));
+        assertEquals(1, result.getFailureCount());
+    }
+
+    @Test
+    public void dispatch_staleWhileRevalidateItemCountedOnce() {
+        RequestOptions staleWhileRevalidate = new RequestOptions.Builder()
+                .setShouldCache(true)
+                .setCachePolicy(RequestOptions.CachePolicy.STALE_WHILE_REVALIDATE)
+                .build();
+        BatchRequest batchRequest = new BatchRequest.Builder()
+                .addGetRequest("todos", null, URL_TODOS, staleWhileRevalidate)
+                .addGetRequest("users", null, URL_USERS, RequestOptions.DEFAULT)
+                .build();
+        mHttpClientApi.batchRequest("batch", batchRequest, mListener);
+
+        // Cached response, then the revalidated one.
+        mHttpClientApi.getCall(0).succeed("stale");
+        mHttpClientApi.getCall(0).succeed("fresh");
+        assertTrue("batch completed before the users item", mResults.isEmpty());
+
+        mHttpClientApi.getCall(1).succeed("users");
+        assertEquals(1, mResults.size());
+        assertEquals("stale", mResults.get(0).getResponse("todos"));
+        assertEquals("users", mResults.get(0).getResponse("users"));
+
+        // Late callbacks neither deliver again nor change the delivered result.
+        mHttpClientApi.getCall(0).fail(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        mHttpClientApi.getCall(1).succeed("again");
+        assertEquals(1, mResults.size());
+        assertTrue(mResults.get(0).isSuccessful("todos"));
+        assertEquals("users", mResults.get(0).getResponse("users"));
+    }
+}
@@ -0,0 +1,182 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link CircuitBreaker} state transitions & {@link CircuitBreaker.Registry}.
+ */
+public class CircuitBreakerTest {
+
+    private static final int NETWORK_ERROR = HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR;
+    private static final int TIME_OUT_ERROR = HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR;
+    private static final long OPEN_DURATION_MS = 50;
+
+    @Test
+    public void closed_opensOnceTheFailureRateReachesTheThreshold() {
+        CircuitBreaker breaker = create(1);
+        call(breaker, 200);
+        call(breaker, NETWORK_ERROR);
+        call(breaker, 404);
+        // 1 failure out of 3 calls, below the minimum calls.
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, TIME_OUT_ERROR);
+        // 2 failures out of 4 calls.
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void closed_clientErrorsAreNotFailures() {
+        CircuitBreaker breaker = create(1);
+        for (int index = 0; index < 8; index++) {
+            call(breaker, 404);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void closed_windowForgetsTheOldestResults() {
+        CircuitBreaker breaker = create(1);
+        call(breaker, 500);
+        for (int index = 0; index < 7; index++) {
+            call(breaker, 200);
+        }
+        // Window of 8 is full, the failure is replaced by a success & the new failure makes only 1 out of 8.
+        call(breaker, 200);
+        call(breaker, 503);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void open_becomesHalfOpenAfterTheOpenDuration() throws InterruptedException {
+        CircuitBreaker breaker = open(create(1));
+        Thread.sleep(OPEN_DURATION_MS * 2);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // Only the trial call is allowed.
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void halfOpen_closesOnceAllTrialCallsSucceed() throws InterruptedException {
+        CircuitBreaker breaker = open(create(2));
+        Thread.sleep(OPEN_DURATION_MS * 2);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onResult(200);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(204);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Closed with an empty window, earlier failures don't count.
+        call(breaker, 500);
+        call(breaker, 500);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpen_opensAgainOnTheFirstFailure() throws InterruptedException {
+        CircuitBreaker breaker = open(create(2));
+        Thread.sleep(OPEN_DURATION_MS * 2);
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(NETWORK_ERROR);
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void halfOpen_ignoredTrialCallFreesItsSlot() throws InterruptedException {
+        CircuitBreaker breaker = open(create(1));
+        Thread.sleep(OPEN_DURATION_MS * 2);
+        assertTrue(breaker.tryAcquire());
+        // Canceled OR served by the cache.
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(200);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void open_lateResultOfEarlierCallIsIgnored() throws InterruptedException {
+        CircuitBreaker breaker = create(1);
+        for (int index = 0; index < 3; index++) {
+            call(breaker, 200);
+        }
+        // Started while closed, completes after the circuit opened.
+        assertTrue(breaker.tryAcquire());
+        call(breaker, 500);
+        call(breaker, 500);
+        call(breaker, 500);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        breaker.onResult(200);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void registry_longestPrefixThenHost() {
+        CircuitBreakerPolicy policy = new CircuitBreakerPolicy.Builder().build();
+        CircuitBreaker.Registry registry = new CircuitBreaker.Registry(null,
+                Collections.singletonMap("https://api.example.com/search", policy));
+        assertNotNull(registry.get("https://api.example.com/search?q=todo"));
+        assertNull(registry.get("https://api.example.com/todos"));
+
+        CircuitBreaker.Registry hostRegistry = new CircuitBreaker.Registry(policy,
+                Collections.singletonMap("https://api.example.com/search", policy));
+        assertSame(hostRegistry.get("https://api.example.com/todos"), hostRegistry.get("https://API.example.com/users"));
+        assertTrue(hostRegistry.get("https://api.example.com/todos") != hostRegistry.get("https://api.example.com/search"));
+        assertTrue(hostRegistry.get("https://api.example.com/todos") != hostRegistry.get("https://cdn.example.com/todos"));
+    }
+
+    /**
+     * Used to create the breaker opening at 50% failures of at least 4 calls in a window of 8.
+     *
+     * @param halfOpenTrialCalls Trial calls of the half open state.
+     * @return Breaker.
+     */
+    private static CircuitBreaker create(final int halfOpenTrialCalls) {
+        return new CircuitBreaker(new CircuitBreakerPolicy.Builder()
+                .setFailureRateThreshold(0.5f)
+                .setWindow(8, 4)
+                .setOpenDurationMs(OPEN_DURATION_MS)
+                .setHalfOpenTrialCalls(halfOpenTrialCalls)
+                .build());
+    }
+
+    /**
+     * Used to open the breaker with failed calls.
+     *
+     * @param breaker Closed breaker.
+     * @return Breaker.
+     */
+    private static CircuitBreaker open(final CircuitBreaker breaker) {
+        for (int index = 0; index < 4; index++) {
+            call(breaker, 500);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    /**
+     * Used to make an allowed call with the given result.
+     *
+     * @param breaker    Breaker.
+     * @param resultCode Result of the call.
+     */
+    private static void call(final CircuitBreaker breaker, final int resultCode) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(resultCode);
+    }
+}
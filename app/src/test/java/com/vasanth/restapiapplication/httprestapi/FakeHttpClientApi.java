@@ -0,0 +1,408 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fake Http Client Api.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. {@link HttpClientApi} used by the unit tests, records every request as a {@link Call} instead of sending it, the
+ * test then completes the call with the response it wants (any number of times, on any thread).
+ * 1.b. Records the cancelled identifiers & invalidated cache prefixes.
+ *
+ * @author Vasanth
+ */
+public class FakeHttpClientApi implements HttpClientApi {
+
+    private final List<Call> mCalls = new ArrayList<Call>();
+    private final List<String> mCancelledIdentifiers = new ArrayList<String>();
+    private final List<String> mInvalidatedPrefixes = new ArrayList<String>();
+
+    /**
+     * Used to get the recorded calls.
+     *
+     * @return Copy of the calls, in the order they were made.
+     */
+    public synchronized List<Call> getCalls() {
+        return new ArrayList<Call>(mCalls);
+    }
+
+    /**
+     * Used to get the recorded call.
+     *
+     * @param index Index of the call.
+     * @return Call.
+     */
+    public synchronized Call getCall(final int index) {
+        return mCalls.get(index);
+    }
+
+    /**
+     * Used to wait for the call made on another thread.
+     *
+     * @param index     Index of the call.
+     * @param timeoutMs Maximum time to wait.
+     * @return Call OR null if it wasn't made in time.
+     * @throws InterruptedException If the test thread is interrupted.
+     */
+    public synchronized Call awaitCall(final int index, final long timeoutMs) throws InterruptedException {
+        long deadlineMs = System.currentTimeMillis() + timeoutMs;
+        while (mCalls.size() <= index) {
+            long remainingMs = deadlineMs - System.currentTimeMillis();
+            if (remainingMs <= 0) {
+                return null;
+            }
+            wait(remainingMs);
+        }
+        return mCalls.get(index);
+    }
+
+    /**
+     * Used to get the number of recorded calls.
+     *
+     * @return Number of calls.
+     */
+    public synchronized int getCallCount() {
+        return mCalls.size();
+    }
+
+    /**
+     * Used to get the identifiers passed to {@link #cancelRequest(String)}.
+     *
+     * @return Copy of the identifiers.
+     */
+    public synchronized List<String> getCancelledIdentifiers() {
+        return new ArrayList<String>(mCancelledIdentifiers);
+    }
+
+    /**
+     * Used to get the prefixes passed to {@link #invalidateCache(String)}.
+     *
+     * @return Copy of the prefixes.
+     */
+    public synchronized List<String> getInvalidatedPrefixes() {
+        return new ArrayList<String>(mInvalidatedPrefixes);
+    }
+
+    @Override
+    public void getRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache, HttpResponseListener listener) {
+        record(identifier, HttpMethod.GET, headers, url, null, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    @Override
+    public void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        record(identifier, HttpMethod.GET, headers, url, null, options, listener);
+    }
+
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                            boolean shouldCache, HttpResponseListener listener) {
+        record(identifier, HttpMethod.POST, headers, url, body, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                            RequestOptions options, HttpResponseListener listener) {
+        record(identifier, HttpMethod.POST, headers, url, body, options, listener);
+    }
+
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        record(identifier, HttpMethod.GET, headers, url, null, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    @Override
+    public <T> void getRequest(String identifier, Map<String, String> headers, String url, RequestOptions options,
+                               ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        record(identifier, HttpMethod.GET, headers, url, null, options, listener);
+    }
+
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                boolean shouldCache, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        record(identifier, HttpMethod.POST, headers, url, body, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                                RequestOptions options, ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        record(identifier, HttpMethod.POST, headers, url, body, options, listener);
+    }
+
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                           boolean shouldCache, HttpResponseListener listener) {
+        record(identifier, HttpMethod.PUT, headers, url, body, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, String body, String bodyContentType,
+                           RequestOptions options, HttpResponseListener listener) {
+        record(identifier, HttpMethod.PUT, headers, url, body, options, listener);
+    }
+
+    @Override
+    public void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                            HttpResponseListener listener) {
+        record(identifier, HttpMethod.POST, headers, url, body, options, listener);
+    }
+
+    @Override
+    public <T> void postRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                                ResponseDecoder<T> decoder, TypedResponseListener<T> listener) {
+        record(identifier, HttpMethod.POST, headers, url, body, options, listener);
+    }
+
+    @Override
+    public void putRequest(String identifier, Map<String, String> headers, String url, HttpRequestBody body, RequestOptions options,
+                           HttpResponseListener listener) {
+        record(identifier, HttpMethod.PUT, headers, url, body, options, listener);
+    }
+
+    @Override
+    public void deleteRequest(String identifier, Map<String, String> headers, String url, boolean shouldCache, HttpResponseListener listener) {
+        record(identifier, HttpMethod.DELETE, headers, url, null, RequestOptions.withShouldCache(shouldCache), listener);
+    }
+
+    @Override
+    public void deleteRequest(String identifier, Map<String, String> headers, String url, RequestOptions options, HttpResponseListener listener) {
+        record(identifier, HttpMethod.DELETE, headers, url, null, options, listener);
+    }
+
+    @Override
+    public void request(String identifier, HttpMethod method, Map<String, String> headers, String url, HttpRequestBody body,
+                        RequestOptions options, HttpFullResponseListener listener) {
+        record(identifier, method, headers, url, body, options, listener);
+    }
+
+    @Override
+    public void streamRequest(String identifier, Map<String, String> headers, String url, HttpStreamResponseListener listener) {
+        record(identifier, HttpMethod.GET, headers, url, null, RequestOptions.DEFAULT, listener);
+    }
+
+    @Override
+    public void downloadRequest(String identifier, Map<String, String> headers, String url, File destinationFile,
+                                HttpDownloadListener listener) {
+        record(identifier, HttpMethod.GET, headers, url, null, RequestOptions.DEFAULT, listener);
+    }
+
+    @Override
+    public String execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body,
+                          String bodyContentType, RequestOptions options) throws HttpClientException {
+        throw new UnsupportedOperationException("execute isn't faked");
+    }
+
+    @Override
+    public <T> T execute(String identifier, HttpMethod method, Map<String, String> headers, String url, String body,
+                         String bodyContentType, RequestOptions options, ResponseDecoder<T> decoder) throws HttpClientException {
+        throw new UnsupportedOperationException("execute isn't faked");
+    }
+
+    @Override
+    public void batchRequest(String identifier, BatchRequest batchRequest, BatchResponseListener listener) {
+        BatchDispatcher.dispatch(this, identifier, batchRequest, listener);
+    }
+
+    @Override
+    public synchronized void invalidateCache(String urlPrefix) {
+        mInvalidatedPrefixes.add(urlPrefix);
+    }
+
+    @Override
+    public void setMaxConcurrentRequests(String identifier, int maxConcurrentRequests) {
+    }
+
+    @Override
+    public void setMetricsListener(HttpMetricsListener metricsListener) {
+    }
+
+    @Override
+    public synchronized void cancelRequest(String identifier) {
+        mCancelledIdentifiers.add(identifier);
+        for (Call call : mCalls) {
+            if (call.mIdentifier.equals(identifier)) {
+                call.mCancelled = true;
+            }
+        }
+    }
+
+    /**
+     * Used to record the call.
+     *
+     * @param identifier Identifier.
+     * @param method     HTTP method.
+     * @param headers    Request headers.
+     * @param url        Request url.
+     * @param body       Request body (String OR {@link HttpRequestBody}), may be null.
+     * @param options    Request options.
+     * @param listener   Listener of the request.
+     */
+    private synchronized void record(final String identifier, final HttpMethod method, final Map<String, String> headers,
+                                     final String url, final Object body, final RequestOptions options, final Object listener) {
+        mCalls.add(new Call(identifier, method, headers, url, body, options, listener));
+        notifyAll();
+    }
+
+    /**
+     * Call.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds a recorded request & completes it through its listener.
+     */
+    public static class Call {
+
+        private final String mIdentifier;
+        private final HttpMethod mMethod;
+        private final Map<String, String> mHeaders;
+        private final String mUrl;
+        private final Object mBody;
+        private final RequestOptions mOptions;
+        private final Object mListener;
+        private volatile boolean mCancelled;
+
+        /**
+         * Constructor.
+         *
+         * @param identifier Identifier.
+         * @param method     HTTP method.
+         * @param headers    Request headers.
+         * @param url        Request url.
+         * @param body       Request body, may be null.
+         * @param options    Request options.
+         * @param listener   Listener of the request.
+         */
+        Call(final String identifier, final HttpMethod method, final Map<String, String> headers, final String url,
+             final Object body, final RequestOptions options, final Object listener) {
+            this.mIdentifier = identifier;
+            this.mMethod = method;
+            this.mHeaders = headers;
+            this.mUrl = url;
+            this.mBody = body;
+            this.mOptions = options;
+            this.mListener = listener;
+        }
+
+        /**
+         * Used to get the identifier.
+         *
+         * @return Identifier.
+         */
+        public String getIdentifier() {
+            return mIdentifier;
+        }
+
+        /**
+         * Used to get the HTTP method.
+         *
+         * @return HTTP method.
+         */
+        public HttpMethod getMethod() {
+            return mMethod;
+        }
+
+        /**
+         * Used to get the request headers.
+         *
+         * @return Headers, may be null.
+         */
+        public Map<String, String> getHeaders() {
+            return mHeaders;
+        }
+
+        /**
+         * Used to get the request url.
+         *
+         * @return Url.
+         */
+        public String getUrl() {
+            return mUrl;
+        }
+
+        /**
+         * Used to get the request body.
+         *
+         * @return String OR HttpRequestBody, null if the request has no body.
+         */
+        public Object getBody() {
+            return mBody;
+        }
+
+        /**
+         * Used to get the request options.
+         *
+         * @return Options.
+         */
+        public RequestOptions getOptions() {
+            return mOptions;
+        }
+
+        /**
+         * Used to get the listener of the request.
+         *
+         * @return Listener.
+         */
+        public Object getListener() {
+            return mListener;
+        }
+
+        /**
+         * Used to check the cancel state.
+         *
+         * @return True if the identifier of the call was cancelled.
+         */
+        public boolean isCancelled() {
+            return mCancelled;
+        }
+
+        /**
+         * Used to deliver the success response, the same way the implementations do (even if cancelled, like a response
+         * racing the cancellation).
+         *
+         * @param response Response, String for the string listeners, HttpResponse for the full response listeners.
+         */
+        @SuppressWarnings("unchecked")
+        public void succeed(final Object response) {
+            if (mListener instanceof HttpFullResponseListener) {
+                ((HttpFullResponseListener) mListener).onSuccessResponse((HttpResponse) response);
+            } else {
+                ((TypedResponseListener<Object>) mListener).onSuccessResponse(response);
+            }
+        }
+
+        /**
+         * Used to deliver the error.
+         *
+         * @param errorCode Error code.
+         * @param response  Error response for the full response listeners, may be null.
+         */
+        public void fail(final int errorCode, final HttpResponse response) {
+            if (mListener instanceof HttpFullResponseListener) {
+                ((HttpFullResponseListener) mListener).onErrorResponse(errorCode, response);
+            } else {
+                ((TypedResponseListener<?>) mListener).onErrorResponse(errorCode);
+            }
+        }
+
+        /**
+         * Used to deliver the error.
+         *
+         * @param errorCode Error code.
+         */
+        public void fail(final int errorCode) {
+            fail(errorCode, null);
+        }
+
+        /**
+         * Used to report the request is finished, the same way the implementations do after the last callback.
+         */
+        public void finish() {
+            if (mListener instanceof RequestFinishedListener) {
+                ((RequestFinishedListener) mListener).onRequestFinished();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link FutureHttpClient} over {@link FakeHttpClientApi}.
+ */
+public class FutureHttpClientTest {
+
+    private static final String URL = "https://api.example.com/todos";
+
+    private final FakeHttpClientApi mHttpClientApi = new FakeHttpClientApi();
+    private final FutureHttpClient mClient = new FutureHttpClient(mHttpClientApi);
+
+    @Test
+    public void get_completesWithTheResponse() {
+        RecordingListener listener = new RecordingListener();
+        mClient.get("todos", null, URL, RequestOptions.DEFAULT).addListener(listener);
+        mHttpClientApi.getCall(0).succeed("todos");
+        assertEquals(Collections.singletonList("success:todos"), listener.mCallbacks);
+    }
+
+    @Test
+    public void then_makesTheDependentRequestOnceSucceeded() {
+        RecordingListener listener = new RecordingListener();
+        mClient.get("user", null, URL + "/user", RequestOptions.DEFAULT).then(new HttpFuture.Continuation<String, String>() {
+            @Override
+            public HttpFuture<String> then(final String response) {
+                return mClient.get("todos", null, URL + "?user=" + response, RequestOptions.DEFAULT);
+            }
+        }).addListener(listener);
+        assertEquals(1, mHttpClientApi.getCallCount());
+
+        mHttpClientApi.getCall(0).succeed("1");
+        assertEquals(URL + "?user=1", mHttpClientApi.getCall(1).getUrl());
+        mHttpClientApi.getCall(1).succeed("todos");
+        assertEquals(Collections.singletonList("success:todos"), listener.mCallbacks);
+    }
+
+    @Test
+    public void cancel_cancelsTheRequestInFlightOfTheChain() {
+        HttpFuture<String> chained = mClient.get("user", null, URL + "/user", RequestOptions.DEFAULT).then(
+                new HttpFuture.Continuation<String, String>() {
+                    @Override
+                    public HttpFuture<String> then(final String response) {
+                        return mClient.get("todos", null, URL, RequestOptions.DEFAULT);
+                    }
+                });
+        mHttpClientApi.getCall(0).succeed("1");
+
+        chained.cancel();
+        assertEquals(Collections.singletonList("todos"), mHttpClientApi.getCancelledIdentifiers());
+        assertTrue(mHttpClientApi.getCall(1).isCancelled());
+    }
+
+    @Test
+    public void cancel_keepsTheOtherRequestsWithTheSameIdentifier() {
+        HttpFuture<String> first = mClient.get("todos", null, URL + "?page=1", RequestOptions.DEFAULT);
+        RecordingListener listener = new RecordingListener();
+        HttpFuture<String> second = mClient.get("todos", null, URL + "?page=2", RequestOptions.DEFAULT).addListener(listener);
+
+        assertTrue(first.cancel());
+        assertTrue(mHttpClientApi.getCancelledIdentifiers().isEmpty());
+        assertFalse(mHttpClientApi.getCall(1).isCancelled());
+        // Response of the cancelled call is dropped.
+        mHttpClientApi.getCall(0).succeed("page 1");
+        assertTrue(first.isCancelled());
+
+        mHttpClientApi.getCall(1).succeed("page 2");
+        assertEquals(Collections.singletonList("success:page 2"), listener.mCallbacks);
+        assertFalse(second.isCancelled());
+    }
+
+    @Test
+    public void cancel_cancelsTheRequestOnceNoOtherFutureUsesTheIdentifier() {
+        HttpFuture<String> first = mClient.get("todos", null, URL + "?page=1", RequestOptions.DEFAULT);
+        HttpFuture<String> second = mClient.get("todos", null, URL + "?page=2", RequestOptions.DEFAULT);
+        first.cancel();
+        second.cancel();
+        assertEquals(Collections.singletonList("todos"), mHttpClientApi.getCancelledIdentifiers());
+
+        // Completed futures release the identifier too.
+        HttpFuture<String> completed = mClient.get("users", null, URL, RequestOptions.DEFAULT);
+        HttpFuture<String> pending = mClient.get("users", null, URL, RequestOptions.DEFAULT);
+        mHttpClientApi.getCall(2).succeed("users");
+        assertTrue(completed.isDone());
+        pending.cancel();
+        assertEquals(Arrays.asList("todos", "users"), mHttpClientApi.getCancelledIdentifiers());
+    }
+
+    @Test
+    public void zip_failureCancelsTheOtherRequest() {
+        HttpFuture<String> user = mClient.get("user", null, URL + "/user", RequestOptions.DEFAULT);
+        HttpFuture<String> todos = mClient.get("todos", null, URL, RequestOptions.DEFAULT);
+        RecordingListener listener = new RecordingListener();
+        HttpFuture.zip(user, todos, new HttpFuture.Combiner<String, String, String>() {
+            @Override
+            public String combine(final String userResponse, final String todosResponse) {
+                return userResponse + todosResponse;
+            }
+        }).addListener(listener);
+
+        mHttpClientApi.getCall(0).fail(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        assertEquals(Collections.singletonList("error:" + HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR),
+                listener.mCallbacks);
+        assertEquals(Collections.singletonList("todos"), mHttpClientApi.getCancelledIdentifiers());
+        assertTrue(todos.isCancelled());
+    }
+
+    /**
+     * Recording Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Records the callbacks as "success:{response}" & "error:{code}".
+     */
+    private static class RecordingListener implements HttpClientApi.TypedResponseListener<String> {
+
+        private final List<String> mCallbacks = new ArrayList<String>();
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            mCallbacks.add("success:" + response);
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            mCallbacks.add("error:" + errorCode);
+        }
+    }
+}
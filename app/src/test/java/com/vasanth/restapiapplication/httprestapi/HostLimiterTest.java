@@ -0,0 +1,230 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link HostLimiter}.
+ */
+public class HostLimiterTest {
+
+    private static final String URL_A = "https://a.example.com/todos";
+    private static final String URL_B = "https://b.example.com/todos";
+
+    private List<String> mDispatched;
+    private HostLimiter.Callback<TestRequest> mCallback;
+
+    @Before
+    public void setUp() {
+        mDispatched = new ArrayList<String>();
+        mCallback = new HostLimiter.Callback<TestRequest>() {
+            @Override
+            public void dispatch(final TestRequest request) {
+                mDispatched.add(request.mName);
+            }
+
+            @Override
+            public boolean isCanceled(final TestRequest request) {
+                return request.mCanceled;
+            }
+        };
+    }
+
+    @Test
+    public void add_dispatchesUpToTheLimitOfEveryHost() {
+        HostLimiter<TestRequest> limiter = create(new HostLimitPolicy.Builder().setConcurrency(2, 1, 2).build());
+        TestRequest a1 = new TestRequest("a1", 0);
+        limiter.add(URL_A, a1);
+        limiter.add(URL_A + "/1", new TestRequest("a2", 0));
+        limiter.add(URL_A + "/2", new TestRequest("a3", 0));
+        limiter.add(URL_B, new TestRequest("b1", 0));
+        assertEquals(Arrays.asList("a1", "a2", "b1"), mDispatched);
+
+        limiter.onFinished(a1, 200, 10);
+        assertEquals(Arrays.asList("a1", "a2", "b1", "a3"), mDispatched);
+    }
+
+    @Test
+    public void add_waitingRequestsDispatchedByPriorityThenArrival() {
+        HostLimiter<TestRequest> limiter = create(new HostLimitPolicy.Builder().setConcurrency(1, 1, 1).build());
+        TestRequest running = new TestRequest("running", 0);
+        limiter.add(URL_A, running);
+        List<TestRequest> waiting = Arrays.asList(new TestRequest("low", 0), new TestRequest("high1", 2),
+                new TestRequest("normal", 1), new TestRequest("high2", 2));
+        for (TestRequest request : waiting) {
+            limiter.add(URL_A, request);
+        }
+
+        TestRequest finished = running;
+        for (int index = 0; index < waiting.size(); index++) {
+            limiter.onFinished(finished, 200, 10);
+            finished = find(waiting, mDispatched.get(mDispatched.size() - 1));
+        }
+        assertEquals(Arrays.asList("running", "high1", "high2", "normal", "low"), mDispatched);
+    }
+
+    @Test
+    public void dispatchCanceled_dispatchesWithoutTakingASlot() {
+        HostLimiter<TestRequest> limiter = create(new HostLimitPolicy.Builder().setConcurrency(1, 1, 1).build());
+        TestRequest running = new TestRequest("running", 0);
+        TestRequest canceled = new TestRequest("canceled", 0);
+        TestRequest waiting = new TestRequest("waiting", 0);
+        limiter.add(URL_A, running);
+        limiter.add(URL_A, canceled);
+        limiter.add(URL_A, waiting);
+        assertEquals(Arrays.asList(canceled, waiting), sortByName(limiter.getPendingRequests()));
+
+        canceled.mCanceled = true;
+        limiter.dispatchCanceled();
+        assertEquals(Arrays.asList("running", "canceled"), mDispatched);
+        assertEquals(Collections.singletonList(waiting), limiter.getPendingRequests());
+
+        // Canceled request wasn't dispatched by the limiter, its finish frees nothing.
+        limiter.onFinished(canceled, HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR, -1);
+        assertEquals(Arrays.asList("running", "canceled"), mDispatched);
+        limiter.onFinished(running, 200, 10);
+        assertEquals(Arrays.asList("running", "canceled", "waiting"), mDispatched);
+    }
+
+    @Test
+    public void add_rateLimitHoldsRequestsOnceTheBurstIsUsed() {
+        HostLimiter<TestRequest> limiter = create(new HostLimitPolicy.Builder()
+                .setConcurrency(4, 1, 4)
+                .setRateLimit(0.001, 2)
+                .build());
+        limiter.add(URL_A, new TestRequest("a1", 0));
+        limiter.add(URL_A, new TestRequest("a2", 0));
+        limiter.add(URL_A, new TestRequest("a3", 0));
+        limiter.add(URL_B, new TestRequest("b1", 0));
+        assertEquals(Arrays.asList("a1", "a2", "b1"), mDispatched);
+        assertEquals(1, limiter.getPendingRequests().size());
+    }
+
+    @Test
+    public void onFinished_overloadDecreasesTheLimitOncePerRound() {
+        HostLimiter<TestRequest> limiter = create(new HostLimitPolicy.Builder()
+                .setConcurrency(4, 1, 8)
+                .setBackoffRatio(0.5f)
+                .setTargetLatencyMs(60000)
+                .build());
+        List<TestRequest> requests = new ArrayList<TestRequest>();
+        for (int index = 0; index < 4; index++) {
+            requests.add(new TestRequest("a" + index, 0));
+            limiter.add(URL_A, requests.get(index));
+        }
+
+        limiter.onFinished(requests.get(0), 503, 10);
+        assertEquals(2, limiter.getConcurrencyLimit(URL_A));
+        // Sent in the same round, the host already backed off for it.
+        limiter.onFinished(requests.get(1), 429, 10);
+        assertEquals(2, limiter.getConcurrencyLimit(URL_A));
+        // Other hosts keep their own limit.
+        assertEquals(4, limiter.getConcurrencyLimit(URL_B));
+    }
+
+    @Test
+    public void onFinished_successWhileSaturatedGrowsTheLimit() {
+        HostLimiter<TestRequest> limiter = create(new HostLimitPolicy.Builder().setConcurrency(2, 1, 4).build());
+        List<TestRequest> requests = new ArrayList<TestRequest>();
+        for (int index = 0; index < 8; index++) {
+            requests.add(new TestRequest("a" + index, 0));
+            limiter.add(URL_A, requests.get(index));
+        }
+        for (int index = 0; index < 3; index++) {
+            limiter.onFinished(requests.get(index), 200, 10);
+        }
+        assertEquals(3, limiter.getConcurrencyLimit(URL_A));
+
+        // Cache hits don't say anything about the host.
+        limiter.onFinished(requests.get(3), 200, -1);
+        assertEquals(3, limiter.getConcurrencyLimit(URL_A));
+    }
+
+    @Test
+    public void getHostKey_usesSchemeHostAndPort() {
+        assertEquals("https://api.example.com:8443", HostLimiter.getHostKey("HTTPS://Api.Example.com:8443/todos?page=1"));
+        assertEquals("http://api.example.com", HostLimiter.getHostKey("http://api.example.com#top"));
+        assertTrue(!HostLimiter.getHostKey(URL_A).equals(HostLimiter.getHostKey(URL_B)));
+    }
+
+    /**
+     * Used to create the limiter, higher {@link TestRequest#mPriority} first.
+     *
+     * @param policy Policy.
+     * @return Limiter.
+     */
+    private HostLimiter<TestRequest> create(final HostLimitPolicy policy) {
+        return new HostLimiter<TestRequest>(policy, new Comparator<TestRequest>() {
+            @Override
+            public int compare(final TestRequest left, final TestRequest right) {
+                return right.mPriority - left.mPriority;
+            }
+        }, mCallback);
+    }
+
+    /**
+     * Used to find the request by name.
+     *
+     * @param requests Requests.
+     * @param name     Name.
+     * @return Request.
+     */
+    private static TestRequest find(final List<TestRequest> requests, final String name) {
+        for (TestRequest request : requests) {
+            if (request.mName.equals(name)) {
+                return request;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * Used to sort the requests by name, order of the pending requests isn't defined.
+     *
+     * @param requests Requests.
+     * @return Sorted requests.
+     */
+    private static List<TestRequest> sortByName(final List<TestRequest> requests) {
+        List<TestRequest> sorted = new ArrayList<TestRequest>(requests);
+        Collections.sort(sorted, new Comparator<TestRequest>() {
+            @Override
+            public int compare(final TestRequest left, final TestRequest right) {
+                return left.mName.compareTo(right.mName);
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * Test Request.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Request with name, priority & cancel state.
+     */
+    private static class TestRequest {
+
+        private final String mName;
+        private final int mPriority;
+        private boolean mCanceled;
+
+        /**
+         * Constructor.
+         *
+         * @param name     Name.
+         * @param priority Priority, higher first.
+         */
+        TestRequest(final String name, final int priority) {
+            this.mName = name;
+            this.mPriority = priority;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link HttpFuture} chaining, combining, timeout & cancel propagation.
+ */
+public class HttpFutureTest {
+
+    private final ScheduledExecutorService mScheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        mScheduler.shutdownNow();
+    }
+
+    @Test
+    public void map_convertsTheResponseAndPassesErrorsThrough() {
+        HttpFuture<String> source = new HttpFuture<String>();
+        RecordingListener<Integer> listener = new RecordingListener<Integer>();
+        source.map(new HttpFuture.Transform<String, Integer>() {
+            @Override
+            public Integer apply(final String response) throws Exception {
+                return Integer.parseInt(response);
+            }
+        }).addListener(listener);
+        source.complete("42");
+        assertEquals(Collections.singletonList("success:42"), listener.mCallbacks);
+
+        RecordingListener<Integer> failing = new RecordingListener<Integer>();
+        HttpFuture.succeeded("not a number").map(new HttpFuture.Transform<String, Integer>() {
+            @Override
+            public Integer apply(final String response) throws Exception {
+                return Integer.parseInt(response);
+            }
+        }).addListener(failing);
+        assertEquals(Collections.singletonList("error:" + HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR),
+                failing.mCallbacks);
+    }
+
+    @Test
+    public void then_startsTheDependentRequestOnceSucceeded() {
+        HttpFuture<String> source = new HttpFuture<String>();
+        final List<String> started = new ArrayList<String>();
+        final HttpFuture<String> dependent = new HttpFuture<String>();
+        RecordingListener<String> listener = new RecordingListener<String>();
+        source.then(new HttpFuture.Continuation<String, String>() {
+            @Override
+            public HttpFuture<String> then(final String response) {
+                started.add(response);
+                return dependent;
+            }
+        }).addListener(listener);
+
+        source.complete("user");
+        assertEquals(Collections.singletonList("user"), started);
+        assertTrue(listener.mCallbacks.isEmpty());
+        dependent.complete("todos of user");
+        assertEquals(Collections.singletonList("success:todos of user"), listener.mCallbacks);
+    }
+
+    @Test
+    public void then_errorSkipsTheDependentRequest() {
+        final List<String> started = new ArrayList<String>();
+        RecordingListener<String> listener = new RecordingListener<String>();
+        HttpFuture.<String>failed(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR).then(
+                new HttpFuture.Continuation<String, String>() {
+                    @Override
+                    public HttpFuture<String> then(final String response) {
+                        started.add(response);
+                        return HttpFuture.succeeded(response);
+                    }
+                }).addListener(listener);
+        assertTrue(started.isEmpty());
+        assertEquals(Collections.singletonList("error:" + HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR),
+                listener.mCallbacks);
+    }
+
+    @Test
+    public void cancel_cancelsTheSourceAndTheDependentRequest() {
+        CountingCancelAction sourceAction = new CountingCancelAction();
+        HttpFuture<String> source = new HttpFuture<String>(sourceAction);
+        CountingCancelAction dependentAction = new CountingCancelAction();
+        final HttpFuture<String> dependent = new HttpFuture<String>(dependentAction);
+        HttpFuture<String> chained = source.then(new HttpFuture.Continuation<String, String>() {
+            @Override
+            public HttpFuture<String> then(final String response) {
+                return dependent;
+            }
+        });
+
+        source.complete("user");
+        assertTrue(chained.cancel());
+        assertEquals(0, sourceAction.mCount);
+        assertEquals(1, dependentAction.mCount);
+        assertTrue(dependent.isCancelled());
+        assertFalse(chained.cancel());
+    }
+
+    @Test
+    public void cancelledSource_cancelsTheDerivedFutures() {
+        HttpFuture<String> source = new HttpFuture<String>();
+        HttpFuture<Integer> mapped = source.map(new HttpFuture.Transform<String, Integer>() {
+            @Override
+            public Integer apply(final String response) throws Exception {
+                return response.length();
+            }
+        });
+        HttpFuture<String> chained = source.then(new HttpFuture.Continuation<String, String>() {
+            @Override
+            public HttpFuture<String> then(final String response) {
+                return HttpFuture.succeeded(response);
+            }
+        });
+        HttpFuture<String> bounded = source.timeout(60 * 1000, mScheduler);
+        HttpFuture<List<String>> combined = HttpFuture.all(Arrays.asList(source, new HttpFuture<String>()));
+
+        source.cancel();
+        assertTrue(mapped.isCancelled());
+        assertTrue(chained.isCancelled());
+        assertTrue(bounded.isCancelled());
+        assertTrue(combined.isCancelled());
+
+        // Derived from an already cancelled future.
+        assertTrue(source.map(new HttpFuture.Transform<String, String>() {
+            @Override
+            public String apply(final String response) throws Exception {
+                return response;
+            }
+        }).isCancelled());
+    }
+
+    @Test
+    public void cancelledDependentRequest_cancelsTheChainedFuture() {
+        HttpFuture<String> source = new HttpFuture<String>();
+        final HttpFuture<String> dependent = new HttpFuture<String>();
+        HttpFuture<String> chained = source.then(new HttpFuture.Continuation<String, String>() {
+            @Override
+            public HttpFuture<String> then(final String response) {
+                return dependent;
+            }
+        });
+        source.complete("user");
+        dependent.cancel();
+        assertTrue(chained.isCancelled());
+    }
+
+    @Test
+    public void all_deliversTheResponsesInOrder() {
+        HttpFuture<String> first = new HttpFuture<String>();
+        HttpFuture<String> second = new HttpFuture<String>();
+        RecordingListener<List<String>> listener = new RecordingListener<List<String>>();
+        HttpFuture.all(Arrays.asList(first, second)).addListener(listener);
+
+        second.complete("b");
+        assertTrue(listener.mCallbacks.isEmpty());
+        first.complete("a");
+        assertEquals(Collections.singletonList("success:[a, b]"), listener.mCallbacks);
+
+        RecordingListener<List<String>> empty = new RecordingListener<List<String>>();
+        HttpFuture.all(Collections.<HttpFuture<String>>emptyList()).addListener(empty);
+        assertEquals(Collections.singletonList("success:[]"), empty.mCallbacks);
+    }
+
+    @Test
+    public void zip_failsWithTheFirstErrorAndCancelsTheOtherFuture() {
+        HttpFuture<String> first = new HttpFuture<String>();
+        CountingCancelAction secondAction = new CountingCancelAction();
+        HttpFuture<Integer> second = new HttpFuture<Integer>(secondAction);
+        // Other consumer of the second future.
+        HttpFuture<String> derived = second.map(new HttpFuture.Transform<Integer, String>() {
+            @Override
+            public String apply(final Integer response) throws Exception {
+                return String.valueOf(response);
+            }
+        });
+        RecordingListener<String> listener = new RecordingListener<String>();
+        HttpFuture.zip(first, second, new HttpFuture.Combiner<String, Integer, String>() {
+            @Override
+            public String combine(final String text, final Integer number) {
+                return text + number;
+            }
+        }).addListener(listener);
+
+        first.fail(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        assertEquals(Collections.singletonList("error:" + HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR),
+                listener.mCallbacks);
+        assertTrue(second.isCancelled());
+        assertEquals(1, secondAction.mCount);
+        // Doesn't stay pending.
+        assertTrue(derived.isCancelled());
+
+        // Late result is dropped.
+        assertFalse(second.complete(1));
+        assertEquals(1, listener.mCallbacks.size());
+    }
+
+    @Test
+    public void zip_combinesBothResponses() {
+        HttpFuture<String> first = new HttpFuture<String>();
+        RecordingListener<String> listener = new RecordingListener<String>();
+        HttpFuture.zip(first, HttpFuture.succeeded(2), new HttpFuture.Combiner<String, Integer, String>() {
+            @Override
+            public String combine(final String text, final Integer number) {
+                return text + number;
+            }
+        }).addListener(listener);
+        first.complete("a");
+        assertEquals(Collections.singletonList("success:a2"), listener.mCallbacks);
+    }
+
+    @Test
+    public void timeout_failsAndCancelsTheSlowFuture() throws InterruptedException {
+        CountingCancelAction sourceAction = new CountingCancelAction();
+        HttpFuture<String> source = new HttpFuture<String>(sourceAction);
+        RecordingListener<String> listener = new RecordingListener<String>();
+        source.timeout(50, mScheduler).addListener(listener);
+
+        assertTrue(listener.await());
+        assertEquals(Collections.singletonList("error:" + HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR),
+                listener.getCallbacks());
+        // Source is cancelled by the timeout task after the listeners ran.
+        mScheduler.shutdown();
+        assertTrue(mScheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(source.isCancelled());
+        assertEquals(1, sourceAction.mCount);
+    }
+
+    @Test
+    public void timeout_passesTheResponseInTime() throws InterruptedException {
+        HttpFuture<String> source = new HttpFuture<String>();
+        RecordingListener<String> listener = new RecordingListener<String>();
+        source.timeout(100, mScheduler).addListener(listener);
+        source.complete("todos");
+        assertEquals(Collections.singletonList("success:todos"), listener.getCallbacks());
+
+        Thread.sleep(200);
+        assertEquals(Collections.singletonList("success:todos"), listener.getCallbacks());
+        assertFalse(source.isCancelled());
+    }
+
+    /**
+     * Recording Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Records the callbacks as "success:{response}" & "error:{code}".
+     *
+     * @param <T> Type of the response.
+     */
+    private static class RecordingListener<T> implements HttpClientApi.TypedResponseListener<T> {
+
+        private final List<String> mCallbacks = new ArrayList<String>();
+        private final CountDownLatch mCalled = new CountDownLatch(1);
+
+        @Override
+        public synchronized void onSuccessResponse(final T response) {
+            mCallbacks.add("success:" + response);
+            mCalled.countDown();
+        }
+
+        @Override
+        public synchronized void onErrorResponse(final int errorCode) {
+            mCallbacks.add("error:" + errorCode);
+            mCalled.countDown();
+        }
+
+        /**
+         * Used to wait for the first callback.
+         *
+         * @return True if called in time.
+         * @throws InterruptedException If the test thread is interrupted.
+         */
+        boolean await() throws InterruptedException {
+            return mCalled.await(5, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Used to get the recorded callbacks.
+         *
+         * @return Copy of the callbacks.
+         */
+        synchronized List<String> getCallbacks() {
+            return new ArrayList<String>(mCallbacks);
+        }
+    }
+
+    /**
+     * Counting Cancel Action.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Cancel action counting its runs.
+     */
+    private static class CountingCancelAction implements Runnable {
+
+        private int mCount;
+
+        @Override
+        public void run() {
+            mCount++;
+        }
+    }
+}
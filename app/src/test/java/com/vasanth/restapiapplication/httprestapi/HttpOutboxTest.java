@@ -0,0 +1,257 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link HttpOutbox} replaying through {@link FakeHttpClientApi}.
+ */
+public class HttpOutboxTest {
+
+    private static final String URL = "https://api.example.com/todos";
+    private static final long WAIT_MS = 5000;
+
+    private File mDirectory;
+    private FakeHttpClientApi mHttpClientApi;
+    private RecordingListener mListener;
+
+    @Before
+    public void setUp() throws IOException {
+        mDirectory = File.createTempFile("http-outbox-test", "");
+        assertTrue(mDirectory.delete() && mDirectory.mkdirs());
+        mHttpClientApi = new FakeHttpClientApi();
+        mListener = new RecordingListener();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+    }
+
+    @Test
+    public void replay_carriesTheIdempotencyKey() throws Exception {
+        HttpOutbox outbox = build(new HttpOutbox.Builder(createContext(), mHttpClientApi));
+        String entryId = outbox.enqueue(HttpMethod.POST, null, URL, "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON);
+
+        FakeHttpClientApi.Call call = mHttpClientApi.awaitCall(0, WAIT_MS);
+        assertNotNull(call);
+        assertEquals(HttpMethod.POST, call.getMethod());
+        assertEquals(entryId, call.getHeaders().get(HttpOutbox.DEFAULT_IDEMPOTENCY_KEY_HEADER));
+        call.succeed(createResponse(201, null, "created"));
+
+        assertTrue(mListener.await());
+        assertEquals(Collections.singletonList(entryId + "=created"), mListener.mDelivered);
+        assertEquals(0, outbox.getPendingCount());
+    }
+
+    @Test
+    public void replay_keepsTheIdempotencyKeyOfTheCaller() throws Exception {
+        HttpOutbox outbox = build(new HttpOutbox.Builder(createContext(), mHttpClientApi));
+        outbox.enqueue(HttpMethod.POST, Collections.singletonMap("idempotency-key", "mine"), URL, "{}",
+                HttpClientApi.BODY_CONTENT_TYPE_JSON);
+
+        FakeHttpClientApi.Call call = mHttpClientApi.awaitCall(0, WAIT_MS);
+        assertNotNull(call);
+        assertEquals(Collections.singletonMap("idempotency-key", "mine"), call.getHeaders());
+    }
+
+    @Test
+    public void replay_honoursRetryAfter() throws Exception {
+        // Backoff of the policy is shorter than "Retry-After", so an early replay means the header was ignored.
+        HttpRetryPolicy retryPolicy = new HttpRetryPolicy.Builder()
+                .setMaxRetries(5)
+                .setBackoff(10, 1f, 10)
+                .setRetryNonIdempotent(true)
+                .build();
+        HttpOutbox outbox = build(new HttpOutbox.Builder(createContext(), mHttpClientApi).setRetryPolicy(retryPolicy));
+        String entryId = outbox.enqueue(HttpMethod.POST, null, URL, "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON);
+
+        FakeHttpClientApi.Call first = mHttpClientApi.awaitCall(0, WAIT_MS);
+        assertNotNull(first);
+        long failedAtMs = System.currentTimeMillis();
+        first.fail(503, createResponse(503, Collections.singletonMap("Retry-After", "1"), ""));
+
+        FakeHttpClientApi.Call second = mHttpClientApi.awaitCall(1, WAIT_MS);
+        assertNotNull(second);
+        assertTrue("replayed before Retry-After", System.currentTimeMillis() - failedAtMs >= 900);
+        assertEquals(entryId, second.getHeaders().get(HttpOutbox.DEFAULT_IDEMPOTENCY_KEY_HEADER));
+        second.succeed(createResponse(201, null, "created"));
+
+        assertTrue(mListener.await());
+        assertEquals(Collections.singletonList(entryId + "=created"), mListener.mDelivered);
+    }
+
+    @Test
+    public void replay_permanentFailureMovesToTheNextRequest() throws Exception {
+        mListener.mLatch = new CountDownLatch(2);
+        HttpOutbox outbox = build(new HttpOutbox.Builder(createContext(), mHttpClientApi));
+        String firstId = outbox.enqueue(HttpMethod.POST, null, URL, "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON);
+        String secondId = outbox.enqueue(HttpMethod.DELETE, null, URL + "/1", null, null);
+
+        mHttpClientApi.awaitCall(0, WAIT_MS).fail(400, createResponse(400, null, "bad request"));
+        mHttpClientApi.awaitCall(1, WAIT_MS).succeed(createResponse(204, null, ""));
+
+        assertTrue(mListener.await());
+        assertEquals(Collections.singletonList(firstId + "=400"), mListener.mFailed);
+        assertEquals(Collections.singletonList(secondId + "="), mListener.mDelivered);
+    }
+
+    @Test
+    public void replay_requestOutlivingTheWaitIsCancelled() throws Exception {
+        // Replay never completes, outbox gives up after the request timeout plus the margin.
+        HttpRetryPolicy retryPolicy = new HttpRetryPolicy.Builder()
+                .setTimeoutMs(100)
+                .setMaxRetries(0)
+                .build();
+        HttpOutbox outbox = build(new HttpOutbox.Builder(createContext(), mHttpClientApi)
+                .setRetryPolicy(retryPolicy)
+                .setReplayWaitMarginMs(100));
+        String entryId = outbox.enqueue(HttpMethod.PUT, null, URL + "/1", "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON);
+
+        FakeHttpClientApi.Call call = mHttpClientApi.awaitCall(0, WAIT_MS);
+        assertNotNull(call);
+        assertTrue(mListener.await());
+        assertTrue(call.isCancelled());
+        assertEquals(Collections.singletonList(entryId + "=" + HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR),
+                mListener.mFailed);
+    }
+
+    @Test
+    public void defaultRetryPolicy_isBounded() {
+        HttpRetryPolicy retryPolicy = HttpOutbox.DEFAULT_RETRY_POLICY;
+        assertTrue(retryPolicy.shouldRetry(HttpMethod.POST, 0, 503));
+        assertFalse(retryPolicy.shouldRetry(HttpMethod.POST, HttpOutbox.DEFAULT_MAX_RETRIES, 503));
+        assertTrue(retryPolicy.getRetryDelayMs(HttpOutbox.DEFAULT_MAX_RETRIES, -1) <= HttpOutbox.DEFAULT_MAX_BACKOFF_MS);
+    }
+
+    @Test
+    public void idempotencyKeyHeader_canBeDisabled() throws Exception {
+        build(new HttpOutbox.Builder(createContext(), mHttpClientApi).setIdempotencyKeyHeader(null))
+                .enqueue(HttpMethod.POST, null, URL, "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON);
+
+        FakeHttpClientApi.Call call = mHttpClientApi.awaitCall(0, WAIT_MS);
+        assertNotNull(call);
+        assertNull(call.getHeaders().get(HttpOutbox.DEFAULT_IDEMPOTENCY_KEY_HEADER));
+    }
+
+    /**
+     * Used to build the outbox which is always connected & reports to {@link #mListener} on the outbox thread.
+     *
+     * @param builder Builder.
+     * @return Outbox.
+     */
+    private HttpOutbox build(final HttpOutbox.Builder builder) {
+        HttpOutbox outbox = builder
+                .setDirectory(mDirectory)
+                .setDeliveryExecutor(DeliveryExecutors.immediate())
+                .setConnectivity(new HttpOutbox.Connectivity() {
+                    @Override
+                    public boolean isConnected() {
+                        return true;
+                    }
+                })
+                .build();
+        outbox.setListener(mListener);
+        return outbox;
+    }
+
+    /**
+     * Used to create the context, outbox uses it only for the connectivity which the tests replace.
+     *
+     * @return Context.
+     */
+    private static Context createContext() {
+        return new ContextWrapper(null) {
+            @Override
+            public Context getApplicationContext() {
+                return this;
+            }
+        };
+    }
+
+    /**
+     * Used to create the response.
+     *
+     * @param statusCode HTTP status code.
+     * @param headers    Response headers, may be null.
+     * @param body       Response body.
+     * @return Response.
+     * @throws UnsupportedEncodingException Never, UTF-8 is always supported.
+     */
+    private static HttpResponse createResponse(final int statusCode, final Map<String, String> headers, final String body)
+            throws UnsupportedEncodingException {
+        return new HttpResponse(statusCode, headers, body.getBytes("UTF-8"), "UTF-8", false, 1);
+    }
+
+    /**
+     * Recording Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Records the outcomes as "entryId=response" & "entryId=errorCode".
+     */
+    private static class RecordingListener implements HttpOutbox.OutboxListener {
+
+        private final List<String> mDelivered = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> mFailed = Collections.synchronizedList(new ArrayList<String>());
+        private volatile CountDownLatch mLatch = new CountDownLatch(1);
+
+        @Override
+        public void onRequestDelivered(final String entryId, final String response) {
+            mDelivered.add(entryId + "=" + response);
+            mLatch.countDown();
+        }
+
+        @Override
+        public void onRequestFailed(final String entryId, final int errorCode) {
+            mFailed.add(entryId + "=" + errorCode);
+            mLatch.countDown();
+        }
+
+        /**
+         * Used to wait for the expected outcomes.
+         *
+         * @return True if all arrived in time.
+         * @throws InterruptedException If the test thread is interrupted.
+         */
+        boolean await() throws InterruptedException {
+            return await(WAIT_MS);
+        }
+
+        /**
+         * Used to wait for the expected outcomes.
+         *
+         * @param timeoutMs Maximum time to wait.
+         * @return True if all arrived in time.
+         * @throws InterruptedException If the test thread is interrupted.
+         */
+        boolean await(final long timeoutMs) throws InterruptedException {
+            return mLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link HttpRetryPolicy} retry decision, backoff & "Retry-After" parsing.
+ */
+public class HttpRetryPolicyTest {
+
+    private static final int ATTEMPTS = 1000;
+    private static final long NOW_MS = 1500000000000L;
+
+    @Test
+    public void shouldRetry_retriesOnlyIdempotentRequests() {
+        HttpRetryPolicy policy = new HttpRetryPolicy.Builder().setMaxRetries(2).build();
+        assertTrue(policy.shouldRetry(HttpMethod.GET, 0, HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR));
+        assertTrue(policy.shouldRetry(HttpMethod.PUT, 0, HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR));
+        assertTrue(policy.shouldRetry(HttpMethod.DELETE, 1, 503));
+        assertFalse(policy.shouldRetry(HttpMethod.POST, 0, HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR));
+
+        HttpRetryPolicy retryAll = new HttpRetryPolicy.Builder().setMaxRetries(2).setRetryNonIdempotent(true).build();
+        assertTrue(retryAll.shouldRetry(HttpMethod.POST, 0, HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR));
+    }
+
+    @Test
+    public void shouldRetry_stopsAfterTheMaximumRetries() {
+        HttpRetryPolicy policy = new HttpRetryPolicy.Builder().setMaxRetries(2).build();
+        assertTrue(policy.shouldRetry(HttpMethod.GET, 1, 500));
+        assertFalse(policy.shouldRetry(HttpMethod.GET, 2, 500));
+        assertFalse(HttpRetryPolicy.DEFAULT.shouldRetry(HttpMethod.GET, 0, 500));
+    }
+
+    @Test
+    public void shouldRetry_retriesOnlyTheRetryableStatusCodes() {
+        HttpRetryPolicy policy = new HttpRetryPolicy.Builder().setMaxRetries(1).build();
+        for (int statusCode : new int[]{408, 429, 500, 502, 503, 504}) {
+            assertTrue(policy.shouldRetry(HttpMethod.GET, 0, statusCode));
+        }
+        assertFalse(policy.shouldRetry(HttpMethod.GET, 0, 400));
+        assertFalse(policy.shouldRetry(HttpMethod.GET, 0, 404));
+        assertFalse(policy.shouldRetry(HttpMethod.GET, 0, HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR));
+        assertFalse(policy.shouldRetry(HttpMethod.GET, 0, HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN));
+
+        HttpRetryPolicy custom = new HttpRetryPolicy.Builder().setMaxRetries(1).setRetryableStatusCodes(409).build();
+        assertTrue(custom.shouldRetry(HttpMethod.GET, 0, 409));
+        assertFalse(custom.shouldRetry(HttpMethod.GET, 0, 503));
+        // Network errors are retried whatever the status codes.
+        assertTrue(custom.shouldRetry(HttpMethod.GET, 0, HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR));
+    }
+
+    @Test
+    public void getRetryDelayMs_growsExponentiallyWithinTheJitterBounds() {
+        HttpRetryPolicy policy = new HttpRetryPolicy.Builder().setBackoff(100, 2f, 10 * 1000).setJitter(0.5f).build();
+        for (int retryCount = 0; retryCount < 4; retryCount++) {
+            long backoff = 100L << retryCount;
+            for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                long delay = policy.getRetryDelayMs(retryCount, -1);
+                assertTrue(delay >= backoff / 2 && delay <= backoff);
+            }
+        }
+    }
+
+    @Test
+    public void getRetryDelayMs_withoutJitterIsTheBackoff() {
+        HttpRetryPolicy policy = new HttpRetryPolicy.Builder().setBackoff(100, 3f, 10 * 1000).setJitter(0f).build();
+        assertEquals(100, policy.getRetryDelayMs(0, -1));
+        assertEquals(300, policy.getRetryDelayMs(1, -1));
+        assertEquals(900, policy.getRetryDelayMs(2, -1));
+    }
+
+    @Test
+    public void getRetryDelayMs_isCappedAtTheMaximumBackoff() {
+        HttpRetryPolicy policy = new HttpRetryPolicy.Builder().setBackoff(100, 2f, 1000).setJitter(0.5f).build();
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            long delay = policy.getRetryDelayMs(30, -1);
+            assertTrue(delay >= 500 && delay <= 1000);
+        }
+        assertEquals(1000, new HttpRetryPolicy.Builder().setBackoff(100, 2f, 1000).setJitter(0f).build()
+                .getRetryDelayMs(Integer.MAX_VALUE, -1));
+    }
+
+    @Test
+    public void getRetryDelayMs_honorsRetryAfterUpToTheMaximumBackoff() {
+        HttpRetryPolicy policy = new HttpRetryPolicy.Builder().setBackoff(100, 2f, 1000).build();
+        assertEquals(0, policy.getRetryDelayMs(3, 0));
+        assertEquals(800, policy.getRetryDelayMs(0, 800));
+        assertEquals(1000, policy.getRetryDelayMs(0, 1000));
+        // Server asked to wait longer than the maximum, don't retry.
+        assertEquals(-1, policy.getRetryDelayMs(0, 1001));
+        assertEquals(-1, policy.getRetryDelayMs(0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void parseRetryAfter_readsTheDelayInSeconds() {
+        assertEquals(120 * 1000, HttpRetryPolicy.parseRetryAfter("120", NOW_MS));
+        assertEquals(0, HttpRetryPolicy.parseRetryAfter("0", NOW_MS));
+        assertEquals(5000, HttpRetryPolicy.parseRetryAfter(" 5 ", NOW_MS));
+    }
+
+    @Test
+    public void parseRetryAfter_clampsHugeDelaysInsteadOfOverflowing() {
+        long maxMs = (Long.MAX_VALUE / 1000) * 1000;
+        assertEquals(maxMs, HttpRetryPolicy.parseRetryAfter(String.valueOf(Long.MAX_VALUE / 100), NOW_MS));
+        assertEquals(maxMs, HttpRetryPolicy.parseRetryAfter(String.valueOf(Long.MAX_VALUE), NOW_MS));
+        assertEquals(maxMs, HttpRetryPolicy.parseRetryAfter("99999999999999999999999", NOW_MS));
+        // Longer than any maximum backoff, not retried.
+        long retryAfterMs = HttpRetryPolicy.parseRetryAfter(String.valueOf(Long.MAX_VALUE), NOW_MS);
+        assertEquals(-1, HttpRetryPolicy.DEFAULT.getRetryDelayMs(0, retryAfterMs));
+    }
+
+    @Test
+    public void parseRetryAfter_readsTheHttpDate() {
+        assertEquals(30 * 1000, HttpRetryPolicy.parseRetryAfter(httpDate(NOW_MS + 30 * 1000), NOW_MS));
+        // Date in the past means retry right away.
+        assertEquals(0, HttpRetryPolicy.parseRetryAfter(httpDate(NOW_MS - 30 * 1000), NOW_MS));
+    }
+
+    @Test
+    public void parseRetryAfter_rejectsInvalidValues() {
+        assertEquals(-1, HttpRetryPolicy.parseRetryAfter(null, NOW_MS));
+        assertEquals(-1, HttpRetryPolicy.parseRetryAfter("", NOW_MS));
+        assertEquals(-1, HttpRetryPolicy.parseRetryAfter("-5", NOW_MS));
+        assertEquals(-1, HttpRetryPolicy.parseRetryAfter("1.5", NOW_MS));
+        assertEquals(-1, HttpRetryPolicy.parseRetryAfter("soon", NOW_MS));
+    }
+
+    /**
+     * Used to format the time as HTTP date.
+     *
+     * @param timeMs Time in milliseconds.
+     * @return HTTP date.
+     */
+    private static String httpDate(final long timeMs) {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(timeMs));
+    }
+}
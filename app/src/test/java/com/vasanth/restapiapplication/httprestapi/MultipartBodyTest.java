@@ -0,0 +1,108 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link MultipartBody} content length & encoding.
+ */
+public class MultipartBodyTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("multipart-body-test-\u00fcn\u00efc\u00f6d\u00e9", ".txt");
+        FileOutputStream outputStream = new FileOutputStream(mFile);
+        try {
+            outputStream.write("file content\r\nsecond line".getBytes(UTF_8));
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        mFile.delete();
+    }
+
+    @Test
+    public void contentLength_matchesTheWrittenBytesForEveryPartType() throws IOException {
+        MultipartBody body = new MultipartBody.Builder()
+                .addFormField("title", "Buy milk")
+                .addFile("attachment", mFile, "text/plain")
+                .addPart("image", "image.png", HttpRequestBody.create(new byte[]{0, 1, 2, (byte) 0xff}, "image/png"))
+                .build();
+        assertEquals(write(body).length, body.getContentLength());
+    }
+
+    @Test
+    public void contentLength_countsTheEncodedBytesOfNonAsciiText() throws IOException {
+        MultipartBody body = new MultipartBody.Builder()
+                .addFormField("t\u00edtulo", "caf\u00e9 \u2615 \u65e5\u672c\u8a9e")
+                .addFile("fichier-\u00e9t\u00e9", mFile, null)
+                .addPart("\u753b\u50cf", "\u5199\u771f-\"1\".png", HttpRequestBody.create(new byte[16], null))
+                .addPart("emoji-\ud83d\ude00", null, HttpRequestBody.create("\ud83d\ude00", "text/plain; charset=UTF-16"))
+                .build();
+        byte[] written = write(body);
+        assertEquals(written.length, body.getContentLength());
+
+        String content = new String(written, UTF_8);
+        assertTrue(content.contains("Content-Disposition: form-data; name=\"t\u00edtulo\"\r\n"));
+        assertTrue(content.contains("name=\"\u753b\u50cf\"; filename=\"\u5199\u771f-%221%22.png\"\r\n"));
+        assertTrue(content.contains("filename=\"" + mFile.getName() + "\""));
+        assertTrue(content.contains("\r\n\r\ncaf\u00e9 \u2615 \u65e5\u672c\u8a9e\r\n"));
+    }
+
+    @Test
+    public void writeTo_framesThePartsWithTheBoundary() throws IOException {
+        MultipartBody body = new MultipartBody.Builder()
+                .addFormField("a", "1")
+                .addFormField("b", "2")
+                .build();
+        String boundary = body.getContentType().substring(body.getContentType().indexOf("boundary=") + "boundary=".length());
+        String expected = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"a\"\r\nContent-Type: text/plain; charset=UTF-8\r\n\r\n1\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"b\"\r\nContent-Type: text/plain; charset=UTF-8\r\n\r\n2\r\n"
+                + "--" + boundary + "--\r\n";
+        assertEquals(expected, new String(write(body), UTF_8));
+        assertEquals(expected.getBytes(UTF_8).length, body.getContentLength());
+    }
+
+    @Test
+    public void contentLength_isStableAcrossAttempts() throws IOException {
+        MultipartBody body = new MultipartBody.Builder()
+                .addFile("attachment", mFile, null)
+                .build();
+        long contentLength = body.getContentLength();
+        // Written again on retry.
+        assertEquals(contentLength, write(body).length);
+        assertEquals(contentLength, write(body).length);
+    }
+
+    /**
+     * Used to write the body the way it is sent.
+     *
+     * @param body Body.
+     * @return Written bytes.
+     * @throws IOException If writing fails.
+     */
+    private static byte[] write(final HttpRequestBody body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+}
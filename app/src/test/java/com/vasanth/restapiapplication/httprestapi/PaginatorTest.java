@@ -0,0 +1,299 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link Paginator} over {@link FakeHttpClientApi}.
+ */
+public class PaginatorTest {
+
+    private static final String URL = "https://api.example.com/todos";
+    private static final String HEADER_NEXT = "Next";
+
+    private FakeHttpClientApi mHttpClientApi;
+    private RecordingListener mListener;
+    private List<Thread> mDecoderThreads;
+
+    @Before
+    public void setUp() {
+        mHttpClientApi = new FakeHttpClientApi();
+        mListener = new RecordingListener();
+        mDecoderThreads = Collections.synchronizedList(new ArrayList<Thread>());
+    }
+
+    @Test
+    public void loadMore_deliversThePagesInOrderThenCompletes() {
+        Paginator<String> paginator = create(0);
+        paginator.loadMore();
+        assertEquals(1, mHttpClientApi.getCallCount());
+        assertEquals(URL, mHttpClientApi.getCall(0).getUrl());
+        mHttpClientApi.getCall(0).succeed(page(URL + "?page=2", "a", "b"));
+
+        paginator.loadMore();
+        assertEquals(URL + "?page=2", mHttpClientApi.getCall(1).getUrl());
+        mHttpClientApi.getCall(1).succeed(page(null, "c"));
+
+        assertEquals(Arrays.asList("0:[a, b]", "1:[c]", "complete"), mListener.getCallbacks());
+        assertTrue(paginator.isCompleted());
+        paginator.loadMore();
+        assertEquals(2, mHttpClientApi.getCallCount());
+    }
+
+    @Test
+    public void loadMore_prefetchesTheNextPageWithLowPriority() {
+        Paginator<String> paginator = create(1);
+        paginator.loadMore();
+        assertEquals(RequestOptions.Priority.NORMAL, mHttpClientApi.getCall(0).getOptions().getPriority());
+        mHttpClientApi.getCall(0).succeed(page(URL + "?page=2", "a"));
+
+        assertEquals(RequestOptions.Priority.LOW, mHttpClientApi.getCall(1).getOptions().getPriority());
+        mHttpClientApi.getCall(1).succeed(page(URL + "?page=3", "b"));
+        assertEquals(1, paginator.getBufferedPages());
+        assertEquals(Collections.singletonList("0:[a]"), mListener.getCallbacks());
+
+        // Buffered page is delivered right away, the next one is prefetched.
+        paginator.loadMore();
+        assertEquals(Arrays.asList("0:[a]", "1:[b]"), mListener.getCallbacks());
+        assertEquals(3, mHttpClientApi.getCallCount());
+        assertEquals(RequestOptions.Priority.LOW, mHttpClientApi.getCall(2).getOptions().getPriority());
+    }
+
+    @Test
+    public void loadMore_escalatesThePrefetchInFlight() {
+        Paginator<String> paginator = create(1);
+        paginator.loadMore();
+        mHttpClientApi.getCall(0).succeed(page(URL + "?page=2", "a"));
+        FakeHttpClientApi.Call prefetch = mHttpClientApi.getCall(1);
+        assertEquals(RequestOptions.Priority.LOW, prefetch.getOptions().getPriority());
+
+        // Consumer asks for the page being prefetched.
+        paginator.loadMore();
+        assertTrue(prefetch.isCancelled());
+        assertEquals(Collections.singletonList("todos"), mHttpClientApi.getCancelledIdentifiers());
+        assertEquals(3, mHttpClientApi.getCallCount());
+        FakeHttpClientApi.Call escalated = mHttpClientApi.getCall(2);
+        assertEquals(URL + "?page=2", escalated.getUrl());
+        assertEquals(RequestOptions.Priority.NORMAL, escalated.getOptions().getPriority());
+
+        // Response of the cancelled prefetch racing the cancellation is dropped.
+        prefetch.succeed(page(URL + "?page=3", "stale"));
+        prefetch.fail(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        assertEquals(Collections.singletonList("0:[a]"), mListener.getCallbacks());
+        assertEquals(3, mHttpClientApi.getCallCount());
+
+        escalated.succeed(page(null, "b"));
+        assertEquals(Arrays.asList("0:[a]", "1:[b]", "complete"), mListener.getCallbacks());
+    }
+
+    @Test
+    public void decoder_runsOnTheNetworkThread() throws InterruptedException {
+        Paginator<String> paginator = create(0);
+        paginator.loadMore();
+        FakeHttpClientApi.Call call = mHttpClientApi.getCall(0);
+        assertSame(DeliveryExecutors.immediate(), call.getOptions().getDeliveryExecutor());
+
+        Thread networkThread = complete(call, page(null, "a"));
+        assertEquals(Collections.singletonList(networkThread), mDecoderThreads);
+        assertEquals(Arrays.asList("0:[a]", "complete"), mListener.getCallbacks());
+    }
+
+    @Test
+    public void listener_isCalledWithoutHoldingTheLock() throws InterruptedException {
+        final AtomicReference<Paginator<String>> paginatorReference = new AtomicReference<Paginator<String>>();
+        final List<Integer> bufferedPages = new ArrayList<Integer>();
+        // Another thread reads the paginator while the listener runs.
+        RecordingListener listener = new RecordingListener() {
+            @Override
+            public void onPage(final int pageIndex, final List<String> items) {
+                super.onPage(pageIndex, items);
+                Thread reader = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        bufferedPages.add(paginatorReference.get().getBufferedPages());
+                    }
+                });
+                reader.start();
+                try {
+                    reader.join(1000);
+                } catch (InterruptedException exp) {
+                    Thread.currentThread().interrupt();
+                }
+                assertFalse(reader.isAlive());
+            }
+        };
+        mListener = listener;
+        paginatorReference.set(create(0));
+        paginatorReference.get().loadMore();
+        mHttpClientApi.getCall(0).succeed(page(URL + "?page=2", "a"));
+        assertEquals(Collections.singletonList(0), bufferedPages);
+    }
+
+    @Test
+    public void loadMore_fromTheListenerDeliversInOrder() {
+        final AtomicReference<Paginator<String>> paginatorReference = new AtomicReference<Paginator<String>>();
+        mListener = new RecordingListener() {
+            @Override
+            public void onPage(final int pageIndex, final List<String> items) {
+                super.onPage(pageIndex, items);
+                if (pageIndex == 0) {
+                    paginatorReference.get().loadMore();
+                }
+            }
+        };
+        paginatorReference.set(create(1));
+        paginatorReference.get().loadMore();
+        mHttpClientApi.getCall(0).succeed(page(URL + "?page=2", "a"));
+        // Prefetch issued before the listener ran is escalated by its loadMore.
+        assertTrue(mHttpClientApi.getCall(1).isCancelled());
+        assertEquals(RequestOptions.Priority.NORMAL, mHttpClientApi.getCall(2).getOptions().getPriority());
+        mHttpClientApi.getCall(2).succeed(page(null, "b"));
+        assertEquals(Arrays.asList("0:[a]", "1:[b]", "complete"), mListener.getCallbacks());
+    }
+
+    @Test
+    public void decodeFailure_isReportedAsParseError() {
+        Paginator<String> paginator = create(0);
+        paginator.loadMore();
+        mHttpClientApi.getCall(0).succeed(new HttpResponse(200, null, null, "UTF-8", false, 10));
+        assertEquals(Collections.singletonList("error:" + HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR),
+                mListener.getCallbacks());
+
+        // Asked again, the same page is fetched.
+        paginator.loadMore();
+        assertEquals(URL, mHttpClientApi.getCall(1).getUrl());
+    }
+
+    @Test
+    public void failedPrefetch_isNotReported() {
+        Paginator<String> paginator = create(1);
+        paginator.loadMore();
+        mHttpClientApi.getCall(0).succeed(page(URL + "?page=2", "a"));
+        mHttpClientApi.getCall(1).fail(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        assertEquals(Collections.singletonList("0:[a]"), mListener.getCallbacks());
+
+        paginator.loadMore();
+        assertEquals(RequestOptions.Priority.NORMAL, mHttpClientApi.getCall(2).getOptions().getPriority());
+    }
+
+    @Test
+    public void close_cancelsTheFetchAndStopsTheCallbacks() {
+        Paginator<String> paginator = create(0);
+        paginator.loadMore();
+        paginator.close();
+        assertTrue(mHttpClientApi.getCall(0).isCancelled());
+
+        mHttpClientApi.getCall(0).succeed(page(URL + "?page=2", "a"));
+        paginator.loadMore();
+        assertTrue(mListener.getCallbacks().isEmpty());
+        assertEquals(1, mHttpClientApi.getCallCount());
+    }
+
+    /**
+     * Used to create the paginator calling the listener on the completing thread.
+     *
+     * @param prefetchPages Pages to prefetch.
+     * @return Paginator.
+     */
+    private Paginator<String> create(final int prefetchPages) {
+        return new Paginator.Builder<String>(mHttpClientApi, "todos", URL, new Paginator.PageDecoder<String>() {
+            @Override
+            public Paginator.Page<String> decode(final String url, final HttpResponse response) throws Exception {
+                mDecoderThreads.add(Thread.currentThread());
+                String body = response.getBodyAsString();
+                if (body.isEmpty()) {
+                    throw new IllegalArgumentException("Empty page");
+                }
+                return new Paginator.Page<String>(Arrays.asList(body.split(",")), response.getHeader(HEADER_NEXT));
+            }
+        })
+                .setPrefetchPages(prefetchPages)
+                .setDeliveryExecutor(DeliveryExecutors.immediate())
+                .build(mListener);
+    }
+
+    /**
+     * Used to create the page response, items as comma separated body & the next url in {@link #HEADER_NEXT}.
+     *
+     * @param nextUrl Url of the next page, null for the last page.
+     * @param items   Items.
+     * @return Response.
+     */
+    private static HttpResponse page(final String nextUrl, final String... items) {
+        StringBuilder body = new StringBuilder();
+        for (String item : items) {
+            body.append(body.length() > 0 ? "," : "").append(item);
+        }
+        Map<String, String> headers = (nextUrl != null) ? Collections.singletonMap(HEADER_NEXT, nextUrl) : null;
+        return new HttpResponse(200, headers, body.toString().getBytes(Charset.forName("UTF-8")), "UTF-8", false, 10);
+    }
+
+    /**
+     * Used to complete the call on a new thread, like the network thread of the client.
+     *
+     * @param call     Call.
+     * @param response Response.
+     * @return Thread the call was completed on.
+     * @throws InterruptedException If the test thread is interrupted.
+     */
+    private static Thread complete(final FakeHttpClientApi.Call call, final HttpResponse response) throws InterruptedException {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                call.succeed(response);
+            }
+        });
+        thread.start();
+        thread.join(1000);
+        assertFalse(thread.isAlive());
+        return thread;
+    }
+
+    /**
+     * Recording Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Records the callbacks as "{index}:{items}", "complete" & "error:{code}".
+     */
+    private static class RecordingListener implements Paginator.PageListener<String> {
+
+        private final List<String> mCallbacks = new ArrayList<String>();
+
+        @Override
+        public synchronized void onPage(final int pageIndex, final List<String> items) {
+            mCallbacks.add(pageIndex + ":" + items);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            mCallbacks.add("complete");
+        }
+
+        @Override
+        public synchronized void onErrorResponse(final int errorCode) {
+            mCallbacks.add("error:" + errorCode);
+        }
+
+        /**
+         * Used to get the recorded callbacks.
+         *
+         * @return Copy of the callbacks.
+         */
+        synchronized List<String> getCallbacks() {
+            return new ArrayList<String>(mCallbacks);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link RequestCoalescer}.
+ */
+public class RequestCoalescerTest {
+
+    private static final String URL = "https://api.example.com/todos";
+
+    private final RequestCoalescer<String> mCoalescer = new RequestCoalescer<String>();
+
+    @Test
+    public void join_identicalRequestsShareTheFlight() {
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        RequestCoalescer.Flight<String> flight = mCoalescer.join(key(RequestOptions.DEFAULT), "first", first);
+        assertNotNull(flight);
+        assertNull(mCoalescer.join(key(RequestOptions.DEFAULT), "second", second));
+
+        flight.onSuccessResponse("todos");
+        assertEquals(Collections.singletonList("todos"), first.mResponses);
+        assertEquals(Collections.singletonList("todos"), second.mResponses);
+
+        // Completed, identical request starts a new flight.
+        assertNotNull(mCoalescer.join(key(RequestOptions.DEFAULT), "third", new RecordingListener()));
+    }
+
+    @Test
+    public void intermediateResponse_membersGetTheRefreshedResponseToo() {
+        RequestOptions cached = new RequestOptions.Builder().setShouldCache(true).build();
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        RequestCoalescer.Flight<String> flight = mCoalescer.join(key(cached), "first", first);
+        mCoalescer.join(key(cached), "second", second);
+
+        // Cached response needing refresh.
+        flight.onSuccessResponse("cached");
+        // Delivering flight can't be joined, its members already got the first response.
+        RecordingListener late = new RecordingListener();
+        RequestCoalescer.Flight<String> lateFlight = mCoalescer.join(key(cached), "late", late);
+        assertNotNull(lateFlight);
+        assertNotEquals(flight, lateFlight);
+
+        flight.onSuccessResponse("refreshed");
+        flight.onRequestFinished();
+        assertEquals(Arrays.asList("cached", "refreshed"), first.mResponses);
+        assertEquals(Arrays.asList("cached", "refreshed"), second.mResponses);
+        assertEquals(1, first.mFinishedCount);
+        assertEquals(1, second.mFinishedCount);
+        assertTrue(late.mResponses.isEmpty());
+
+        // Finished flight releases its members.
+        flight.onSuccessResponse("again");
+        assertEquals(Arrays.asList("cached", "refreshed"), first.mResponses);
+    }
+
+    @Test
+    public void intermediateResponse_notModifiedRefreshOnlyFinishes() {
+        RecordingListener listener = new RecordingListener();
+        RequestCoalescer.Flight<String> flight = mCoalescer.join(key(RequestOptions.DEFAULT), "first", listener);
+        flight.onSuccessResponse("cached");
+        flight.onRequestFinished();
+        assertEquals(Collections.singletonList("cached"), listener.mResponses);
+        assertEquals(1, listener.mFinishedCount);
+        assertTrue(mCoalescer.cancel("first").isEmpty());
+    }
+
+    @Test
+    public void cancel_afterIntermediateResponseRemovesTheListener() {
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        RequestCoalescer.Flight<String> flight = mCoalescer.join(key(RequestOptions.DEFAULT), "first", first);
+        mCoalescer.join(key(RequestOptions.DEFAULT), "second", second);
+        flight.onSuccessResponse("cached");
+
+        assertTrue(mCoalescer.cancel("first").isEmpty());
+        flight.onSuccessResponse("refreshed");
+        assertEquals(Collections.singletonList("cached"), first.mResponses);
+        assertEquals(Arrays.asList("cached", "refreshed"), second.mResponses);
+
+        // Last listener gone, refresh in flight is cancelled.
+        assertEquals(Collections.singletonList(flight), mCoalescer.cancel("second"));
+    }
+
+    @Test
+    public void buildKey_headerOrderDoesNotMatter() {
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put("Accept", "application/json");
+        headers.put("Authorization", "Bearer token");
+        Map<String, String> reversed = new LinkedHashMap<String, String>();
+        reversed.put("Authorization", "Bearer token");
+        reversed.put("Accept", "application/json");
+        assertEquals(RequestCoalescer.buildKey("GET", URL, headers, RequestOptions.DEFAULT),
+                RequestCoalescer.buildKey("GET", URL, reversed, RequestOptions.DEFAULT));
+        assertNotEquals(RequestCoalescer.buildKey("GET", URL, headers, RequestOptions.DEFAULT),
+                RequestCoalescer.buildKey("GET", URL, null, RequestOptions.DEFAULT));
+    }
+
+    @Test
+    public void buildKey_differentOptionsAreNotIdentical() {
+        Executor executor = DeliveryExecutors.immediate();
+        HttpRetryPolicy retryPolicy = new HttpRetryPolicy.Builder().setMaxRetries(0).build();
+        RequestOptions[] options = new RequestOptions[]{
+                RequestOptions.DEFAULT,
+                new RequestOptions.Builder().setDeliveryExecutor(executor).build(),
+                new RequestOptions.Builder().setDeliveryExecutor(new Executor() {
+                    @Override
+                    public void execute(final Runnable command) {
+                        command.run();
+                    }
+                }).build(),
+                new RequestOptions.Builder().setPriority(RequestOptions.Priority.HIGH).build(),
+                new RequestOptions.Builder().setShouldCache(true).build(),
+                new RequestOptions.Builder().setShouldCache(true).setMaxAgeMs(60000).build(),
+                new RequestOptions.Builder().setShouldCache(true).setMaxStaleMs(60000).build(),
+                new RequestOptions.Builder().setRetryPolicy(retryPolicy).build(),
+                new RequestOptions.Builder().setRetryPolicy(new HttpRetryPolicy.Builder().setMaxRetries(0).build()).build()
+        };
+        for (int left = 0; left < options.length; left++) {
+            for (int right = 0; right < options.length; right++) {
+                if (left != right) {
+                    assertNotEquals("options " + left + " & " + right, key(options[left]), key(options[right]));
+                }
+            }
+        }
+
+        // Same instances are identical.
+        assertEquals(key(new RequestOptions.Builder().setDeliveryExecutor(executor).setRetryPolicy(retryPolicy).build()),
+                key(new RequestOptions.Builder().setDeliveryExecutor(executor).setRetryPolicy(retryPolicy).build()));
+    }
+
+    @Test
+    public void join_differentOptionsStartTheirOwnFlight() {
+        RequestOptions low = new RequestOptions.Builder().setPriority(RequestOptions.Priority.LOW).build();
+        RequestOptions high = new RequestOptions.Builder().setPriority(RequestOptions.Priority.HIGH).build();
+        RecordingListener lowListener = new RecordingListener();
+        RecordingListener highListener = new RecordingListener();
+        RequestCoalescer.Flight<String> lowFlight = mCoalescer.join(key(low), "prefetch", lowListener);
+        RequestCoalescer.Flight<String> highFlight = mCoalescer.join(key(high), "screen", highListener);
+        assertNotNull(lowFlight);
+        assertNotNull(highFlight);
+
+        highFlight.onErrorResponse(500);
+        assertEquals(Collections.singletonList(500), highListener.mErrorCodes);
+        assertTrue(lowListener.mErrorCodes.isEmpty());
+    }
+
+    @Test
+    public void cancel_removesOnlyTheListenersOfTheIdentifier() {
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        RequestCoalescer.Flight<String> flight = mCoalescer.join(key(RequestOptions.DEFAULT), "first", first);
+        mCoalescer.join(key(RequestOptions.DEFAULT), "second", second);
+
+        assertTrue("flight still has a listener", mCoalescer.cancel("first").isEmpty());
+        flight.onSuccessResponse("todos");
+        assertTrue(first.mResponses.isEmpty());
+        assertEquals(Collections.singletonList("todos"), second.mResponses);
+    }
+
+    @Test
+    public void cancel_returnsTheFlightWithoutListeners() {
+        RequestCoalescer.Flight<String> flight = mCoalescer.join(key(RequestOptions.DEFAULT), "first", new RecordingListener());
+        assertEquals(Collections.singletonList(flight), mCoalescer.cancel("first"));
+
+        // Cancelled flight is gone, identical request starts a new one.
+        RequestCoalescer.Flight<String> next = mCoalescer.join(key(RequestOptions.DEFAULT), "second", new RecordingListener());
+        assertNotNull(next);
+        assertNotEquals(flight, next);
+    }
+
+    /**
+     * Used to build the key of "GET" request to {@link #URL}.
+     *
+     * @param options Request options.
+     * @return Key.
+     */
+    private static RequestCoalescer.Key key(final RequestOptions options) {
+        return RequestCoalescer.buildKey(HttpMethod.GET.name(), URL, null, options);
+    }
+
+    /**
+     * Recording Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Records the callbacks.
+     */
+    private static class RecordingListener implements HttpClientApi.HttpResponseListener, HttpClientApi.RequestFinishedListener {
+
+        private final List<String> mResponses = new ArrayList<String>();
+        private final List<Integer> mErrorCodes = new ArrayList<Integer>();
+        private int mFinishedCount;
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            mResponses.add(response);
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            mErrorCodes.add(errorCode);
+        }
+
+        @Override
+        public void onRequestFinished() {
+            mFinishedCount++;
+        }
+    }
+}
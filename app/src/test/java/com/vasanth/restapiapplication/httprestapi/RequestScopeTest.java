@@ -0,0 +1,196 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link RequestScope} over {@link FakeHttpClientApi}.
+ */
+public class RequestScopeTest {
+
+    private static final String URL = "https://api.example.com/todos";
+
+    private FakeHttpClientApi mHttpClientApi;
+    private RequestScope mScope;
+
+    @Before
+    public void setUp() {
+        mHttpClientApi = new FakeHttpClientApi();
+        mScope = new RequestScope(mHttpClientApi, "TodoActivity");
+    }
+
+    @Test
+    public void identifiersArePrefixedPerScope() {
+        RequestScope otherScope = new RequestScope(mHttpClientApi, "TodoActivity");
+        mScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, new RecordingListener());
+        otherScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, new RecordingListener());
+
+        assertEquals(mScope.getScopedIdentifier("todos"), mHttpClientApi.getCall(0).getIdentifier());
+        assertEquals(otherScope.getScopedIdentifier("todos"), mHttpClientApi.getCall(1).getIdentifier());
+        assertNotEquals(mHttpClientApi.getCall(0).getIdentifier(), mHttpClientApi.getCall(1).getIdentifier());
+    }
+
+    @Test
+    public void cancelRequest_cancelsOnlyTheRequestsOfThisScope() {
+        RequestScope otherScope = new RequestScope(mHttpClientApi, "TodoActivity");
+        RecordingListener listener = new RecordingListener();
+        RecordingListener otherListener = new RecordingListener();
+        mScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, listener);
+        otherScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, otherListener);
+
+        mScope.cancelRequest("todos");
+        // Wrapped client gets an equal identifier, but not the instance the request was made with.
+        String cancelledIdentifier = mHttpClientApi.getCancelledIdentifiers().get(0);
+        assertEquals(mHttpClientApi.getCall(0).getIdentifier(), cancelledIdentifier);
+        assertFalse(mHttpClientApi.getCall(0).getIdentifier() == cancelledIdentifier);
+        assertTrue(mHttpClientApi.getCall(0).isCancelled());
+        assertFalse(mHttpClientApi.getCall(1).isCancelled());
+
+        // Response racing the cancellation isn't delivered.
+        mHttpClientApi.getCall(0).succeed("todos");
+        mHttpClientApi.getCall(1).succeed("todos");
+        assertTrue(listener.mCallbacks.isEmpty());
+        assertEquals(Collections.singletonList("todos"), otherListener.mCallbacks);
+    }
+
+    @Test
+    public void cancelAll_cancelsEveryIdentifierOnce() {
+        RecordingListener listener = new RecordingListener();
+        mScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, listener);
+        mScope.getRequest("todos", null, URL + "/1", RequestOptions.DEFAULT, listener);
+        mScope.deleteRequest("delete", null, URL + "/2", RequestOptions.DEFAULT, listener);
+        // Completed request isn't cancelled.
+        mScope.getRequest("done", null, URL + "/3", RequestOptions.DEFAULT, listener);
+        mHttpClientApi.getCall(3).succeed("done");
+
+        mScope.cancelAll();
+        List<String> cancelled = new ArrayList<String>(mHttpClientApi.getCancelledIdentifiers());
+        Collections.sort(cancelled);
+        assertEquals(Arrays.asList(mScope.getScopedIdentifier("delete"), mScope.getScopedIdentifier("todos")), cancelled);
+
+        for (int index = 0; index < 3; index++) {
+            mHttpClientApi.getCall(index).fail(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR);
+        }
+        assertEquals(Collections.singletonList("done"), listener.mCallbacks);
+
+        // Scope can still be used.
+        mScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, listener);
+        mHttpClientApi.getCall(4).succeed("again");
+        assertEquals(Arrays.asList("done", "again"), listener.mCallbacks);
+    }
+
+    @Test
+    public void close_dropsLaterRequests() {
+        mScope.close();
+        assertTrue(mScope.isClosed());
+        mScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, new RecordingListener());
+        mScope.postRequest("todos", null, URL, "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON, RequestOptions.DEFAULT,
+                new RecordingListener());
+        assertEquals(0, mHttpClientApi.getCallCount());
+    }
+
+    @Test
+    public void staleWhileRevalidate_deliversBothResponses() {
+        RequestOptions staleWhileRevalidate = new RequestOptions.Builder()
+                .setShouldCache(true)
+                .setCachePolicy(RequestOptions.CachePolicy.STALE_WHILE_REVALIDATE)
+                .build();
+        RecordingListener listener = new RecordingListener();
+        mScope.getRequest("todos", null, URL, staleWhileRevalidate, listener);
+
+        mHttpClientApi.getCall(0).succeed("stale");
+        mHttpClientApi.getCall(0).succeed("fresh");
+        assertEquals(Arrays.asList("stale", "fresh"), listener.mCallbacks);
+
+        // Listener is held until the scope cancels it, as "304 Not Modified" isn't delivered.
+        mScope.cancelAll();
+        assertEquals(Collections.singletonList(mScope.getScopedIdentifier("todos")), mHttpClientApi.getCancelledIdentifiers());
+        mHttpClientApi.getCall(0).succeed("late");
+        assertEquals(Arrays.asList("stale", "fresh"), listener.mCallbacks);
+    }
+
+    @Test
+    public void cacheEnabledRequest_deliversTheRefreshedResponseUntilFinished() {
+        RecordingListener listener = new RecordingListener();
+        mScope.getRequest("todos", null, URL, new RequestOptions.Builder().setShouldCache(true).build(), listener);
+
+        // Cached response needing refresh, then the refreshed one.
+        mHttpClientApi.getCall(0).succeed("cached");
+        mHttpClientApi.getCall(0).succeed("refreshed");
+        assertEquals(Arrays.asList("cached", "refreshed"), listener.mCallbacks);
+
+        // Released once finished, nothing left to cancel.
+        mHttpClientApi.getCall(0).finish();
+        assertEquals(1, listener.mFinishedCount);
+        mScope.cancelAll();
+        assertTrue(mHttpClientApi.getCancelledIdentifiers().isEmpty());
+        mHttpClientApi.getCall(0).succeed("late");
+        assertEquals(Arrays.asList("cached", "refreshed"), listener.mCallbacks);
+    }
+
+    @Test
+    public void notCachedRequest_deliversOnlyTheFirstResponse() {
+        RecordingListener listener = new RecordingListener();
+        mScope.getRequest("todos", null, URL, RequestOptions.DEFAULT, listener);
+
+        mHttpClientApi.getCall(0).succeed("todos");
+        mHttpClientApi.getCall(0).succeed("again");
+        assertEquals(Collections.singletonList("todos"), listener.mCallbacks);
+
+        // Released on completion, nothing left to cancel, finish is still forwarded.
+        mScope.cancelAll();
+        assertTrue(mHttpClientApi.getCancelledIdentifiers().isEmpty());
+        mHttpClientApi.getCall(0).finish();
+        assertEquals(1, listener.mFinishedCount);
+    }
+
+    @Test
+    public void cancelledRequest_isNotToldItFinished() {
+        RecordingListener listener = new RecordingListener();
+        mScope.getRequest("todos", null, URL, new RequestOptions.Builder().setShouldCache(true).build(), listener);
+        mHttpClientApi.getCall(0).succeed("cached");
+        mScope.cancelRequest("todos");
+
+        mHttpClientApi.getCall(0).succeed("refreshed");
+        mHttpClientApi.getCall(0).finish();
+        assertEquals(Collections.singletonList("cached"), listener.mCallbacks);
+        assertEquals(0, listener.mFinishedCount);
+    }
+
+    /**
+     * Recording Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Records the responses, the error codes & the finish count.
+     */
+    private static class RecordingListener implements HttpClientApi.HttpResponseListener, HttpClientApi.RequestFinishedListener {
+
+        private final List<String> mCallbacks = new ArrayList<String>();
+        private int mFinishedCount;
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            mCallbacks.add(response);
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            mCallbacks.add(String.valueOf(errorCode));
+        }
+
+        @Override
+        public void onRequestFinished() {
+            mFinishedCount++;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link TokenAuthenticator} single flight refresh, replay & failed refresh backoff.
+ */
+public class TokenAuthenticatorTest {
+
+    private static final String URL = "https://api.example.com/todos";
+    private static final long TIMEOUT_MS = 5000;
+
+    @Test
+    public void concurrentUnauthorized_refreshOnceAndReplayAll() throws Exception {
+        final int requests = 8;
+        final CountDownLatch refreshStarted = new CountDownLatch(1);
+        final CountDownLatch releaseRefresh = new CountDownLatch(1);
+        final RecordingProvider provider = new RecordingProvider("t1", "t2") {
+            @Override
+            public String refreshToken(final String expiredToken) {
+                refreshStarted.countDown();
+                await(releaseRefresh);
+                return super.refreshToken(expiredToken);
+            }
+        };
+        final TokenAuthenticator authenticator = new TokenAuthenticator(provider);
+        final CyclicBarrier rejected = new CyclicBarrier(requests);
+        final AtomicInteger replayed = new AtomicInteger();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int index = 0; index < requests; index++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    InterceptedRequest request = send(authenticator, "todos");
+                    try {
+                        // All sent with the same token before the server rejects them.
+                        rejected.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    } catch (Exception exp) {
+                        throw new AssertionError(exp);
+                    }
+                    if (authenticator.authenticate(request)) {
+                        replayed.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        await(refreshStarted);
+        // Give the other requests the time to reach the refresh in progress.
+        Thread.sleep(100);
+        releaseRefresh.countDown();
+        for (Thread thread : threads) {
+            thread.join(TIMEOUT_MS);
+            assertFalse(thread.isAlive());
+        }
+
+        assertEquals(1, provider.getRefreshCount());
+        assertEquals(requests, replayed.get());
+        assertEquals("Bearer t2", send(authenticator, "todos").getHeader(TokenAuthenticator.HEADER_AUTHORIZATION));
+    }
+
+    @Test
+    public void refreshedWhileInFlight_replaysWithoutRefreshing() {
+        RecordingProvider provider = new RecordingProvider("t1", "t2");
+        TokenAuthenticator authenticator = new TokenAuthenticator(provider);
+        InterceptedRequest first = send(authenticator, "todos");
+        InterceptedRequest inFlight = send(authenticator, "todos");
+
+        assertTrue(authenticator.authenticate(first));
+        assertEquals(1, provider.getRefreshCount());
+        // Sent with the old token before the refresh, replayed with the new one.
+        assertTrue(authenticator.authenticate(inFlight));
+        assertEquals(1, provider.getRefreshCount());
+    }
+
+    @Test
+    public void failedRefresh_isNotRetriedUntilTheIntervalPasses() throws InterruptedException {
+        RecordingProvider provider = new RecordingProvider("t1", null, null, "t2");
+        TokenAuthenticator authenticator = new TokenAuthenticator(provider, 200);
+
+        assertFalse(authenticator.authenticate(send(authenticator, "todos")));
+        assertEquals(1, provider.getRefreshCount());
+        // Other requests rejected with the same token don't refresh it again.
+        assertFalse(authenticator.authenticate(send(authenticator, "todos")));
+        assertEquals(1, provider.getRefreshCount());
+
+        Thread.sleep(250);
+        assertFalse(authenticator.authenticate(send(authenticator, "todos")));
+        assertEquals(2, provider.getRefreshCount());
+
+        Thread.sleep(250);
+        assertTrue(authenticator.authenticate(send(authenticator, "todos")));
+        assertEquals(3, provider.getRefreshCount());
+        assertEquals("Bearer t2", send(authenticator, "todos").getHeader(TokenAuthenticator.HEADER_AUTHORIZATION));
+    }
+
+    @Test
+    public void failedRefresh_isRetriedOnceTheTokenIsSet() {
+        RecordingProvider provider = new RecordingProvider("t1", null, null);
+        TokenAuthenticator authenticator = new TokenAuthenticator(provider);
+        assertFalse(authenticator.authenticate(send(authenticator, "todos")));
+
+        // Logged in again with the same token.
+        authenticator.setToken("t1");
+        assertFalse(authenticator.authenticate(send(authenticator, "todos")));
+        assertEquals(2, provider.getRefreshCount());
+    }
+
+    @Test
+    public void interceptWhileRefreshing_waitsForTheNewToken() throws InterruptedException {
+        final CountDownLatch refreshStarted = new CountDownLatch(1);
+        final CountDownLatch releaseRefresh = new CountDownLatch(1);
+        RecordingProvider provider = new RecordingProvider("t1", "t2") {
+            @Override
+            public String refreshToken(final String expiredToken) {
+                refreshStarted.countDown();
+                await(releaseRefresh);
+                return super.refreshToken(expiredToken);
+            }
+        };
+        final TokenAuthenticator authenticator = new TokenAuthenticator(provider);
+        final InterceptedRequest rejected = send(authenticator, "todos");
+        Thread refresher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                authenticator.authenticate(rejected);
+            }
+        });
+        refresher.start();
+        await(refreshStarted);
+
+        final AtomicReference<String> header = new AtomicReference<String>();
+        Thread sender = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                header.set(send(authenticator, "todos").getHeader(TokenAuthenticator.HEADER_AUTHORIZATION));
+            }
+        });
+        sender.start();
+        sender.join(100);
+        assertTrue(sender.isAlive());
+
+        releaseRefresh.countDown();
+        sender.join(TIMEOUT_MS);
+        refresher.join(TIMEOUT_MS);
+        assertFalse(sender.isAlive());
+        assertEquals("Bearer t2", header.get());
+    }
+
+    @Test
+    public void refreshRequests_passThroughWhileRefreshing() {
+        final AtomicReference<TokenAuthenticator> authenticatorReference = new AtomicReference<TokenAuthenticator>();
+        final AtomicBoolean refreshRequestAuthenticated = new AtomicBoolean(true);
+        final AtomicReference<String> refreshRequestHeader = new AtomicReference<String>("unset");
+        RecordingProvider provider = new RecordingProvider("t1", "t2") {
+            @Override
+            public String refreshToken(final String expiredToken) {
+                // Refresh made through the same client on its network thread, scoped identifier.
+                Thread network = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        TokenAuthenticator authenticator = authenticatorReference.get();
+                        InterceptedRequest request = send(authenticator, "scope:" + TokenAuthenticator.IDENTIFIER_TOKEN_REFRESH);
+                        refreshRequestHeader.set(request.getHeader(TokenAuthenticator.HEADER_AUTHORIZATION));
+                        refreshRequestAuthenticated.set(authenticator.authenticate(request));
+                    }
+                });
+                network.start();
+                try {
+                    network.join(TIMEOUT_MS);
+                } catch (InterruptedException exp) {
+                    Thread.currentThread().interrupt();
+                }
+                assertFalse(network.isAlive());
+                return super.refreshToken(expiredToken);
+            }
+        };
+        TokenAuthenticator authenticator = new TokenAuthenticator(provider);
+        authenticatorReference.set(authenticator);
+
+        assertTrue(authenticator.authenticate(send(authenticator, "todos")));
+        assertNull(refreshRequestHeader.get());
+        assertFalse(refreshRequestAuthenticated.get());
+        assertEquals(1, provider.getRefreshCount());
+    }
+
+    /**
+     * Used to intercept the request the way the client does before sending it.
+     *
+     * @param authenticator Authenticator.
+     * @param identifier    Identifier of the request.
+     * @return Request as sent.
+     */
+    private static InterceptedRequest send(final TokenAuthenticator authenticator, final String identifier) {
+        InterceptedRequest request = new InterceptedRequest(identifier, HttpMethod.GET, URL, null, null);
+        authenticator.intercept(request);
+        return request;
+    }
+
+    /**
+     * Used to wait for the latch, failing the test on timeout.
+     *
+     * @param latch Latch.
+     */
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException exp) {
+            throw new AssertionError(exp);
+        }
+    }
+
+    /**
+     * Recording Provider.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Gives the stored token & then the refreshed tokens in order, counts the refreshes.
+     */
+    private static class RecordingProvider implements TokenAuthenticator.TokenProvider {
+
+        private final String mToken;
+        private final String[] mRefreshedTokens;
+        private final AtomicInteger mRefreshCount = new AtomicInteger();
+
+        /**
+         * Constructor.
+         *
+         * @param token           Stored token.
+         * @param refreshedTokens Tokens returned by the refreshes, null for a failed refresh.
+         */
+        RecordingProvider(final String token, final String... refreshedTokens) {
+            this.mToken = token;
+            this.mRefreshedTokens = refreshedTokens;
+        }
+
+        @Override
+        public String getToken() {
+            return mToken;
+        }
+
+        @Override
+        public String refreshToken(final String expiredToken) {
+            int index = mRefreshCount.getAndIncrement();
+            return (index < mRefreshedTokens.length) ? mRefreshedTokens[index] : null;
+        }
+
+        /**
+         * Used to get the number of refreshes.
+         *
+         * @return Count.
+         */
+        int getRefreshCount() {
+            return mRefreshCount.get();
+        }
+    }
+}
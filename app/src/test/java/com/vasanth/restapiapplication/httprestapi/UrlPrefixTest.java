@@ -0,0 +1,37 @@
+package com.vasanth.restapiapplication.httprestapi;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link UrlPrefix}.
+ */
+public class UrlPrefixTest {
+
+    private static final String ITEM_URL = "https://api.example.com/items/1";
+
+    @Test
+    public void matches_theUrlAndTheUrlsBelowIt() {
+        assertTrue(UrlPrefix.matches(ITEM_URL, ITEM_URL));
+        assertTrue(UrlPrefix.matches(ITEM_URL + "/comments", ITEM_URL));
+        assertTrue(UrlPrefix.matches(ITEM_URL + "?expand=owner", ITEM_URL));
+        assertTrue(UrlPrefix.matches(ITEM_URL + "#details", ITEM_URL));
+    }
+
+    @Test
+    public void matches_notTheSiblings() {
+        assertFalse(UrlPrefix.matches("https://api.example.com/items/10", ITEM_URL));
+        assertFalse(UrlPrefix.matches("https://api.example.com/items/1-draft", ITEM_URL));
+        assertFalse(UrlPrefix.matches("https://api.example.com/items", ITEM_URL));
+    }
+
+    @Test
+    public void matches_everythingStartingWithPrefixEndingWithSeparator() {
+        assertTrue(UrlPrefix.matches("https://api.example.com/items/10", "https://api.example.com/items/"));
+        assertTrue(UrlPrefix.matches(ITEM_URL + "?page=2", ITEM_URL + "?"));
+        assertTrue(UrlPrefix.matches(ITEM_URL + "?a=1&page=2", ITEM_URL + "?a=1&"));
+        assertTrue(UrlPrefix.matches(ITEM_URL, ""));
+    }
+}
@@ -0,0 +1,120 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.CircuitBreakerPolicy;
+import com.vasanth.restapiapplication.httprestapi.DeliveryExecutors;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.HttpRetryPolicy;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of the circuit breaker of {@link OkHttpRestApiImpl}, run against loopback sockets.
+ */
+public class OkHttpCircuitBreakerTest {
+
+    private static final String URL_PREFIX = "http://127.0.0.1:";
+    private static final long WAIT_MS = 10000;
+
+    @Test
+    public void connectFailuresOpenTheCircuit_openCircuitDoesNotConnect() throws Exception {
+        File cacheDirectory = File.createTempFile("okhttp-circuit-breaker-test", "");
+        assertTrue(cacheDirectory.delete() && cacheDirectory.mkdirs());
+        // Single breaker for every loopback port.
+        HttpClientConfig config = new HttpClientConfig.Builder()
+                .setCacheDirectory(cacheDirectory)
+                .setDeliveryExecutor(DeliveryExecutors.immediate())
+                .addCircuitBreakerPolicy(URL_PREFIX, new CircuitBreakerPolicy.Builder()
+                        .setWindow(2, 2)
+                        .setFailureRateThreshold(1f)
+                        .setOpenDurationMs(60000)
+                        .build())
+                .build();
+        OkHttpRestApiImpl httpClientApi = OkHttpRestApiImpl.getInstance(null, config);
+
+        // Nothing listens on the port, connect is refused.
+        ServerSocket closedSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        String refusedUrl = URL_PREFIX + closedSocket.getLocalPort() + "/todos";
+        closedSocket.close();
+        assertEquals(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR, get(httpClientApi, refusedUrl));
+        assertEquals(HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR, get(httpClientApi, refusedUrl));
+
+        // Circuit is open, listening server must not see a connection.
+        final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        final AtomicInteger acceptCount = new AtomicInteger();
+        Thread acceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        Socket socket = serverSocket.accept();
+                        acceptCount.incrementAndGet();
+                        socket.close();
+                    }
+                } catch (IOException exp) {
+                    // Server socket closed.
+                }
+            }
+        });
+        acceptThread.start();
+        try {
+            assertEquals(HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN,
+                    get(httpClientApi, URL_PREFIX + serverSocket.getLocalPort() + "/todos"));
+            assertEquals(HttpClientApi.HttpResponseListener.ERROR_CODE_CIRCUIT_OPEN, get(httpClientApi, refusedUrl));
+            assertEquals(0, acceptCount.get());
+        } finally {
+            serverSocket.close();
+            acceptThread.join(WAIT_MS);
+            File[] files = cacheDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            cacheDirectory.delete();
+        }
+    }
+
+    /**
+     * Used to make a single attempt "GET" request without cache.
+     *
+     * @param httpClientApi Client.
+     * @param url           Url.
+     * @return Error code.
+     * @throws InterruptedException If the test thread is interrupted.
+     */
+    private static int get(final HttpClientApi httpClientApi, final String url) throws InterruptedException {
+        RequestOptions options = new RequestOptions.Builder()
+                .setRetryPolicy(new HttpRetryPolicy.Builder().setMaxRetries(0).build())
+                .build();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final int[] errorCode = new int[1];
+        httpClientApi.getRequest("circuit-breaker", null, url, options, new HttpClientApi.HttpResponseListener() {
+            @Override
+            public void onSuccessResponse(final String response) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onErrorResponse(final int code) {
+                errorCode[0] = code;
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(WAIT_MS, TimeUnit.MILLISECONDS));
+        return errorCode[0];
+    }
+}
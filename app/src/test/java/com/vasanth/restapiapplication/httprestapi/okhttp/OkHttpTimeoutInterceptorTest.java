@@ -0,0 +1,82 @@
+package com.vasanth.restapiapplication.httprestapi.okhttp;
+
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpRetryPolicy;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests of {@link OkHttpTimeoutInterceptor}, the call is answered by an interceptor recording its timeouts.
+ */
+public class OkHttpTimeoutInterceptorTest {
+
+    private static final String URL = "https://api.example.com/todos";
+
+    private final List<Integer> mTimeouts = new ArrayList<Integer>();
+    private final OkHttpClient mClient = new OkHttpClient.Builder()
+            .connectTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .readTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .writeTimeout(HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .addInterceptor(new OkHttpTimeoutInterceptor())
+            .addInterceptor(new Interceptor() {
+                @Override
+                public Response intercept(final Chain chain) throws IOException {
+                    mTimeouts.addAll(Arrays.asList(chain.connectTimeoutMillis(), chain.readTimeoutMillis(), chain.writeTimeoutMillis()));
+                    return new Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(200)
+                            .message("OK")
+                            .body(ResponseBody.create(MediaType.parse("text/plain"), ""))
+                            .build();
+                }
+            })
+            .build();
+
+    @Test
+    public void requestTimeout_isAppliedToTheCall() throws IOException {
+        execute(new RequestOptions.Builder()
+                .setRetryPolicy(new HttpRetryPolicy.Builder().setTimeoutMs(7000).build())
+                .build());
+        assertEquals(Arrays.asList(7000, 7000, 7000), mTimeouts);
+    }
+
+    @Test
+    public void defaultTimeout_keepsTheTimeoutOfTheClient() throws IOException {
+        execute(RequestOptions.DEFAULT);
+        execute(null);
+        int timeout = HttpClientApi.DEFAULT_REQUEST_SOCKET_TIMEOUT_MS;
+        assertEquals(Arrays.asList(timeout, timeout, timeout, timeout, timeout, timeout), mTimeouts);
+    }
+
+    /**
+     * Used to execute the call with the options tagged the way {@link OkHttpRequest} does.
+     *
+     * @param options Options OR null for an untagged request.
+     * @throws IOException If the call fails.
+     */
+    private void execute(final RequestOptions options) throws IOException {
+        Request.Builder builder = new Request.Builder().url(URL);
+        if (options != null) {
+            builder.tag(RequestOptions.class, options);
+        }
+        mClient.newCall(builder.build()).execute().close();
+    }
+}
@@ -0,0 +1,279 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.vasanth.restapiapplication.httprestapi.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Minimal benchmark harness for plain JVM - runs warmup & measured iterations of an operation, then reports
+ * throughput, latency percentiles & allocated bytes per operation.
+ * 1.b. Async operations run in a closed loop with fixed number of operations in flight, latency is measured from
+ * start till the operation reports completion.
+ * 1.c. Allocation is read from HotSpot thread allocation counters, summed across all threads except the mock server
+ * threads, -1 if the JVM doesn't support it.
+ *
+ * @author Vasanth
+ */
+class Benchmark {
+
+    private static final long NANOS_PER_MICRO = 1000L;
+
+    // Maximum time to wait for in flight operations to complete.
+    private static final long COMPLETION_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Operation.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Synchronous operation, measured on the calling thread.
+     */
+    interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @param index Iteration index.
+         * @throws Exception If the operation fails, fails the benchmark.
+         */
+        void run(int index) throws Exception;
+    }
+
+    /**
+     * Async Operation.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Operation which completes on another thread & reports it using {@link Completion}.
+     */
+    interface AsyncOperation {
+
+        /**
+         * Starts the operation.
+         *
+         * @param index      Iteration index.
+         * @param completion Completion to be called once the operation completes.
+         */
+        void start(int index, Completion completion);
+    }
+
+    /**
+     * Completion.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Used by {@link AsyncOperation} to report its completion.
+     */
+    interface Completion {
+
+        /**
+         * Gets called once the operation completes.
+         *
+         * @param asExpected False if the operation didn't complete as expected, counted as error.
+         */
+        void complete(boolean asExpected);
+    }
+
+    /**
+     * Used to run the synchronous operation.
+     *
+     * @param name            Benchmark name.
+     * @param warmup          Number of warmup iterations.
+     * @param iterations      Number of measured iterations.
+     * @param opsPerIteration Number of operations made by each iteration, latency is reported per operation.
+     * @param operation       Operation.
+     * @return Result.
+     * @throws Exception If the operation fails.
+     */
+    static Result run(final String name, final int warmup, final int iterations, final int opsPerIteration,
+                      final Operation operation) throws Exception {
+        for (int index = 0; index < warmup; index++) {
+            operation.run(index);
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long allocatedBefore = getAllocatedBytes();
+        long startNs = System.nanoTime();
+        for (int index = 0; index < iterations; index++) {
+            long operationStartNs = System.nanoTime();
+            operation.run(index);
+            histogram.record((System.nanoTime() - operationStartNs) / opsPerIteration);
+        }
+        long elapsedNs = System.nanoTime() - startNs;
+        long allocatedBytes = getAllocatedBytes(allocatedBefore);
+        return new Result(name, "ns", (long) iterations * opsPerIteration, elapsedNs, histogram, allocatedBytes, 0);
+    }
+
+    /**
+     * Used to run the async operation.
+     *
+     * @param name        Benchmark name.
+     * @param concurrency Number of operations in flight at the same time.
+     * @param warmup      Number of warmup iterations.
+     * @param iterations  Number of measured iterations.
+     * @param operation   Operation.
+     * @return Result.
+     * @throws InterruptedException If interrupted while waiting for the operations.
+     */
+    static Result runAsync(final String name, final int concurrency, final int warmup, final int iterations,
+                           final AsyncOperation operation) throws InterruptedException {
+        runAsync(concurrency, warmup, operation, null, new AtomicInteger());
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        AtomicInteger errors = new AtomicInteger();
+        long allocatedBefore = getAllocatedBytes();
+        long startNs = System.nanoTime();
+        runAsync(concurrency, iterations, operation, histogram, errors);
+        long elapsedNs = System.nanoTime() - startNs;
+        long allocatedBytes = getAllocatedBytes(allocatedBefore);
+        return new Result(name, "us", iterations, elapsedNs, histogram, allocatedBytes, errors.get());
+    }
+
+    /**
+     * Used to run the async operation the given number of times & wait for all of them to complete.
+     *
+     * @param concurrency Number of operations in flight at the same time.
+     * @param iterations  Number of iterations.
+     * @param operation   Operation.
+     * @param histogram   Histogram to record latency (microseconds), null to skip recording.
+     * @param errors      Incremented for every operation not completed as expected.
+     * @throws InterruptedException If interrupted while waiting for the operations.
+     */
+    private static void runAsync(final int concurrency, final int iterations, final AsyncOperation operation,
+                                 final LatencyHistogram histogram, final AtomicInteger errors) throws InterruptedException {
+        final Semaphore permits = new Semaphore(concurrency);
+        for (int index = 0; index < iterations; index++) {
+            if (!permits.tryAcquire(COMPLETION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Operation didn't complete in " + COMPLETION_TIMEOUT_SECONDS + " seconds");
+            }
+            final long operationStartNs = System.nanoTime();
+            operation.start(index, new Completion() {
+                @Override
+                public void complete(final boolean asExpected) {
+                    long latencyUs = (System.nanoTime() - operationStartNs) / NANOS_PER_MICRO;
+                    if (histogram != null) {
+                        synchronized (histogram) {
+                            histogram.record(latencyUs);
+                        }
+                    }
+                    if (!asExpected) {
+                        errors.incrementAndGet();
+                    }
+                    permits.release();
+                }
+            });
+        }
+        if (!permits.tryAcquire(concurrency, COMPLETION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Operations didn't complete in " + COMPLETION_TIMEOUT_SECONDS + " seconds");
+        }
+    }
+
+    /**
+     * Used to get the bytes allocated since the given value.
+     *
+     * @param allocatedBefore Value returned by {@link #getAllocatedBytes()} before the benchmark.
+     * @return Allocated bytes OR -1 if not supported.
+     */
+    private static long getAllocatedBytes(final long allocatedBefore) {
+        return (allocatedBefore < 0) ? -1 : getAllocatedBytes() - allocatedBefore;
+    }
+
+    /**
+     * Used to get the total bytes allocated by the live threads, except the mock server threads.
+     *
+     * @return Allocated bytes OR -1 if not supported.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean hotSpotThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        if (!hotSpotThreadMXBean.isThreadAllocatedMemorySupported() || !hotSpotThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+
+        long[] threadIds = hotSpotThreadMXBean.getAllThreadIds();
+        ThreadInfo[] threadInfos = hotSpotThreadMXBean.getThreadInfo(threadIds);
+        long[] allocatedBytes = hotSpotThreadMXBean.getThreadAllocatedBytes(threadIds);
+        long total = 0;
+        for (int index = 0; index < threadIds.length; index++) {
+            if (threadInfos[index] != null && allocatedBytes[index] > 0
+                    && !threadInfos[index].getThreadName().startsWith(MockHttpServer.THREAD_NAME_PREFIX)) {
+                total += allocatedBytes[index];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Result.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Holds the measurements of a benchmark.
+     */
+    static class Result {
+
+        private final String mName;
+        private final String mLatencyUnit;
+        private final long mOperations;
+        private final long mElapsedNs;
+        private final LatencyHistogram mLatency;
+        private final long mAllocatedBytes;
+        private final int mErrors;
+
+        /**
+         * Constructor.
+         *
+         * @param name           Benchmark name.
+         * @param latencyUnit    Unit of the recorded latencies.
+         * @param operations     Number of measured operations.
+         * @param elapsedNs      Time taken by the measured operations.
+         * @param latency        Latency histogram.
+         * @param allocatedBytes Bytes allocated by the measured operations OR -1.
+         * @param errors         Number of operations not completed as expected.
+         */
+        Result(final String name, final String latencyUnit, final long operations, final long elapsedNs,
+               final LatencyHistogram latency, final long allocatedBytes, final int errors) {
+            this.mName = name;
+            this.mLatencyUnit = latencyUnit;
+            this.mOperations = operations;
+            this.mElapsedNs = elapsedNs;
+            this.mLatency = latency;
+            this.mAllocatedBytes = allocatedBytes;
+            this.mErrors = errors;
+        }
+
+        /**
+         * Used to get number of operations not completed as expected.
+         *
+         * @return Errors.
+         */
+        int getErrors() {
+            return mErrors;
+        }
+
+        /**
+         * Used to get throughput.
+         *
+         * @return Operations per second.
+         */
+        double getThroughput() {
+            return mOperations * 1e9 / Math.max(1, mElapsedNs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-22s ops=%-8d throughput=%12.1f ops/s  p50=%d%s  p99=%d%s  max=%d%s  alloc=%s  errors=%d",
+                    mName, mOperations, getThroughput(),
+                    mLatency.getPercentile(50), mLatencyUnit, mLatency.getPercentile(99), mLatencyUnit, mLatency.getMax(), mLatencyUnit,
+                    (mAllocatedBytes >= 0) ? (mAllocatedBytes / Math.max(1, mOperations)) + " B/op" : "n/a", mErrors);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mock Http Server.
+ * <p>
+ * 1. Responsibility.
+ * 1.a. Minimal HTTP/1.1 server on the loopback interface used by the benchmarks, supports keep-alive.
+ * 1.b. Routes - "/cache" returns a cacheable JSON body, "/status/{code}" returns the given status, POST & PUT echo the
+ * request body size, any other path returns the JSON body.
+ * 1.c. Paths starting with "/gzip" return gzip compressed body if accepted, gzip request bodies are decompressed.
+ * 1.d. Paths starting with "/delay/{ms}" are answered after the given delay, like "/delay/500/todos".
+ *
+ * @author Vasanth
+ */
+class MockHttpServer {
+
+    // Name prefix of the server threads, used by the benchmarks to exclude server allocations.
+    static final String THREAD_NAME_PREFIX = "mock-http-server-";
+
+    private static final String PATH_CACHE = "/cache";
+    private static final String PATH_STATUS = "/status/";
+    private static final String PATH_GZIP = "/gzip";
+    private static final String PATH_DELAY = "/delay/";
+
+    private final ServerSocket mServerSocket;
+    private final ExecutorService mExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger mThreadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + mThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final byte[] mJsonBody;
+    private final byte[] mGzipJsonBody;
+    private volatile boolean mRunning = true;
+
+    /**
+     * Constructor, starts the server on a free port.
+     *
+     * @param jsonBodySize Approximate size of the JSON body returned by the server.
+     * @throws IOException If the server socket can't be opened.
+     */
+    MockHttpServer(final int jsonBodySize) throws IOException {
+        mJsonBody = createJsonBody(jsonBodySize);
+        mGzipJsonBody = GzipCodec.compress(mJsonBody);
+        mServerSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                acceptConnections();
+            }
+        });
+    }
+
+    /**
+     * Used to get the url of the given path on this server.
+     *
+     * @param path Path starting with "/".
+     * @return Url.
+     */
+    String getUrl(final String path) {
+        return "http://127.0.0.1:" + mServerSocket.getLocalPort() + path;
+    }
+
+    /**
+     * Used to get size of the JSON body returned by the server.
+     *
+     * @return Size in bytes.
+     */
+    int getJsonBodySize() {
+        return mJsonBody.length;
+    }
+
+    /**
+     * Used to stop the server & close all connections.
+     */
+    void shutdown() {
+        mRunning = false;
+        try {
+            mServerSocket.close();
+        } catch (IOException ignored) {
+        }
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * Accepts connections till the server is shut down, each connection is served on its own thread.
+     */
+    private void acceptConnections() {
+        while (mRunning) {
+            try {
+                final Socket socket = mServerSocket.accept();
+                socket.setTcpNoDelay(true);
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        serveConnection(socket);
+                    }
+                });
+            } catch (IOException exp) {
+                // Server socket closed.
+                return;
+            }
+        }
+    }
+
+    /**
+     * Serves the requests of the connection till the client closes it.
+     *
+     * @param socket Client socket.
+     */
+    private void serveConnection(final Socket socket) {
+        try {
+            InputStream inputStream = new BufferedInputStream(socket.getInputStream());
+            OutputStream outputStream = socket.getOutputStream();
+            while (mRunning) {
+                String requestLine = readLine(inputStream);
+                if (requestLine == null || requestLine.isEmpty()) {
+                    return;
+                }
+                int contentLength = 0;
+                boolean close = false;
+                boolean acceptGzip = false;
+                boolean gzipBody = false;
+                String header;
+                while ((header = readLine(inputStream)) != null && !header.isEmpty()) {
+                    String lowerCaseHeader = header.toLowerCase(Locale.US);
+                    if (lowerCaseHeader.startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(header.substring(header.indexOf(':') + 1).trim());
+                    } else if (lowerCaseHeader.startsWith("connection:") && lowerCaseHeader.contains("close")) {
+                        close = true;
+                    } else if (lowerCaseHeader.startsWith("accept-encoding:") && lowerCaseHeader.contains(GzipCodec.ENCODING_GZIP)) {
+                        acceptGzip = true;
+                    } else if (lowerCaseHeader.startsWith("content-encoding:") && lowerCaseHeader.contains(GzipCodec.ENCODING_GZIP)) {
+                        gzipBody = true;
+                    }
+                }
+                byte[] requestBody = readBody(inputStream, contentLength);
+                if (gzipBody) {
+                    requestBody = GzipCodec.decompress(requestBody);
+                }
+
+                String[] parts = requestLine.split(" ");
+                writeResponse(outputStream, parts[0], parts[1], requestBody, acceptGzip);
+                if (close) {
+                    return;
+                }
+            }
+        } catch (IOException ignored) {
+            // Client went away.
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Used to write the response of the request.
+     *
+     * @param outputStream Connection output stream.
+     * @param method       Request method.
+     * @param path         Request path.
+     * @param requestBody  Request body.
+     * @param acceptGzip   True if the client accepts gzip response.
+     * @throws IOException If the connection fails.
+     */
+    private void writeResponse(final OutputStream outputStream, final String method, final String path, final byte[] requestBody,
+                               final boolean acceptGzip) throws IOException {
+        if (path.startsWith(PATH_DELAY)) {
+            int end = path.indexOf('/', PATH_DELAY.length());
+            try {
+                Thread.sleep(Long.parseLong(path.substring(PATH_DELAY.length(), (end >= 0) ? end : path.length())));
+            } catch (InterruptedException exp) {
+                // Server shut down.
+                throw new IOException(exp);
+            }
+        }
+        int statusCode = 200;
+        String cacheControl = "no-cache";
+        String contentEncoding = null;
+        byte[] body = mJsonBody;
+        if (path.startsWith(PATH_STATUS)) {
+            statusCode = Integer.parseInt(path.substring(PATH_STATUS.length()));
+            body = ("{\"status\":" + statusCode + "}").getBytes("UTF-8");
+        } else if ("POST".equals(method) || "PUT".equals(method)) {
+            body = ("{\"received\":" + requestBody.length + "}").getBytes("UTF-8");
+        } else if (path.startsWith(PATH_CACHE)) {
+            cacheControl = "max-age=3600";
+        } else if (path.startsWith(PATH_GZIP) && acceptGzip) {
+            contentEncoding = GzipCodec.ENCODING_GZIP;
+            body = mGzipJsonBody;
+        }
+
+        String headers = "HTTP/1.1 " + statusCode + " Mock\r\n"
+                + "Content-Type: application/json; charset=UTF-8\r\n"
+                + "Cache-Control: " + cacheControl + "\r\n"
+                + ((contentEncoding != null) ? "Content-Encoding: " + contentEncoding + "\r\n" : "")
+                + "Content-Length: " + body.length + "\r\n"
+                + "\r\n";
+        outputStream.write(headers.getBytes("US-ASCII"));
+        outputStream.write(body);
+        outputStream.flush();
+    }
+
+    /**
+     * Used to read a CRLF terminated line.
+     *
+     * @param inputStream Input stream.
+     * @return Line without CRLF OR null on end of stream.
+     * @throws IOException If the connection fails.
+     */
+    private static String readLine(final InputStream inputStream) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        int read;
+        while ((read = inputStream.read()) != -1) {
+            if (read == '\n') {
+                int length = builder.length();
+                if (length > 0 && builder.charAt(length - 1) == '\r') {
+                    builder.setLength(length - 1);
+                }
+                return builder.toString();
+            }
+            builder.append((char) read);
+        }
+        return (builder.length() > 0) ? builder.toString() : null;
+    }
+
+    /**
+     * Used to read the request body.
+     *
+     * @param inputStream   Input stream.
+     * @param contentLength Body size.
+     * @return Body.
+     * @throws IOException If the connection fails.
+     */
+    private static byte[] readBody(final InputStream inputStream, final int contentLength) throws IOException {
+        byte[] body = new byte[contentLength];
+        int offset = 0;
+        while (offset < contentLength) {
+            int read = inputStream.read(body, offset, contentLength - offset);
+            if (read == -1) {
+                throw new IOException("Unexpected end of request body");
+            }
+            offset += read;
+        }
+        return body;
+    }
+
+    /**
+     * Used to create a JSON array body of approximately the given size.
+     *
+     * @param size Size in bytes.
+     * @return JSON body.
+     */
+    private static byte[] createJsonBody(final int size) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(size + 64);
+        outputStream.write('[');
+        int index = 0;
+        while (outputStream.size() < size) {
+            if (index > 0) {
+                outputStream.write(',');
+            }
+            byte[] item = ("{\"id\":" + index + ",\"title\":\"item " + index + "\",\"completed\":false}").getBytes();
+            outputStream.write(item, 0, item.length);
+            index++;
+        }
+        outputStream.write(']');
+        return outputStream.toByteArray();
+    }
+}
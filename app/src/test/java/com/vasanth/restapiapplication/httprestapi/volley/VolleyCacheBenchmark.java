@@ -0,0 +1,229 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Cache;
+import com.android.volley.toolbox.DiskBasedCache;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmarks of the disk cache storages, volley's "DiskBasedCache" (one file per entry) against {@link VolleyLogCache}
+ * (segmented log), run on plain JVM.
+ * <p>
+ * Skipped unless run with "-Pbenchmark", like "./gradlew testDebugUnitTest -Pbenchmark --tests '*Benchmark'".
+ * Both caches are populated with the same entries, startup measures a new cache instance on the populated directory
+ * until its first hit (what the cache dispatcher does when the app starts), hit measures reads of a warm instance.
+ */
+public class VolleyCacheBenchmark {
+
+    // System property set by gradle when run with "-Pbenchmark".
+    private static final String PROPERTY_BENCHMARK = "benchmark";
+
+    private static final int ENTRY_COUNT = 3000;
+    private static final int ENTRY_BODY_SIZE = 2 * 1024;
+    private static final int CACHE_SIZE_BYTES = 20 * 1024 * 1024;
+    private static final int STARTUP_WARMUP = 3;
+    private static final int STARTUP_ITERATIONS = 20;
+    private static final int HIT_WARMUP = 20000;
+    private static final int HIT_ITERATIONS = 100000;
+    private static final String KEY_PREFIX = "https://api.example.com/todos/";
+
+    private static File mFilePerEntryDirectory;
+    private static File mLogDirectory;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        assumeTrue(Boolean.getBoolean(PROPERTY_BENCHMARK));
+
+        mFilePerEntryDirectory = createDirectory("volley-cache-benchmark");
+        mLogDirectory = createDirectory("volley-log-cache-benchmark");
+        populate(new DiskBasedCache(mFilePerEntryDirectory, CACHE_SIZE_BYTES));
+        populate(new VolleyLogCache(mLogDirectory, CACHE_SIZE_BYTES));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        deleteDirectory(mFilePerEntryDirectory);
+        deleteDirectory(mLogDirectory);
+    }
+
+    @Test
+    public void startup_filePerEntry() throws Exception {
+        report(Benchmark.run("cache-startup-file-per-entry-3000", STARTUP_WARMUP, STARTUP_ITERATIONS, 1, new Benchmark.Operation() {
+            @Override
+            public void run(final int index) throws Exception {
+                assertFirstHit(new DiskBasedCache(mFilePerEntryDirectory, CACHE_SIZE_BYTES), index);
+            }
+        }));
+    }
+
+    @Test
+    public void startup_segmentedLog() throws Exception {
+        report(Benchmark.run("cache-startup-segmented-log-3000", STARTUP_WARMUP, STARTUP_ITERATIONS, 1, new Benchmark.Operation() {
+            @Override
+            public void run(final int index) throws Exception {
+                assertFirstHit(new VolleyLogCache(mLogDirectory, CACHE_SIZE_BYTES), index);
+            }
+        }));
+    }
+
+    @Test
+    public void hit_filePerEntry() throws Exception {
+        runHits("cache-hit-file-per-entry", new DiskBasedCache(mFilePerEntryDirectory, CACHE_SIZE_BYTES));
+    }
+
+    @Test
+    public void hit_segmentedLog() throws Exception {
+        runHits("cache-hit-segmented-log", new VolleyLogCache(mLogDirectory, CACHE_SIZE_BYTES));
+    }
+
+    @Test
+    public void segmentedLog_survivesRestart() throws Exception {
+        File directory = createDirectory("volley-log-cache-restart");
+        try {
+            // Small cache, so eviction & compaction run.
+            int maxSizeBytes = 256 * 1024;
+            VolleyLogCache cache = new VolleyLogCache(directory, maxSizeBytes);
+            cache.initialize();
+            for (int index = 0; index < 1000; index++) {
+                cache.put(KEY_PREFIX + index, createEntry(index));
+            }
+            cache.remove(KEY_PREFIX + 999);
+            assertTrue(cache.getDiskBytes() <= maxSizeBytes * 2);
+
+            VolleyLogCache restarted = new VolleyLogCache(directory, maxSizeBytes);
+            restarted.initialize();
+            assertEquals(cache.size(), restarted.size());
+            assertNull(restarted.get(KEY_PREFIX + 999));
+            assertNull(restarted.get(KEY_PREFIX + 0));
+            Cache.Entry entry = restarted.get(KEY_PREFIX + 998);
+            assertNotNull(entry);
+            assertArrayEquals(createEntry(998).data, entry.data);
+            assertEquals("\"998\"", entry.etag);
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Used to measure reads of random entries from a warm cache.
+     *
+     * @param name  Benchmark name.
+     * @param cache Cache.
+     * @throws Exception If a read misses.
+     */
+    private static void runHits(final String name, final Cache cache) throws Exception {
+        cache.initialize();
+        report(Benchmark.run(name, HIT_WARMUP, HIT_ITERATIONS, 1, new Benchmark.Operation() {
+            @Override
+            public void run(final int index) throws Exception {
+                if (cache.get(KEY_PREFIX + ((index * 7919) % ENTRY_COUNT)) == null) {
+                    throw new IllegalStateException("Cache miss");
+                }
+            }
+        }));
+    }
+
+    /**
+     * Used to start the cache & read an entry, same as the cache dispatcher on app start.
+     *
+     * @param cache Cache.
+     * @param index Iteration index.
+     */
+    private static void assertFirstHit(final Cache cache, final int index) {
+        cache.initialize();
+        Cache.Entry entry = cache.get(KEY_PREFIX + (index % ENTRY_COUNT));
+        assertNotNull(entry);
+        assertEquals(ENTRY_BODY_SIZE, entry.data.length);
+    }
+
+    /**
+     * Used to put the entries in the cache.
+     *
+     * @param cache Cache.
+     */
+    private static void populate(final Cache cache) {
+        cache.initialize();
+        for (int index = 0; index < ENTRY_COUNT; index++) {
+            cache.put(KEY_PREFIX + index, createEntry(index));
+        }
+    }
+
+    /**
+     * Used to create the entry of a cached json response.
+     *
+     * @param index Entry index.
+     * @return Entry.
+     */
+    private static Cache.Entry createEntry(final int index) {
+        Cache.Entry entry = new Cache.Entry();
+        entry.data = new byte[ENTRY_BODY_SIZE];
+        for (int offset = 0; offset < entry.data.length; offset++) {
+            entry.data[offset] = (byte) (index + offset);
+        }
+        entry.etag = "\"" + index + "\"";
+        entry.serverDate = System.currentTimeMillis();
+        entry.ttl = entry.serverDate + 3600 * 1000;
+        entry.softTtl = entry.ttl;
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("Content-Type", "application/json; charset=UTF-8");
+        headers.put("Cache-Control", "max-age=3600");
+        headers.put("ETag", entry.etag);
+        entry.responseHeaders = headers;
+        return entry;
+    }
+
+    /**
+     * Used to create an empty temporary directory.
+     *
+     * @param prefix Directory name prefix.
+     * @return Directory.
+     * @throws IOException If the directory can't be created.
+     */
+    private static File createDirectory(final String prefix) throws IOException {
+        File directory = File.createTempFile(prefix, "");
+        assertTrue(directory.delete() && directory.mkdirs());
+        return directory;
+    }
+
+    /**
+     * Used to delete the directory along with its files.
+     *
+     * @param directory Directory, may be null.
+     */
+    private static void deleteDirectory(final File directory) {
+        if (directory == null) {
+            return;
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /**
+     * Used to print the result & fail the benchmark if any operation failed.
+     *
+     * @param result Result.
+     */
+    private static void report(final Benchmark.Result result) {
+        System.out.println(result);
+        assertEquals(0, result.getErrors());
+    }
+}
@@ -0,0 +1,162 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.vasanth.restapiapplication.httprestapi.DeliveryExecutors;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+import com.vasanth.restapiapplication.httprestapi.RequestScope;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of cancelling {@link VolleyHttpRestApiImpl} requests, run against {@link MockHttpServer}.
+ * <p>
+ * Cancelling must match identifiers by value, identifiers built at runtime (like by {@link RequestScope}) are never the
+ * instance the request was made with.
+ */
+public class VolleyCancelTest {
+
+    // Server delay, long enough for the cancel to reach the running request.
+    private static final String PATH_SLOW = "/delay/500/todos";
+
+    // Time waited for callbacks which must not come.
+    private static final long QUIET_MS = 1500;
+
+    private static MockHttpServer mServer;
+    private static File mCacheDirectory;
+    private static HttpClientApi mHttpClientApi;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        mServer = new MockHttpServer(256);
+        mCacheDirectory = File.createTempFile("volley-cancel-test", "");
+        assertTrue(mCacheDirectory.delete() && mCacheDirectory.mkdirs());
+        HttpClientConfig config = new HttpClientConfig.Builder()
+                .setCacheDirectory(mCacheDirectory)
+                // Delivers on the dispatcher thread, there is no main looper on plain JVM.
+                .setDeliveryExecutor(DeliveryExecutors.immediate())
+                .build();
+        mHttpClientApi = VolleyHttpRestApiImpl.getInstance(null, config);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (mServer != null) {
+            mServer.shutdown();
+        }
+        if (mCacheDirectory != null) {
+            File[] files = mCacheDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            mCacheDirectory.delete();
+        }
+    }
+
+    @Test
+    public void cancelRequest_matchesEqualIdentifier() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        // Second request waits in the lane of the identifier.
+        mHttpClientApi.setMaxConcurrentRequests(new String("cancel-equal"), 1);
+        post(new String("cancel-equal"), listener);
+        post(new String("cancel-equal"), listener);
+        Thread.sleep(100);
+
+        mHttpClientApi.cancelRequest(new String("cancel-equal"));
+        Thread.sleep(QUIET_MS);
+        assertEquals(Collections.<String>emptyList(), listener.getCallbacks());
+    }
+
+    @Test
+    public void cancelRequest_ofScopeCancelsOnlyItsRequests() throws InterruptedException {
+        RequestScope scope = new RequestScope(mHttpClientApi, "Scope");
+        RequestScope otherScope = new RequestScope(mHttpClientApi, "Scope");
+        RecordingListener listener = new RecordingListener();
+        RecordingListener otherListener = new RecordingListener();
+        scope.postRequest("todos", null, mServer.getUrl(PATH_SLOW), "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON,
+                RequestOptions.DEFAULT, listener);
+        otherScope.postRequest("todos", null, mServer.getUrl(PATH_SLOW), "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON,
+                RequestOptions.DEFAULT, otherListener);
+        Thread.sleep(100);
+
+        scope.cancelRequest("todos");
+        assertTrue(otherListener.await(QUIET_MS * 2));
+        assertEquals(Collections.singletonList("success"), otherListener.getCallbacks());
+        assertEquals(Collections.<String>emptyList(), listener.getCallbacks());
+    }
+
+    /**
+     * Used to make the slow "POST" request, "POST" isn't coalesced, so the cancel reaches the volley request itself.
+     *
+     * @param identifier Identifier.
+     * @param listener   Listener.
+     */
+    private static void post(final String identifier, final HttpClientApi.HttpResponseListener listener) {
+        mHttpClientApi.postRequest(identifier, null, mServer.getUrl(PATH_SLOW), "{}", HttpClientApi.BODY_CONTENT_TYPE_JSON,
+                RequestOptions.DEFAULT, listener);
+    }
+
+    /**
+     * Recording Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Records the callbacks as "success" & "error:{code}".
+     */
+    private static class RecordingListener implements HttpClientApi.HttpResponseListener {
+
+        private final List<String> mCallbacks = new ArrayList<String>();
+
+        @Override
+        public synchronized void onSuccessResponse(final String response) {
+            mCallbacks.add("success");
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void onErrorResponse(final int errorCode) {
+            mCallbacks.add("error:" + errorCode);
+            notifyAll();
+        }
+
+        /**
+         * Used to get the recorded callbacks.
+         *
+         * @return Copy of the callbacks.
+         */
+        synchronized List<String> getCallbacks() {
+            return new ArrayList<String>(mCallbacks);
+        }
+
+        /**
+         * Used to wait for the first callback.
+         *
+         * @param timeoutMs Maximum time to wait.
+         * @return True if a callback arrived.
+         * @throws InterruptedException If the test thread is interrupted.
+         */
+        synchronized boolean await(final long timeoutMs) throws InterruptedException {
+            long deadlineMs = System.currentTimeMillis() + timeoutMs;
+            while (mCallbacks.isEmpty()) {
+                long remainingMs = deadlineMs - System.currentTimeMillis();
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                wait(remainingMs);
+            }
+            return true;
+        }
+    }
+}
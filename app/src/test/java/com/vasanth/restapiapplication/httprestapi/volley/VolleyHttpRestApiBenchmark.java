@@ -0,0 +1,284 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.vasanth.restapiapplication.httprestapi.DeliveryExecutors;
+import com.vasanth.restapiapplication.httprestapi.HttpClientApi;
+import com.vasanth.restapiapplication.httprestapi.HttpClientConfig;
+import com.vasanth.restapiapplication.httprestapi.HttpMethod;
+import com.vasanth.restapiapplication.httprestapi.HttpRetryPolicy;
+import com.vasanth.restapiapplication.httprestapi.RequestOptions;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmarks of the volley HTTP client abstraction, run on plain JVM against {@link MockHttpServer}.
+ * <p>
+ * Skipped unless run with "-Pbenchmark", like "./gradlew testDebugUnitTest -Pbenchmark --tests '*Benchmark'".
+ * Requests go through {@link VolleyHttpRestApiImpl} & {@link VolleySingleton} (lanes, tiered cache, interceptors,
+ * circuit breaker & retries), configured with a temporary cache directory & the immediate delivery executor, since there
+ * is no main looper on plain JVM. Typed calls are used, so identical GET requests aren't coalesced & each of them is
+ * measured.
+ */
+public class VolleyHttpRestApiBenchmark {
+
+    // System property set by gradle when run with "-Pbenchmark".
+    private static final String PROPERTY_BENCHMARK = "benchmark";
+
+    private static final int THREAD_POOL_SIZE = 4;
+    private static final int CONCURRENCY = 8;
+    private static final int JSON_BODY_SIZE = 8 * 1024;
+    private static final int WARMUP_REQUESTS = 2000;
+    private static final int MEASURED_REQUESTS = 10000;
+    private static final String POST_BODY = "{\"title\":\"foo\",\"body\":\"bar\",\"userId\":1}";
+
+    private static MockHttpServer mServer;
+    private static File mCacheDirectory;
+    private static VolleyHttpRestApiImpl mHttpClientApi;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        assumeTrue(Boolean.getBoolean(PROPERTY_BENCHMARK));
+
+        mServer = new MockHttpServer(JSON_BODY_SIZE);
+        mCacheDirectory = File.createTempFile("volley-benchmark", "");
+        assertTrue(mCacheDirectory.delete() && mCacheDirectory.mkdirs());
+        HttpClientConfig config = new HttpClientConfig.Builder()
+                .setThreadPoolSize(THREAD_POOL_SIZE)
+                .setCacheDirectory(mCacheDirectory)
+                // Delivers on the dispatcher thread, there is no main looper on plain JVM.
+                .setDeliveryExecutor(DeliveryExecutors.immediate())
+                .build();
+        mHttpClientApi = VolleyHttpRestApiImpl.getInstance(null, config);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (mServer != null) {
+            mServer.shutdown();
+        }
+        if (mCacheDirectory != null) {
+            File[] files = mCacheDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            mCacheDirectory.delete();
+        }
+    }
+
+    @Test
+    public void getRequest_network() throws Exception {
+        final String url = mServer.getUrl("/todos");
+        report(Benchmark.runAsync("get-network", CONCURRENCY, WARMUP_REQUESTS, MEASURED_REQUESTS, new Benchmark.AsyncOperation() {
+            @Override
+            public void start(final int index, final Benchmark.Completion completion) {
+                mHttpClientApi.getRequest("get", null, url, RequestOptions.DEFAULT, VolleyStringRequest.STRING_DECODER,
+                        new ExpectedResponseListener(completion, true));
+            }
+        }));
+    }
+
+    @Test
+    public void postRequest_network() throws Exception {
+        final String url = mServer.getUrl("/posts");
+        report(Benchmark.runAsync("post-network", CONCURRENCY, WARMUP_REQUESTS, MEASURED_REQUESTS, new Benchmark.AsyncOperation() {
+            @Override
+            public void start(final int index, final Benchmark.Completion completion) {
+                mHttpClientApi.postRequest("post", null, url, POST_BODY, HttpClientApi.BODY_CONTENT_TYPE_JSON, RequestOptions.DEFAULT,
+                        VolleyStringRequest.STRING_DECODER, new ExpectedResponseListener(completion, true));
+            }
+        }));
+    }
+
+    @Test
+    public void getRequest_networkGzip() throws Exception {
+        final String url = mServer.getUrl("/gzip/todos");
+        report(Benchmark.runAsync("get-network-gzip", CONCURRENCY, WARMUP_REQUESTS, MEASURED_REQUESTS, new Benchmark.AsyncOperation() {
+            @Override
+            public void start(final int index, final Benchmark.Completion completion) {
+                mHttpClientApi.getRequest("gzip", null, url, RequestOptions.DEFAULT, VolleyStringRequest.STRING_DECODER,
+                        new ExpectedResponseListener(completion, true) {
+                            @Override
+                            public void onSuccessResponse(final String response) {
+                                completion.complete(response.length() == mServer.getJsonBodySize());
+                            }
+                        });
+            }
+        }));
+    }
+
+    @Test
+    public void postRequest_networkGzip() throws Exception {
+        final String url = mServer.getUrl("/gzip/posts");
+        final RequestOptions options = new RequestOptions.Builder().setRequestCompressionThreshold(0).build();
+        report(Benchmark.runAsync("post-network-gzip", CONCURRENCY, WARMUP_REQUESTS, MEASURED_REQUESTS, new Benchmark.AsyncOperation() {
+            @Override
+            public void start(final int index, final Benchmark.Completion completion) {
+                mHttpClientApi.postRequest("post-gzip", null, url, POST_BODY, HttpClientApi.BODY_CONTENT_TYPE_JSON, options,
+                        VolleyStringRequest.STRING_DECODER, new ExpectedResponseListener(completion, true) {
+                            @Override
+                            public void onSuccessResponse(final String response) {
+                                completion.complete(response.equals("{\"received\":" + POST_BODY.length() + "}"));
+                            }
+                        });
+            }
+        }));
+    }
+
+    @Test
+    public void getRequest_cacheHit() throws Exception {
+        final String url = mServer.getUrl("/cache/todos");
+        final RequestOptions options = RequestOptions.withShouldCache(true);
+        // Populates the cache.
+        final CountDownLatch latch = new CountDownLatch(1);
+        mHttpClientApi.getRequest("cache", null, url, options, VolleyStringRequest.STRING_DECODER,
+                new ExpectedResponseListener(new Benchmark.Completion() {
+                    @Override
+                    public void complete(final boolean asExpected) {
+                        latch.countDown();
+                    }
+                }, true));
+        long initialHitCount = mHttpClientApi.getMemoryCacheStats().getHitCount();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        report(Benchmark.runAsync("get-cache-hit", CONCURRENCY, WARMUP_REQUESTS, MEASURED_REQUESTS, new Benchmark.AsyncOperation() {
+            @Override
+            public void start(final int index, final Benchmark.Completion completion) {
+                mHttpClientApi.getRequest("cache", null, url, options, VolleyStringRequest.STRING_DECODER,
+                        new ExpectedResponseListener(completion, true));
+            }
+        }));
+        assertTrue(mHttpClientApi.getMemoryCacheStats().getHitCount() - initialHitCount >= MEASURED_REQUESTS);
+    }
+
+    @Test
+    public void getRequest_serverError() throws Exception {
+        final String url = mServer.getUrl("/status/500");
+        // Retries are scheduled on the main looper, which doesn't run on plain JVM.
+        final RequestOptions options = new RequestOptions.Builder()
+                .setRetryPolicy(new HttpRetryPolicy.Builder().setMaxRetries(0).build())
+                .build();
+        report(Benchmark.runAsync("get-server-error", CONCURRENCY, WARMUP_REQUESTS, MEASURED_REQUESTS, new Benchmark.AsyncOperation() {
+            @Override
+            public void start(final int index, final Benchmark.Completion completion) {
+                mHttpClientApi.getRequest("error", null, url, options, VolleyStringRequest.STRING_DECODER,
+                        new ExpectedResponseListener(completion, false));
+            }
+        }));
+    }
+
+    @Test
+    public void parseNetworkResponse() throws Exception {
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("Content-Type", "application/json; charset=UTF-8");
+        headers.put("Cache-Control", "max-age=3600");
+        final NetworkResponse response = new NetworkResponse(200, new byte[JSON_BODY_SIZE], headers, false, 0);
+        final VolleyStringRequest request = new VolleyStringRequest("parse", HttpMethod.GET, null, mServer.getUrl("/todos"),
+                RequestOptions.DEFAULT, null);
+        report(Benchmark.run("parse-string-8kb", 100000, 200000, 1, new Benchmark.Operation() {
+            @Override
+            public void run(final int index) throws Exception {
+                if (!request.parseNetworkResponse(response).isSuccess()) {
+                    throw new IllegalStateException("Parse failed");
+                }
+            }
+        }));
+    }
+
+    @Test
+    public void getErrorCode() throws Exception {
+        final VolleyError[] errors = new VolleyError[]{
+                new NetworkError(new IOException()),
+                new TimeoutError(),
+                new ParseError(new IllegalStateException()),
+                new ServerError(new NetworkResponse(503, new byte[0], Collections.<String, String>emptyMap(), false, 0)),
+                new AuthFailureError(new NetworkResponse(401, new byte[0], Collections.<String, String>emptyMap(), false, 0)),
+                new VolleyError()
+        };
+        final int[] expectedCodes = new int[]{
+                HttpClientApi.HttpResponseListener.ERROR_CODE_NETWORK_ERROR,
+                HttpClientApi.HttpResponseListener.ERROR_CODE_TIME_OUT_ERROR,
+                HttpClientApi.HttpResponseListener.ERROR_CODE_PARSE_ERROR,
+                503,
+                401,
+                HttpClientApi.HttpResponseListener.ERROR_CODE_UNKNOWN_ERROR
+        };
+        for (int index = 0; index < errors.length; index++) {
+            assertEquals(expectedCodes[index], VolleyRequest.getErrorCode(errors[index]));
+        }
+
+        final int[] sink = new int[1];
+        report(Benchmark.run("error-code-mapping", 10000, 100000, errors.length, new Benchmark.Operation() {
+            @Override
+            public void run(final int index) throws Exception {
+                for (VolleyError error : errors) {
+                    sink[0] += VolleyRequest.getErrorCode(error);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Used to print the result & fail the benchmark if any request didn't complete as expected.
+     *
+     * @param result Result.
+     */
+    private static void report(final Benchmark.Result result) {
+        System.out.println(result);
+        assertEquals(0, result.getErrors());
+    }
+
+    /**
+     * Expected Response Listener.
+     * <p>
+     * 1. Responsibility.
+     * 1.a. Completes the benchmark operation, as expected if the request succeeded OR failed as expected.
+     */
+    private static class ExpectedResponseListener implements HttpClientApi.TypedResponseListener<String> {
+
+        private final Benchmark.Completion mCompletion;
+        private final boolean mExpectSuccess;
+
+        /**
+         * Constructor.
+         *
+         * @param completion    Completion of the benchmark operation.
+         * @param expectSuccess True if the request is expected to succeed.
+         */
+        ExpectedResponseListener(final Benchmark.Completion completion, final boolean expectSuccess) {
+            this.mCompletion = completion;
+            this.mExpectSuccess = expectSuccess;
+        }
+
+        @Override
+        public void onSuccessResponse(final String response) {
+            mCompletion.complete(mExpectSuccess);
+        }
+
+        @Override
+        public void onErrorResponse(final int errorCode) {
+            mCompletion.complete(!mExpectSuccess);
+        }
+    }
+}
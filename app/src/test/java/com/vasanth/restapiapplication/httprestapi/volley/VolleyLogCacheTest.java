@@ -0,0 +1,272 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link VolleyLogCache} tombstones, compaction, eviction & recovery, each checked again after restart.
+ */
+public class VolleyLogCacheTest {
+
+    private static final String KEY_PREFIX = "https://api.example.com/todos/";
+
+    // Small cache, segments of 64 KB, compacted once the segments take more than 384 KB.
+    private static final long MAX_SIZE_BYTES = 256 * 1024;
+    private static final int BODY_BYTES = 10 * 1024;
+
+    private File mDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        mDirectory = File.createTempFile("volley-log-cache-test", "");
+        assertTrue(mDirectory.delete() && mDirectory.mkdirs());
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+    }
+
+    @Test
+    public void put_entrySurvivesRestart() {
+        VolleyLogCache cache = create();
+        Cache.Entry entry = createEntry(1, 1);
+        entry.etag = "\"1\"";
+        entry.responseHeaders = Collections.singletonMap("Content-Type", "application/json");
+        cache.put(key(1), entry);
+
+        Cache.Entry restored = create().get(key(1));
+        assertNotNull(restored);
+        assertArrayEquals(entry.data, restored.data);
+        assertEquals("\"1\"", restored.etag);
+        assertEquals(entry.ttl, restored.ttl);
+        assertEquals(entry.softTtl, restored.softTtl);
+        assertEquals("application/json", restored.responseHeaders.get("Content-Type"));
+    }
+
+    @Test
+    public void put_newestRecordWinsAfterRestart() {
+        VolleyLogCache cache = create();
+        cache.put(key(1), createEntry(1, 1));
+        cache.put(key(1), createEntry(1, 2));
+
+        VolleyLogCache restarted = create();
+        assertEquals(1, restarted.size());
+        assertArrayEquals(createEntry(1, 2).data, restarted.get(key(1)).data);
+    }
+
+    @Test
+    public void remove_tombstoneKeepsTheEntryRemovedAfterRestart() {
+        VolleyLogCache cache = create();
+        cache.put(key(1), createEntry(1, 1));
+        cache.put(key(2), createEntry(2, 1));
+        long diskBytes = cache.getDiskBytes();
+
+        cache.remove(key(1));
+        assertNull(cache.get(key(1)));
+        // Tombstone is appended, the put record stays on disk until compacted.
+        assertTrue(cache.getDiskBytes() > diskBytes);
+        // Removing a missing key appends nothing.
+        long tombstoneBytes = cache.getDiskBytes();
+        cache.remove(key(3));
+        assertEquals(tombstoneBytes, cache.getDiskBytes());
+
+        VolleyLogCache restarted = create();
+        assertNull(restarted.get(key(1)));
+        assertNotNull(restarted.get(key(2)));
+        assertEquals(1, restarted.size());
+    }
+
+    @Test
+    public void remove_putAfterTheTombstoneIsLive() {
+        VolleyLogCache cache = create();
+        cache.put(key(1), createEntry(1, 1));
+        cache.remove(key(1));
+        cache.put(key(1), createEntry(1, 2));
+
+        assertArrayEquals(createEntry(1, 2).data, create().get(key(1)).data);
+    }
+
+    @Test
+    public void compaction_boundsTheSegmentsAndKeepsTheLiveEntries() {
+        VolleyLogCache cache = create();
+        // Same few keys replaced over & over, live entries stay small while the log grows.
+        for (int version = 0; version < 100; version++) {
+            for (int index = 0; index < 4; index++) {
+                cache.put(key(index), createEntry(index, version));
+            }
+            assertTrue(cache.getDiskBytes() <= MAX_SIZE_BYTES * 1.5);
+        }
+        assertEquals(getSegmentFileBytes(), cache.getDiskBytes());
+        // Oldest segments were compacted & deleted.
+        assertFalse(new File(mDirectory, "segment-0.log").exists());
+
+        VolleyLogCache restarted = create();
+        assertEquals(4, restarted.size());
+        for (int index = 0; index < 4; index++) {
+            assertArrayEquals(createEntry(index, 99).data, restarted.get(key(index)).data);
+        }
+    }
+
+    @Test
+    public void compaction_keepsRemovedEntriesRemoved() {
+        VolleyLogCache cache = create();
+        // Removed entries have their put record & tombstone in the oldest segments.
+        for (int index = 0; index < 4; index++) {
+            cache.put(key(index), createEntry(index, 0));
+        }
+        cache.remove(key(0));
+        cache.remove(key(1));
+        for (int version = 1; version < 100; version++) {
+            cache.put(key(2), createEntry(2, version));
+        }
+        assertFalse(new File(mDirectory, "segment-0.log").exists());
+
+        VolleyLogCache restarted = create();
+        assertNull(restarted.get(key(0)));
+        assertNull(restarted.get(key(1)));
+        // Copied to a newer segment by the compaction.
+        assertArrayEquals(createEntry(3, 0).data, restarted.get(key(3)).data);
+        assertArrayEquals(createEntry(2, 99).data, restarted.get(key(2)).data);
+        assertEquals(2, restarted.size());
+    }
+
+    @Test
+    public void eviction_removesTheLeastRecentlyUsedEntriesForGood() {
+        VolleyLogCache cache = create();
+        for (int index = 0; index < 20; index++) {
+            cache.put(key(index), createEntry(index, 0));
+        }
+        // Used recently, kept over the older entries.
+        assertNotNull(cache.get(key(0)));
+        for (int index = 20; index < 30; index++) {
+            cache.put(key(index), createEntry(index, 0));
+        }
+        assertNotNull(cache.get(key(0)));
+        assertNull(cache.get(key(1)));
+        assertNotNull(cache.get(key(29)));
+        int size = cache.size();
+        assertTrue(size * (long) BODY_BYTES <= MAX_SIZE_BYTES);
+
+        // Evicted entries have tombstones, they don't come back after restart.
+        VolleyLogCache restarted = create();
+        assertEquals(size, restarted.size());
+        assertNull(restarted.get(key(1)));
+        assertNotNull(restarted.get(key(0)));
+    }
+
+    @Test
+    public void tornRecord_isTruncatedOnLoad() throws IOException {
+        VolleyLogCache cache = create();
+        cache.put(key(1), createEntry(1, 1));
+        cache.put(key(2), createEntry(2, 1));
+        File segmentFile = new File(mDirectory, "segment-0.log");
+        long validLength = segmentFile.length();
+
+        // Record cut short while being written.
+        RandomAccessFile file = new RandomAccessFile(segmentFile, "rw");
+        try {
+            file.seek(validLength);
+            file.writeInt(0x56434c50);
+            file.writeInt(BODY_BYTES);
+            file.write(new byte[100]);
+        } finally {
+            file.close();
+        }
+
+        VolleyLogCache restarted = create();
+        assertEquals(2, restarted.size());
+        assertEquals(validLength, segmentFile.length());
+        restarted.put(key(3), createEntry(3, 1));
+
+        VolleyLogCache again = create();
+        assertEquals(3, again.size());
+        assertArrayEquals(createEntry(3, 1).data, again.get(key(3)).data);
+    }
+
+    @Test
+    public void clear_deletesTheSegments() {
+        VolleyLogCache cache = create();
+        cache.put(key(1), createEntry(1, 1));
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, getSegmentFileBytes());
+        assertEquals(0, create().size());
+    }
+
+    /**
+     * Used to create the cache over the test directory, a new instance acts as a restart.
+     *
+     * @return Initialized cache.
+     */
+    private VolleyLogCache create() {
+        VolleyLogCache cache = new VolleyLogCache(mDirectory, MAX_SIZE_BYTES);
+        cache.initialize();
+        return cache;
+    }
+
+    /**
+     * Used to get the total size of the segment files.
+     *
+     * @return Size in bytes.
+     */
+    private long getSegmentFileBytes() {
+        long bytes = 0;
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                bytes += file.length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Used to get the key of the entry.
+     *
+     * @param index Index of the entry.
+     * @return Key.
+     */
+    private static String key(final int index) {
+        return KEY_PREFIX + index;
+    }
+
+    /**
+     * Used to create the entry, body is filled from the index & version so every version differs.
+     *
+     * @param index   Index of the entry.
+     * @param version Version of the entry.
+     * @return Entry.
+     */
+    private static Cache.Entry createEntry(final int index, final int version) {
+        Cache.Entry entry = new Cache.Entry();
+        entry.data = new byte[BODY_BYTES];
+        Arrays.fill(entry.data, (byte) (index * 31 + version));
+        entry.ttl = 1000L * (index + 1);
+        entry.softTtl = 500L * (index + 1);
+        entry.responseHeaders = Collections.emptyMap();
+        return entry;
+    }
+}
@@ -0,0 +1,131 @@
+package com.vasanth.restapiapplication.httprestapi.volley;
+
+import com.android.volley.Cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests of {@link VolleyTieredCache} prefix invalidation over both the disk cache storages.
+ */
+public class VolleyTieredCacheTest {
+
+    private static final String ITEMS_URL = "https://api.example.com/items";
+
+    private static final long MAX_SIZE_BYTES = 256 * 1024;
+
+    private File mDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        mDirectory = File.createTempFile("volley-tiered-cache-test", "");
+        assertTrue(mDirectory.delete() && mDirectory.mkdirs());
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+    }
+
+    @Test
+    public void invalidate_removesEntriesOfEarlierProcessFromLogCache() {
+        populate(new VolleyLogCache(mDirectory, MAX_SIZE_BYTES));
+        assertInvalidated(new VolleyTieredCache(new VolleyLogCache(mDirectory, MAX_SIZE_BYTES), MAX_SIZE_BYTES));
+    }
+
+    @Test
+    public void invalidate_removesEntriesOfEarlierProcessFromDiskBasedCache() {
+        populate(new VolleyDiskBasedCache(mDirectory, (int) MAX_SIZE_BYTES));
+        assertInvalidated(new VolleyTieredCache(new VolleyDiskBasedCache(mDirectory, (int) MAX_SIZE_BYTES), MAX_SIZE_BYTES));
+    }
+
+    @Test
+    public void invalidateMemory_removesMatchingMemoryEntriesRightAway() {
+        VolleyTieredCache cache = new VolleyTieredCache(new VolleyLogCache(mDirectory, MAX_SIZE_BYTES), MAX_SIZE_BYTES);
+        cache.initialize();
+        cache.put(ITEMS_URL + "/1", createEntry());
+        cache.put(ITEMS_URL + "/10", createEntry());
+        assertEquals(2, cache.getStats().getEntryCount());
+
+        cache.invalidateMemory(ITEMS_URL + "/1");
+        assertEquals(1, cache.getStats().getEntryCount());
+    }
+
+    @Test
+    public void getKeys_listsTheKeysOfDiskBasedCache() {
+        VolleyDiskBasedCache diskCache = new VolleyDiskBasedCache(mDirectory, (int) MAX_SIZE_BYTES);
+        populate(diskCache);
+        // Not an entry file.
+        assertTrue(new File(mDirectory, "unrelated").mkdirs());
+
+        VolleyDiskBasedCache restarted = new VolleyDiskBasedCache(mDirectory, (int) MAX_SIZE_BYTES);
+        assertEquals(new HashSet<String>(Arrays.asList(ITEMS_URL, ITEMS_URL + "/1", ITEMS_URL + "/1/comments",
+                ITEMS_URL + "/1?expand=owner", ITEMS_URL + "/10", "https://api.example.com/itemsets")),
+                new HashSet<String>(restarted.getKeys()));
+    }
+
+    /**
+     * Used to store the entries, like an earlier process of the app did.
+     *
+     * @param diskCache Disk cache.
+     */
+    private static void populate(final Cache diskCache) {
+        diskCache.initialize();
+        for (String key : Arrays.asList(ITEMS_URL, ITEMS_URL + "/1", ITEMS_URL + "/1/comments", ITEMS_URL + "/1?expand=owner",
+                ITEMS_URL + "/10", "https://api.example.com/itemsets")) {
+            diskCache.put(key, createEntry());
+        }
+    }
+
+    /**
+     * Used to invalidate "/items/1" the way the client does & check only it & the urls below it are removed.
+     *
+     * @param cache Cache over the disk cache populated by {@link #populate(Cache)}.
+     */
+    private static void assertInvalidated(final VolleyTieredCache cache) {
+        cache.initialize();
+        // Sibling read into memory before the invalidation.
+        assertNotNull(cache.get(ITEMS_URL + "/10"));
+
+        cache.invalidateMemory(ITEMS_URL + "/1");
+        cache.removeFromDisk(ITEMS_URL + "/1");
+        assertNull(cache.get(ITEMS_URL + "/1"));
+        assertNull(cache.get(ITEMS_URL + "/1/comments"));
+        assertNull(cache.get(ITEMS_URL + "/1?expand=owner"));
+        assertNotNull(cache.get(ITEMS_URL + "/10"));
+        assertNotNull(cache.get(ITEMS_URL));
+        assertNotNull(cache.get("https://api.example.com/itemsets"));
+    }
+
+    /**
+     * Used to create the entry.
+     *
+     * @return Entry.
+     */
+    private static Cache.Entry createEntry() {
+        Cache.Entry entry = new Cache.Entry();
+        entry.data = new byte[100];
+        entry.ttl = Long.MAX_VALUE;
+        entry.softTtl = Long.MAX_VALUE;
+        entry.responseHeaders = Collections.emptyMap();
+        return entry;
+    }
+}